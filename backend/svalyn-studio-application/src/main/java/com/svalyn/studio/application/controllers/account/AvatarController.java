@@ -19,56 +19,52 @@
 
 package com.svalyn.studio.application.controllers.account;
 
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ClassPathResource;
+import com.svalyn.studio.application.controllers.account.dto.AvatarDTO;
+import com.svalyn.studio.application.services.account.api.IAvatarService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
 
 /**
  * Controller used to retrieve avatar image.
  *
+ * <p>
+ * Responses carry an ETag computed from the content of the image so that browsers can revalidate their copy and
+ * receive a 304 without any content as long as the avatar has not changed.
+ * </p>
+ *
  * @author sbegaudeau
  */
 @Controller
 public class AvatarController {
 
-    private final IAccountRepository accountRepository;
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
 
-    private final Logger logger = LoggerFactory.getLogger(AvatarController.class);
+    private final IAvatarService avatarService;
 
-    public AvatarController(IAccountRepository accountRepository) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public AvatarController(IAvatarService avatarService) {
+        this.avatarService = Objects.requireNonNull(avatarService);
     }
 
     @GetMapping(value = "/api/avatars/{username}")
-    public ResponseEntity<byte[]> getAvatar(@PathVariable String username) {
-        return this.accountRepository.findByUsername(username)
-                .filter(account -> account.getImage() != null && account.getImageContentType() != null)
-                .map(account -> ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_TYPE, account.getImageContentType())
-                        .body(account.getImage()))
-                .orElse(this.defaultAvatar());
+    public ResponseEntity<byte[]> getAvatar(@PathVariable String username, @RequestParam(required = false) Integer size) {
+        var avatar = this.avatarService.findByUsername(username, size)
+                .orElseGet(() -> this.avatarService.defaultAvatar(size));
+        return this.toResponse(avatar);
     }
 
-    public ResponseEntity<byte[]> defaultAvatar() {
-        byte[] content = new byte[] {};
-        var avatar = new ClassPathResource("images/avatar.png");
-        try {
-            content = avatar.getContentAsByteArray();
-        } catch (IOException exception) {
-            logger.warn(exception.getMessage(), exception);
-        }
-
+    private ResponseEntity<byte[]> toResponse(AvatarDTO avatar) {
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, "image/png")
-                .body(content);
+                .header(HttpHeaders.CONTENT_TYPE, avatar.contentType())
+                .eTag(avatar.etag())
+                .cacheControl(CACHE_CONTROL)
+                .body(avatar.content());
     }
 }
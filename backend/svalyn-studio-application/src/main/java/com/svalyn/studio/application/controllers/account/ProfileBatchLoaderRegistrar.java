@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.controllers.account;
+
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
+import com.svalyn.studio.application.services.account.api.IAccountService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Used to register the data loader used by the controllers to resolve the profiles referenced by their DTOs.
+ *
+ * <p>
+ * This way, all the profiles needed at a given level of a GraphQL operation are retrieved with a single query.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Component
+public class ProfileBatchLoaderRegistrar {
+
+    private final IAccountService accountService;
+
+    private final BatchLoaderRegistry batchLoaderRegistry;
+
+    public ProfileBatchLoaderRegistrar(IAccountService accountService, BatchLoaderRegistry batchLoaderRegistry) {
+        this.accountService = Objects.requireNonNull(accountService);
+        this.batchLoaderRegistry = Objects.requireNonNull(batchLoaderRegistry);
+    }
+
+    @PostConstruct
+    public void registerBatchLoaders() {
+        this.batchLoaderRegistry.forTypePair(UUID.class, ProfileDTO.class)
+                .registerMappedBatchLoader((ids, environment) -> Mono.fromCallable(() -> this.accountService.findProfilesByIds(ids)));
+    }
+}
@@ -20,23 +20,24 @@
 package com.svalyn.studio.application.controllers.activity;
 
 import com.svalyn.studio.application.controllers.activity.dto.ActivityEntryDTO;
-import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.Connections;
 import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.project.dto.ProjectDTO;
 import com.svalyn.studio.application.controllers.viewer.Viewer;
 import com.svalyn.studio.application.services.activity.api.IActivityService;
 import graphql.relay.Connection;
-import graphql.relay.DefaultConnection;
-import graphql.relay.DefaultConnectionCursor;
-import graphql.relay.DefaultEdge;
-import graphql.relay.Edge;
-import graphql.relay.Relay;
+import org.dataloader.DataLoader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate the activity.
@@ -46,6 +47,8 @@ import java.util.Objects;
 @Controller
 public class ActivityEntryController {
 
+    private static final String TYPENAME = "ActivityEntry";
+
     private final IActivityService activityService;
 
     public ActivityEntryController(IActivityService activityService) {
@@ -53,54 +56,65 @@ public class ActivityEntryController {
     }
 
     @SchemaMapping(typeName = "Profile")
-    public Connection<ActivityEntryDTO> activityEntries(ProfileDTO profile, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.activityService.findAllByUsername(profile.username(), page, rowsPerPage);
-        var edges = pageData.stream().map(activityEntry -> {
-            var value = new Relay().toGlobalId("ActivityEntry", activityEntry.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            Edge<ActivityEntryDTO> edge = new DefaultEdge<>(activityEntry, cursor);
-            return edge;
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Connection<ActivityEntryDTO> activityEntries(ProfileDTO profile, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        if (Connections.isKeysetPagination(page, rowsPerPage, first)) {
+            var afterId = Connections.fromIdCursor(after, TYPENAME).orElse(null);
+            var window = this.activityService.findAllByUsername(profile.username(), afterId, first);
+            var hasPreviousPage = afterId != null && this.activityService.existsByUsernameBefore(profile.username(), afterId);
+            return this.toConnection(window, hasPreviousPage, this.activityService.countAllByUsername(profile.username()));
+        }
+        return this.toConnection(this.activityService.findAllByUsername(profile.username(), page, rowsPerPage));
     }
 
     @SchemaMapping(typeName = "Organization")
-    public Connection<ActivityEntryDTO> activityEntries(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.activityService.findAllByOrganizationId(organization.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(activityEntry -> {
-            var value = new Relay().toGlobalId("ActivityEntry", activityEntry.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            Edge<ActivityEntryDTO> edge = new DefaultEdge<>(activityEntry, cursor);
-            return edge;
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<ActivityEntryDTO>> activityEntries(OrganizationDTO organization, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        var keysetPagination = Connections.isKeysetPagination(page, rowsPerPage, first);
+        return () -> {
+            if (keysetPagination) {
+                var afterId = Connections.fromIdCursor(after, TYPENAME).orElse(null);
+                var window = this.activityService.findAllByOrganizationId(organization.id(), afterId, first);
+                var hasPreviousPage = afterId != null && this.activityService.existsByOrganizationIdBefore(organization.id(), afterId);
+                return this.toConnection(window, hasPreviousPage, this.activityService.countAllByOrganizationId(organization.id()));
+            }
+            return this.toConnection(this.activityService.findAllByOrganizationId(organization.id(), page, rowsPerPage));
+        };
     }
 
     @SchemaMapping(typeName = "Project")
-    public Connection<ActivityEntryDTO> activityEntries(ProjectDTO project, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.activityService.findAllByProjectId(project.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(activityEntry -> {
-            var value = new Relay().toGlobalId("ActivityEntry", activityEntry.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            Edge<ActivityEntryDTO> edge = new DefaultEdge<>(activityEntry, cursor);
-            return edge;
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<ActivityEntryDTO>> activityEntries(ProjectDTO project, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        var keysetPagination = Connections.isKeysetPagination(page, rowsPerPage, first);
+        return () -> {
+            if (keysetPagination) {
+                var afterId = Connections.fromIdCursor(after, TYPENAME).orElse(null);
+                var window = this.activityService.findAllByProjectId(project.id(), afterId, first);
+                var hasPreviousPage = afterId != null && this.activityService.existsByProjectIdBefore(project.id(), afterId);
+                return this.toConnection(window, hasPreviousPage, this.activityService.countAllByProjectId(project.id()));
+            }
+            return this.toConnection(this.activityService.findAllByProjectId(project.id(), page, rowsPerPage));
+        };
     }
 
     @SchemaMapping(typeName = "Viewer")
-    public Connection<ActivityEntryDTO> activityEntries(Viewer viewer, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.activityService.findAllVisibleByUsername(viewer.username(), page, rowsPerPage);
-        var edges = pageData.stream().map(activityEntry -> {
-            var value = new Relay().toGlobalId("ActivityEntry", activityEntry.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            Edge<ActivityEntryDTO> edge = new DefaultEdge<>(activityEntry, cursor);
-            return edge;
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Connection<ActivityEntryDTO> activityEntries(Viewer viewer, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        if (Connections.isKeysetPagination(page, rowsPerPage, first)) {
+            var afterId = Connections.fromIdCursor(after, TYPENAME).orElse(null);
+            var window = this.activityService.findAllVisibleByUsername(viewer.username(), afterId, first);
+            var hasPreviousPage = afterId != null && this.activityService.existsVisibleByUsernameBefore(viewer.username(), afterId);
+            return this.toConnection(window, hasPreviousPage, this.activityService.countAllByUsername(viewer.username()));
+        }
+        return this.toConnection(this.activityService.findAllVisibleByUsername(viewer.username(), page, rowsPerPage));
+    }
+
+    @SchemaMapping(typeName = "ActivityEntry")
+    public CompletableFuture<ProfileDTO> createdBy(ActivityEntryDTO activityEntry, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(activityEntry.createdById());
+    }
+
+    private Connection<ActivityEntryDTO> toConnection(Page<ActivityEntryDTO> pageData) {
+        return Connections.toConnection(pageData.getContent(), TYPENAME, activityEntry -> activityEntry.id().toString(), pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+    }
+
+    private Connection<ActivityEntryDTO> toConnection(Window<ActivityEntryDTO> window, boolean hasPreviousPage, long count) {
+        return Connections.toConnection(window.getContent(), TYPENAME, activityEntry -> activityEntry.id().toString(), hasPreviousPage, window.hasNext(), count);
     }
 }
@@ -19,7 +19,6 @@
 
 package com.svalyn.studio.application.controllers.activity.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.domain.activity.ActivityKind;
 import jakarta.validation.constraints.NotNull;
 
@@ -37,5 +36,5 @@ public record ActivityEntryDTO(
         @NotNull String title,
         @NotNull String description,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy) {
+        @NotNull UUID createdById) {
 }
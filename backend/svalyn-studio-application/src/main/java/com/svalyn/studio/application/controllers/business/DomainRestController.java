@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.controllers.business;
+
+import com.svalyn.studio.application.controllers.business.dto.DomainDTO;
+import com.svalyn.studio.application.services.business.api.IDomainService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Objects;
+
+/**
+ * Used to retrieve the domains over HTTP.
+ *
+ * <p>
+ * Responses carry an ETag computed from the content of the domain. Clients revalidating their copy receive a 304
+ * without any content as long as the domain has not changed. The revalidations are answered from the catalog of the
+ * domains without loading the domain from the database.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Controller
+public class DomainRestController {
+
+    private final IDomainService domainService;
+
+    public DomainRestController(IDomainService domainService) {
+        this.domainService = Objects.requireNonNull(domainService);
+    }
+
+    @GetMapping(value = "/api/domains/{identifier}")
+    public ResponseEntity<DomainDTO> getDomain(@PathVariable String identifier, WebRequest webRequest) {
+        var optionalVersion = this.domainService.findVersion(identifier);
+
+        // Only the domains of the catalog have a version, the unknown ones are never revalidated
+        ResponseEntity<DomainDTO> response = null;
+        if (optionalVersion.isEmpty()) {
+            response = ResponseEntity.notFound().build();
+        } else {
+            var etag = "\"" + optionalVersion.get() + "\"";
+            if (!webRequest.checkNotModified(etag)) {
+                response = this.domainService.findByIdentifier(identifier)
+                        .map(domain -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(domain))
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.controllers.dto;
+
+import graphql.relay.Connection;
+import graphql.relay.ConnectionCursor;
+import graphql.relay.DefaultConnection;
+import graphql.relay.DefaultConnectionCursor;
+import graphql.relay.DefaultEdge;
+import graphql.relay.Edge;
+import graphql.relay.Relay;
+import jakarta.validation.ValidationException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Used to build relay connections whose cursors are the global identifiers of their nodes.
+ *
+ * @author sbegaudeau
+ */
+public final class Connections {
+
+    private Connections() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Indicates whether a connection is requested with a keyset pagination (first and after) instead of an offset
+     * pagination (page and rowsPerPage).
+     *
+     * @throws ValidationException if neither of them is complete or if some values are out of bounds
+     */
+    public static boolean isKeysetPagination(Integer page, Integer rowsPerPage, Integer first) {
+        if (first != null && first <= 0) {
+            throw new ValidationException("The number of requested nodes must be positive");
+        }
+        if (first == null && (page == null || rowsPerPage == null)) {
+            throw new ValidationException("Either first or both page and rowsPerPage are required");
+        }
+        if (first == null && (page < 0 || rowsPerPage <= 0)) {
+            throw new ValidationException("The page cannot be negative and it must contain at least one row");
+        }
+        return first != null;
+    }
+
+    /**
+     * Returns the identifier of the node referenced by the given cursor.
+     *
+     * @throws ValidationException if the cursor is malformed or if it references a node of another type
+     */
+    public static Optional<String> fromCursor(String cursor, String typename) {
+        return Optional.ofNullable(cursor).map(value -> {
+            Relay.ResolvedGlobalId globalId;
+            try {
+                globalId = new Relay().fromGlobalId(value);
+            } catch (IllegalArgumentException exception) {
+                throw new ValidationException("The cursor is malformed", exception);
+            }
+            if (!typename.equals(globalId.getType())) {
+                throw new ValidationException("The cursor does not reference a node of type " + typename);
+            }
+            return globalId.getId();
+        });
+    }
+
+    /**
+     * Returns the UUID of the node referenced by the given cursor.
+     *
+     * @throws ValidationException if the cursor is malformed or if it references a node of another type
+     */
+    public static Optional<UUID> fromIdCursor(String cursor, String typename) {
+        return fromCursor(cursor, typename).map(id -> {
+            try {
+                return UUID.fromString(id);
+            } catch (IllegalArgumentException exception) {
+                throw new ValidationException("The cursor is malformed", exception);
+            }
+        });
+    }
+
+    public static <T> Connection<T> toConnection(List<T> nodes, String typename, Function<T, String> idProvider, boolean hasPreviousPage, boolean hasNextPage, long count) {
+        var relay = new Relay();
+        var edges = nodes.stream().map(node -> {
+            var value = relay.toGlobalId(typename, idProvider.apply(node));
+            var cursor = new DefaultConnectionCursor(value);
+            return (Edge<T>) new DefaultEdge<>(node, cursor);
+        }).toList();
+
+        ConnectionCursor startCursor = null;
+        ConnectionCursor endCursor = null;
+        if (!edges.isEmpty()) {
+            startCursor = edges.get(0).getCursor();
+            endCursor = edges.get(edges.size() - 1).getCursor();
+        }
+        var pageInfo = new PageInfoWithCount(startCursor, endCursor, hasPreviousPage, hasNextPage, count);
+        return new DefaultConnection<>(edges, pageInfo);
+    }
+}
@@ -20,6 +20,7 @@
 package com.svalyn.studio.application.controllers.history;
 
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.BranchDTO;
 import com.svalyn.studio.application.controllers.project.dto.ProjectDTO;
 import com.svalyn.studio.application.services.history.api.IBranchService;
@@ -29,11 +30,15 @@ import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate branches.
@@ -50,20 +55,32 @@ public class BranchController {
     }
 
     @SchemaMapping(typeName = "Project")
-    public Connection<BranchDTO> branches(ProjectDTO project, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.branchService.findAllByProjectId(project.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(branch -> {
-            var value = new Relay().toGlobalId("Branch", branch.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            Edge<BranchDTO> edge = new DefaultEdge<>(branch, cursor);
-            return edge;
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<BranchDTO>> branches(ProjectDTO project, @Argument int page, @Argument int rowsPerPage) {
+        return () -> {
+            var pageData = this.branchService.findAllByProjectId(project.id(), page, rowsPerPage);
+            var edges = pageData.stream().map(branch -> {
+                var value = new Relay().toGlobalId("Branch", branch.id().toString());
+                var cursor = new DefaultConnectionCursor(value);
+                Edge<BranchDTO> edge = new DefaultEdge<>(branch, cursor);
+                return edge;
+            }).toList();
+            var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+            return new DefaultConnection<>(edges, pageInfo);
+        };
     }
 
     @SchemaMapping(typeName = "Project")
     public BranchDTO branch(ProjectDTO project, @Argument String name) {
         return this.branchService.findByProjectIdAndName(project.id(), name).orElse(null);
     }
+
+    @SchemaMapping(typeName = "Branch")
+    public CompletableFuture<ProfileDTO> createdBy(BranchDTO branch, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(branch.createdById());
+    }
+
+    @SchemaMapping(typeName = "Branch")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(BranchDTO branch, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(branch.lastModifiedById());
+    }
 }
@@ -20,6 +20,7 @@
 package com.svalyn.studio.application.controllers.history;
 
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.BranchDTO;
 import com.svalyn.studio.application.controllers.history.dto.ChangeDTO;
 import com.svalyn.studio.application.controllers.history.dto.ChangeProposalDTO;
@@ -30,6 +31,7 @@ import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
@@ -38,6 +40,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate changes.
@@ -83,4 +86,14 @@ public class ChangeController {
         var pageInfo = new PageInfoWithCount(null, null, false, false, pageData.size());
         return new DefaultConnection<>(edges, pageInfo);
     }
+
+    @SchemaMapping(typeName = "Change")
+    public CompletableFuture<ProfileDTO> createdBy(ChangeDTO change, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(change.createdById());
+    }
+
+    @SchemaMapping(typeName = "Change")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(ChangeDTO change, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(change.lastModifiedById());
+    }
 }
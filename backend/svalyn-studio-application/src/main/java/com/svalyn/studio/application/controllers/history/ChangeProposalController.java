@@ -19,8 +19,10 @@
 
 package com.svalyn.studio.application.controllers.history;
 
+import com.svalyn.studio.application.controllers.dto.Connections;
 import com.svalyn.studio.application.controllers.dto.IPayload;
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.AddResourcesToChangeProposalInput;
 import com.svalyn.studio.application.controllers.history.dto.ChangeProposalDTO;
 import com.svalyn.studio.application.controllers.history.dto.CreateChangeProposalInput;
@@ -40,6 +42,7 @@ import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
 import jakarta.validation.Valid;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
@@ -48,6 +51,8 @@ import org.springframework.stereotype.Controller;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate change proposals.
@@ -64,15 +69,19 @@ public class ChangeProposalController {
     }
 
     @SchemaMapping(typeName = "Project")
-    public Connection<ChangeProposalDTO> changeProposals(ProjectDTO project, @Argument List<ChangeProposalStatus> status, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.changeProposalService.findAllByProjectIdAndStatus(project.id(), status, page, rowsPerPage);
-        var edges = pageData.stream().map(changeProposal -> {
-            var value = new Relay().toGlobalId("ChangeProposal", changeProposal.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<ChangeProposalDTO>) new DefaultEdge<>(changeProposal, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<ChangeProposalDTO>> changeProposals(ProjectDTO project, @Argument List<ChangeProposalStatus> status, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        var keysetPagination = Connections.isKeysetPagination(page, rowsPerPage, first);
+        return () -> {
+            if (keysetPagination) {
+                var afterId = Connections.fromIdCursor(after, "ChangeProposal").orElse(null);
+                var window = this.changeProposalService.findAllByProjectIdAndStatus(project.id(), status, afterId, first);
+                var hasPreviousPage = afterId != null && this.changeProposalService.existsByProjectIdAndStatusBefore(project.id(), status, afterId);
+                var count = this.changeProposalService.countAllByProjectIdAndStatus(project.id(), status);
+                return Connections.toConnection(window.getContent(), "ChangeProposal", changeProposal -> changeProposal.id().toString(), hasPreviousPage, window.hasNext(), count);
+            }
+            var pageData = this.changeProposalService.findAllByProjectIdAndStatus(project.id(), status, page, rowsPerPage);
+            return Connections.toConnection(pageData.getContent(), "ChangeProposal", changeProposal -> changeProposal.id().toString(), pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+        };
     }
 
     @SchemaMapping(typeName = "Viewer")
@@ -126,4 +135,24 @@ public class ChangeProposalController {
     public IPayload deleteChangeProposals(@Argument @Valid DeleteChangeProposalsInput input) {
         return this.changeProposalService.deleteChangeProposals(input);
     }
+
+    @SchemaMapping(typeName = "ChangeProposal")
+    public CompletableFuture<ProfileDTO> createdBy(ChangeProposalDTO changeProposal, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(changeProposal.createdById());
+    }
+
+    @SchemaMapping(typeName = "ChangeProposal")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(ChangeProposalDTO changeProposal, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(changeProposal.lastModifiedById());
+    }
+
+    @SchemaMapping(typeName = "Review")
+    public CompletableFuture<ProfileDTO> createdBy(ReviewDTO review, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(review.createdById());
+    }
+
+    @SchemaMapping(typeName = "Review")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(ReviewDTO review, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(review.lastModifiedById());
+    }
 }
@@ -19,7 +19,6 @@
 
 package com.svalyn.studio.application.controllers.history.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.Instant;
@@ -35,7 +34,7 @@ public record BranchDTO(
         @NotNull String name,
         @NotNull UUID changeId,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
@@ -19,7 +19,6 @@
 
 package com.svalyn.studio.application.controllers.history.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.domain.history.ChangeProposalStatus;
 
 import jakarta.validation.constraints.NotNull;
@@ -39,7 +38,7 @@ public record ChangeProposalDTO(
         @NotNull UUID changeId,
         @NotNull ChangeProposalStatus status,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
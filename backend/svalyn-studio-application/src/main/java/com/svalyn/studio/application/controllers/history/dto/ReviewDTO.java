@@ -19,7 +19,6 @@
 
 package com.svalyn.studio.application.controllers.history.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.domain.history.ReviewStatus;
 
 import jakarta.validation.constraints.NotNull;
@@ -36,7 +35,7 @@ public record ReviewDTO(
         @NotNull String message,
         @NotNull ReviewStatus status,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
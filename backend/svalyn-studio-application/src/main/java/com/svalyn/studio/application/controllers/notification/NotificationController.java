@@ -19,26 +19,27 @@
 
 package com.svalyn.studio.application.controllers.notification;
 
+import com.svalyn.studio.application.controllers.dto.Connections;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.notification.dto.NotificationDTO;
 import com.svalyn.studio.application.controllers.notification.dto.UpdateNotificationsStatusInput;
 import com.svalyn.studio.application.services.notification.api.INotificationService;
 import com.svalyn.studio.domain.notification.NotificationStatus;
 import graphql.relay.Connection;
-import graphql.relay.DefaultConnection;
-import graphql.relay.DefaultConnectionCursor;
-import graphql.relay.DefaultEdge;
-import graphql.relay.Edge;
-import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate notifications.
@@ -59,19 +60,40 @@ public class NotificationController {
     }
 
     @SchemaMapping(typeName = "Viewer")
-    public Connection<NotificationDTO> notifications(@Argument List<NotificationStatus> status, @Argument int page, @Argument int rowsPerPage) {
+    public Connection<NotificationDTO> notifications(@Argument List<NotificationStatus> status, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        if (Connections.isKeysetPagination(page, rowsPerPage, first)) {
+            var afterId = Connections.fromIdCursor(after, "Notification").orElse(null);
+            var window = this.notificationService.findAllByStatus(status, afterId, first);
+            var hasPreviousPage = afterId != null && this.notificationService.existsByStatusBefore(status, afterId);
+            var count = this.notificationService.countByStatus(status);
+            return Connections.toConnection(window.getContent(), "Notification", notification -> notification.id().toString(), hasPreviousPage, window.hasNext(), count);
+        }
         var pageData = this.notificationService.findAllByStatus(status, page, rowsPerPage);
-        var edges = pageData.stream().map(notification -> {
-            var value = new Relay().toGlobalId("Notification", notification.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<NotificationDTO>) new DefaultEdge<>(notification, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+        return Connections.toConnection(pageData.getContent(), "Notification", notification -> notification.id().toString(), pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
     }
 
     @MutationMapping
     public IPayload updateNotificationsStatus(@Argument @Valid UpdateNotificationsStatusInput input) {
         return this.notificationService.updateStatus(input);
     }
+
+    @SubscriptionMapping
+    public Flux<NotificationDTO> notificationAdded() {
+        return this.notificationService.notificationAdded();
+    }
+
+    @SubscriptionMapping
+    public Flux<Long> unreadCountChanged() {
+        return this.notificationService.unreadCountChanged();
+    }
+
+    @SchemaMapping(typeName = "Notification")
+    public CompletableFuture<ProfileDTO> createdBy(NotificationDTO notification, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(notification.createdById());
+    }
+
+    @SchemaMapping(typeName = "Notification")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(NotificationDTO notification, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(notification.lastModifiedById());
+    }
 }
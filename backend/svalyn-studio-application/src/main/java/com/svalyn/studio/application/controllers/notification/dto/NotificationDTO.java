@@ -19,7 +19,6 @@
 
 package com.svalyn.studio.application.controllers.notification.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.domain.notification.NotificationStatus;
 
 import jakarta.validation.constraints.NotNull;
@@ -37,7 +36,7 @@ public record NotificationDTO(
         @NotNull NotificationStatus status,
         @NotNull String relatedUrl,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
@@ -21,6 +21,7 @@ package com.svalyn.studio.application.controllers.organization;
 
 import com.svalyn.studio.application.controllers.dto.IPayload;
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.organization.dto.AcceptInvitationInput;
 import com.svalyn.studio.application.controllers.organization.dto.DeclineInvitationInput;
 import com.svalyn.studio.application.controllers.organization.dto.InvitationDTO;
@@ -34,6 +35,7 @@ import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
@@ -41,6 +43,9 @@ import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate invitations.
@@ -68,15 +73,17 @@ public class InvitationController {
     }
 
     @SchemaMapping(typeName = "Organization")
-    public Connection<InvitationDTO> invitations(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.invitationService.findAll(organization, page, rowsPerPage);
-        var edges = pageData.stream().map(invitation -> {
-            var value = new Relay().toGlobalId("Invitation", invitation.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<InvitationDTO>) new DefaultEdge<>(invitation, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<InvitationDTO>> invitations(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
+        return () -> {
+            var pageData = this.invitationService.findAll(organization, page, rowsPerPage);
+            var edges = pageData.stream().map(invitation -> {
+                var value = new Relay().toGlobalId("Invitation", invitation.id().toString());
+                var cursor = new DefaultConnectionCursor(value);
+                return (Edge<InvitationDTO>) new DefaultEdge<>(invitation, cursor);
+            }).toList();
+            var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+            return new DefaultConnection<>(edges, pageInfo);
+        };
     }
 
     @MutationMapping
@@ -98,4 +105,19 @@ public class InvitationController {
     public IPayload declineInvitation(@Argument @Valid DeclineInvitationInput input) {
         return this.invitationService.declineInvitation(input);
     }
+
+    @SchemaMapping(typeName = "Invitation")
+    public CompletableFuture<ProfileDTO> member(InvitationDTO invitation, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(invitation.memberId());
+    }
+
+    @SchemaMapping(typeName = "Invitation")
+    public CompletableFuture<ProfileDTO> createdBy(InvitationDTO invitation, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(invitation.createdById());
+    }
+
+    @SchemaMapping(typeName = "Invitation")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(InvitationDTO invitation, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(invitation.lastModifiedById());
+    }
 }
@@ -21,6 +21,7 @@ package com.svalyn.studio.application.controllers.organization;
 
 import com.svalyn.studio.application.controllers.dto.IPayload;
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.organization.dto.MembershipDTO;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.organization.dto.RevokeMembershipsInput;
@@ -31,6 +32,7 @@ import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
@@ -38,6 +40,9 @@ import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate memberships.
@@ -54,19 +59,36 @@ public class MembershipController {
     }
 
     @SchemaMapping(typeName = "Organization")
-    public Connection<MembershipDTO> memberships(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.membershipService.findAll(organization, page, rowsPerPage);
-        var edges = pageData.stream().map(membership -> {
-            var value = new Relay().toGlobalId("Membership", membership.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<MembershipDTO>) new DefaultEdge<>(membership, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<MembershipDTO>> memberships(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
+        return () -> {
+            var pageData = this.membershipService.findAll(organization, page, rowsPerPage);
+            var edges = pageData.stream().map(membership -> {
+                var value = new Relay().toGlobalId("Membership", membership.id().toString());
+                var cursor = new DefaultConnectionCursor(value);
+                return (Edge<MembershipDTO>) new DefaultEdge<>(membership, cursor);
+            }).toList();
+            var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+            return new DefaultConnection<>(edges, pageInfo);
+        };
     }
 
     @MutationMapping
     public IPayload revokeMemberships(@Argument @Valid RevokeMembershipsInput input) {
         return this.membershipService.revokeMemberships(input);
     }
+
+    @SchemaMapping(typeName = "Membership")
+    public CompletableFuture<ProfileDTO> member(MembershipDTO membership, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(membership.memberId());
+    }
+
+    @SchemaMapping(typeName = "Membership")
+    public CompletableFuture<ProfileDTO> createdBy(MembershipDTO membership, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(membership.createdById());
+    }
+
+    @SchemaMapping(typeName = "Membership")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(MembershipDTO membership, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(membership.lastModifiedById());
+    }
 }
@@ -20,6 +20,7 @@ package com.svalyn.studio.application.controllers.organization;
 
 import com.svalyn.studio.application.controllers.dto.IPayload;
 import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.organization.dto.CreateOrganizationInput;
 import com.svalyn.studio.application.controllers.organization.dto.DeleteOrganizationInput;
 import com.svalyn.studio.application.controllers.organization.dto.InvitationDTO;
@@ -34,6 +35,7 @@ import graphql.relay.DefaultConnectionCursor;
 import graphql.relay.DefaultEdge;
 import graphql.relay.Edge;
 import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
@@ -41,6 +43,8 @@ import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate organizations.
@@ -101,4 +105,14 @@ public class OrganizationController {
     public IPayload deleteOrganization(@Argument @Valid DeleteOrganizationInput input) {
         return this.organizationService.deleteOrganization(input);
     }
+
+    @SchemaMapping(typeName = "Organization")
+    public CompletableFuture<ProfileDTO> createdBy(OrganizationDTO organization, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(organization.createdById());
+    }
+
+    @SchemaMapping(typeName = "Organization")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(OrganizationDTO organization, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(organization.lastModifiedById());
+    }
 }
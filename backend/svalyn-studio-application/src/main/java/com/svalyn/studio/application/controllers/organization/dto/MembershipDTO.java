@@ -19,8 +19,6 @@
 
 package com.svalyn.studio.application.controllers.organization.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
-
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.UUID;
@@ -32,9 +30,9 @@ import java.util.UUID;
  */
 public record MembershipDTO(
         @NotNull UUID id,
-        @NotNull ProfileDTO member,
+        @NotNull UUID memberId,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
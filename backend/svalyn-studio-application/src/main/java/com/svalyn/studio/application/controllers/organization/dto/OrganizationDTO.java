@@ -18,7 +18,6 @@
  */
 package com.svalyn.studio.application.controllers.organization.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.domain.organization.MembershipRole;
 
 import jakarta.validation.constraints.NotNull;
@@ -36,7 +35,7 @@ public record OrganizationDTO(
         @NotNull String name,
         @NotNull MembershipRole role,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
@@ -19,9 +19,10 @@
 
 package com.svalyn.studio.application.controllers.project;
 
+import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.ChangeProposalDTO;
+import com.svalyn.studio.application.controllers.dto.Connections;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.PageInfoWithCount;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.project.dto.CreateProjectInput;
 import com.svalyn.studio.application.controllers.project.dto.DeleteProjectInput;
@@ -31,11 +32,7 @@ import com.svalyn.studio.application.controllers.project.dto.UpdateProjectNameIn
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectReadMeInput;
 import com.svalyn.studio.application.services.project.api.IProjectService;
 import graphql.relay.Connection;
-import graphql.relay.DefaultConnection;
-import graphql.relay.DefaultConnectionCursor;
-import graphql.relay.DefaultEdge;
-import graphql.relay.Edge;
-import graphql.relay.Relay;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
@@ -43,6 +40,9 @@ import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller used to manipulate projects.
@@ -68,15 +68,19 @@ public class ProjectController {
     }
 
     @SchemaMapping(typeName = "Organization")
-    public Connection<ProjectDTO> projects(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.projectService.findAllByOrganizationId(organization.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(project -> {
-            var value = new Relay().toGlobalId("Project", project.identifier());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<ProjectDTO>) new DefaultEdge<>(project, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<ProjectDTO>> projects(OrganizationDTO organization, @Argument Integer page, @Argument Integer rowsPerPage, @Argument Integer first, @Argument String after) {
+        var keysetPagination = Connections.isKeysetPagination(page, rowsPerPage, first);
+        return () -> {
+            if (keysetPagination) {
+                var afterIdentifier = Connections.fromCursor(after, "Project").orElse(null);
+                var window = this.projectService.findAllByOrganizationId(organization.id(), afterIdentifier, first);
+                var hasPreviousPage = afterIdentifier != null && this.projectService.existsByOrganizationIdBefore(organization.id(), afterIdentifier);
+                var count = this.projectService.countAllByOrganizationId(organization.id());
+                return Connections.toConnection(window.getContent(), "Project", ProjectDTO::identifier, hasPreviousPage, window.hasNext(), count);
+            }
+            var pageData = this.projectService.findAllByOrganizationId(organization.id(), page, rowsPerPage);
+            return Connections.toConnection(pageData.getContent(), "Project", ProjectDTO::identifier, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+        };
     }
 
     @MutationMapping
@@ -103,4 +107,14 @@ public class ProjectController {
     public IPayload deleteProject(@Argument @Valid DeleteProjectInput input) {
         return this.projectService.deleteProject(input);
     }
+
+    @SchemaMapping(typeName = "Project")
+    public CompletableFuture<ProfileDTO> createdBy(ProjectDTO project, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(project.createdById());
+    }
+
+    @SchemaMapping(typeName = "Project")
+    public CompletableFuture<ProfileDTO> lastModifiedBy(ProjectDTO project, DataLoader<UUID, ProfileDTO> profileLoader) {
+        return profileLoader.load(project.lastModifiedById());
+    }
 }
@@ -19,8 +19,6 @@
 
 package com.svalyn.studio.application.controllers.project.dto;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
-
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
 import java.util.UUID;
@@ -38,7 +36,7 @@ public record ProjectDTO(
         @NotNull String description,
         @NotNull String readMe,
         @NotNull Instant createdOn,
-        @NotNull ProfileDTO createdBy,
+        @NotNull UUID createdById,
         @NotNull Instant lastModifiedOn,
-        @NotNull ProfileDTO lastModifiedBy) {
+        @NotNull UUID lastModifiedById) {
 }
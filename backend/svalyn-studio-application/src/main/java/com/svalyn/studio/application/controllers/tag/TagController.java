@@ -40,6 +40,7 @@ import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
 /**
  * Controller used to manipulate tags.
@@ -56,15 +57,17 @@ public class TagController {
     }
 
     @SchemaMapping(typeName = "Organization")
-    public Connection<TagDTO> tags(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.tagService.findAllByOrganizationId(organization.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(tag -> {
-            var value = new Relay().toGlobalId("Tag", tag.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<TagDTO>) new DefaultEdge<>(tag, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<TagDTO>> tags(OrganizationDTO organization, @Argument int page, @Argument int rowsPerPage) {
+        return () -> {
+            var pageData = this.tagService.findAllByOrganizationId(organization.id(), page, rowsPerPage);
+            var edges = pageData.stream().map(tag -> {
+                var value = new Relay().toGlobalId("Tag", tag.id().toString());
+                var cursor = new DefaultConnectionCursor(value);
+                return (Edge<TagDTO>) new DefaultEdge<>(tag, cursor);
+            }).toList();
+            var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+            return new DefaultConnection<>(edges, pageInfo);
+        };
     }
 
     @MutationMapping
@@ -73,15 +76,17 @@ public class TagController {
     }
 
     @SchemaMapping(typeName = "Project")
-    public Connection<TagDTO> tags(ProjectDTO project, @Argument int page, @Argument int rowsPerPage) {
-        var pageData = this.tagService.findAllByProjectId(project.id(), page, rowsPerPage);
-        var edges = pageData.stream().map(tag -> {
-            var value = new Relay().toGlobalId("Tag", tag.id().toString());
-            var cursor = new DefaultConnectionCursor(value);
-            return (Edge<TagDTO>) new DefaultEdge<>(tag, cursor);
-        }).toList();
-        var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
-        return new DefaultConnection<>(edges, pageInfo);
+    public Callable<Connection<TagDTO>> tags(ProjectDTO project, @Argument int page, @Argument int rowsPerPage) {
+        return () -> {
+            var pageData = this.tagService.findAllByProjectId(project.id(), page, rowsPerPage);
+            var edges = pageData.stream().map(tag -> {
+                var value = new Relay().toGlobalId("Tag", tag.id().toString());
+                var cursor = new DefaultConnectionCursor(value);
+                return (Edge<TagDTO>) new DefaultEdge<>(tag, cursor);
+            }).toList();
+            var pageInfo = new PageInfoWithCount(null, null, pageData.hasPrevious(), pageData.hasNext(), pageData.getTotalElements());
+            return new DefaultConnection<>(edges, pageInfo);
+        };
     }
 
     @MutationMapping
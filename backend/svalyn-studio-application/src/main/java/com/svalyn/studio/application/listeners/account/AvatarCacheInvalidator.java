@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.listeners.account;
+
+import com.svalyn.studio.application.services.account.api.IAvatarService;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.events.AccountDeletedEvent;
+import com.svalyn.studio.domain.account.events.AccountModifiedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Used to stop serving the cached avatar of an account once it has been modified or deleted.
+ *
+ * <p>
+ * The avatar is evicted from the cache of this server once the transaction has been committed. The eviction is also
+ * published to the cluster with the transaction so that all the other servers evict it too once it is committed.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class AvatarCacheInvalidator {
+
+    private final IAvatarService avatarService;
+
+    public AvatarCacheInvalidator(IAvatarService avatarService) {
+        this.avatarService = Objects.requireNonNull(avatarService);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountModifiedEvent(AccountModifiedEvent event) {
+        this.avatarService.publishEviction(event.account().getId(), event.account().getUsername());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountDeletedEvent(AccountDeletedEvent event) {
+        this.avatarService.publishEviction(event.account().getId(), event.account().getUsername());
+    }
+
+    @TransactionalEventListener
+    public void onAccountModifiedEvent(AccountModifiedEvent event) {
+        this.evict(event.account());
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeletedEvent(AccountDeletedEvent event) {
+        this.evict(event.account());
+    }
+
+    private void evict(Account account) {
+        this.avatarService.evict(account.getId());
+        this.avatarService.evictByUsername(account.getUsername());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.application.listeners.account;
+
+import com.svalyn.studio.application.services.account.api.IProfileCache;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.account.events.AccountDeletedEvent;
+import com.svalyn.studio.domain.account.events.AccountModifiedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Used to remove the summary of an account from the profile cache once it has been modified or deleted.
+ *
+ * <p>
+ * The summary is evicted from the cache of this server once the transaction has been committed. The identifier of the
+ * account is also published to the cluster with the transaction so that all the other servers evict it too once it is
+ * committed. If some messages have been missed, all the summaries are evicted.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class ProfileCacheInvalidator {
+
+    private static final String CHANNEL = "svalyn_profiles";
+
+    private final IProfileCache profileCache;
+
+    private final IClusterMessageBus clusterMessageBus;
+
+    public ProfileCacheInvalidator(IProfileCache profileCache, IClusterMessageBus clusterMessageBus) {
+        this.profileCache = Objects.requireNonNull(profileCache);
+        this.clusterMessageBus = Objects.requireNonNull(clusterMessageBus);
+        this.clusterMessageBus.subscribe(CHANNEL, new ProfileInvalidationListener());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountModifiedEvent(AccountModifiedEvent event) {
+        this.clusterMessageBus.publish(CHANNEL, event.account().getId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountDeletedEvent(AccountDeletedEvent event) {
+        this.clusterMessageBus.publish(CHANNEL, event.account().getId().toString());
+    }
+
+    @TransactionalEventListener
+    public void onAccountModifiedEvent(AccountModifiedEvent event) {
+        this.profileCache.evict(event.account().getId());
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeletedEvent(AccountDeletedEvent event) {
+        this.profileCache.evict(event.account().getId());
+    }
+
+    /**
+     * Used to evict the summaries of the accounts modified on the other servers of the cluster.
+     *
+     * @author sbegaudeau
+     */
+    private final class ProfileInvalidationListener implements IClusterMessageListener {
+        @Override
+        public void onMessage(String payload) {
+            ProfileCacheInvalidator.this.profileCache.evict(UUID.fromString(payload));
+        }
+
+        @Override
+        public void onMessagesLost() {
+            ProfileCacheInvalidator.this.profileCache.evictAll();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.listeners.notification;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.application.services.notification.api.INotificationPublisher;
+import com.svalyn.studio.domain.notification.Notification;
+import com.svalyn.studio.domain.notification.NotificationStatus;
+import com.svalyn.studio.domain.notification.events.INotificationEvent;
+import com.svalyn.studio.domain.notification.events.NotificationCreatedEvent;
+import com.svalyn.studio.domain.notification.events.NotificationMarkedAsDoneEvent;
+import com.svalyn.studio.domain.notification.events.NotificationMarkedAsReadEvent;
+import com.svalyn.studio.domain.notification.events.NotificationMarkedAsUnreadEvent;
+import com.svalyn.studio.domain.notification.repositories.INotificationRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Used to push the notifications and the unread count of their owner to the subscriptions once they have changed.
+ *
+ * <p>
+ * The changes of a transaction are gathered by owner and sent to all the servers of the cluster with a single message
+ * per owner once the transaction has been committed, including the notifications created by the listeners running
+ * after the commit of another transaction. Each server then loads the new notifications and computes the unread count
+ * once per message, and only for the owners with some subscriptions on this server.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class NotificationSubscriptionsPublisher {
+
+    private static final String CHANNEL = "svalyn_notifications";
+
+    /**
+     * The identifiers of the new notifications sent in a single message, to stay below the size limit of the payloads.
+     */
+    private static final int MAXIMUM_NOTIFICATIONS_PER_MESSAGE = 100;
+
+    private static final String SEPARATOR = " ";
+
+    private final INotificationRepository notificationRepository;
+
+    private final INotificationPublisher notificationPublisher;
+
+    private final IClusterMessageBus clusterMessageBus;
+
+    public NotificationSubscriptionsPublisher(INotificationRepository notificationRepository, INotificationPublisher notificationPublisher, IClusterMessageBus clusterMessageBus) {
+        this.notificationRepository = Objects.requireNonNull(notificationRepository);
+        this.notificationPublisher = Objects.requireNonNull(notificationPublisher);
+        this.clusterMessageBus = Objects.requireNonNull(clusterMessageBus);
+        this.clusterMessageBus.subscribe(CHANNEL, new NotificationChangesListener());
+    }
+
+    @EventListener
+    public void onNotificationEvent(INotificationEvent event) {
+        this.getNotification(event).ifPresent(notification -> {
+            var ownerId = notification.getOwnedBy().getId();
+            List<UUID> addedNotificationIds = List.of();
+            if (event instanceof NotificationCreatedEvent) {
+                addedNotificationIds = List.of(notification.getId());
+            }
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                this.getTransactionChanges().computeIfAbsent(ownerId, key -> new ArrayList<>()).addAll(addedNotificationIds);
+            } else {
+                this.publishChanges(ownerId, addedNotificationIds);
+            }
+        });
+    }
+
+    private Optional<Notification> getNotification(INotificationEvent event) {
+        return switch (event) {
+            case NotificationCreatedEvent notificationCreatedEvent -> Optional.of(notificationCreatedEvent.notification());
+            case NotificationMarkedAsReadEvent notificationMarkedAsReadEvent -> Optional.of(notificationMarkedAsReadEvent.notification());
+            case NotificationMarkedAsUnreadEvent notificationMarkedAsUnreadEvent -> Optional.of(notificationMarkedAsUnreadEvent.notification());
+            case NotificationMarkedAsDoneEvent notificationMarkedAsDoneEvent -> Optional.of(notificationMarkedAsDoneEvent.notification());
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Returns the identifiers of the new notifications of each owner with some changes in the current transaction.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<UUID, List<UUID>> getTransactionChanges() {
+        var changes = (Map<UUID, List<UUID>>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<UUID, List<UUID>> transactionChanges = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean published;
+
+                @Override
+                public void afterCommit() {
+                    this.publish();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationSubscriptionsPublisher.this);
+                    // Notifications created by the listeners of a transaction which is being committed arrive too late for its afterCommit
+                    if (status != STATUS_ROLLED_BACK) {
+                        this.publish();
+                    }
+                }
+
+                private void publish() {
+                    if (!this.published) {
+                        this.published = true;
+                        transactionChanges.forEach(NotificationSubscriptionsPublisher.this::publishChanges);
+                    }
+                }
+            });
+            changes = transactionChanges;
+        }
+        return changes;
+    }
+
+    private void publishChanges(UUID ownerId, List<UUID> addedNotificationIds) {
+        var index = 0;
+        do {
+            var chunk = addedNotificationIds.subList(index, Math.min(index + MAXIMUM_NOTIFICATIONS_PER_MESSAGE, addedNotificationIds.size()));
+            var payload = new ArrayList<String>();
+            payload.add(ownerId.toString());
+            chunk.stream().map(UUID::toString).forEach(payload::add);
+            this.clusterMessageBus.publish(CHANNEL, String.join(SEPARATOR, payload));
+            index += MAXIMUM_NOTIFICATIONS_PER_MESSAGE;
+        } while (index < addedNotificationIds.size());
+    }
+
+    private long countUnreadNotifications(UUID ownerId) {
+        return this.notificationRepository.countByStatus(List.of(NotificationStatus.UNREAD.toString()), ownerId);
+    }
+
+    /**
+     * Used to push the changes received from the cluster to the subscriptions of this server.
+     *
+     * @author sbegaudeau
+     */
+    private final class NotificationChangesListener implements IClusterMessageListener {
+        @Override
+        public void onMessage(String payload) {
+            var identifiers = Arrays.stream(payload.split(SEPARATOR)).map(UUID::fromString).toList();
+            var ownerId = identifiers.get(0);
+            if (NotificationSubscriptionsPublisher.this.notificationPublisher.hasSubscribers(ownerId)) {
+                var addedNotificationIds = identifiers.subList(1, identifiers.size());
+                if (!addedNotificationIds.isEmpty()) {
+                    NotificationSubscriptionsPublisher.this.notificationRepository.findAllById(addedNotificationIds, ownerId).stream()
+                            .sorted(Comparator.comparing(Notification::getCreatedOn))
+                            .forEach(NotificationSubscriptionsPublisher.this.notificationPublisher::publishNotificationAdded);
+                }
+                NotificationSubscriptionsPublisher.this.notificationPublisher.publishUnreadCount(ownerId, () -> NotificationSubscriptionsPublisher.this.countUnreadNotifications(ownerId));
+            }
+        }
+
+        @Override
+        public void onMessagesLost() {
+            for (var ownerId : NotificationSubscriptionsPublisher.this.notificationPublisher.getSubscribedOwnerIds()) {
+                NotificationSubscriptionsPublisher.this.notificationPublisher.publishUnreadCount(ownerId, () -> NotificationSubscriptionsPublisher.this.countUnreadNotifications(ownerId));
+            }
+        }
+    }
+}
@@ -52,9 +52,10 @@ public class ProjectCreatedEventListener {
     @TransactionalEventListener
     public void onProjectCreatedEvent(ProjectCreatedEvent event) {
         this.organizationRepository.findById(event.project().getOrganization().getId()).ifPresent(organization -> {
+            var userId = UserIdProvider.get().getId();
             var notifications = organization.getMemberships().stream()
                     .map(Membership::getMemberId)
-                    .filter(memberId -> !UserIdProvider.get().getId().equals(memberId.getId()))
+                    .filter(memberId -> !userId.equals(memberId.getId()))
                     .map(memberId -> Notification.newNotification()
                             .title("The project " + event.project().getName() + " has been created in the organization " + organization.getName())
                             .ownedBy(memberId)
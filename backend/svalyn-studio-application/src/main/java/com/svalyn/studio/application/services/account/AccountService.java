@@ -30,9 +30,11 @@ import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.viewer.Viewer;
 import com.svalyn.studio.application.services.account.api.IAccountService;
 import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileCache;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
 import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountSummary;
 import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.account.services.api.IAccountCreationService;
 import com.svalyn.studio.domain.account.services.api.IAccountDeletionService;
@@ -42,9 +44,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Used to manipulate accounts.
@@ -62,11 +67,14 @@ public class AccountService implements IAccountService {
 
     private final IAvatarUrlService avatarUrlService;
 
-    public AccountService(IAccountRepository accountRepository, IAccountCreationService accountCreationService, IAccountDeletionService accountDeletionService, IAvatarUrlService avatarUrlService) {
+    private final IProfileCache profileCache;
+
+    public AccountService(IAccountRepository accountRepository, IAccountCreationService accountCreationService, IAccountDeletionService accountDeletionService, IAvatarUrlService avatarUrlService, IProfileCache profileCache) {
         this.accountRepository = Objects.requireNonNull(accountRepository);
         this.accountCreationService = Objects.requireNonNull(accountCreationService);
         this.accountDeletionService = Objects.requireNonNull(accountDeletionService);
         this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+        this.profileCache = Objects.requireNonNull(profileCache);
     }
 
     private AccountDTO toDTO(Account account) {
@@ -84,8 +92,8 @@ public class AccountService implements IAccountService {
     @Override
     @Transactional(readOnly = true)
     public Optional<Viewer> findViewerById(UUID id) {
-        return this.accountRepository.findById(id)
-                .map(account -> new Viewer(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getRole()));
+        return this.accountRepository.findViewerSummaryById(id)
+                .map(summary -> new Viewer(summary.name(), summary.username(), this.avatarUrlService.imageUrl(summary.username()), summary.role()));
     }
 
     @Override
@@ -94,6 +102,13 @@ public class AccountService implements IAccountService {
         return this.accountRepository.findByUsername(username).map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, ProfileDTO> findProfilesByIds(Set<UUID> ids) {
+        return this.profileCache.findAllByIds(ids).values().stream()
+                .collect(Collectors.toMap(AccountSummary::id, summary -> new ProfileDTO(summary.name(), summary.username(), this.avatarUrlService.imageUrl(summary.username()), summary.createdOn())));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<AccountDTO> findAll(int page, int rowsPerPage) {
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.account;
+
+import com.svalyn.studio.application.controllers.account.dto.AvatarDTO;
+import com.svalyn.studio.application.services.account.api.IAvatarService;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.account.Avatar;
+import com.svalyn.studio.domain.account.repositories.IAvatarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Used to retrieve the avatars of the accounts.
+ *
+ * <p>
+ * Avatars are resized to the smallest supported size larger than the one requested and kept in a bounded cache
+ * keyed by username and size, along with the absence of avatar, so that displaying the same avatars over and over
+ * does not hit the database. The default avatar is read once from the classpath. A read-only transaction is only used
+ * to load the avatars missing from the cache.
+ * </p>
+ *
+ * <p>
+ * Evictions are sent to all the servers of the cluster. Since an account without any avatar is cached without its
+ * identifier, the avatars are evicted both by the identifier and by the username of their account.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class AvatarService implements IAvatarService {
+
+    /**
+     * The sizes of the thumbnails, in pixels, covering the sizes used by the frontend on high density screens.
+     */
+    private static final List<Integer> SIZES = List.of(48, 96, 200, 400);
+
+    private static final int ORIGINAL_SIZE = 0;
+
+    private static final String THUMBNAIL_FORMAT = "png";
+
+    private static final String THUMBNAIL_CONTENT_TYPE = "image/png";
+
+    private static final String CHANNEL = "svalyn_avatars";
+
+    private static final String SEPARATOR = " ";
+
+    /**
+     * Estimated size in bytes of a cache entry without the content of the image.
+     */
+    private static final long ENTRY_WEIGHT = 256;
+
+    private final IAvatarRepository avatarRepository;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final IClusterMessageBus clusterMessageBus;
+
+    private final long maximumWeight;
+
+    private final Duration timeToLive;
+
+    private final Map<AvatarKey, CachedAvatar> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Integer, AvatarDTO> defaultAvatars = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(AvatarService.class);
+
+    private final AvatarDTO defaultAvatar;
+
+    private long weight;
+
+    public AvatarService(IAvatarRepository avatarRepository, PlatformTransactionManager transactionManager, IClusterMessageBus clusterMessageBus,
+                         @Value("${svalyn.avatars.cache.maximum-weight:33554432}") long maximumWeight, @Value("${svalyn.avatars.cache.time-to-live:PT1H}") Duration timeToLive) {
+        this.avatarRepository = Objects.requireNonNull(avatarRepository);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(Objects.requireNonNull(transactionManager));
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.clusterMessageBus = Objects.requireNonNull(clusterMessageBus);
+        this.maximumWeight = maximumWeight;
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+        this.defaultAvatar = this.loadDefaultAvatar();
+        this.clusterMessageBus.subscribe(CHANNEL, new AvatarInvalidationListener());
+    }
+
+    private AvatarDTO loadDefaultAvatar() {
+        byte[] content = new byte[] {};
+        try {
+            content = new ClassPathResource("images/avatar.png").getContentAsByteArray();
+        } catch (IOException exception) {
+            this.logger.warn(exception.getMessage(), exception);
+        }
+        return this.toDTO(content, THUMBNAIL_CONTENT_TYPE);
+    }
+
+    @Override
+    public Optional<AvatarDTO> findByUsername(String username, Integer size) {
+        var key = new AvatarKey(username, this.toSupportedSize(size));
+        var now = Instant.now();
+
+        Optional<CachedAvatar> optionalCachedAvatar;
+        synchronized (this.entries) {
+            optionalCachedAvatar = Optional.ofNullable(this.entries.get(key)).filter(cachedAvatar -> cachedAvatar.expiresOn().isAfter(now));
+        }
+
+        var cachedAvatar = optionalCachedAvatar.orElseGet(() -> {
+            var loadedAvatar = this.readOnlyTransactionTemplate.execute(status -> this.avatarRepository.findByUsername(username))
+                    .map(avatar -> new CachedAvatar(avatar.getAccountId().getId(), this.toDTO(avatar, key.size()), now.plus(this.timeToLive)))
+                    .orElse(new CachedAvatar(null, null, now.plus(this.timeToLive)));
+            this.put(key, loadedAvatar);
+            return loadedAvatar;
+        });
+        return Optional.ofNullable(cachedAvatar.avatar());
+    }
+
+    @Override
+    public AvatarDTO defaultAvatar(Integer size) {
+        return this.defaultAvatars.computeIfAbsent(this.toSupportedSize(size), supportedSize -> this.resize(this.defaultAvatar.content(), supportedSize)
+                .map(content -> this.toDTO(content, THUMBNAIL_CONTENT_TYPE))
+                .orElse(this.defaultAvatar));
+    }
+
+    @Override
+    public void evict(UUID accountId) {
+        this.evictIf((key, cachedAvatar) -> accountId.equals(cachedAvatar.accountId()));
+    }
+
+    @Override
+    public void evictByUsername(String username) {
+        this.evictIf((key, cachedAvatar) -> key.username().equals(username));
+    }
+
+    @Override
+    public void publishEviction(UUID accountId, String username) {
+        this.clusterMessageBus.publish(CHANNEL, accountId + SEPARATOR + username);
+    }
+
+    private void evictAll() {
+        this.evictIf((key, cachedAvatar) -> true);
+    }
+
+    private void evictIf(BiPredicate<AvatarKey, CachedAvatar> predicate) {
+        synchronized (this.entries) {
+            var iterator = this.entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (predicate.test(entry.getKey(), entry.getValue())) {
+                    this.weight = this.weight - entry.getValue().weight();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void put(AvatarKey key, CachedAvatar cachedAvatar) {
+        synchronized (this.entries) {
+            Optional.ofNullable(this.entries.put(key, cachedAvatar)).ifPresent(previous -> this.weight = this.weight - previous.weight());
+            this.weight = this.weight + cachedAvatar.weight();
+
+            var iterator = this.entries.values().iterator();
+            while (this.weight > this.maximumWeight && iterator.hasNext()) {
+                this.weight = this.weight - iterator.next().weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    private int toSupportedSize(Integer size) {
+        return Optional.ofNullable(size)
+                .filter(requestedSize -> requestedSize > 0)
+                .map(requestedSize -> SIZES.stream().filter(supportedSize -> supportedSize >= requestedSize).findFirst().orElse(SIZES.get(SIZES.size() - 1)))
+                .orElse(ORIGINAL_SIZE);
+    }
+
+    private AvatarDTO toDTO(Avatar avatar, int size) {
+        return Optional.of(size)
+                .filter(requestedSize -> requestedSize != ORIGINAL_SIZE)
+                .flatMap(requestedSize -> this.resize(avatar.getContent(), requestedSize))
+                .map(content -> this.toDTO(content, THUMBNAIL_CONTENT_TYPE))
+                .orElseGet(() -> this.toDTO(avatar.getContent(), avatar.getContentType()));
+    }
+
+    private AvatarDTO toDTO(byte[] content, String contentType) {
+        return new AvatarDTO(content, contentType, DigestUtils.md5DigestAsHex(content));
+    }
+
+    private Optional<byte[]> resize(byte[] content, int size) {
+        Optional<byte[]> optionalThumbnail = Optional.empty();
+        try {
+            var image = ImageIO.read(new ByteArrayInputStream(content));
+            if (image != null && (image.getWidth() > size || image.getHeight() > size)) {
+                var scale = Math.min((double) size / image.getWidth(), (double) size / image.getHeight());
+                var width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+                var height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+                var thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                var graphics = thumbnail.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(image, 0, 0, width, height, null);
+                } finally {
+                    graphics.dispose();
+                }
+
+                var outputStream = new ByteArrayOutputStream();
+                ImageIO.write(thumbnail, THUMBNAIL_FORMAT, outputStream);
+                optionalThumbnail = Optional.of(outputStream.toByteArray());
+            }
+        } catch (IOException exception) {
+            this.logger.warn(exception.getMessage(), exception);
+        }
+        return optionalThumbnail;
+    }
+
+    /**
+     * Used to evict the avatars of the accounts modified on any server of the cluster.
+     *
+     * @author sbegaudeau
+     */
+    private final class AvatarInvalidationListener implements IClusterMessageListener {
+        @Override
+        public void onMessage(String payload) {
+            var parts = payload.split(SEPARATOR, 2);
+            AvatarService.this.evict(UUID.fromString(parts[0]));
+            AvatarService.this.evictByUsername(parts[1]);
+        }
+
+        @Override
+        public void onMessagesLost() {
+            AvatarService.this.evictAll();
+        }
+    }
+
+    /**
+     * The key of the avatars in the cache.
+     *
+     * @author sbegaudeau
+     */
+    private record AvatarKey(String username, int size) {
+    }
+
+    /**
+     * An entry of the cache, the avatar is null if the account does not have any avatar.
+     *
+     * @author sbegaudeau
+     */
+    private record CachedAvatar(UUID accountId, AvatarDTO avatar, Instant expiresOn) {
+        long weight() {
+            return ENTRY_WEIGHT + Optional.ofNullable(this.avatar).map(AvatarDTO::content).map(content -> (long) content.length).orElse(0L);
+        }
+    }
+}
@@ -20,23 +20,35 @@ package com.svalyn.studio.application.services.account;
 
 import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * Used to compute the url of the avatar of a profile.
  *
+ * <p>
+ * Outside of a request, for example while the server is starting, the url is relative to the server.
+ * </p>
+ *
  * @author sbegaudeau
  */
 @Service
 public class AvatarUrlService implements IAvatarUrlService {
+
+    private static final String AVATARS_PATH = "/api/avatars/";
+
     @Override
     public String imageUrl(String username) {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return AVATARS_PATH + username;
+        }
+
         var currentUri = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUri();
         var uri = currentUri.getScheme() + "://" + currentUri.getHost();
         if (currentUri.getPort() != -1) {
             uri = uri + ":" + currentUri.getPort();
         }
-        uri = uri + "/api/avatars/" + username;
+        uri = uri + AVATARS_PATH + username;
         return uri;
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.application.services.account;
+
+import com.svalyn.studio.application.services.account.api.IProfileCache;
+import com.svalyn.studio.application.services.account.api.ProfileCacheStatistics;
+import com.svalyn.studio.domain.account.AccountSummary;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used to keep the summary of the most recently displayed accounts in memory.
+ *
+ * <p>
+ * The cache is shared by all the requests of the server and it evicts the least recently used summaries once its
+ * maximum size has been reached. Summaries are loaded with a projection of the account table in order to never
+ * retrieve the image, credentials or tokens of the accounts.
+ * </p>
+ *
+ * <p>
+ * The summaries of the accounts modified on any server of the cluster are evicted by the
+ * {@link com.svalyn.studio.application.listeners.account.ProfileCacheInvalidator}. Since a message of the cluster can
+ * be missed, the summaries also expire after a while.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class ProfileCache implements IProfileCache {
+
+    /**
+     * Estimated size in bytes of the map entry, the identifier, the summary, its creation date and its expiration.
+     */
+    private static final long ENTRY_FOOTPRINT = 168;
+
+    /**
+     * Estimated size in bytes of a string and its backing array without its content.
+     */
+    private static final long STRING_FOOTPRINT = 40;
+
+    private final IAccountRepository accountRepository;
+
+    private final int maximumSize;
+
+    private final Duration timeToLive;
+
+    private final Map<UUID, CachedSummary> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final Logger logger = LoggerFactory.getLogger(ProfileCache.class);
+
+    public ProfileCache(IAccountRepository accountRepository, @Value("${svalyn.profiles.cache.maximum-size:10000}") int maximumSize,
+                        @Value("${svalyn.profiles.cache.time-to-live:PT10M}") Duration timeToLive) {
+        this.accountRepository = Objects.requireNonNull(accountRepository);
+        this.maximumSize = maximumSize;
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+    }
+
+    @Override
+    public Map<UUID, AccountSummary> findAllByIds(Set<UUID> ids) {
+        var now = Instant.now();
+        var summaries = new HashMap<UUID, AccountSummary>();
+        synchronized (this.entries) {
+            ids.forEach(id -> Optional.ofNullable(this.entries.get(id))
+                    .filter(cachedSummary -> cachedSummary.expiresOn().isAfter(now))
+                    .ifPresent(cachedSummary -> summaries.put(id, cachedSummary.summary())));
+        }
+        this.hitCount.add(summaries.size());
+
+        var missingIds = ids.stream().filter(id -> !summaries.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            this.missCount.add(missingIds.size());
+
+            var invalidationCountBeforeLoading = this.invalidationCount.get();
+            var loadedSummaries = this.accountRepository.findAllSummariesByIds(missingIds);
+            synchronized (this.entries) {
+                // Summaries loaded while an account was being modified may already be stale, they are not kept
+                if (invalidationCountBeforeLoading == this.invalidationCount.get()) {
+                    var expiresOn = now.plus(this.timeToLive);
+                    loadedSummaries.forEach(summary -> this.entries.put(summary.id(), new CachedSummary(summary, expiresOn)));
+                    this.evictLeastRecentlyUsedEntries();
+                }
+            }
+            loadedSummaries.forEach(summary -> summaries.put(summary.id(), summary));
+        }
+        return summaries;
+    }
+
+    private void evictLeastRecentlyUsedEntries() {
+        var iterator = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public void evict(UUID id) {
+        synchronized (this.entries) {
+            this.invalidationCount.incrementAndGet();
+            this.entries.remove(id);
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (this.entries) {
+            this.invalidationCount.incrementAndGet();
+            this.entries.clear();
+        }
+    }
+
+    @Override
+    public ProfileCacheStatistics statistics() {
+        synchronized (this.entries) {
+            var estimatedFootprint = this.entries.values().stream()
+                    .map(CachedSummary::summary)
+                    .mapToLong(summary -> ENTRY_FOOTPRINT + 2 * STRING_FOOTPRINT + summary.name().length() + summary.username().length())
+                    .sum();
+            return new ProfileCacheStatistics(this.entries.size(), this.maximumSize, estimatedFootprint, this.hitCount.sum(), this.missCount.sum());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${svalyn.profiles.cache.statistics-interval:900000}", fixedRateString = "${svalyn.profiles.cache.statistics-interval:900000}")
+    public void logStatistics() {
+        var statistics = this.statistics();
+        this.logger.info("Profile cache: {}/{} entries, ~{} bytes, hit rate {}", statistics.size(), statistics.maximumSize(), statistics.estimatedFootprint(), String.format("%.2f", statistics.hitRate()));
+    }
+
+    /**
+     * A summary and the instant after which it must be loaded again.
+     *
+     * @author sbegaudeau
+     */
+    private record CachedSummary(AccountSummary summary, Instant expiresOn) {
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.account;
+
+import com.svalyn.studio.application.services.account.api.IProfileCache;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Used to keep only the elements whose profiles can all be displayed.
+ *
+ * <p>
+ * The profiles of all the elements are looked up at once in the profile cache, which is then used by the GraphQL
+ * layer to resolve them without any additional query.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class ProfileFilter implements IProfileFilter {
+
+    private final IProfileCache profileCache;
+
+    public ProfileFilter(IProfileCache profileCache) {
+        this.profileCache = Objects.requireNonNull(profileCache);
+    }
+
+    @Override
+    public <T> Optional<T> filter(T element, Function<T, List<UUID>> profileIds) {
+        return this.filterAll(List.of(element), profileIds).stream().findFirst();
+    }
+
+    @Override
+    public <T> List<T> filterAll(List<T> elements, Function<T, List<UUID>> profileIds) {
+        if (elements.isEmpty()) {
+            return elements;
+        }
+        var ids = elements.stream()
+                .flatMap(element -> profileIds.apply(element).stream())
+                .collect(Collectors.toSet());
+        var existingIds = this.profileCache.findAllByIds(ids).keySet();
+        return elements.stream()
+                .filter(element -> existingIds.containsAll(profileIds.apply(element)))
+                .toList();
+    }
+}
@@ -27,7 +27,9 @@ import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.viewer.Viewer;
 import org.springframework.data.domain.Page;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -41,6 +43,8 @@ public interface IAccountService {
 
     Optional<ProfileDTO> findProfileByUsername(String username);
 
+    Map<UUID, ProfileDTO> findProfilesByIds(Set<UUID> ids);
+
     Page<AccountDTO> findAll(int page, int rowsPerPage);
 
     IPayload createAccount(CreateAccountInput input);
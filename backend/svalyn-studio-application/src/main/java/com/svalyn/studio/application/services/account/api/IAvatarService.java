@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.account.api;
+
+import com.svalyn.studio.application.controllers.account.dto.AvatarDTO;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Used to retrieve the avatars of the accounts.
+ *
+ * @author sbegaudeau
+ */
+public interface IAvatarService {
+
+    Optional<AvatarDTO> findByUsername(String username, Integer size);
+
+    AvatarDTO defaultAvatar(Integer size);
+
+    void evict(UUID accountId);
+
+    void evictByUsername(String username);
+
+    /**
+     * Evicts the avatar of the account from the cache of all the servers of the cluster, once the current transaction
+     * has been committed if there is one.
+     */
+    void publishEviction(UUID accountId, String username);
+}
@@ -20,16 +20,18 @@
 package com.svalyn.studio.application.services.activity;
 
 import com.svalyn.studio.application.controllers.activity.dto.ActivityEntryDTO;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.activity.api.IActivityService;
 import com.svalyn.studio.domain.account.Account;
 import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.activity.ActivityEntry;
 import com.svalyn.studio.domain.activity.repositories.IActivityEntryRepository;
+import jakarta.validation.ValidationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -50,35 +52,55 @@ public class ActivityService implements IActivityService {
 
     private final IActivityEntryRepository activityEntryRepository;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
-
-    public ActivityService(IAccountRepository accountRepository, IActivityEntryRepository activityEntryRepository, IAvatarUrlService avatarUrlService) {
+    public ActivityService(IAccountRepository accountRepository, IActivityEntryRepository activityEntryRepository, IProfileFilter profileFilter) {
         this.accountRepository = Objects.requireNonNull(accountRepository);
         this.activityEntryRepository = Objects.requireNonNull(activityEntryRepository);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
-    private Optional<ActivityEntryDTO> toDTO(ActivityEntry activityEntry) {
-        var optionalCreatedByProfile = this.accountRepository.findById(activityEntry.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalCreatedByProfile.map(createdBy -> new ActivityEntryDTO(
+    private ActivityEntryDTO toDTO(ActivityEntry activityEntry) {
+        return new ActivityEntryDTO(
                 activityEntry.getId(),
                 activityEntry.getKind(),
                 activityEntry.getTitle(),
                 activityEntry.getDescription(),
                 activityEntry.getCreatedOn(),
-                createdBy));
+                activityEntry.getCreatedBy().getId());
+    }
+
+    private List<ActivityEntryDTO> toDTOs(List<ActivityEntry> activityEntries) {
+        var activityEntryDTOs = activityEntries.stream()
+                .map(this::toDTO)
+                .toList();
+        return this.profileFilter.filterAll(activityEntryDTOs, ActivityService::profileIds);
+    }
+
+    private static List<UUID> profileIds(ActivityEntryDTO activityEntryDTO) {
+        return List.of(activityEntryDTO.createdById());
+    }
+
+    private Window<ActivityEntryDTO> toWindow(List<ActivityEntry> activityEntries, int first) {
+        var activityEntryDTOs = this.toDTOs(activityEntries.stream().limit(first).toList());
+        var hasNext = activityEntries.size() > first;
+        // The cursors of the connections are the identifiers of the activity entries, the positions are never used
+        return Window.from(activityEntryDTOs, ScrollPosition::offset, hasNext);
+    }
+
+    private List<ActivityEntry> requireCursor(List<ActivityEntry> activityEntries, UUID cursorId) {
+        // Without its activity entry, the cursor cannot be compared to the other ones and nothing would be found
+        if (activityEntries.isEmpty() && !this.activityEntryRepository.existsById(cursorId)) {
+            throw new ValidationException("The activity entry of the cursor does not exist anymore");
+        }
+        return activityEntries;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ActivityEntryDTO> findAllVisibleByUsername(String username, int page, int rowsPerPage) {
         return this.accountRepository.findByUsername(username).map(Account::getId).map(userId -> {
-            var activityEntries = this.activityEntryRepository.findAllVisibleByUserId(userId, page * rowsPerPage, rowsPerPage).stream()
-                    .flatMap(entry -> this.toDTO(entry).stream())
-                    .toList();
+            var activityEntries = this.toDTOs(this.activityEntryRepository.findAllVisibleByUserId(userId, page * rowsPerPage, rowsPerPage));
             var count = this.activityEntryRepository.countAllByUserId(userId);
             return new PageImpl<>(activityEntries, PageRequest.of(page, rowsPerPage), count);
         }).orElse(new PageImpl<>(List.of()));
@@ -88,9 +110,7 @@ public class ActivityService implements IActivityService {
     @Transactional(readOnly = true)
     public Page<ActivityEntryDTO> findAllByUsername(String username, int page, int rowsPerPage) {
         return this.accountRepository.findByUsername(username).map(Account::getId).map(userId -> {
-            var activityEntries = this.activityEntryRepository.findAllByUserId(userId, page * rowsPerPage, rowsPerPage).stream()
-                    .flatMap(entry -> this.toDTO(entry).stream())
-                    .toList();
+            var activityEntries = this.toDTOs(this.activityEntryRepository.findAllByUserId(userId, page * rowsPerPage, rowsPerPage));
             var count = this.activityEntryRepository.countAllByUserId(userId);
             return new PageImpl<>(activityEntries, PageRequest.of(page, rowsPerPage), count);
         }).orElse(new PageImpl<>(List.of()));
@@ -99,9 +119,7 @@ public class ActivityService implements IActivityService {
     @Override
     @Transactional(readOnly = true)
     public Page<ActivityEntryDTO> findAllByOrganizationId(UUID organizationId, int page, int rowsPerPage) {
-        var activityEntries = this.activityEntryRepository.findAllByOrganizationId(organizationId, page * rowsPerPage, rowsPerPage).stream()
-                .flatMap(entry -> this.toDTO(entry).stream())
-                .toList();
+        var activityEntries = this.toDTOs(this.activityEntryRepository.findAllByOrganizationId(organizationId, page * rowsPerPage, rowsPerPage));
         var count = this.activityEntryRepository.countAllByOrganizationId(organizationId);
         return new PageImpl<>(activityEntries, PageRequest.of(page, rowsPerPage), count);
     }
@@ -109,10 +127,99 @@ public class ActivityService implements IActivityService {
     @Override
     @Transactional(readOnly = true)
     public Page<ActivityEntryDTO> findAllByProjectId(UUID projectId, int page, int rowsPerPage) {
-        var activityEntries = this.activityEntryRepository.findAllByProjectId(projectId, page * rowsPerPage, rowsPerPage).stream()
-                .flatMap(entry -> this.toDTO(entry).stream())
-                .toList();
+        var activityEntries = this.toDTOs(this.activityEntryRepository.findAllByProjectId(projectId, page * rowsPerPage, rowsPerPage));
         var count = this.activityEntryRepository.countAllByProjectId(projectId);
         return new PageImpl<>(activityEntries, PageRequest.of(page, rowsPerPage), count);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ActivityEntryDTO> findAllVisibleByUsername(String username, UUID after, int first) {
+        return this.accountRepository.findByUsername(username).map(Account::getId).map(userId -> {
+            var activityEntries = Optional.ofNullable(after)
+                    .map(cursorId -> this.requireCursor(this.activityEntryRepository.findAllVisibleByUserIdAfter(userId, cursorId, first + 1), cursorId))
+                    .orElseGet(() -> this.activityEntryRepository.findAllVisibleByUserId(userId, 0, first + 1));
+            return this.toWindow(activityEntries, first);
+        }).orElse(Window.from(List.of(), ScrollPosition::offset));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ActivityEntryDTO> findAllByUsername(String username, UUID after, int first) {
+        return this.accountRepository.findByUsername(username).map(Account::getId).map(userId -> {
+            var activityEntries = Optional.ofNullable(after)
+                    .map(cursorId -> this.requireCursor(this.activityEntryRepository.findAllByUserIdAfter(userId, cursorId, first + 1), cursorId))
+                    .orElseGet(() -> this.activityEntryRepository.findAllByUserId(userId, 0, first + 1));
+            return this.toWindow(activityEntries, first);
+        }).orElse(Window.from(List.of(), ScrollPosition::offset));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ActivityEntryDTO> findAllByOrganizationId(UUID organizationId, UUID after, int first) {
+        var activityEntries = Optional.ofNullable(after)
+                .map(cursorId -> this.requireCursor(this.activityEntryRepository.findAllByOrganizationIdAfter(organizationId, cursorId, first + 1), cursorId))
+                .orElseGet(() -> this.activityEntryRepository.findAllByOrganizationId(organizationId, 0, first + 1));
+        return this.toWindow(activityEntries, first);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ActivityEntryDTO> findAllByProjectId(UUID projectId, UUID after, int first) {
+        var activityEntries = Optional.ofNullable(after)
+                .map(cursorId -> this.requireCursor(this.activityEntryRepository.findAllByProjectIdAfter(projectId, cursorId, first + 1), cursorId))
+                .orElseGet(() -> this.activityEntryRepository.findAllByProjectId(projectId, 0, first + 1));
+        return this.toWindow(activityEntries, first);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsVisibleByUsernameBefore(String username, UUID cursorId) {
+        return this.accountRepository.findByUsername(username)
+                .map(Account::getId)
+                .map(userId -> this.activityEntryRepository.existsVisibleByUserIdBefore(userId, cursorId))
+                .orElse(false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByUsernameBefore(String username, UUID cursorId) {
+        return this.accountRepository.findByUsername(username)
+                .map(Account::getId)
+                .map(userId -> this.activityEntryRepository.existsByUserIdBefore(userId, cursorId))
+                .orElse(false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByOrganizationIdBefore(UUID organizationId, UUID cursorId) {
+        return this.activityEntryRepository.existsByOrganizationIdBefore(organizationId, cursorId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByProjectIdBefore(UUID projectId, UUID cursorId) {
+        return this.activityEntryRepository.existsByProjectIdBefore(projectId, cursorId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllByUsername(String username) {
+        return this.accountRepository.findByUsername(username)
+                .map(Account::getId)
+                .map(this.activityEntryRepository::countAllByUserId)
+                .orElse(0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllByOrganizationId(UUID organizationId) {
+        return this.activityEntryRepository.countAllByOrganizationId(organizationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllByProjectId(UUID projectId) {
+        return this.activityEntryRepository.countAllByProjectId(projectId);
+    }
 }
@@ -21,6 +21,7 @@ package com.svalyn.studio.application.services.activity.api;
 
 import com.svalyn.studio.application.controllers.activity.dto.ActivityEntryDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.UUID;
 
@@ -38,4 +39,26 @@ public interface IActivityService {
     Page<ActivityEntryDTO> findAllByOrganizationId(UUID organizationId, int page, int rowsPerPage);
 
     Page<ActivityEntryDTO> findAllByProjectId(UUID projectId, int page, int rowsPerPage);
+
+    Window<ActivityEntryDTO> findAllVisibleByUsername(String username, UUID after, int first);
+
+    Window<ActivityEntryDTO> findAllByUsername(String username, UUID after, int first);
+
+    Window<ActivityEntryDTO> findAllByOrganizationId(UUID organizationId, UUID after, int first);
+
+    Window<ActivityEntryDTO> findAllByProjectId(UUID projectId, UUID after, int first);
+
+    boolean existsVisibleByUsernameBefore(String username, UUID cursorId);
+
+    boolean existsByUsernameBefore(String username, UUID cursorId);
+
+    boolean existsByOrganizationIdBefore(UUID organizationId, UUID cursorId);
+
+    boolean existsByProjectIdBefore(UUID projectId, UUID cursorId);
+
+    long countAllByUsername(String username);
+
+    long countAllByOrganizationId(UUID organizationId);
+
+    long countAllByProjectId(UUID projectId);
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.business;
+
+import com.svalyn.studio.application.controllers.business.dto.AttributeDTO;
+import com.svalyn.studio.application.controllers.business.dto.DataTypeDTO;
+import com.svalyn.studio.application.controllers.business.dto.DomainDTO;
+import com.svalyn.studio.application.controllers.business.dto.EntityDTO;
+import com.svalyn.studio.application.controllers.business.dto.EnumerationDTO;
+import com.svalyn.studio.application.controllers.business.dto.EnumerationLiteralDTO;
+import com.svalyn.studio.application.controllers.business.dto.RelationDTO;
+import com.svalyn.studio.domain.business.services.EPackageRegistration;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The DTOs of the domains, computed once from the registered EPackages.
+ *
+ * <p>
+ * The metamodels of the domains never change while the server is running so they are converted once at startup and
+ * indexed by identifier. The version of each domain is a hash of the content of its DTO, it can be used as an ETag by
+ * the clients caching the domains and it changes as soon as the metamodel changes, even if the version of its
+ * registration does not.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class DomainCatalog {
+
+    private final Map<String, DomainDTO> domains;
+
+    private final Map<String, String> versions;
+
+    public DomainCatalog(List<EPackageRegistration> ePackageRegistrations) {
+        Map<String, DomainDTO> domainsByIdentifier = new LinkedHashMap<>();
+        ePackageRegistrations.forEach(ePackageRegistration -> domainsByIdentifier.putIfAbsent(ePackageRegistration.ePackage().getName(), this.toDomainDTO(ePackageRegistration)));
+        this.domains = Collections.unmodifiableMap(domainsByIdentifier);
+
+        Map<String, String> versionsByIdentifier = new LinkedHashMap<>();
+        this.domains.forEach((identifier, domain) -> versionsByIdentifier.put(identifier, this.computeVersion(domain)));
+        this.versions = Collections.unmodifiableMap(versionsByIdentifier);
+    }
+
+    public Optional<DomainDTO> findByIdentifier(String identifier) {
+        return Optional.ofNullable(this.domains.get(identifier));
+    }
+
+    public Optional<String> findVersion(String identifier) {
+        return Optional.ofNullable(this.versions.get(identifier));
+    }
+
+    private String computeVersion(DomainDTO domainDTO) {
+        try {
+            // The DTOs are records, their string representation contains all their content including the nested DTOs
+            var messageDigest = MessageDigest.getInstance("SHA-256");
+            var digest = messageDigest.digest(domainDTO.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private DomainDTO toDomainDTO(EPackageRegistration ePackageRegistration) {
+        var ePackage = ePackageRegistration.ePackage();
+
+        var entities = ePackage.getEClassifiers().stream()
+                .filter(EClass.class::isInstance)
+                .map(EClass.class::cast)
+                .map(eClass -> {
+                    var attributes = eClass.getEAttributes().stream()
+                            .map(eAttribute -> new AttributeDTO(eAttribute.getName(), "", eAttribute.getEType().getEPackage().getName() + "::" + eAttribute.getEType().getName(), eAttribute.isID(), eAttribute.isMany()))
+                            .toList();
+
+                    var relations = eClass.getEReferences().stream()
+                            .map(eReference -> new RelationDTO(eReference.getName(), "", eReference.getEType().getEPackage().getName() + "::" + eReference.getEType().getName(), eReference.isContainment(), eReference.isMany()))
+                            .toList();
+
+                    var extendedEntities = eClass.getESuperTypes().stream()
+                            .map(eSuperType -> eSuperType.getEPackage().getName() + "::" + eSuperType.getName())
+                            .toList();
+
+                    return new EntityDTO(eClass.getName(), "", extendedEntities, eClass.isAbstract(), attributes, relations);
+                })
+                .toList();
+
+        var dataTypes = ePackage.getEClassifiers().stream()
+                .filter(eClassifier -> !(eClassifier instanceof EEnum))
+                .filter(EDataType.class::isInstance)
+                .map(EDataType.class::cast)
+                .map(eDataType -> new DataTypeDTO(eDataType.getName(), ""))
+                .toList();
+
+        var enumerations = ePackage.getEClassifiers().stream()
+                .filter(EEnum.class::isInstance)
+                .map(EEnum.class::cast)
+                .map(eEnum -> {
+                    var literals = eEnum.getELiterals().stream()
+                            .map(eEnumLiteral -> new EnumerationLiteralDTO(eEnumLiteral.getName(), ""))
+                            .toList();
+                    return new EnumerationDTO(eEnum.getName(), "", literals);
+                })
+                .toList();
+
+        return new DomainDTO(ePackage.getName(), ePackageRegistration.version(), ePackageRegistration.label(), ePackageRegistration.documentation(), entities, dataTypes, enumerations);
+    }
+}
@@ -19,27 +19,16 @@
 
 package com.svalyn.studio.application.services.business;
 
-import com.svalyn.studio.application.controllers.business.dto.AttributeDTO;
-import com.svalyn.studio.application.controllers.business.dto.DataTypeDTO;
 import com.svalyn.studio.application.controllers.business.dto.DomainDTO;
-import com.svalyn.studio.application.controllers.business.dto.EntityDTO;
-import com.svalyn.studio.application.controllers.business.dto.EnumerationDTO;
-import com.svalyn.studio.application.controllers.business.dto.EnumerationLiteralDTO;
-import com.svalyn.studio.application.controllers.business.dto.RelationDTO;
 import com.svalyn.studio.application.services.business.api.IDomainService;
 import com.svalyn.studio.domain.business.Domain;
 import com.svalyn.studio.domain.business.repositories.IDomainRepository;
-import com.svalyn.studio.domain.business.services.EPackageRegistration;
-import org.eclipse.emf.ecore.EClass;
-import org.eclipse.emf.ecore.EDataType;
-import org.eclipse.emf.ecore.EEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -53,62 +42,15 @@ public class DomainService implements IDomainService {
 
     private final IDomainRepository domainRepository;
 
-    private final List<EPackageRegistration> ePackageRegistrations;
+    private final DomainCatalog domainCatalog;
 
-    public DomainService(IDomainRepository domainRepository, List<EPackageRegistration> ePackageRegistrations) {
+    public DomainService(IDomainRepository domainRepository, DomainCatalog domainCatalog) {
         this.domainRepository = Objects.requireNonNull(domainRepository);
-        this.ePackageRegistrations = Objects.requireNonNull(ePackageRegistrations);
+        this.domainCatalog = Objects.requireNonNull(domainCatalog);
     }
 
     private Optional<DomainDTO> toDTO(Domain domain) {
-        return this.ePackageRegistrations.stream()
-                .filter(ePackageRegistration -> ePackageRegistration.ePackage().getName().equals(domain.getIdentifier()))
-                .findFirst()
-                .map(this::toDomainDTO);
-    }
-
-    private DomainDTO toDomainDTO(EPackageRegistration ePackageRegistration) {
-        var ePackage = ePackageRegistration.ePackage();
-
-        var entities = ePackage.getEClassifiers().stream()
-                .filter(EClass.class::isInstance)
-                .map(EClass.class::cast)
-                .map(eClass -> {
-                    var attributes = eClass.getEAttributes().stream()
-                            .map(eAttribute -> new AttributeDTO(eAttribute.getName(), "", eAttribute.getEType().getEPackage().getName() + "::" + eAttribute.getEType().getName(), eAttribute.isID(), eAttribute.isMany()))
-                            .toList();
-
-                    var relations = eClass.getEReferences().stream()
-                            .map(eReference -> new RelationDTO(eReference.getName(), "", eReference.getEType().getEPackage().getName() + "::" + eReference.getEType().getName(), eReference.isContainment(), eReference.isMany()))
-                            .toList();
-
-                    var extendedEntities = eClass.getESuperTypes().stream()
-                            .map(eSuperType -> eSuperType.getEPackage().getName() + "::" + eSuperType.getName())
-                            .toList();
-
-                    return new EntityDTO(eClass.getName(), "", extendedEntities, eClass.isAbstract(), attributes, relations);
-                })
-                .toList();
-
-        var dataTypes = ePackage.getEClassifiers().stream()
-                .filter(eClassifier -> !(eClassifier instanceof EEnum))
-                .filter(EDataType.class::isInstance)
-                .map(EDataType.class::cast)
-                .map(eDataType -> new DataTypeDTO(eDataType.getName(), ""))
-                .toList();
-
-        var enumerations = ePackage.getEClassifiers().stream()
-                .filter(EEnum.class::isInstance)
-                .map(EEnum.class::cast)
-                .map(eEnum -> {
-                    var literals = eEnum.getELiterals().stream()
-                            .map(eEnumLiteral -> new EnumerationLiteralDTO(eEnumLiteral.getName(), ""))
-                            .toList();
-                    return new EnumerationDTO(eEnum.getName(), "", literals);
-                })
-                .toList();
-
-        return new DomainDTO(ePackage.getName(), ePackageRegistration.version(), ePackageRegistration.label(), ePackageRegistration.documentation(), entities, dataTypes, enumerations);
+        return this.domainCatalog.findByIdentifier(domain.getIdentifier());
     }
 
     @Override
@@ -126,4 +68,9 @@ public class DomainService implements IDomainService {
         var count = this.domainRepository.count();
         return new PageImpl<>(domains, PageRequest.of(page, rowsPerPage), count);
     }
+
+    @Override
+    public Optional<String> findVersion(String identifier) {
+        return this.domainCatalog.findVersion(identifier);
+    }
 }
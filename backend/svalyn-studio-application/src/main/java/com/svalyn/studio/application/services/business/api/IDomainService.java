@@ -33,4 +33,6 @@ public interface IDomainService {
     Optional<DomainDTO> findByIdentifier(String identifier);
 
     Page<DomainDTO> findAll(int page, int rowsPerPage);
+
+    Optional<String> findVersion(String identifier);
 }
@@ -19,11 +19,9 @@
 
 package com.svalyn.studio.application.services.history;
 
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.BranchDTO;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.history.api.IBranchService;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.history.Branch;
 import com.svalyn.studio.domain.history.repositories.IBranchRepository;
 import org.springframework.data.domain.Page;
@@ -33,6 +31,7 @@ import org.springframework.data.jdbc.core.mapping.AggregateReference;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -45,24 +44,23 @@ import java.util.UUID;
 @Service
 public class BranchService implements IBranchService {
 
-    private final IAccountRepository accountRepository;
     private final IBranchRepository branchRepository;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
-    public BranchService(IAccountRepository accountRepository, IBranchRepository branchRepository, IAvatarUrlService avatarUrlService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public BranchService(IBranchRepository branchRepository, IProfileFilter profileFilter) {
         this.branchRepository = Objects.requireNonNull(branchRepository);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<BranchDTO> findAllByProjectId(UUID projectId, int page, int rowsPerPage) {
-        var branches = this.branchRepository.findAllByProjectId(projectId, page * rowsPerPage, rowsPerPage)
+        var branchDTOs = this.branchRepository.findAllByProjectId(projectId, page * rowsPerPage, rowsPerPage)
                 .stream()
-                .flatMap(branch -> this.toDTO(branch).stream())
+                .map(this::toDTO)
                 .toList();
+        var branches = this.profileFilter.filterAll(branchDTOs, BranchService::profileIds);
         var count = this.branchRepository.countAllByProjectId(projectId);
         return new PageImpl<>(branches, PageRequest.of(page, rowsPerPage), count);
     }
@@ -70,28 +68,25 @@ public class BranchService implements IBranchService {
     @Override
     @Transactional(readOnly = true)
     public Optional<BranchDTO> findByProjectIdAndName(UUID projectId, String name) {
-        return this.branchRepository.findByProjectIdAndName(projectId, name).flatMap(this::toDTO);
+        return this.branchRepository.findByProjectIdAndName(projectId, name)
+                .flatMap(branch -> this.profileFilter.filter(this.toDTO(branch), BranchService::profileIds));
     }
 
-    private Optional<BranchDTO> toDTO(Branch branch) {
-        var optionalCreatedByProfile = this.accountRepository.findById(branch.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(branch.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
+    private BranchDTO toDTO(Branch branch) {
         var changeId = Optional.ofNullable(branch.getChange()).map(AggregateReference::getId).orElse(null);
 
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new BranchDTO(
-                                branch.getId(),
-                                branch.getName(),
-                                changeId,
-                                branch.getCreatedOn(),
-                                createdBy,
-                                branch.getLastModifiedOn(),
-                                lastModifiedBy
-                        )
-                )
+        return new BranchDTO(
+                branch.getId(),
+                branch.getName(),
+                changeId,
+                branch.getCreatedOn(),
+                branch.getCreatedBy().getId(),
+                branch.getLastModifiedOn(),
+                branch.getLastModifiedBy().getId()
         );
     }
+
+    private static List<UUID> profileIds(BranchDTO branchDTO) {
+        return List.of(branchDTO.createdById(), branchDTO.lastModifiedById());
+    }
 }
@@ -31,13 +31,11 @@ import com.svalyn.studio.application.controllers.history.dto.UpdateChangeProposa
 import com.svalyn.studio.application.controllers.history.dto.UpdateChangeProposalStatusInput;
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.history.api.IChangeProposalService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.history.ChangeProposal;
 import com.svalyn.studio.domain.history.ChangeProposalStatus;
 import com.svalyn.studio.domain.history.Review;
@@ -45,9 +43,12 @@ import com.svalyn.studio.domain.history.repositories.IChangeProposalRepository;
 import com.svalyn.studio.domain.history.services.api.IChangeProposalCreationService;
 import com.svalyn.studio.domain.history.services.api.IChangeProposalDeletionService;
 import com.svalyn.studio.domain.history.services.api.IChangeProposalUpdateService;
+import jakarta.validation.ValidationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -64,8 +65,6 @@ import java.util.UUID;
 @Service
 public class ChangeProposalService implements IChangeProposalService {
 
-    private final IAccountRepository accountRepository;
-
     private final IChangeProposalRepository changeProposalRepository;
 
     private final IChangeProposalCreationService changeProposalCreationService;
@@ -74,80 +73,102 @@ public class ChangeProposalService implements IChangeProposalService {
 
     private final IChangeProposalDeletionService changeProposalDeletionService;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
-    public ChangeProposalService(IAccountRepository accountRepository, IChangeProposalRepository changeProposalRepository, IChangeProposalCreationService changeProposalCreationService, IChangeProposalUpdateService changeProposalUpdateService, IChangeProposalDeletionService changeProposalDeletionService, IAvatarUrlService avatarUrlService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public ChangeProposalService(IChangeProposalRepository changeProposalRepository, IChangeProposalCreationService changeProposalCreationService, IChangeProposalUpdateService changeProposalUpdateService, IChangeProposalDeletionService changeProposalDeletionService, IProfileFilter profileFilter) {
         this.changeProposalRepository = Objects.requireNonNull(changeProposalRepository);
         this.changeProposalCreationService = Objects.requireNonNull(changeProposalCreationService);
         this.changeProposalUpdateService = Objects.requireNonNull(changeProposalUpdateService);
         this.changeProposalDeletionService = Objects.requireNonNull(changeProposalDeletionService);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
-    }
-
-    private Optional<ChangeProposalDTO> toDTO(ChangeProposal changeProposal) {
-        var optionalCreatedByProfile = this.accountRepository.findById(changeProposal.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(changeProposal.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new ChangeProposalDTO(
-                                changeProposal.getProject().getId(),
-                                changeProposal.getId(),
-                                changeProposal.getName(),
-                                changeProposal.getReadMe(),
-                                changeProposal.getChange().getId(),
-                                changeProposal.getStatus(),
-                                changeProposal.getCreatedOn(),
-                                createdBy,
-                                changeProposal.getLastModifiedOn(),
-                                lastModifiedBy
-                        )
-                )
+        this.profileFilter = Objects.requireNonNull(profileFilter);
+    }
+
+    private ChangeProposalDTO toDTO(ChangeProposal changeProposal) {
+        return new ChangeProposalDTO(
+                changeProposal.getProject().getId(),
+                changeProposal.getId(),
+                changeProposal.getName(),
+                changeProposal.getReadMe(),
+                changeProposal.getChange().getId(),
+                changeProposal.getStatus(),
+                changeProposal.getCreatedOn(),
+                changeProposal.getCreatedBy().getId(),
+                changeProposal.getLastModifiedOn(),
+                changeProposal.getLastModifiedBy().getId()
         );
     }
 
+    private static List<UUID> profileIds(ChangeProposalDTO changeProposalDTO) {
+        return List.of(changeProposalDTO.createdById(), changeProposalDTO.lastModifiedById());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<ChangeProposalDTO> findById(UUID id) {
-        return this.changeProposalRepository.findById(id).flatMap(this::toDTO);
+        return this.changeProposalRepository.findById(id)
+                .flatMap(changeProposal -> this.profileFilter.filter(this.toDTO(changeProposal), ChangeProposalService::profileIds));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ChangeProposalDTO> findAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status, int page, int rowsPerPage) {
         var stringStatus = status.stream().map(Object::toString).toList();
-        var changesProposals = this.changeProposalRepository.findAllByProjectIdAndStatus(projectId, stringStatus, page * rowsPerPage, rowsPerPage)
+        var changesProposalDTOs = this.changeProposalRepository.findAllByProjectIdAndStatus(projectId, stringStatus, page * rowsPerPage, rowsPerPage)
                 .stream()
-                .flatMap(changeProposal -> this.toDTO(changeProposal).stream())
+                .map(this::toDTO)
                 .toList();
+        var changesProposals = this.profileFilter.filterAll(changesProposalDTOs, ChangeProposalService::profileIds);
         var count = this.changeProposalRepository.countAllByProjectIdAndStatus(projectId, stringStatus);
         return new PageImpl<>(changesProposals, PageRequest.of(page, rowsPerPage), count);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ChangeProposalDTO> findAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status, UUID after, int first) {
+        var stringStatus = status.stream().map(Object::toString).toList();
+        var changeProposals = Optional.ofNullable(after)
+                .map(cursorId -> this.requireCursor(this.changeProposalRepository.findAllByProjectIdAndStatusAfter(projectId, stringStatus, cursorId, first + 1), cursorId))
+                .orElseGet(() -> this.changeProposalRepository.findAllByProjectIdAndStatus(projectId, stringStatus, 0, first + 1));
+        var changeProposalDTOs = this.profileFilter.filterAll(changeProposals.stream().limit(first).map(this::toDTO).toList(), ChangeProposalService::profileIds);
+        var hasNext = changeProposals.size() > first;
+        // The cursors of the connections are the identifiers of the change proposals, the positions are never used
+        return Window.from(changeProposalDTOs, ScrollPosition::offset, hasNext);
+    }
+
+    private List<ChangeProposal> requireCursor(List<ChangeProposal> changeProposals, UUID cursorId) {
+        // Without its change proposal, the cursor cannot be compared to the other ones and nothing would be found
+        if (changeProposals.isEmpty() && !this.changeProposalRepository.existsById(cursorId)) {
+            throw new ValidationException("The change proposal of the cursor does not exist anymore");
+        }
+        return changeProposals;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByProjectIdAndStatusBefore(UUID projectId, List<ChangeProposalStatus> status, UUID cursorId) {
+        var stringStatus = status.stream().map(Object::toString).toList();
+        return this.changeProposalRepository.existsByProjectIdAndStatusBefore(projectId, stringStatus, cursorId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status) {
+        var stringStatus = status.stream().map(Object::toString).toList();
+        return this.changeProposalRepository.countAllByProjectIdAndStatus(projectId, stringStatus);
+    }
+
     @Override
     @Transactional
     public IPayload createChangeProposal(CreateChangeProposalInput input) {
         var result = this.changeProposalCreationService.createChangeProposal(input.projectIdentifier(), input.name(), input.resourceIds());
         return switch (result) {
             case Failure<ChangeProposal> failure -> new ErrorPayload(input.id(), failure.message());
-            case Success<ChangeProposal> success -> new CreateChangeProposalSuccessPayload(input.id(), this.toDTO(success.data()).orElse(null));
+            case Success<ChangeProposal> success -> new CreateChangeProposalSuccessPayload(input.id(), this.toDTO(success.data()));
         };
     }
 
-    private Optional<ReviewDTO> toDTO(Review review) {
-        var optionalCreatedByProfile = this.accountRepository.findById(review.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(review.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new ReviewDTO(review.getId(), review.getMessage(), review.getStatus(), review.getCreatedOn(), createdBy, review.getLastModifiedOn(), lastModifiedBy)
-                )
-        );
+    private ReviewDTO toDTO(Review review) {
+        return new ReviewDTO(review.getId(), review.getMessage(), review.getStatus(), review.getCreatedOn(), review.getCreatedBy().getId(), review.getLastModifiedOn(), review.getLastModifiedBy().getId());
     }
 
     @Override
@@ -156,8 +177,9 @@ public class ChangeProposalService implements IChangeProposalService {
         return this.changeProposalRepository.findById(changeProposalId)
                 .map(ChangeProposal::getReviews)
                 .map(reviews -> reviews.stream()
-                        .flatMap(review -> this.toDTO(review).stream())
+                        .map(this::toDTO)
                         .toList())
+                .map(reviewDTOs -> this.profileFilter.filterAll(reviewDTOs, reviewDTO -> List.of(reviewDTO.createdById(), reviewDTO.lastModifiedById())))
                 .orElse(List.of());
 
     }
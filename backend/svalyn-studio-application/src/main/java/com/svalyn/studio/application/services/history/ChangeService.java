@@ -22,11 +22,9 @@ package com.svalyn.studio.application.services.history;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.history.dto.ChangeDTO;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.history.api.IChangeService;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.history.Change;
 import com.svalyn.studio.domain.history.repositories.IChangeRepository;
 import org.slf4j.Logger;
@@ -47,44 +45,37 @@ import java.util.UUID;
 @Service
 public class ChangeService implements IChangeService {
 
-    private final IAccountRepository accountRepository;
-
     private final IChangeRepository changeRepository;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
     private final Logger logger = LoggerFactory.getLogger(ChangeService.class);
 
-    public ChangeService(IAccountRepository accountRepository, IChangeRepository changeRepository, IAvatarUrlService avatarUrlService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public ChangeService(IChangeRepository changeRepository, IProfileFilter profileFilter) {
         this.changeRepository = Objects.requireNonNull(changeRepository);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
-    private Optional<ChangeDTO> toDTO(Change change) {
-        var optionalCreatedByProfile = this.accountRepository.findById(change.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(change.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new ChangeDTO(
-                                change.getId(),
-                                change.getName(),
-                                change.getCreatedOn(),
-                                createdBy,
-                                change.getLastModifiedOn(),
-                                lastModifiedBy
-                        )
-                )
+    private ChangeDTO toDTO(Change change) {
+        return new ChangeDTO(
+                change.getId(),
+                change.getName(),
+                change.getCreatedOn(),
+                change.getCreatedBy().getId(),
+                change.getLastModifiedOn(),
+                change.getLastModifiedBy().getId()
         );
     }
 
+    private static List<UUID> profileIds(ChangeDTO changeDTO) {
+        return List.of(changeDTO.createdById(), changeDTO.lastModifiedById());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<ChangeDTO> findById(UUID changeId) {
-        return this.changeRepository.findById(changeId).flatMap(this::toDTO);
+        return this.changeRepository.findById(changeId)
+                .flatMap(change -> this.profileFilter.filter(this.toDTO(change), ChangeService::profileIds));
     }
 
     @Override
@@ -31,6 +31,7 @@ import com.svalyn.studio.application.controllers.history.dto.UpdateChangeProposa
 import com.svalyn.studio.application.controllers.dto.IPayload;
 import com.svalyn.studio.domain.history.ChangeProposalStatus;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +45,12 @@ import java.util.UUID;
 public interface IChangeProposalService {
     Page<ChangeProposalDTO> findAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status, int page, int rowsPerPage);
 
+    Window<ChangeProposalDTO> findAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status, UUID after, int first);
+
+    boolean existsByProjectIdAndStatusBefore(UUID projectId, List<ChangeProposalStatus> status, UUID cursorId);
+
+    long countAllByProjectIdAndStatus(UUID projectId, List<ChangeProposalStatus> status);
+
     IPayload createChangeProposal(CreateChangeProposalInput input);
 
     Optional<ChangeProposalDTO> findById(UUID id);
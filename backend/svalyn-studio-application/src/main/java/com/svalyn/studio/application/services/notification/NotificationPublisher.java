@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.notification;
+
+import com.svalyn.studio.application.controllers.notification.dto.NotificationDTO;
+import com.svalyn.studio.application.services.notification.api.INotificationPublisher;
+import com.svalyn.studio.domain.notification.Notification;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Used to publish the changes of the notifications to the subscriptions opened on this node.
+ *
+ * <p>
+ * Subscribers only receive the changes of their own notifications. The number of subscriptions of each account is
+ * tracked so that nothing has to be computed for the accounts without any subscription. Subscribers which cannot keep
+ * up miss some changes instead of slowing down the publication.
+ * </p>
+ *
+ * <p>
+ * Each unread count is numbered before it is computed. A count computed before another one may still be sent after it,
+ * it is then dropped since the count with the greater number has seen at least the same changes.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class NotificationPublisher implements INotificationPublisher {
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+
+    private final Sinks.Many<OwnedValue<NotificationDTO>> notificationsAdded = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Many<OwnedValue<UnreadCount>> unreadCounts = Sinks.many().multicast().directBestEffort();
+
+    private final Map<UUID, Integer> subscriptionCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong unreadCountSequence = new AtomicLong();
+
+    @Override
+    public boolean hasSubscribers(UUID ownerId) {
+        return this.subscriptionCounts.containsKey(ownerId);
+    }
+
+    @Override
+    public Set<UUID> getSubscribedOwnerIds() {
+        return Set.copyOf(this.subscriptionCounts.keySet());
+    }
+
+    @Override
+    public void publishNotificationAdded(Notification notification) {
+        var ownedValue = new OwnedValue<>(notification.getOwnedBy().getId(), NotificationService.toDTO(notification));
+        this.notificationsAdded.emitNext(ownedValue, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+    }
+
+    @Override
+    public void publishUnreadCount(UUID ownerId, LongSupplier unreadCountSupplier) {
+        this.unreadCounts.emitNext(new OwnedValue<>(ownerId, this.computeUnreadCount(unreadCountSupplier)), Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+    }
+
+    @Override
+    public Flux<NotificationDTO> notificationsAdded(UUID ownerId) {
+        return this.subscribe(this.notificationsAdded.asFlux(), ownerId);
+    }
+
+    @Override
+    public Flux<Long> unreadCounts(UUID ownerId, LongSupplier currentUnreadCountSupplier) {
+        return Flux.defer(() -> {
+            var lastSequenceNumber = new AtomicLong();
+            // The changes are received before the current count is computed so that none of them is missed
+            var currentUnreadCount = Mono.fromCallable(() -> this.computeUnreadCount(currentUnreadCountSupplier));
+            return Flux.merge(this.subscribe(this.unreadCounts.asFlux(), ownerId), currentUnreadCount)
+                    .filter(unreadCount -> lastSequenceNumber.getAndAccumulate(unreadCount.sequenceNumber(), Math::max) < unreadCount.sequenceNumber())
+                    .map(UnreadCount::value)
+                    .distinctUntilChanged();
+        });
+    }
+
+    private UnreadCount computeUnreadCount(LongSupplier unreadCountSupplier) {
+        var sequenceNumber = this.unreadCountSequence.incrementAndGet();
+        return new UnreadCount(sequenceNumber, unreadCountSupplier.getAsLong());
+    }
+
+    private <T> Flux<T> subscribe(Flux<OwnedValue<T>> flux, UUID ownerId) {
+        return flux.filter(ownedValue -> ownedValue.ownerId().equals(ownerId))
+                .map(OwnedValue::value)
+                .doOnSubscribe(subscription -> this.subscriptionCounts.merge(ownerId, 1, Integer::sum))
+                .doFinally(signalType -> this.subscriptionCounts.computeIfPresent(ownerId, (key, count) -> this.decrement(count)));
+    }
+
+    private Integer decrement(Integer count) {
+        Integer result = null;
+        if (count > 1) {
+            result = count - 1;
+        }
+        return result;
+    }
+
+    /**
+     * A value published to the subscriptions of a single account.
+     *
+     * @author sbegaudeau
+     */
+    private record OwnedValue<T>(UUID ownerId, T value) {
+    }
+
+    /**
+     * An unread count along with the number given to it before it was computed.
+     *
+     * @author sbegaudeau
+     */
+    private record UnreadCount(long sequenceNumber, long value) {
+    }
+}
@@ -21,29 +21,33 @@ package com.svalyn.studio.application.services.notification;
 
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.notification.dto.NotificationDTO;
 import com.svalyn.studio.application.controllers.notification.dto.UpdateNotificationsStatusInput;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
+import com.svalyn.studio.application.services.notification.api.INotificationPublisher;
 import com.svalyn.studio.application.services.notification.api.INotificationService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.account.UserIdProvider;
 import com.svalyn.studio.domain.notification.Notification;
 import com.svalyn.studio.domain.notification.NotificationStatus;
 import com.svalyn.studio.domain.notification.repositories.INotificationRepository;
 import com.svalyn.studio.domain.notification.services.api.INotificationUpdateService;
+import jakarta.validation.ValidationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Used to manipulate notifications.
@@ -53,47 +57,39 @@ import java.util.Optional;
 @Service
 public class NotificationService implements INotificationService {
 
-    private final IAccountRepository accountRepository;
-
     private final INotificationRepository notificationRepository;
 
-    private final IAvatarUrlService avatarUrlService;
-
     private final INotificationUpdateService notificationUpdateService;
 
-    public NotificationService(IAccountRepository accountRepository, INotificationRepository notificationRepository, IAvatarUrlService avatarUrlService, INotificationUpdateService notificationUpdateService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    private final INotificationPublisher notificationPublisher;
+
+    private final IProfileFilter profileFilter;
+
+    public NotificationService(INotificationRepository notificationRepository, INotificationUpdateService notificationUpdateService,
+                               INotificationPublisher notificationPublisher, IProfileFilter profileFilter) {
         this.notificationRepository = Objects.requireNonNull(notificationRepository);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
         this.notificationUpdateService = Objects.requireNonNull(notificationUpdateService);
+        this.notificationPublisher = Objects.requireNonNull(notificationPublisher);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
-    private Optional<NotificationDTO> toDTO(Notification notification) {
-        var optionalOwnedByProfile = this.accountRepository.findById(notification.getOwnedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalCreatedByProfile = this.accountRepository.findById(notification.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(notification.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalOwnedByProfile.flatMap(ownedBy ->
-                optionalCreatedByProfile.flatMap(createdBy ->
-                        optionalLastModifiedByProfile.map(lastModifiedBy ->
-                                new NotificationDTO(
-                                        notification.getId(),
-                                        notification.getTitle(),
-                                        notification.getStatus(),
-                                        notification.getRelatedUrl(),
-                                        notification.getCreatedOn(),
-                                        createdBy,
-                                        notification.getLastModifiedOn(),
-                                        lastModifiedBy
-                                )
-                        )
-                )
+    static NotificationDTO toDTO(Notification notification) {
+        return new NotificationDTO(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getStatus(),
+                notification.getRelatedUrl(),
+                notification.getCreatedOn(),
+                notification.getCreatedBy().getId(),
+                notification.getLastModifiedOn(),
+                notification.getLastModifiedBy().getId()
         );
     }
 
+    private static List<UUID> profileIds(NotificationDTO notificationDTO) {
+        return List.of(notificationDTO.createdById(), notificationDTO.lastModifiedById());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public long unreadNotificationsCount() {
@@ -106,12 +102,49 @@ public class NotificationService implements INotificationService {
         var statusString = status.stream().map(Objects::toString).toList();
         var userId = UserIdProvider.get().getId();
         var count = this.notificationRepository.countByStatus(statusString, userId);
-        var notifications = this.notificationRepository.findAllByStatus(statusString, userId, page * rowsPerPage, rowsPerPage).stream()
-                .flatMap(notification -> this.toDTO(notification).stream())
+        var notificationDTOs = this.notificationRepository.findAllByStatus(statusString, userId, page * rowsPerPage, rowsPerPage).stream()
+                .map(NotificationService::toDTO)
                 .toList();
+        var notifications = this.profileFilter.filterAll(notificationDTOs, NotificationService::profileIds);
         return new PageImpl<>(notifications, PageRequest.of(page, rowsPerPage), count);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<NotificationDTO> findAllByStatus(List<NotificationStatus> status, UUID after, int first) {
+        var statusString = status.stream().map(Objects::toString).toList();
+        var userId = UserIdProvider.get().getId();
+        var notifications = Optional.ofNullable(after)
+                .map(cursorId -> this.requireCursor(this.notificationRepository.findAllByStatusAfter(statusString, userId, cursorId, first + 1), cursorId))
+                .orElseGet(() -> this.notificationRepository.findAllByStatus(statusString, userId, 0, first + 1));
+        var notificationDTOs = this.profileFilter.filterAll(notifications.stream().limit(first).map(NotificationService::toDTO).toList(), NotificationService::profileIds);
+        var hasNext = notifications.size() > first;
+        // The cursors of the connections are the identifiers of the notifications, the positions are never used
+        return Window.from(notificationDTOs, ScrollPosition::offset, hasNext);
+    }
+
+    private List<Notification> requireCursor(List<Notification> notifications, UUID cursorId) {
+        // Without its notification, the cursor cannot be compared to the other ones and nothing would be found
+        if (notifications.isEmpty() && !this.notificationRepository.existsById(cursorId)) {
+            throw new ValidationException("The notification of the cursor does not exist anymore");
+        }
+        return notifications;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByStatusBefore(List<NotificationStatus> status, UUID cursorId) {
+        var statusString = status.stream().map(Objects::toString).toList();
+        return this.notificationRepository.existsByStatusBefore(statusString, UserIdProvider.get().getId(), cursorId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByStatus(List<NotificationStatus> status) {
+        var statusString = status.stream().map(Objects::toString).toList();
+        return this.notificationRepository.countByStatus(statusString, UserIdProvider.get().getId());
+    }
+
     @Override
     @Transactional
     public IPayload updateStatus(UpdateNotificationsStatusInput input) {
@@ -121,4 +154,15 @@ public class NotificationService implements INotificationService {
             case Success<Void> success -> new SuccessPayload(input.id());
         };
     }
+
+    @Override
+    public Flux<NotificationDTO> notificationAdded() {
+        return this.notificationPublisher.notificationsAdded(UserIdProvider.get().getId());
+    }
+
+    @Override
+    public Flux<Long> unreadCountChanged() {
+        var userId = UserIdProvider.get().getId();
+        return this.notificationPublisher.unreadCounts(userId, () -> this.notificationRepository.countByStatus(List.of(NotificationStatus.UNREAD.toString()), userId));
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.notification.api;
+
+import com.svalyn.studio.application.controllers.notification.dto.NotificationDTO;
+import com.svalyn.studio.domain.notification.Notification;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Used to publish the changes of the notifications to the subscriptions of their owner.
+ *
+ * @author sbegaudeau
+ */
+public interface INotificationPublisher {
+    boolean hasSubscribers(UUID ownerId);
+
+    Set<UUID> getSubscribedOwnerIds();
+
+    void publishNotificationAdded(Notification notification);
+
+    void publishUnreadCount(UUID ownerId, LongSupplier unreadCountSupplier);
+
+    Flux<NotificationDTO> notificationsAdded(UUID ownerId);
+
+    /**
+     * Returns the current unread count of the given account followed by its changes.
+     */
+    Flux<Long> unreadCounts(UUID ownerId, LongSupplier currentUnreadCountSupplier);
+}
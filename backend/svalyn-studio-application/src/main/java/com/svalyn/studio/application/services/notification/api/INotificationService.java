@@ -24,8 +24,11 @@ import com.svalyn.studio.application.controllers.notification.dto.NotificationDT
 import com.svalyn.studio.application.controllers.notification.dto.UpdateNotificationsStatusInput;
 import com.svalyn.studio.domain.notification.NotificationStatus;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Used to manipulate notifications.
@@ -37,5 +40,15 @@ public interface INotificationService {
 
     Page<NotificationDTO> findAllByStatus(List<NotificationStatus> status, int page, int rowsPerPage);
 
+    Window<NotificationDTO> findAllByStatus(List<NotificationStatus> status, UUID after, int first);
+
+    boolean existsByStatusBefore(List<NotificationStatus> status, UUID cursorId);
+
+    long countByStatus(List<NotificationStatus> status);
+
     IPayload updateStatus(UpdateNotificationsStatusInput input);
+
+    Flux<NotificationDTO> notificationAdded();
+
+    Flux<Long> unreadCountChanged();
 }
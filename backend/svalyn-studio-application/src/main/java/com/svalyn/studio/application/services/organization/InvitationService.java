@@ -21,7 +21,6 @@ package com.svalyn.studio.application.services.organization;
 
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.organization.dto.AcceptInvitationInput;
 import com.svalyn.studio.application.controllers.organization.dto.DeclineInvitationInput;
@@ -29,7 +28,7 @@ import com.svalyn.studio.application.controllers.organization.dto.InvitationDTO;
 import com.svalyn.studio.application.controllers.organization.dto.InviteMemberInput;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.organization.dto.RevokeInvitationInput;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.organization.api.IInvitationService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
@@ -47,8 +46,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -66,33 +65,24 @@ public class InvitationService implements IInvitationService {
 
     private final IOrganizationUpdateService organizationUpdateService;
 
-    private final IAvatarUrlService avatarUrlService;
-
     private final IMessageService messageService;
 
-    public InvitationService(IAccountRepository accountRepository, IOrganizationRepository organizationRepository, IOrganizationUpdateService organizationUpdateService, IAvatarUrlService avatarUrlService, IMessageService messageService) {
+    private final IProfileFilter profileFilter;
+
+    public InvitationService(IAccountRepository accountRepository, IOrganizationRepository organizationRepository, IOrganizationUpdateService organizationUpdateService, IMessageService messageService, IProfileFilter profileFilter) {
         this.accountRepository = Objects.requireNonNull(accountRepository);
         this.organizationRepository = Objects.requireNonNull(organizationRepository);
         this.organizationUpdateService = Objects.requireNonNull(organizationUpdateService);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
         this.messageService = Objects.requireNonNull(messageService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
+    }
+
+    private InvitationDTO toDTO(Invitation invitation, UUID organizationId) {
+        return new InvitationDTO(invitation.getId(), organizationId, invitation.getMemberId().getId(), invitation.getCreatedOn(), invitation.getCreatedBy().getId(), invitation.getLastModifiedOn(), invitation.getLastModifiedBy().getId());
     }
 
-    private Optional<InvitationDTO> toDTO(Invitation invitation, UUID organizationId) {
-        var optionalCreatedByProfile = this.accountRepository.findById(invitation.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(invitation.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalMemberProfile = this.accountRepository.findById(invitation.getMemberId().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalMemberProfile.flatMap(member ->
-                optionalCreatedByProfile.flatMap(createdBy ->
-                        optionalLastModifiedByProfile.map(lastModifiedBy ->
-                                new InvitationDTO(invitation.getId(), organizationId, member, invitation.getCreatedOn(), createdBy, invitation.getLastModifiedOn(), lastModifiedBy)
-                        )
-                )
-        );
+    private static List<UUID> profileIds(InvitationDTO invitationDTO) {
+        return List.of(invitationDTO.memberId(), invitationDTO.createdById(), invitationDTO.lastModifiedById());
     }
 
     @Override
@@ -104,9 +94,9 @@ public class InvitationService implements IInvitationService {
         var invitations = organizations.stream()
                 .flatMap(organization -> organization.getInvitations().stream()
                         .filter(invitation -> invitation.getMemberId().getId().equals(userId))
-                        .flatMap(invitation -> this.toDTO(invitation, organization.getId()).stream()))
+                        .map(invitation -> this.toDTO(invitation, organization.getId())))
                 .toList();
-        return new PageImpl<>(invitations, PageRequest.of(page, rowsPerPage), organizationsCount);
+        return new PageImpl<>(this.profileFilter.filterAll(invitations, InvitationService::profileIds), PageRequest.of(page, rowsPerPage), organizationsCount);
     }
 
     @Override
@@ -114,10 +104,11 @@ public class InvitationService implements IInvitationService {
     public Page<InvitationDTO> findAll(OrganizationDTO organization, int page, int rowsPerPage) {
         var optionalOrganization = this.organizationRepository.findByIdentifier(organization.identifier());
         var invitations = optionalOrganization.map(Organization::getInvitations).orElse(Set.of());
-        var sortedInvitations = invitations.stream()
+        var invitationDTOs = invitations.stream()
                 .sorted(Comparator.comparing(Invitation::getCreatedOn))
-                .flatMap(invitation -> this.toDTO(invitation, organization.id()).stream())
+                .map(invitation -> this.toDTO(invitation, organization.id()))
                 .toList();
+        var sortedInvitations = this.profileFilter.filterAll(invitationDTOs, InvitationService::profileIds);
 
         var fromIndex = Math.min(page * rowsPerPage, sortedInvitations.size());
         var toIndex = Math.min(fromIndex + rowsPerPage, sortedInvitations.size());
@@ -21,16 +21,14 @@ package com.svalyn.studio.application.services.organization;
 
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.organization.dto.MembershipDTO;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.organization.dto.RevokeMembershipsInput;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.organization.api.IMembershipService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.organization.Membership;
 import com.svalyn.studio.domain.organization.Organization;
 import com.svalyn.studio.domain.organization.repositories.IOrganizationRepository;
@@ -42,9 +40,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Used to manipulate memberships.
@@ -54,36 +53,24 @@ import java.util.Set;
 @Service
 public class MembershipService implements IMembershipService {
 
-    private final IAccountRepository accountRepository;
-
     private final IOrganizationRepository organizationRepository;
 
     private final IOrganizationUpdateService organizationUpdateService;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
-    public MembershipService(IAccountRepository accountRepository, IOrganizationRepository organizationRepository, IOrganizationUpdateService organizationUpdateService, IAvatarUrlService avatarUrlService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public MembershipService(IOrganizationRepository organizationRepository, IOrganizationUpdateService organizationUpdateService, IProfileFilter profileFilter) {
         this.organizationRepository = Objects.requireNonNull(organizationRepository);
         this.organizationUpdateService = Objects.requireNonNull(organizationUpdateService);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
-    private Optional<MembershipDTO> toDTO(Membership membership) {
-        var optionalCreatedByProfile = this.accountRepository.findById(membership.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(membership.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalMemberProfile = this.accountRepository.findById(membership.getMemberId().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
+    private MembershipDTO toDTO(Membership membership) {
+        return new MembershipDTO(membership.getId(), membership.getMemberId().getId(), membership.getCreatedOn(), membership.getCreatedBy().getId(), membership.getLastModifiedOn(), membership.getLastModifiedBy().getId());
+    }
 
-        return optionalMemberProfile.flatMap(member ->
-                optionalCreatedByProfile.flatMap(createdBy ->
-                        optionalLastModifiedByProfile.map(lastModifiedBy ->
-                                new MembershipDTO(membership.getId(), member, membership.getCreatedOn(), createdBy, membership.getLastModifiedOn(), lastModifiedBy)
-                        )
-                )
-        );
+    private static List<UUID> profileIds(MembershipDTO membershipDTO) {
+        return List.of(membershipDTO.memberId(), membershipDTO.createdById(), membershipDTO.lastModifiedById());
     }
 
     @Override
@@ -91,10 +78,11 @@ public class MembershipService implements IMembershipService {
     public Page<MembershipDTO> findAll(OrganizationDTO organization, int page, int rowsPerPage) {
         var optionalOrganization = this.organizationRepository.findByIdentifier(organization.identifier());
         var memberships = optionalOrganization.map(Organization::getMemberships).orElse(Set.of());
-        var sortedMemberships = memberships.stream()
+        var membershipDTOs = memberships.stream()
                 .sorted(Comparator.comparing(Membership::getCreatedOn))
-                .flatMap(membership -> this.toDTO(membership).stream())
+                .map(this::toDTO)
                 .toList();
+        var sortedMemberships = this.profileFilter.filterAll(membershipDTOs, MembershipService::profileIds);
 
         var fromIndex = Math.min(page * rowsPerPage, sortedMemberships.size());
         var toIndex = Math.min(fromIndex + rowsPerPage, sortedMemberships.size());
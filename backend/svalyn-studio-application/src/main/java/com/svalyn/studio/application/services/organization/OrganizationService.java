@@ -21,7 +21,6 @@ package com.svalyn.studio.application.services.organization;
 
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.organization.dto.CreateOrganizationInput;
 import com.svalyn.studio.application.controllers.organization.dto.CreateOrganizationSuccessPayload;
@@ -29,11 +28,10 @@ import com.svalyn.studio.application.controllers.organization.dto.DeleteOrganiza
 import com.svalyn.studio.application.controllers.organization.dto.LeaveOrganizationInput;
 import com.svalyn.studio.application.controllers.organization.dto.OrganizationDTO;
 import com.svalyn.studio.application.controllers.organization.dto.UpdateOrganizationNameInput;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.organization.api.IOrganizationService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.account.UserIdProvider;
 import com.svalyn.studio.domain.organization.Organization;
 import com.svalyn.studio.domain.organization.repositories.IOrganizationRepository;
@@ -60,10 +58,6 @@ import java.util.UUID;
 @Service
 public class OrganizationService implements IOrganizationService {
 
-    private final IAccountRepository accountRepository;
-
-    private final IAvatarUrlService avatarUrlService;
-
     private final IOrganizationRepository organizationRepository;
 
     private final IOrganizationCreationService organizationCreationService;
@@ -74,65 +68,64 @@ public class OrganizationService implements IOrganizationService {
 
     private final IOrganizationPermissionService organizationPermissionService;
 
-    public OrganizationService(IAccountRepository accountRepository, IAvatarUrlService avatarUrlService, IOrganizationRepository organizationRepository, IOrganizationCreationService organizationCreationService, IOrganizationUpdateService organizationUpdateService, IOrganizationDeletionService organizationDeletionService, IOrganizationPermissionService organizationPermissionService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
+    private final IProfileFilter profileFilter;
+
+    public OrganizationService(IOrganizationRepository organizationRepository, IOrganizationCreationService organizationCreationService, IOrganizationUpdateService organizationUpdateService, IOrganizationDeletionService organizationDeletionService, IOrganizationPermissionService organizationPermissionService, IProfileFilter profileFilter) {
         this.organizationRepository = Objects.requireNonNull(organizationRepository);
         this.organizationCreationService = Objects.requireNonNull(organizationCreationService);
         this.organizationUpdateService = Objects.requireNonNull(organizationUpdateService);
         this.organizationDeletionService = Objects.requireNonNull(organizationDeletionService);
         this.organizationPermissionService = Objects.requireNonNull(organizationPermissionService);
+        this.profileFilter = Objects.requireNonNull(profileFilter);
     }
 
-    private Optional<OrganizationDTO> toDTO(Organization organization) {
-        var optionalCreatedByProfile = this.accountRepository.findById(organization.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(organization.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
+    private OrganizationDTO toDTO(Organization organization) {
         var userId = UserIdProvider.get().getId();
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new OrganizationDTO(
-                                organization.getId(),
-                                organization.getIdentifier(),
-                                organization.getName(),
-                                this.organizationPermissionService.role(userId, organization.getId()),
-                                organization.getCreatedOn(),
-                                createdBy,
-                                organization.getLastModifiedOn(),
-                                lastModifiedBy
-                        )
-                )
+        return new OrganizationDTO(
+                organization.getId(),
+                organization.getIdentifier(),
+                organization.getName(),
+                this.organizationPermissionService.role(userId, organization.getId()),
+                organization.getCreatedOn(),
+                organization.getCreatedBy().getId(),
+                organization.getLastModifiedOn(),
+                organization.getLastModifiedBy().getId()
         );
     }
 
+    private static List<UUID> profileIds(OrganizationDTO organizationDTO) {
+        return List.of(organizationDTO.createdById(), organizationDTO.lastModifiedById());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<OrganizationDTO> findAll() {
         var pageable = PageRequest.of(0, 20);
-        var organizationDTOs = this.organizationRepository.findAll(pageable).stream().flatMap(organization -> this.toDTO(organization).stream()).toList();
+        var organizationDTOs = this.profileFilter.filterAll(this.organizationRepository.findAll(pageable).stream().map(this::toDTO).toList(), OrganizationService::profileIds);
         return new PageImpl<>(organizationDTOs, pageable, organizationDTOs.size());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<OrganizationDTO> findById(UUID id) {
-        return this.organizationRepository.findById(id).flatMap(this::toDTO);
+        return this.organizationRepository.findById(id)
+                .flatMap(organization -> this.profileFilter.filter(this.toDTO(organization), OrganizationService::profileIds));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<OrganizationDTO> findByIdentifier(String identifier) {
-        return this.organizationRepository.findByIdentifier(identifier).flatMap(this::toDTO);
+        return this.organizationRepository.findByIdentifier(identifier)
+                .flatMap(organization -> this.profileFilter.filter(this.toDTO(organization), OrganizationService::profileIds));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrganizationDTO> searchAllMatching(String query) {
-        return this.organizationRepository.searchAllMatching(query, 0, 20).stream()
-                .flatMap(organization -> this.toDTO(organization).stream())
+        var organizationDTOs = this.organizationRepository.searchAllMatching(query, 0, 20).stream()
+                .map(this::toDTO)
                 .toList();
+        return this.profileFilter.filterAll(organizationDTOs, OrganizationService::profileIds);
     }
 
     @Override
@@ -141,7 +134,7 @@ public class OrganizationService implements IOrganizationService {
         var result = this.organizationCreationService.createOrganization(input.identifier(), input.name());
         return switch (result) {
             case Failure<Organization> failure -> new ErrorPayload(input.id(), failure.message());
-            case Success<Organization> success -> new CreateOrganizationSuccessPayload(input.id(), this.toDTO(success.data()).orElse(null));
+            case Success<Organization> success -> new CreateOrganizationSuccessPayload(input.id(), this.toDTO(success.data()));
         };
     }
 
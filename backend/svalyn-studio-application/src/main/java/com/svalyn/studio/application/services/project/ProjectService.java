@@ -21,7 +21,6 @@ package com.svalyn.studio.application.services.project;
 
 import com.svalyn.studio.application.controllers.dto.ErrorPayload;
 import com.svalyn.studio.application.controllers.dto.IPayload;
-import com.svalyn.studio.application.controllers.dto.ProfileDTO;
 import com.svalyn.studio.application.controllers.dto.SuccessPayload;
 import com.svalyn.studio.application.controllers.project.dto.CreateProjectInput;
 import com.svalyn.studio.application.controllers.project.dto.CreateProjectSuccessPayload;
@@ -30,19 +29,21 @@ import com.svalyn.studio.application.controllers.project.dto.ProjectDTO;
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectDescriptionInput;
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectNameInput;
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectReadMeInput;
-import com.svalyn.studio.application.services.account.api.IAvatarUrlService;
+import com.svalyn.studio.application.services.account.api.IProfileFilter;
 import com.svalyn.studio.application.services.project.api.IProjectService;
 import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.Success;
-import com.svalyn.studio.domain.account.repositories.IAccountRepository;
 import com.svalyn.studio.domain.project.Project;
 import com.svalyn.studio.domain.project.repositories.IProjectRepository;
 import com.svalyn.studio.domain.project.services.api.IProjectCreationService;
 import com.svalyn.studio.domain.project.services.api.IProjectDeletionService;
 import com.svalyn.studio.domain.project.services.api.IProjectUpdateService;
+import jakarta.validation.ValidationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -59,8 +60,6 @@ import java.util.UUID;
 @Service
 public class ProjectService implements IProjectService {
 
-    private final IAccountRepository accountRepository;
-
     private final IProjectRepository projectRepository;
 
     private final IProjectCreationService projectCreationService;
@@ -69,69 +68,99 @@ public class ProjectService implements IProjectService {
 
     private final IProjectDeletionService projectDeletionService;
 
-    private final IAvatarUrlService avatarUrlService;
+    private final IProfileFilter profileFilter;
 
-    public ProjectService(IAccountRepository accountRepository, IProjectRepository projectRepository, IProjectCreationService projectCreationService, IProjectUpdateService projectUpdateService, IProjectDeletionService projectDeletionService, IAvatarUrlService avatarUrlService) {
-        this.accountRepository = Objects.requireNonNull(accountRepository);
+    public ProjectService(IProjectRepository projectRepository, IProjectCreationService projectCreationService, IProjectUpdateService projectUpdateService, IProjectDeletionService projectDeletionService, IProfileFilter profileFilter) {
         this.projectRepository = Objects.requireNonNull(projectRepository);
         this.projectCreationService = Objects.requireNonNull(projectCreationService);
         this.projectUpdateService = Objects.requireNonNull(projectUpdateService);
         this.projectDeletionService = Objects.requireNonNull(projectDeletionService);
-        this.avatarUrlService = Objects.requireNonNull(avatarUrlService);
-    }
-
-    private Optional<ProjectDTO> toDTO(Project project) {
-        var optionalCreatedByProfile = this.accountRepository.findById(project.getCreatedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-        var optionalLastModifiedByProfile = this.accountRepository.findById(project.getLastModifiedBy().getId())
-                .map(account -> new ProfileDTO(account.getName(), account.getUsername(), this.avatarUrlService.imageUrl(account.getUsername()), account.getCreatedOn()));
-
-        return optionalCreatedByProfile.flatMap(createdBy ->
-                optionalLastModifiedByProfile.map(lastModifiedBy ->
-                        new ProjectDTO(
-                                project.getOrganization().getId(),
-                                project.getId(),
-                                project.getIdentifier(),
-                                project.getName(),
-                                project.getDescription(),
-                                project.getReadMe(),
-                                project.getCreatedOn(),
-                                createdBy,
-                                project.getLastModifiedOn(),
-                                lastModifiedBy
-                        )
-                )
+        this.profileFilter = Objects.requireNonNull(profileFilter);
+    }
+
+    private ProjectDTO toDTO(Project project) {
+        return new ProjectDTO(
+                project.getOrganization().getId(),
+                project.getId(),
+                project.getIdentifier(),
+                project.getName(),
+                project.getDescription(),
+                project.getReadMe(),
+                project.getCreatedOn(),
+                project.getCreatedBy().getId(),
+                project.getLastModifiedOn(),
+                project.getLastModifiedBy().getId()
         );
     }
 
+    private static List<UUID> profileIds(ProjectDTO projectDTO) {
+        return List.of(projectDTO.createdById(), projectDTO.lastModifiedById());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProjectDTO> findAllByOrganizationId(UUID organizationId, int page, int rowsPerPage) {
-        var projects = this.projectRepository.findAllByOrganizationId(organizationId, page * rowsPerPage, rowsPerPage).stream()
-                .flatMap(project -> this.toDTO(project).stream())
+        var projectDTOs = this.projectRepository.findAllByOrganizationId(organizationId, page * rowsPerPage, rowsPerPage).stream()
+                .map(this::toDTO)
                 .toList();
+        var projects = this.profileFilter.filterAll(projectDTOs, ProjectService::profileIds);
         var count = this.projectRepository.countAllByOrganizationId(organizationId);
         return new PageImpl<>(projects, PageRequest.of(page, rowsPerPage), count);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ProjectDTO> findAllByOrganizationId(UUID organizationId, String afterIdentifier, int first) {
+        var projects = Optional.ofNullable(afterIdentifier)
+                .map(cursorIdentifier -> this.requireCursor(this.projectRepository.findAllByOrganizationIdAfter(organizationId, cursorIdentifier, first + 1), cursorIdentifier))
+                .orElseGet(() -> this.projectRepository.findAllByOrganizationId(organizationId, 0, first + 1));
+        var projectDTOs = this.profileFilter.filterAll(projects.stream().limit(first).map(this::toDTO).toList(), ProjectService::profileIds);
+        var hasNext = projects.size() > first;
+        // The cursors of the connections are the identifiers of the projects, the positions are never used
+        return Window.from(projectDTOs, ScrollPosition::offset, hasNext);
+    }
+
+    private List<Project> requireCursor(List<Project> projects, String cursorIdentifier) {
+        // Without its project, the cursor cannot be compared to the other ones and nothing would be found
+        if (projects.isEmpty() && this.projectRepository.findByIdentifier(cursorIdentifier).isEmpty()) {
+            throw new ValidationException("The project of the cursor does not exist anymore");
+        }
+        return projects;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByOrganizationIdBefore(UUID organizationId, String cursorIdentifier) {
+        return this.projectRepository.existsByOrganizationIdBefore(organizationId, cursorIdentifier);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countAllByOrganizationId(UUID organizationId) {
+        return this.projectRepository.countAllByOrganizationId(organizationId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<ProjectDTO> findById(UUID projectId) {
-        return this.projectRepository.findById(projectId).flatMap(this::toDTO);
+        return this.projectRepository.findById(projectId)
+                .flatMap(project -> this.profileFilter.filter(this.toDTO(project), ProjectService::profileIds));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<ProjectDTO> findByIdentifier(String identifier) {
-        return this.projectRepository.findByIdentifier(identifier).flatMap(this::toDTO);
+        return this.projectRepository.findByIdentifier(identifier)
+                .flatMap(project -> this.profileFilter.filter(this.toDTO(project), ProjectService::profileIds));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProjectDTO> searchAllMatching(String query) {
-        return this.projectRepository.searchAllMatching(query, 0, 20).stream()
-                .flatMap(project -> this.toDTO(project).stream())
+        var projectDTOs = this.projectRepository.searchAllMatching(query, 0, 20).stream()
+                .map(this::toDTO)
                 .toList();
+        return this.profileFilter.filterAll(projectDTOs, ProjectService::profileIds);
     }
 
     @Override
@@ -140,7 +169,7 @@ public class ProjectService implements IProjectService {
         var result = this.projectCreationService.createProject(input.organizationIdentifier(), input.identifier(), input.name(), input.description());
         return switch (result) {
             case Failure<Project> failure -> new ErrorPayload(input.id(), failure.message());
-            case Success<Project> success -> new CreateProjectSuccessPayload(input.id(), this.toDTO(success.data()).orElse(null));
+            case Success<Project> success -> new CreateProjectSuccessPayload(input.id(), this.toDTO(success.data()));
         };
     }
 
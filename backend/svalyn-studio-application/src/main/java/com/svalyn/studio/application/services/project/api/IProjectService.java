@@ -27,6 +27,7 @@ import com.svalyn.studio.application.controllers.project.dto.UpdateProjectDescri
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectNameInput;
 import com.svalyn.studio.application.controllers.project.dto.UpdateProjectReadMeInput;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +41,12 @@ import java.util.UUID;
 public interface IProjectService {
     Page<ProjectDTO> findAllByOrganizationId(UUID organizationId, int page, int rowsPerPage);
 
+    Window<ProjectDTO> findAllByOrganizationId(UUID organizationId, String afterIdentifier, int first);
+
+    boolean existsByOrganizationIdBefore(UUID organizationId, String cursorIdentifier);
+
+    long countAllByOrganizationId(UUID organizationId);
+
     Optional<ProjectDTO> findById(UUID projectId);
 
     Optional<ProjectDTO> findByIdentifier(String identifier);
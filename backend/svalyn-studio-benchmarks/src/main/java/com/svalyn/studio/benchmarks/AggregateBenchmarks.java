@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.domain.AbstractValidatingAggregateRoot;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountRole;
+import com.svalyn.studio.domain.organization.Organization;
+import com.svalyn.studio.domain.project.Project;
+import com.svalyn.studio.domain.resource.ContentType;
+import com.svalyn.studio.domain.resource.Resource;
+import com.svalyn.studio.domain.resource.events.ResourceCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the builders of the aggregates, including the validation of the events they register.
+ *
+ * <p>
+ * The baseline only creates a resource created event, the cost of its registration and thus of its validation is the
+ * difference between the baseline and the registration of this event by an aggregate.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregateBenchmarks {
+
+    private static final byte[] CONTENT = "# Svalyn Studio".getBytes(StandardCharsets.UTF_8);
+
+    private AggregateReference<Organization, UUID> organization;
+
+    private BenchmarkUser user;
+
+    private Resource resource;
+
+    @Setup
+    public void setup() {
+        this.user = BenchmarkUser.authenticate();
+        this.organization = AggregateReference.to(UUID.randomUUID());
+        this.resource = this.createResource();
+    }
+
+    @Benchmark
+    public ResourceCreatedEvent baseline() {
+        return new ResourceCreatedEvent(UUID.randomUUID(), Instant.now(), this.user.toProfile(), this.resource);
+    }
+
+    @Benchmark
+    public EventRecorder registerResourceCreatedEvent() {
+        var eventRecorder = new EventRecorder();
+        eventRecorder.register(new ResourceCreatedEvent(UUID.randomUUID(), Instant.now(), this.user.toProfile(), this.resource));
+        return eventRecorder;
+    }
+
+    @Benchmark
+    public Account createAccount() {
+        return Account.newAccount()
+                .role(AccountRole.USER)
+                .username("johndoe")
+                .name("John Doe")
+                .email("john.doe@example.org")
+                .build();
+    }
+
+    @Benchmark
+    public Organization createOrganization() {
+        return Organization.newOrganization()
+                .identifier("svalyn")
+                .name("Svalyn")
+                .initialMembers(List.of(AggregateReference.to(this.user.getId())))
+                .build();
+    }
+
+    @Benchmark
+    public Project createProject() {
+        return Project.newProject()
+                .organization(this.organization)
+                .identifier("studio")
+                .name("Studio")
+                .description("The studio")
+                .readMe("")
+                .build();
+    }
+
+    @Benchmark
+    public Resource createResource() {
+        return Resource.newResource()
+                .name("README.md")
+                .path("docs")
+                .contentType(ContentType.TEXT_PLAIN)
+                .content(CONTENT)
+                .build();
+    }
+
+    /**
+     * An aggregate used to register events directly.
+     *
+     * @author sbegaudeau
+     */
+    public static final class EventRecorder extends AbstractValidatingAggregateRoot<EventRecorder> {
+        void register(Object event) {
+            this.registerEvent(event);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks.
+ *
+ * <p>
+ * It accepts the regular JMH options but writes the results in JSON in jmh-result.json unless another format or file
+ * is requested, so that they can be compared from one release to the next.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public final class Benchmarks {
+
+    private static final String RESULT_FORMAT_OPTION = "-rf";
+
+    private static final String RESULT_FILE_OPTION = "-rff";
+
+    private Benchmarks() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        var arguments = new ArrayList<>(List.of(args));
+        if (!arguments.contains(RESULT_FORMAT_OPTION)) {
+            arguments.addAll(List.of(RESULT_FORMAT_OPTION, "json"));
+        }
+        if (!arguments.contains(RESULT_FILE_OPTION)) {
+            arguments.addAll(List.of(RESULT_FILE_OPTION, "jmh-result.json"));
+        }
+        Main.main(arguments.toArray(String[]::new));
+    }
+}
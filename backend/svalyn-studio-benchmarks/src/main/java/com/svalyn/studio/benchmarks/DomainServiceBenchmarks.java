@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.application.controllers.business.dto.DomainDTO;
+import com.svalyn.studio.application.services.business.DomainCatalog;
+import com.svalyn.studio.application.services.business.DomainService;
+import com.svalyn.studio.domain.business.Domain;
+import com.svalyn.studio.domain.business.repositories.IDomainRepository;
+import com.svalyn.studio.domain.business.services.EPackageRegistration;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks of the conversion of the domains into DTOs, using the Ecore metamodel as a typical domain.
+ *
+ * <p>
+ * The DTOs are converted once when the catalog of the domains is created, <code>createCatalog</code> thus measures the
+ * conversion itself while <code>findByIdentifier</code> measures the retrieval of a domain already converted.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainServiceBenchmarks {
+
+    private DomainService domainService;
+
+    private String identifier;
+
+    private List<EPackageRegistration> ePackageRegistrations;
+
+    @Setup
+    public void setup() {
+        BenchmarkUser.authenticate();
+
+        var ePackageRegistration = new EPackageRegistration(EcorePackage.eINSTANCE, "Ecore", "2002", "");
+        this.identifier = EcorePackage.eINSTANCE.getName();
+
+        var domain = Domain.newDomain()
+                .identifier(this.identifier)
+                .version(ePackageRegistration.version())
+                .label(ePackageRegistration.label())
+                .documentation(ePackageRegistration.documentation())
+                .build();
+
+        var domainRepository = mock(IDomainRepository.class);
+        when(domainRepository.findByIdentifier(this.identifier)).thenReturn(Optional.of(domain));
+
+        this.ePackageRegistrations = List.of(ePackageRegistration);
+        this.domainService = new DomainService(domainRepository, new DomainCatalog(this.ePackageRegistrations));
+    }
+
+    @Benchmark
+    public DomainCatalog createCatalog() {
+        return new DomainCatalog(this.ePackageRegistrations);
+    }
+
+    @Benchmark
+    public Optional<DomainDTO> findByIdentifier() {
+        return this.domainService.findByIdentifier(this.identifier);
+    }
+}
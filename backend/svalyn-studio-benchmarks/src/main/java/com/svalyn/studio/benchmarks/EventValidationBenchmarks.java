@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.domain.resource.ContentType;
+import com.svalyn.studio.domain.resource.Resource;
+import com.svalyn.studio.domain.resource.events.ResourceCreatedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the validation of the domain events with a validator factory per event, as the aggregates used to do,
+ * and with the validator shared by all the aggregates.
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventValidationBenchmarks {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private ResourceCreatedEvent event;
+
+    @Setup
+    public void setup() {
+        var user = BenchmarkUser.authenticate();
+        var resource = Resource.newResource()
+                .name("README.md")
+                .path("docs")
+                .contentType(ContentType.TEXT_PLAIN)
+                .content("# Svalyn Studio".getBytes(StandardCharsets.UTF_8))
+                .build();
+        this.event = new ResourceCreatedEvent(UUID.randomUUID(), Instant.now(), user.toProfile(), resource);
+
+        this.validatorFactory = Validation.buildDefaultValidatorFactory();
+        this.validator = this.validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ResourceCreatedEvent>> validateWithAValidatorFactoryPerEvent() {
+        try (var factory = Validation.buildDefaultValidatorFactory()) {
+            return factory.getValidator().validate(this.event);
+        }
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ResourceCreatedEvent>> validateWithASharedValidator() {
+        return this.validator.validate(this.event);
+    }
+}
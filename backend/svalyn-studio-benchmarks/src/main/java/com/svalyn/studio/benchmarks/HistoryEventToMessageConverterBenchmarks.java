@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountRole;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.domain.history.Change;
+import com.svalyn.studio.domain.history.ChangeProposal;
+import com.svalyn.studio.domain.history.ChangeResource;
+import com.svalyn.studio.domain.history.events.ChangeProposalCreatedEvent;
+import com.svalyn.studio.domain.history.repositories.IChangeRepository;
+import com.svalyn.studio.domain.organization.Organization;
+import com.svalyn.studio.domain.organization.repositories.IOrganizationRepository;
+import com.svalyn.studio.domain.project.Project;
+import com.svalyn.studio.domain.project.repositories.IProjectRepository;
+import com.svalyn.studio.domain.resource.ContentType;
+import com.svalyn.studio.domain.resource.Resource;
+import com.svalyn.studio.domain.resource.repositories.IResourceRepository;
+import com.svalyn.studio.domain.tag.Tag;
+import com.svalyn.studio.domain.tag.repositories.ITagRepository;
+import com.svalyn.studio.infrastructure.kafka.converters.HistoryEventToMessageConverter;
+import com.svalyn.studio.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks of the conversion of the events of the history into messages.
+ *
+ * <p>
+ * The repositories are stubbed, only the work performed by the converter itself is measured.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryEventToMessageConverterBenchmarks {
+
+    private static final int RESOURCE_COUNT = 10;
+
+    private HistoryEventToMessageConverter converter;
+
+    private ChangeProposalCreatedEvent event;
+
+    @Setup
+    public void setup() {
+        var user = BenchmarkUser.authenticate();
+
+        var account = Account.newAccount()
+                .role(AccountRole.USER)
+                .username(user.getUsername())
+                .name(user.getFullName())
+                .email("john.doe@example.org")
+                .build();
+        var organization = Organization.newOrganization()
+                .identifier("svalyn")
+                .name("Svalyn")
+                .initialMembers(List.of(AggregateReference.to(account.getId())))
+                .build();
+        var project = Project.newProject()
+                .organization(AggregateReference.to(organization.getId()))
+                .identifier("studio")
+                .name("Studio")
+                .description("The studio")
+                .readMe("")
+                .build();
+        var resource = Resource.newResource()
+                .name("README.md")
+                .path("docs")
+                .contentType(ContentType.TEXT_PLAIN)
+                .content("# Svalyn Studio".getBytes(StandardCharsets.UTF_8))
+                .build();
+        var changeResources = IntStream.range(0, RESOURCE_COUNT)
+                .mapToObj(index -> ChangeResource.newChangeResource().resource(AggregateReference.to(resource.getId())).build())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        var change = Change.newChange()
+                .name("Initial change")
+                .changeResources(changeResources)
+                .build();
+        var changeProposal = ChangeProposal.newChangeProposal()
+                .name("Initial change proposal")
+                .readMe("")
+                .project(AggregateReference.to(project.getId()))
+                .change(AggregateReference.to(change.getId()))
+                .build();
+        var tags = List.of(Tag.newTag().key("lifecycle").value("stable").build());
+
+        var organizationRepository = mock(IOrganizationRepository.class);
+        when(organizationRepository.findById(any())).thenReturn(Optional.of(organization));
+        var projectRepository = mock(IProjectRepository.class);
+        when(projectRepository.findById(any())).thenReturn(Optional.of(project));
+        var accountRepository = mock(IAccountRepository.class);
+        when(accountRepository.findById(any())).thenReturn(Optional.of(account));
+        var resourceRepository = mock(IResourceRepository.class);
+        when(resourceRepository.findById(any())).thenReturn(Optional.of(resource));
+        var changeRepository = mock(IChangeRepository.class);
+        when(changeRepository.findById(any())).thenReturn(Optional.of(change));
+        var tagRepository = mock(ITagRepository.class);
+        when(tagRepository.findAllByOrganizationId(any(UUID.class))).thenReturn(tags);
+        when(tagRepository.findAllByProjectId(any(UUID.class))).thenReturn(tags);
+
+        this.converter = new HistoryEventToMessageConverter(organizationRepository, projectRepository, accountRepository, resourceRepository, changeRepository, tagRepository);
+        this.event = new ChangeProposalCreatedEvent(UUID.randomUUID(), Instant.now(), user.toProfile(), changeProposal);
+    }
+
+    @Benchmark
+    public Optional<Message> convert() {
+        return this.converter.convert(this.event);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.application.controllers.project.dto.ProjectDTO;
+import com.svalyn.studio.application.services.account.ProfileCache;
+import com.svalyn.studio.application.services.account.ProfileFilter;
+import com.svalyn.studio.application.services.project.ProjectService;
+import com.svalyn.studio.domain.account.AccountSummary;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.domain.project.Project;
+import com.svalyn.studio.domain.project.repositories.IProjectRepository;
+import com.svalyn.studio.domain.project.services.api.IProjectCreationService;
+import com.svalyn.studio.domain.project.services.api.IProjectDeletionService;
+import com.svalyn.studio.domain.project.services.api.IProjectUpdateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks of the conversion of the projects into DTOs.
+ *
+ * <p>
+ * The repositories are stubbed, only the work performed by the service itself is measured. It includes the lookup
+ * of the profiles of the projects in the profile cache.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectServiceBenchmarks {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    private ProjectService projectService;
+
+    @Setup
+    public void setup() {
+        var user = BenchmarkUser.authenticate();
+
+        var projects = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(index -> Project.newProject()
+                        .organization(AggregateReference.to(this.organizationId))
+                        .identifier("project-" + index)
+                        .name("Project " + index)
+                        .description("The project " + index)
+                        .readMe("")
+                        .build())
+                .toList();
+
+        var projectRepository = mock(IProjectRepository.class);
+        when(projectRepository.findAllByOrganizationId(any(UUID.class), anyLong(), anyInt())).thenReturn(projects);
+        when(projectRepository.countAllByOrganizationId(any(UUID.class))).thenReturn((long) PAGE_SIZE);
+
+        var accountRepository = mock(IAccountRepository.class);
+        when(accountRepository.findAllSummariesByIds(any())).thenReturn(List.of(new AccountSummary(user.getId(), user.getFullName(), user.getUsername(), Instant.now())));
+        var profileFilter = new ProfileFilter(new ProfileCache(accountRepository, PAGE_SIZE, Duration.ofMinutes(10)));
+
+        this.projectService = new ProjectService(projectRepository, mock(IProjectCreationService.class), mock(IProjectUpdateService.class),
+                mock(IProjectDeletionService.class), profileFilter);
+    }
+
+    @Benchmark
+    public Page<ProjectDTO> findAllByOrganizationId() {
+        return this.projectService.findAllByOrganizationId(this.organizationId, 0, PAGE_SIZE);
+    }
+}
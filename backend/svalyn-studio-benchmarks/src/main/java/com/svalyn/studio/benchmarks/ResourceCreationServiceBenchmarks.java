@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.domain.IResult;
+import com.svalyn.studio.domain.message.api.IMessageService;
+import com.svalyn.studio.domain.resource.Resource;
+import com.svalyn.studio.domain.resource.repositories.IResourceRepository;
+import com.svalyn.studio.domain.resource.services.ResourceCreationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmarks of the creation of resources from an uploaded zip file.
+ *
+ * <p>
+ * Each invocation writes the archive in a temporary file, as the service does for all the uploads.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceCreationServiceBenchmarks {
+
+    private static final int FILE_COUNT = 20;
+
+    private ResourceCreationService resourceCreationService;
+
+    private Map<String, byte[]> resourceDescriptions;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkUser.authenticate();
+
+        var outputStream = new ByteArrayOutputStream();
+        try (var zipOutputStream = new ZipOutputStream(outputStream)) {
+            for (int i = 0; i < FILE_COUNT; i++) {
+                zipOutputStream.putNextEntry(new ZipEntry("folder-" + i % 4 + "/resource-" + i + ".md"));
+                zipOutputStream.write(("# Resource " + i + System.lineSeparator() + "Lorem ipsum dolor sit amet").getBytes(StandardCharsets.UTF_8));
+                zipOutputStream.closeEntry();
+            }
+        }
+        this.resourceDescriptions = Map.of("resources.zip", outputStream.toByteArray());
+
+        this.resourceCreationService = new ResourceCreationService(mock(IResourceRepository.class), mock(IMessageService.class));
+    }
+
+    @Benchmark
+    public IResult<List<Resource>> createResourcesFromZip() {
+        return this.resourceCreationService.createResources(this.resourceDescriptions);
+    }
+}
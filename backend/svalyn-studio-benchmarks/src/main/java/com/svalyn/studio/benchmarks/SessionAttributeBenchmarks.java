@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.benchmarks;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import com.svalyn.studio.infrastructure.security.SvalynOAuth2User;
+import com.svalyn.studio.infrastructure.session.SecurityContextCodec;
+import com.svalyn.studio.infrastructure.session.SessionAttributeDeserializer;
+import com.svalyn.studio.infrastructure.session.SessionAttributeSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the deserialization of the security context stored in the sessions.
+ *
+ * <p>
+ * The principal which used to keep all the attributes retrieved from GitHub is compared with the slim principal, both
+ * with the Java serialization and with the compact serialization of the security context.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionAttributeBenchmarks {
+
+    private static final UUID USER_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private SessionAttributeDeserializer deserializer;
+
+    private byte[] previousPrincipalBytes;
+
+    private byte[] slimPrincipalBytes;
+
+    private byte[] compactBytes;
+
+    @Setup
+    public void setup() {
+        var securityContextCodec = new SecurityContextCodec();
+        this.deserializer = new SessionAttributeDeserializer(securityContextCodec, this.getClass().getClassLoader());
+
+        var javaSerializer = new SerializingConverter();
+        this.previousPrincipalBytes = javaSerializer.convert(this.previousOAuth2SecurityContext());
+        this.slimPrincipalBytes = javaSerializer.convert(this.oAuth2SecurityContext());
+        this.compactBytes = new SessionAttributeSerializer(securityContextCodec).convert(this.oAuth2SecurityContext());
+    }
+
+    @Benchmark
+    public Object deserializePreviousPrincipalWithTheJavaSerialization() {
+        return this.deserializer.convert(this.previousPrincipalBytes);
+    }
+
+    @Benchmark
+    public Object deserializeSlimPrincipalWithTheJavaSerialization() {
+        return this.deserializer.convert(this.slimPrincipalBytes);
+    }
+
+    @Benchmark
+    public Object deserializeSlimPrincipalWithTheCompactSerialization() {
+        return this.deserializer.convert(this.compactBytes);
+    }
+
+    private SecurityContext oAuth2SecurityContext() {
+        var user = new SvalynOAuth2User(USER_ID, "johndoe", "John Doe", AccountRole.USER);
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(user, user.getAuthorities(), "github"));
+    }
+
+    /**
+     * Rebuilds the shape of the principal which used to keep the attributes retrieved from GitHub.
+     */
+    private SecurityContext previousOAuth2SecurityContext() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("login", "johndoe");
+        attributes.put("id", 1234567);
+        attributes.put("node_id", "MDQ6VXNlcjEyMzQ1Njc=");
+        attributes.put("avatar_url", "https://avatars.githubusercontent.com/u/1234567?v=4");
+        attributes.put("gravatar_id", "");
+        attributes.put("url", "https://api.github.com/users/johndoe");
+        attributes.put("html_url", "https://github.com/johndoe");
+        attributes.put("followers_url", "https://api.github.com/users/johndoe/followers");
+        attributes.put("following_url", "https://api.github.com/users/johndoe/following{/other_user}");
+        attributes.put("gists_url", "https://api.github.com/users/johndoe/gists{/gist_id}");
+        attributes.put("starred_url", "https://api.github.com/users/johndoe/starred{/owner}{/repo}");
+        attributes.put("subscriptions_url", "https://api.github.com/users/johndoe/subscriptions");
+        attributes.put("organizations_url", "https://api.github.com/users/johndoe/orgs");
+        attributes.put("repos_url", "https://api.github.com/users/johndoe/repos");
+        attributes.put("events_url", "https://api.github.com/users/johndoe/events{/privacy}");
+        attributes.put("received_events_url", "https://api.github.com/users/johndoe/received_events");
+        attributes.put("type", "User");
+        attributes.put("site_admin", false);
+        attributes.put("name", "John Doe");
+        attributes.put("company", "Svalyn");
+        attributes.put("blog", "https://svalyn.com");
+        attributes.put("location", "Nantes, France");
+        attributes.put("bio", "Software developer");
+        attributes.put("public_repos", 42);
+        attributes.put("followers", 100);
+        attributes.put("following", 10);
+        attributes.put("created_at", "2012-01-01T00:00:00Z");
+        attributes.put("updated_at", "2023-01-01T00:00:00Z");
+
+        var authorities = List.<GrantedAuthority>of(
+                new SimpleGrantedAuthority("ROLE_USER"),
+                new OAuth2UserAuthority(attributes),
+                new SimpleGrantedAuthority("SCOPE_read:user"),
+                new SimpleGrantedAuthority("SCOPE_user:email")
+        );
+        var user = new DefaultOAuth2User(authorities, attributes, "login");
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(user, authorities, "github"));
+    }
+}
@@ -21,7 +21,7 @@ package com.svalyn.studio.domain;
 
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validation;
-import jakarta.validation.ValidatorFactory;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.annotation.Transient;
@@ -32,6 +32,11 @@ import java.util.stream.Collectors;
 /**
  * Used to validate all the domain events sent to the abstract aggregate root.
  *
+ * <p>
+ * Aggregates are not managed by Spring, they all share a single validator for the lifetime of the application. It is
+ * thread safe and keeps the constraint metadata of the events in cache after their first validation.
+ * </p>
+ *
  * @param <A> The type of the aggregate root
  *
  * @author sbegaudeau
@@ -43,21 +48,31 @@ public class AbstractValidatingAggregateRoot<A extends AbstractValidatingAggrega
 
     @Override
     protected <T> T registerEvent(T event) {
-        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
-            var validator = factory.getValidator();
-            var violations = validator.validate(event);
-            if (!violations.isEmpty()) {
-                var message = violations.stream()
-                        .map(constraintViolation -> constraintViolation.getPropertyPath().toString() + " " + constraintViolation.getMessage())
-                        .collect(Collectors.joining(", "));
-
-                var exception = new ConstraintViolationException(message, violations);
-                logger.warn(exception.getMessage(), exception);
-
-                throw exception;
-            }
+        var violations = ValidatorHolder.VALIDATOR.validate(event);
+        if (!violations.isEmpty()) {
+            var message = violations.stream()
+                    .map(constraintViolation -> constraintViolation.getPropertyPath().toString() + " " + constraintViolation.getMessage())
+                    .collect(Collectors.joining(", "));
+
+            var exception = new ConstraintViolationException(message, violations);
+            logger.warn(exception.getMessage(), exception);
+
+            throw exception;
         }
 
         return super.registerEvent(event);
     }
+
+    /**
+     * Holds the validator shared by all the aggregates, it is only created once the first event is registered.
+     *
+     * @author sbegaudeau
+     */
+    private static final class ValidatorHolder {
+        private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+        private ValidatorHolder() {
+            // Prevent instantiation
+        }
+    }
 }
@@ -66,10 +66,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
 
     private String email;
 
-    private byte[] image;
-
-    private String imageContentType;
-
     @MappedCollection(idColumn = "account_id")
     private Set<PasswordCredentials> passwordCredentials = new LinkedHashSet<>();
 
@@ -103,14 +99,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
         return email;
     }
 
-    public byte[] getImage() {
-        return image;
-    }
-
-    public String getImageContentType() {
-        return imageContentType;
-    }
-
     public Set<PasswordCredentials> getPasswordCredentials() {
         return passwordCredentials;
     }
@@ -179,8 +167,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
         this.username = "deleted_account-" + randomId;
         this.email = randomId;
         this.role = AccountRole.USER;
-        this.image = null;
-        this.imageContentType = null;
         this.authenticationTokens = Set.of();
         this.passwordCredentials = Set.of();
         this.oAuth2Metadata = Set.of();
@@ -208,10 +194,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
 
         private String email;
 
-        private byte[] image;
-
-        private String imageContentType;
-
         private Set<PasswordCredentials> passwordCredentials = new LinkedHashSet<>();
 
         private Set<OAuth2Metadata> oAuth2Metadata = new LinkedHashSet<>();
@@ -246,16 +228,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
             return this;
         }
 
-        public Builder image(byte[] image) {
-            this.image = Objects.requireNonNull(image);
-            return this;
-        }
-
-        public Builder imageContentType(String imageContentType) {
-            this.imageContentType = Objects.requireNonNull(imageContentType);
-            return this;
-        }
-
         public Account build() {
             var account = new Account();
             account.isNew = true;
@@ -264,8 +236,6 @@ public class Account extends AbstractValidatingAggregateRoot<Account> implements
             account.username = Objects.requireNonNull(username);
             account.name = Objects.requireNonNull(name);
             account.email = Objects.requireNonNull(email);
-            account.image = image;
-            account.imageContentType = imageContentType;
 
             account.passwordCredentials = Objects.requireNonNull(passwordCredentials);
             account.oAuth2Metadata = Objects.requireNonNull(oAuth2Metadata);
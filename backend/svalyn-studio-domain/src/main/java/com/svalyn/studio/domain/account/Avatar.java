@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.domain.account;
+
+import com.svalyn.studio.domain.AbstractValidatingAggregateRoot;
+import org.jmolecules.ddd.annotation.AggregateRoot;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The image used to represent an account.
+ *
+ * It is stored outside of the account so that the content of the image is only loaded when it is displayed.
+ *
+ * @author sbegaudeau
+ */
+@AggregateRoot
+@Table(name = "avatar")
+public class Avatar extends AbstractValidatingAggregateRoot<Avatar> implements Persistable<UUID> {
+
+    @Transient
+    private boolean isNew;
+
+    @Id
+    private UUID id;
+
+    private AggregateReference<Account, UUID> accountId;
+
+    private byte[] content;
+
+    private String contentType;
+
+    private Instant createdOn;
+
+    private Instant lastModifiedOn;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public AggregateReference<Account, UUID> getAccountId() {
+        return accountId;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Instant getCreatedOn() {
+        return createdOn;
+    }
+
+    public Instant getLastModifiedOn() {
+        return lastModifiedOn;
+    }
+
+    @Override
+    public boolean isNew() {
+        return this.isNew;
+    }
+
+    public void updateContent(byte[] content, String contentType) {
+        this.content = Objects.requireNonNull(content);
+        this.contentType = Objects.requireNonNull(contentType);
+        this.lastModifiedOn = Instant.now();
+    }
+
+    public static Builder newAvatar() {
+        return new Builder();
+    }
+
+    /**
+     * The builder used to create new avatars.
+     *
+     * @author sbegaudeau
+     */
+    public static final class Builder {
+
+        private AggregateReference<Account, UUID> accountId;
+
+        private byte[] content;
+
+        private String contentType;
+
+        public Builder accountId(AggregateReference<Account, UUID> accountId) {
+            this.accountId = Objects.requireNonNull(accountId);
+            return this;
+        }
+
+        public Builder content(byte[] content) {
+            this.content = Objects.requireNonNull(content);
+            return this;
+        }
+
+        public Builder contentType(String contentType) {
+            this.contentType = Objects.requireNonNull(contentType);
+            return this;
+        }
+
+        public Avatar build() {
+            var avatar = new Avatar();
+            avatar.isNew = true;
+            avatar.id = UUID.randomUUID();
+            avatar.accountId = Objects.requireNonNull(accountId);
+            avatar.content = Objects.requireNonNull(content);
+            avatar.contentType = Objects.requireNonNull(contentType);
+
+            var now = Instant.now();
+            avatar.createdOn = now;
+            avatar.lastModifiedOn = now;
+            return avatar;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.domain.account;
+
+import com.svalyn.studio.domain.Profile;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Used to retrieve the context of the current user.
+ *
+ * <p>
+ * The context is resolved once from the authentication of the security context and then reused by each thread as
+ * long as it sees the same authentication. It thus follows the security context wherever it is propagated, including
+ * in asynchronous listeners, without allocating anything once it has been resolved.
+ * </p>
+ *
+ * <p>
+ * The threads handling the requests are reused for other users, the resolved context must thus be cleared with
+ * {@link #clear()} at the end of each request so that it does not keep the authentication of the previous user.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public final class PrincipalContextProvider {
+
+    private static final PrincipalContext ANONYMOUS = new PrincipalContext(null, null, null);
+
+    private static final ThreadLocal<ResolvedPrincipalContext> RESOLVED_PRINCIPAL_CONTEXT = new ThreadLocal<>();
+
+    private PrincipalContextProvider() {
+        // Prevent instantiation
+    }
+
+    public static PrincipalContext get() {
+        var principalContext = ANONYMOUS;
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            var resolvedPrincipalContext = RESOLVED_PRINCIPAL_CONTEXT.get();
+            if (resolvedPrincipalContext == null || resolvedPrincipalContext.authentication() != authentication) {
+                resolvedPrincipalContext = new ResolvedPrincipalContext(authentication, resolve(authentication));
+                RESOLVED_PRINCIPAL_CONTEXT.set(resolvedPrincipalContext);
+            }
+            principalContext = resolvedPrincipalContext.principalContext();
+        }
+
+        return principalContext;
+    }
+
+    /**
+     * Forgets the context resolved by the current thread.
+     */
+    public static void clear() {
+        RESOLVED_PRINCIPAL_CONTEXT.remove();
+    }
+
+    private static PrincipalContext resolve(Authentication authentication) {
+        var principalContext = ANONYMOUS;
+        if (authentication.getPrincipal() instanceof IUser user) {
+            var profile = new Profile(user.getId(), user.getFullName(), user.getUsername());
+            principalContext = new PrincipalContext(user.getId(), AggregateReference.to(user.getId()), profile);
+        }
+        return principalContext;
+    }
+
+    /**
+     * The context resolved from a given authentication.
+     *
+     * @author sbegaudeau
+     */
+    private record ResolvedPrincipalContext(Authentication authentication, PrincipalContext principalContext) {
+    }
+}
@@ -20,10 +20,6 @@
 package com.svalyn.studio.domain.account;
 
 import com.svalyn.studio.domain.Profile;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-
-import java.util.Optional;
 
 /**
  * Used to retrieve the profile which has created an event.
@@ -37,11 +33,6 @@ public final class ProfileProvider {
     }
 
     public static Profile get() {
-        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
-                .map(Authentication::getPrincipal)
-                .filter(IUser.class::isInstance)
-                .map(IUser.class::cast)
-                .map(user -> new Profile(user.getId(), user.getFullName(), user.getUsername()))
-                .orElse(null);
+        return PrincipalContextProvider.get().profile();
     }
 }
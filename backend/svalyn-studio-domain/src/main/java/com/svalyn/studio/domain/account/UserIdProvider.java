@@ -19,10 +19,7 @@
 package com.svalyn.studio.domain.account;
 
 import org.springframework.data.jdbc.core.mapping.AggregateReference;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -36,12 +33,6 @@ public final class UserIdProvider {
     }
 
     public static AggregateReference<Account, UUID> get() {
-        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
-                .map(Authentication::getPrincipal)
-                .filter(IUser.class::isInstance)
-                .map(IUser.class::cast)
-                .map(IUser::getId)
-                .map(AggregateReference::<Account, UUID>to)
-                .orElse(null);
+        return PrincipalContextProvider.get().userId();
     }
 }
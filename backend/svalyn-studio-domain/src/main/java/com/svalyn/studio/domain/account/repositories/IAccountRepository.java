@@ -18,12 +18,16 @@
  */
 package com.svalyn.studio.domain.account.repositories;
 
+import com.svalyn.studio.domain.account.AccessKeyCredentials;
 import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountSummary;
+import com.svalyn.studio.domain.account.ViewerSummary;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -41,6 +45,18 @@ public interface IAccountRepository extends PagingAndSortingRepository<Account,
 
     Optional<Account> findByEmail(String email);
 
+    @Query("""
+    SELECT account.id, account.name, account.username, account.created_on FROM account account
+    WHERE account.id IN (:ids)
+    """)
+    List<AccountSummary> findAllSummariesByIds(Collection<UUID> ids);
+
+    @Query("""
+    SELECT account.id, account.name, account.username, account.role FROM account account
+    WHERE account.id = :id
+    """)
+    Optional<ViewerSummary> findViewerSummaryById(UUID id);
+
     @Query("""
     SELECT account.* FROM account account
     JOIN oauth2_metadata oauth2 ON account.id = oauth2.account_id
@@ -55,6 +71,13 @@ public interface IAccountRepository extends PagingAndSortingRepository<Account,
     """)
     Optional<Account> findByAccessKey(String accessKey);
 
+    @Query("""
+    SELECT account.id account_id, account.name, account.role, authenticationToken.access_key, authenticationToken.secret_key FROM account account
+    JOIN authentication_token authenticationToken ON account.id = authenticationToken.account_id
+    WHERE authenticationToken.access_key = :accessKey AND authenticationToken.status = 'ACTIVE'
+    """)
+    Optional<AccessKeyCredentials> findCredentialsByAccessKey(String accessKey);
+
     @Query("""
     SELECT * FROM account account
     ORDER BY account.username ASC
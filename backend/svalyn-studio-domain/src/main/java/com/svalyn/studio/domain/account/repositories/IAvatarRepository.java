@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.domain.account.repositories;
+
+import com.svalyn.studio.domain.account.Avatar;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository used to persist and retrieve avatars.
+ *
+ * @author sbegaudeau
+ */
+@Repository
+public interface IAvatarRepository extends ListCrudRepository<Avatar, UUID> {
+
+    @Query("""
+    SELECT avatar.* FROM avatar avatar
+    WHERE avatar.account_id = :accountId
+    """)
+    Optional<Avatar> findByAccountId(UUID accountId);
+
+    @Query("""
+    SELECT avatar.* FROM avatar avatar
+    JOIN account account ON avatar.account_id = account.id
+    WHERE account.username = :username
+    """)
+    Optional<Avatar> findByUsername(String username);
+
+    @Query("""
+    DELETE FROM avatar avatar
+    WHERE avatar.account_id = :accountId
+    """)
+    @Modifying
+    void deleteByAccountId(UUID accountId);
+}
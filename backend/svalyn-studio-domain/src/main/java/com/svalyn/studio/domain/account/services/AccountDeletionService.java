@@ -23,6 +23,7 @@ import com.svalyn.studio.domain.Failure;
 import com.svalyn.studio.domain.IResult;
 import com.svalyn.studio.domain.Success;
 import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.domain.account.repositories.IAvatarRepository;
 import com.svalyn.studio.domain.account.services.api.IAccountDeletionService;
 import com.svalyn.studio.domain.account.services.api.IAccountSessionCleaner;
 import com.svalyn.studio.domain.account.services.api.IAuthorizationService;
@@ -41,14 +42,17 @@ public class AccountDeletionService implements IAccountDeletionService {
 
     private final IAccountRepository accountRepository;
 
+    private final IAvatarRepository avatarRepository;
+
     private final IAuthorizationService authorizationService;
 
     private final IAccountSessionCleaner accountSessionCleaner;
 
     private final IMessageService messageService;
 
-    public AccountDeletionService(IAccountRepository accountRepository, IAuthorizationService authorizationService, IAccountSessionCleaner accountSessionCleaner, IMessageService messageService) {
+    public AccountDeletionService(IAccountRepository accountRepository, IAvatarRepository avatarRepository, IAuthorizationService authorizationService, IAccountSessionCleaner accountSessionCleaner, IMessageService messageService) {
         this.accountRepository = Objects.requireNonNull(accountRepository);
+        this.avatarRepository = Objects.requireNonNull(avatarRepository);
         this.authorizationService = Objects.requireNonNull(authorizationService);
         this.accountSessionCleaner = Objects.requireNonNull(accountSessionCleaner);
         this.messageService = Objects.requireNonNull(messageService);
@@ -71,6 +75,7 @@ public class AccountDeletionService implements IAccountDeletionService {
             account.dispose();
 
             this.accountRepository.save(account);
+            this.avatarRepository.deleteByAccountId(account.getId());
             this.accountSessionCleaner.cleanSessions(username);
 
             result = new Success<>(null);
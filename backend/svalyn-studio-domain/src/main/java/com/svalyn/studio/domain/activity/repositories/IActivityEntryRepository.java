@@ -40,26 +40,61 @@ public interface IActivityEntryRepository extends PagingAndSortingRepository<Act
     @Query(value = """
     SELECT activityEntry.*
     FROM activity activityEntry
-    ORDER BY activityEntry.created_on DESC
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<ActivityEntry> findAllVisibleByUserId(UUID userId, long offset, int limit);
 
+    @Query(value = """
+    SELECT activityEntry.*
+    FROM activity activityEntry
+    WHERE (activityEntry.created_on, activityEntry.id) < (SELECT afterEntry.created_on, afterEntry.id FROM activity afterEntry WHERE afterEntry.id = :cursorId)
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
+    LIMIT :limit
+    """)
+    List<ActivityEntry> findAllVisibleByUserIdAfter(UUID userId, UUID cursorId, int limit);
+
+    @Query(value = """
+    SELECT EXISTS (
+        SELECT 1 FROM activity activityEntry
+        WHERE (activityEntry.created_on, activityEntry.id) >= (SELECT cursorEntry.created_on, cursorEntry.id FROM activity cursorEntry WHERE cursorEntry.id = :cursorId)
+    )
+    """)
+    boolean existsVisibleByUserIdBefore(UUID userId, UUID cursorId);
+
     @Query(value = """
     SELECT activityEntry.*
     FROM activity activityEntry
     WHERE activityEntry.created_by = :userId
-    ORDER BY activityEntry.created_on DESC
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<ActivityEntry> findAllByUserId(UUID userId, long offset, int limit);
 
     @Query(value = """
-    SELECT COUNT(activityEntry)
+    SELECT activityEntry.*
     FROM activity activityEntry
     WHERE activityEntry.created_by = :userId
+    AND (activityEntry.created_on, activityEntry.id) < (SELECT afterEntry.created_on, afterEntry.id FROM activity afterEntry WHERE afterEntry.id = :cursorId)
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
+    LIMIT :limit
+    """)
+    List<ActivityEntry> findAllByUserIdAfter(UUID userId, UUID cursorId, int limit);
+
+    @Query(value = """
+    SELECT EXISTS (
+        SELECT 1 FROM activity activityEntry
+        WHERE activityEntry.created_by = :userId
+        AND (activityEntry.created_on, activityEntry.id) >= (SELECT cursorEntry.created_on, cursorEntry.id FROM activity cursorEntry WHERE cursorEntry.id = :cursorId)
+    )
+    """)
+    boolean existsByUserIdBefore(UUID userId, UUID cursorId);
+
+    @Query(value = """
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :userId AND counter.kind = 'USER_ACTIVITY'
     """)
     long countAllByUserId(UUID userId);
 
@@ -68,17 +103,36 @@ public interface IActivityEntryRepository extends PagingAndSortingRepository<Act
     FROM activity activityEntry
     JOIN organization_activity organizationActivityEntry ON organizationActivityEntry.activity_id = activityEntry.id
     WHERE organizationActivityEntry.organization_id = :organizationId
-    ORDER BY activityEntry.created_on DESC
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<ActivityEntry> findAllByOrganizationId(UUID organizationId, long offset, int limit);
 
     @Query(value = """
-    SELECT COUNT(activityEntry)
+    SELECT activityEntry.*
     FROM activity activityEntry
     JOIN organization_activity organizationActivityEntry ON organizationActivityEntry.activity_id = activityEntry.id
     WHERE organizationActivityEntry.organization_id = :organizationId
+    AND (activityEntry.created_on, activityEntry.id) < (SELECT afterEntry.created_on, afterEntry.id FROM activity afterEntry WHERE afterEntry.id = :cursorId)
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
+    LIMIT :limit
+    """)
+    List<ActivityEntry> findAllByOrganizationIdAfter(UUID organizationId, UUID cursorId, int limit);
+
+    @Query(value = """
+    SELECT EXISTS (
+        SELECT 1 FROM activity activityEntry
+        JOIN organization_activity organizationActivityEntry ON organizationActivityEntry.activity_id = activityEntry.id
+        WHERE organizationActivityEntry.organization_id = :organizationId
+        AND (activityEntry.created_on, activityEntry.id) >= (SELECT cursorEntry.created_on, cursorEntry.id FROM activity cursorEntry WHERE cursorEntry.id = :cursorId)
+    )
+    """)
+    boolean existsByOrganizationIdBefore(UUID organizationId, UUID cursorId);
+
+    @Query(value = """
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :organizationId AND counter.kind = 'ORGANIZATION_ACTIVITY'
     """)
     long countAllByOrganizationId(UUID organizationId);
 
@@ -87,17 +141,36 @@ public interface IActivityEntryRepository extends PagingAndSortingRepository<Act
     FROM activity activityEntry
     JOIN project_activity projectActivityEntry ON projectActivityEntry.activity_id = activityEntry.id
     WHERE projectActivityEntry.project_id = :projectId
-    ORDER BY activityEntry.created_on DESC
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<ActivityEntry> findAllByProjectId(UUID projectId, long offset, int limit);
 
     @Query(value = """
-    SELECT COUNT(activityEntry)
+    SELECT activityEntry.*
     FROM activity activityEntry
     JOIN project_activity projectActivityEntry ON projectActivityEntry.activity_id = activityEntry.id
     WHERE projectActivityEntry.project_id = :projectId
+    AND (activityEntry.created_on, activityEntry.id) < (SELECT afterEntry.created_on, afterEntry.id FROM activity afterEntry WHERE afterEntry.id = :cursorId)
+    ORDER BY activityEntry.created_on DESC, activityEntry.id DESC
+    LIMIT :limit
+    """)
+    List<ActivityEntry> findAllByProjectIdAfter(UUID projectId, UUID cursorId, int limit);
+
+    @Query(value = """
+    SELECT EXISTS (
+        SELECT 1 FROM activity activityEntry
+        JOIN project_activity projectActivityEntry ON projectActivityEntry.activity_id = activityEntry.id
+        WHERE projectActivityEntry.project_id = :projectId
+        AND (activityEntry.created_on, activityEntry.id) >= (SELECT cursorEntry.created_on, cursorEntry.id FROM activity cursorEntry WHERE cursorEntry.id = :cursorId)
+    )
+    """)
+    boolean existsByProjectIdBefore(UUID projectId, UUID cursorId);
+
+    @Query(value = """
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :projectId AND counter.kind = 'PROJECT_ACTIVITY'
     """)
     long countAllByProjectId(UUID projectId);
 
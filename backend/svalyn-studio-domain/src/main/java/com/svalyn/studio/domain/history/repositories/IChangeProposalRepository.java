@@ -38,15 +38,33 @@ public interface IChangeProposalRepository extends PagingAndSortingRepository<Ch
     @Query("""
     SELECT * FROM change_proposal changeProposal
     WHERE changeProposal.project_id = :projectId AND changeProposal.status IN (:status)
-    ORDER BY changeProposal.created_on DESC
+    ORDER BY changeProposal.created_on DESC, changeProposal.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<ChangeProposal> findAllByProjectIdAndStatus(UUID projectId, List<String> status, long offset, int limit);
 
     @Query("""
-    SELECT count(*) FROM change_proposal changeProposal
+    SELECT * FROM change_proposal changeProposal
     WHERE changeProposal.project_id = :projectId AND changeProposal.status IN (:status)
+    AND (changeProposal.created_on, changeProposal.id) < (SELECT afterChangeProposal.created_on, afterChangeProposal.id FROM change_proposal afterChangeProposal WHERE afterChangeProposal.id = :cursorId)
+    ORDER BY changeProposal.created_on DESC, changeProposal.id DESC
+    LIMIT :limit
+    """)
+    List<ChangeProposal> findAllByProjectIdAndStatusAfter(UUID projectId, List<String> status, UUID cursorId, int limit);
+
+    @Query("""
+    SELECT EXISTS (
+        SELECT 1 FROM change_proposal changeProposal
+        WHERE changeProposal.project_id = :projectId AND changeProposal.status IN (:status)
+        AND (changeProposal.created_on, changeProposal.id) >= (SELECT cursorChangeProposal.created_on, cursorChangeProposal.id FROM change_proposal cursorChangeProposal WHERE cursorChangeProposal.id = :cursorId)
+    )
+    """)
+    boolean existsByProjectIdAndStatusBefore(UUID projectId, List<String> status, UUID cursorId);
+
+    @Query("""
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :projectId AND counter.kind = 'PROJECT_CHANGE_PROPOSAL' AND counter.status IN (:status)
     """)
     long countAllByProjectIdAndStatus(UUID projectId, List<String> status);
 }
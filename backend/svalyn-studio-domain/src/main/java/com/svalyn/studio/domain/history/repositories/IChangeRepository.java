@@ -36,7 +36,7 @@ import java.util.UUID;
 public interface IChangeRepository extends PagingAndSortingRepository<Change, UUID>, ListCrudRepository<Change, UUID> {
     @Query(value = """
     WITH RECURSIVE walk AS (
-      SELECT id, parent_id, array[json_build_object('id', id, 'name', name)]
+      SELECT id, parent_id, array[json_build_object('id', id, 'name', name)] AS path
       FROM change
       WHERE id = :changeId
       UNION ALL
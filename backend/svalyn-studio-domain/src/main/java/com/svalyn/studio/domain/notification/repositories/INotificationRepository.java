@@ -44,15 +44,33 @@ public interface INotificationRepository extends PagingAndSortingRepository<Noti
     @Query("""
     SELECT * FROM notification notification
     WHERE notification.status IN (:status) AND notification.owned_by = :userId
-    ORDER BY notification.created_on DESC
+    ORDER BY notification.created_on DESC, notification.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<Notification> findAllByStatus(List<String> status, UUID userId, long offset, int limit);
 
     @Query("""
-    SELECT count(*) FROM notification notification
+    SELECT * FROM notification notification
     WHERE notification.status IN (:status) AND notification.owned_by = :userId
+    AND (notification.created_on, notification.id) < (SELECT afterNotification.created_on, afterNotification.id FROM notification afterNotification WHERE afterNotification.id = :cursorId)
+    ORDER BY notification.created_on DESC, notification.id DESC
+    LIMIT :limit
+    """)
+    List<Notification> findAllByStatusAfter(List<String> status, UUID userId, UUID cursorId, int limit);
+
+    @Query("""
+    SELECT EXISTS (
+        SELECT 1 FROM notification notification
+        WHERE notification.status IN (:status) AND notification.owned_by = :userId
+        AND (notification.created_on, notification.id) >= (SELECT cursorNotification.created_on, cursorNotification.id FROM notification cursorNotification WHERE cursorNotification.id = :cursorId)
+    )
+    """)
+    boolean existsByStatusBefore(List<String> status, UUID userId, UUID cursorId);
+
+    @Query("""
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :userId AND counter.kind = 'NOTIFICATION' AND counter.status IN (:status)
     """)
     long countByStatus(List<String> status, UUID userId);
 }
@@ -42,15 +42,33 @@ public interface IProjectRepository extends PagingAndSortingRepository<Project,
     @Query("""
     SELECT * FROM project project
     WHERE project.organization_id = :organizationId
-    ORDER BY project.created_on DESC
+    ORDER BY project.created_on DESC, project.id DESC
     LIMIT :limit
     OFFSET :offset
     """)
     List<Project> findAllByOrganizationId(UUID organizationId, long offset, int limit);
 
     @Query("""
-    SELECT count(*) FROM project project
+    SELECT * FROM project project
     WHERE project.organization_id = :organizationId
+    AND (project.created_on, project.id) < (SELECT afterProject.created_on, afterProject.id FROM project afterProject WHERE afterProject.identifier = :cursorIdentifier)
+    ORDER BY project.created_on DESC, project.id DESC
+    LIMIT :limit
+    """)
+    List<Project> findAllByOrganizationIdAfter(UUID organizationId, String cursorIdentifier, int limit);
+
+    @Query("""
+    SELECT EXISTS (
+        SELECT 1 FROM project project
+        WHERE project.organization_id = :organizationId
+        AND (project.created_on, project.id) >= (SELECT cursorProject.created_on, cursorProject.id FROM project cursorProject WHERE cursorProject.identifier = :cursorIdentifier)
+    )
+    """)
+    boolean existsByOrganizationIdBefore(UUID organizationId, String cursorIdentifier);
+
+    @Query("""
+    SELECT COALESCE(SUM(counter.value), 0) FROM counter counter
+    WHERE counter.scope_id = :organizationId AND counter.kind = 'ORGANIZATION_PROJECT'
     """)
     long countAllByOrganizationId(UUID organizationId);
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.domain;
+
+import com.svalyn.studio.domain.account.IUser;
+import com.svalyn.studio.domain.resource.ContentType;
+import com.svalyn.studio.domain.resource.Resource;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests of the validation of the domain events.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class AbstractValidatingAggregateRootTests {
+
+    @AfterEach
+    public void teardown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Given an authenticated user, when a resource is created, then its event is valid")
+    public void givenAnAuthenticatedUser_whenAResourceIsCreated_thenItsEventIsValid() {
+        this.authenticate();
+
+        var resource = this.newResource();
+
+        assertThat(resource.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Given no authenticated user, when a resource is created, then its event is rejected")
+    public void givenNoAuthenticatedUser_whenAResourceIsCreated_thenItsEventIsRejected() {
+        assertThatThrownBy(this::newResource)
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("createdBy");
+    }
+
+    private void authenticate() {
+        IUser user = new User(UUID.randomUUID(), "johndoe", "John Doe");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+    }
+
+    private Resource newResource() {
+        return Resource.newResource()
+                .name("README.md")
+                .path("")
+                .contentType(ContentType.TEXT_PLAIN)
+                .content("# Svalyn".getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    /**
+     * A user of the tests.
+     *
+     * @author sbegaudeau
+     */
+    private record User(UUID getId, String getUsername, String getFullName) implements IUser {
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.domain.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the principal context provider.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class PrincipalContextProviderTests {
+
+    @AfterEach
+    public void teardown() {
+        SecurityContextHolder.clearContext();
+        PrincipalContextProvider.clear();
+    }
+
+    @Test
+    @DisplayName("Given an authenticated user, when the context is retrieved several times, then it is only resolved once")
+    public void givenAnAuthenticatedUser_whenTheContextIsRetrievedSeveralTimes_thenItIsOnlyResolvedOnce() {
+        var userId = this.authenticate("johndoe");
+
+        var principalContext = PrincipalContextProvider.get();
+
+        assertThat(principalContext.id()).isEqualTo(userId);
+        assertThat(principalContext.userId().getId()).isEqualTo(userId);
+        assertThat(principalContext.profile().username()).isEqualTo("johndoe");
+        assertThat(PrincipalContextProvider.get()).isSameAs(principalContext);
+        assertThat(UserIdProvider.get()).isSameAs(principalContext.userId());
+        assertThat(ProfileProvider.get()).isSameAs(principalContext.profile());
+    }
+
+    @Test
+    @DisplayName("Given another authenticated user, when the context is retrieved, then it is resolved again")
+    public void givenAnotherAuthenticatedUser_whenTheContextIsRetrieved_thenItIsResolvedAgain() {
+        this.authenticate("johndoe");
+        var principalContext = PrincipalContextProvider.get();
+
+        var userId = this.authenticate("janedoe");
+
+        assertThat(PrincipalContextProvider.get()).isNotSameAs(principalContext);
+        assertThat(PrincipalContextProvider.get().id()).isEqualTo(userId);
+    }
+
+    @Test
+    @DisplayName("Given a resolved context, when it is cleared, then it is resolved again")
+    public void givenAResolvedContext_whenItIsCleared_thenItIsResolvedAgain() {
+        var userId = this.authenticate("johndoe");
+        var principalContext = PrincipalContextProvider.get();
+
+        PrincipalContextProvider.clear();
+
+        assertThat(PrincipalContextProvider.get()).isNotSameAs(principalContext);
+        assertThat(PrincipalContextProvider.get().id()).isEqualTo(userId);
+    }
+
+    @Test
+    @DisplayName("Given no authenticated user, when the context is retrieved, then it is empty")
+    public void givenNoAuthenticatedUser_whenTheContextIsRetrieved_thenItIsEmpty() {
+        this.authenticate("johndoe");
+        PrincipalContextProvider.get();
+        SecurityContextHolder.clearContext();
+
+        assertThat(UserIdProvider.get()).isNull();
+        assertThat(ProfileProvider.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given a propagated security context, when the context is retrieved on another thread, then it is the one of the user")
+    public void givenAPropagatedSecurityContext_whenTheContextIsRetrievedOnAnotherThread_thenItIsTheOneOfTheUser() throws InterruptedException {
+        var userId = this.authenticate("johndoe");
+
+        var principalContext = new AtomicReference<PrincipalContext>();
+        var thread = Thread.ofVirtual().start(new DelegatingSecurityContextRunnable(() -> principalContext.set(PrincipalContextProvider.get())));
+        thread.join();
+
+        assertThat(principalContext.get().id()).isEqualTo(userId);
+    }
+
+    private UUID authenticate(String username) {
+        var user = new User(UUID.randomUUID(), username, username);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+        return user.getId();
+    }
+
+    /**
+     * A user of the tests.
+     *
+     * @author sbegaudeau
+     */
+    private record User(UUID getId, String getUsername, String getFullName) implements IUser {
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.avatar;
+
+import com.svalyn.studio.application.services.account.api.IAvatarService;
+import com.svalyn.studio.domain.account.Avatar;
+import com.svalyn.studio.domain.account.repositories.IAvatarRepository;
+import com.svalyn.studio.infrastructure.avatar.api.AvatarRetrievalRequestedEvent;
+import com.svalyn.studio.infrastructure.avatar.api.AvatarRetrievedEvent;
+import com.svalyn.studio.infrastructure.avatar.api.IAvatarRetrievalService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Objects;
+
+/**
+ * Used to download avatars in the background and attach them to their account once retrieved.
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class AvatarRetrievalListener {
+
+    private final IAvatarRetrievalService avatarRetrievalService;
+
+    private final IAvatarRepository avatarRepository;
+
+    private final IAvatarService avatarService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public AvatarRetrievalListener(IAvatarRetrievalService avatarRetrievalService, IAvatarRepository avatarRepository, IAvatarService avatarService, ApplicationEventPublisher applicationEventPublisher) {
+        this.avatarRetrievalService = Objects.requireNonNull(avatarRetrievalService);
+        this.avatarRepository = Objects.requireNonNull(avatarRepository);
+        this.avatarService = Objects.requireNonNull(avatarService);
+        this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
+    }
+
+    @TransactionalEventListener
+    public void onAvatarRetrievalRequestedEvent(AvatarRetrievalRequestedEvent event) {
+        this.avatarRetrievalService.retrieve(event.imageUrl())
+                .filter(avatarData -> avatarData.content() != null && avatarData.contentType() != null)
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(avatarData -> this.applicationEventPublisher.publishEvent(new AvatarRetrievedEvent(event.accountId(), event.username(), avatarData)));
+    }
+
+    @EventListener
+    public void onAvatarRetrievedEvent(AvatarRetrievedEvent event) {
+        var avatarData = event.avatarData();
+        var avatar = this.avatarRepository.findByAccountId(event.accountId())
+                .map(existingAvatar -> {
+                    existingAvatar.updateContent(avatarData.content(), avatarData.contentType());
+                    return existingAvatar;
+                })
+                .orElseGet(() -> Avatar.newAvatar()
+                        .accountId(AggregateReference.to(event.accountId()))
+                        .content(avatarData.content())
+                        .contentType(avatarData.contentType())
+                        .build());
+        this.avatarRepository.save(avatar);
+
+        this.avatarService.evict(event.accountId());
+        this.avatarService.evictByUsername(event.username());
+        this.avatarService.publishEviction(event.accountId(), event.username());
+    }
+}
@@ -16,29 +16,34 @@
  * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
  * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
-
 package com.svalyn.studio.infrastructure.avatar;
 
 import com.svalyn.studio.infrastructure.avatar.api.AvatarData;
 import com.svalyn.studio.infrastructure.avatar.api.IAvatarRetrievalService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.io.IOException;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.Optional;
 
 /**
  * Used to download avatars.
  *
+ * <p>
+ * Each attempt is bounded by a timeout and the content is rejected as soon as it exceeds the maximum size. Server
+ * errors and timeouts are retried with a backoff while client errors and oversized images are not.
+ * </p>
+ *
  * @author sbegaudeau
  */
 @Service
@@ -46,49 +51,59 @@ public class AvatarRetrievalService implements IAvatarRetrievalService {
 
     private final WebClient webClient;
 
+    private final Duration timeout;
+
+    private final int maximumSize;
+
+    private final long retries;
+
+    private final Duration retryBackoff;
+
     private final Logger logger = LoggerFactory.getLogger(AvatarRetrievalService.class);
 
-    public AvatarRetrievalService(WebClient webClient) {
+    public AvatarRetrievalService(WebClient webClient,
+                                  @Value("${svalyn.avatars.retrieval.timeout:PT5S}") Duration timeout,
+                                  @Value("${svalyn.avatars.retrieval.maximum-size:1048576}") int maximumSize,
+                                  @Value("${svalyn.avatars.retrieval.retries:2}") long retries,
+                                  @Value("${svalyn.avatars.retrieval.retry-backoff:PT0.5S}") Duration retryBackoff) {
         this.webClient = Objects.requireNonNull(webClient);
+        this.timeout = Objects.requireNonNull(timeout);
+        this.maximumSize = maximumSize;
+        this.retries = retries;
+        this.retryBackoff = Objects.requireNonNull(retryBackoff);
     }
 
     @Override
-    public Optional<AvatarData> getData(String imageUrl) {
-        Optional<AvatarData> optionalImageData = Optional.empty();
-
-        try (
-            var outputStream = new PipedOutputStream();
-            var inputStream = new PipedInputStream(outputStream);
-        ) {
-            var responseEntity = this.webClient.get()
-                    .uri(imageUrl)
-                    .retrieve()
-                    .toEntityFlux(BodyExtractors.toDataBuffers())
-                    .doOnError(error -> this.logger.warn(error.getMessage(), error))
-                    .block();
-
-            if (responseEntity != null && responseEntity.hasBody()) {
-                DataBufferUtils.write(responseEntity.getBody(), outputStream)
-                        .doFinally(signalType -> {
-                            try {
-                                outputStream.close();
-                            } catch (IOException exception) {
-                                this.logger.warn(exception.getMessage(), exception);
-                            }
-                        }).subscribe(DataBufferUtils.releaseConsumer());
-
-                var contentType = Optional.of(responseEntity)
-                        .map(ResponseEntity::getHeaders)
-                        .map(HttpHeaders::getContentType)
-                        .map(Object::toString)
-                        .orElse(null);
+    public Mono<AvatarData> retrieve(String imageUrl) {
+        return this.webClient.get()
+                .uri(imageUrl)
+                .exchangeToMono(this::toAvatarData)
+                .timeout(this.timeout)
+                .retryWhen(Retry.backoff(this.retries, this.retryBackoff).filter(this::isRetryable))
+                .doOnError(error -> this.logger.warn("Unable to retrieve the avatar {}: {}", imageUrl, error.getMessage()))
+                .onErrorResume(error -> Mono.empty());
+    }
 
-                optionalImageData = Optional.of(new AvatarData(inputStream.readAllBytes(), contentType));
-            }
-        } catch (IOException exception) {
-            this.logger.warn(exception.getMessage(), exception);
+    private Mono<AvatarData> toAvatarData(ClientResponse response) {
+        Mono<AvatarData> avatarData;
+        if (response.statusCode().is2xxSuccessful()) {
+            var contentType = response.headers().contentType().map(Object::toString).orElse(null);
+            avatarData = DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), this.maximumSize)
+                    .map(dataBuffer -> {
+                        var content = new byte[dataBuffer.readableByteCount()];
+                        dataBuffer.read(content);
+                        DataBufferUtils.release(dataBuffer);
+                        return new AvatarData(content, contentType);
+                    });
+        } else {
+            avatarData = response.createError();
         }
+        return avatarData;
+    }
 
-        return optionalImageData;
+    private boolean isRetryable(Throwable throwable) {
+        var isClientError = throwable instanceof WebClientResponseException exception && exception.getStatusCode().is4xxClientError();
+        var isTooLarge = throwable instanceof DataBufferLimitException;
+        return !isClientError && !isTooLarge;
     }
 }
@@ -19,13 +19,17 @@
 
 package com.svalyn.studio.infrastructure.avatar.api;
 
-import java.util.Optional;
+import reactor.core.publisher.Mono;
 
 /**
  * Used to download avatars.
  *
+ * <p>
+ * The download does not block the caller, the returned mono is empty if the avatar could not be retrieved.
+ * </p>
+ *
  * @author sbegaudeau
  */
 public interface IAvatarRetrievalService {
-    Optional<AvatarData> getData(String imageUrl);
+    Mono<AvatarData> retrieve(String imageUrl);
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.cluster;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Used to send messages to all the servers of the cluster with the LISTEN and NOTIFY commands of PostgreSQL.
+ *
+ * <p>
+ * All the servers already share the same database so no other broker is needed. A notification sent during a
+ * transaction is only delivered once the transaction has been committed. Each server listens on a dedicated
+ * connection, outside of the pool, which is polled by a single thread. Once this connection is established again after
+ * a failure, the listeners are told that some messages may have been missed.
+ * </p>
+ *
+ * <p>
+ * The messages of each channel are handed to the listeners by a dedicated thread, in the order in which they have been
+ * received, so that slow listeners on a channel do not delay the messages of the other channels.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class PostgreSQLClusterMessageBus implements IClusterMessageBus, SmartLifecycle {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_]+");
+
+    private static final int POLLING_TIMEOUT_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final Duration reconnectionDelay;
+
+    private final Map<String, List<IClusterMessageListener>> listeners = new ConcurrentHashMap<>();
+
+    private final Map<String, ExecutorService> dispatchers = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(PostgreSQLClusterMessageBus.class);
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public PostgreSQLClusterMessageBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                       @Value("${svalyn.cluster.reconnection-delay:PT5S}") Duration reconnectionDelay) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.dataSourceProperties = Objects.requireNonNull(dataSourceProperties);
+        this.reconnectionDelay = Objects.requireNonNull(reconnectionDelay);
+    }
+
+    @Override
+    public void publish(String channel, String payload) {
+        this.jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, this.checkChannel(channel), payload);
+    }
+
+    @Override
+    public void subscribe(String channel, IClusterMessageListener listener) {
+        this.dispatchers.computeIfAbsent(this.checkChannel(channel), key -> Executors.newSingleThreadExecutor(Thread.ofPlatform().name("cluster-message-bus-" + key).daemon().factory()));
+        this.listeners.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(Objects.requireNonNull(listener));
+    }
+
+    private String checkChannel(String channel) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+        return channel;
+    }
+
+    @Override
+    public synchronized void start() {
+        this.running = true;
+        this.thread = Thread.ofPlatform().name("cluster-message-bus").daemon().start(this::listen);
+    }
+
+    @Override
+    public synchronized void stop() {
+        this.running = false;
+        if (this.thread != null) {
+            this.thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    private void listen() {
+        var connected = false;
+        while (this.running) {
+            try (var connection = DriverManager.getConnection(this.dataSourceProperties.determineUrl(), this.dataSourceProperties.determineUsername(), this.dataSourceProperties.determinePassword())) {
+                var listenedChannels = new HashSet<String>();
+                this.listenToNewChannels(connection, listenedChannels);
+                if (connected) {
+                    this.listeners.keySet().forEach(this::dispatchMessagesLost);
+                }
+                connected = true;
+
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (this.running) {
+                    var notifications = pgConnection.getNotifications(POLLING_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (var notification : notifications) {
+                            this.dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                    this.listenToNewChannels(connection, listenedChannels);
+                }
+            } catch (SQLException exception) {
+                this.waitBeforeReconnecting(exception);
+            }
+        }
+    }
+
+    private void listenToNewChannels(Connection connection, Set<String> listenedChannels) throws SQLException {
+        for (var channel : this.listeners.keySet()) {
+            if (listenedChannels.add(channel)) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        this.dispatch(channel, listener -> listener.onMessage(payload));
+    }
+
+    private void dispatchMessagesLost(String channel) {
+        this.dispatch(channel, IClusterMessageListener::onMessagesLost);
+    }
+
+    /**
+     * Gives the message to the listeners of its channel on the thread of this channel, a failing listener must not stop
+     * the thread handling the other messages.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void dispatch(String channel, Consumer<IClusterMessageListener> handler) {
+        Optional.ofNullable(this.dispatchers.get(channel)).ifPresent(dispatcher -> dispatcher.execute(() -> {
+            for (var listener : this.listeners.getOrDefault(channel, List.of())) {
+                try {
+                    handler.accept(listener);
+                } catch (RuntimeException exception) {
+                    this.logger.warn("Unable to handle a message of the channel {}", channel, exception);
+                }
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.dispatchers.values().forEach(ExecutorService::shutdown);
+    }
+
+    private void waitBeforeReconnecting(SQLException exception) {
+        if (this.running) {
+            this.logger.warn("The connection used to listen to the other servers has been lost: {}", exception.getMessage());
+            try {
+                Thread.sleep(this.reconnectionDelay);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                this.running = false;
+            }
+        }
+    }
+}
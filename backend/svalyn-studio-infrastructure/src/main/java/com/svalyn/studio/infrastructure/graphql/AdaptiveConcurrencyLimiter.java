@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used to limit the number of GraphQL operations executed concurrently.
+ *
+ * <p>
+ * The limit is not configured but discovered from the latency of the operations. A long term average of the latency
+ * is compared to a short term one: as long as the recent operations are not slower than usual the limit grows, and
+ * once they slow down, for example because the database is struggling, the limit shrinks proportionally. Operations
+ * above the limit are rejected immediately instead of waiting for a connection until they time out.
+ * </p>
+ *
+ * <p>
+ * Queries can only use a share of the limit, the rest of it is kept for the mutations.
+ * </p>
+ *
+ * <p>
+ * The limit, the operations in flight, the latencies and the number of operations completed and rejected are
+ * published as the <code>svalyn.graphql.concurrency.*</code> metrics.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+
+    private static final double LONG_WINDOW = 600;
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double MINIMUM_GRADIENT = 0.5;
+
+    private final int minimumLimit;
+
+    private final int maximumLimit;
+
+    private final double queryShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder rejectedQueryCount = new LongAdder();
+
+    private final LongAdder rejectedMutationCount = new LongAdder();
+
+    private final Counter completedCounter;
+
+    private final Counter rejectedQueryCounter;
+
+    private final Counter rejectedMutationCounter;
+
+    private final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private volatile double limit;
+
+    private double shortLatencyNanos;
+
+    private double longLatencyNanos;
+
+    public AdaptiveConcurrencyLimiter(@Value("${svalyn.graphql.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${svalyn.graphql.concurrency.minimum-limit:4}") int minimumLimit,
+                                      @Value("${svalyn.graphql.concurrency.maximum-limit:200}") int maximumLimit,
+                                      @Value("${svalyn.graphql.concurrency.query-share:0.8}") double queryShare,
+                                      MeterRegistry meterRegistry) {
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.queryShare = queryShare;
+        this.limit = Math.min(maximumLimit, Math.max(minimumLimit, initialLimit));
+
+        Gauge.builder("svalyn.graphql.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Maximum number of GraphQL operations executed concurrently")
+                .register(meterRegistry);
+        Gauge.builder("svalyn.graphql.concurrency.in.flight", this.inFlight, AtomicInteger::get)
+                .description("Number of GraphQL operations being executed")
+                .register(meterRegistry);
+        Gauge.builder("svalyn.graphql.concurrency.latency.short", this, AdaptiveConcurrencyLimiter::getShortLatencyMillis)
+                .description("Short term average of the latency of the GraphQL operations")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("svalyn.graphql.concurrency.latency.long", this, AdaptiveConcurrencyLimiter::getLongLatencyMillis)
+                .description("Long term average of the latency of the GraphQL operations")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("svalyn.graphql.concurrency.completed")
+                .description("Number of GraphQL operations executed")
+                .register(meterRegistry);
+        this.rejectedQueryCounter = Counter.builder("svalyn.graphql.concurrency.rejected")
+                .description("Number of GraphQL operations rejected because of the limit")
+                .tag("priority", OperationPriority.QUERY.name().toLowerCase())
+                .register(meterRegistry);
+        this.rejectedMutationCounter = Counter.builder("svalyn.graphql.concurrency.rejected")
+                .description("Number of GraphQL operations rejected because of the limit")
+                .tag("priority", OperationPriority.MUTATION.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a permit to execute an operation of the given priority or an empty optional if the operation should be
+     * rejected.
+     *
+     * <p>
+     * The permit must be released once the operation is over.
+     * </p>
+     */
+    public Optional<Permit> tryAcquire(OperationPriority priority) {
+        var maximumInFlight = this.getMaximumInFlight(priority);
+
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (current >= maximumInFlight) {
+                if (priority == OperationPriority.MUTATION) {
+                    this.rejectedMutationCount.increment();
+                    this.rejectedMutationCounter.increment();
+                } else {
+                    this.rejectedQueryCount.increment();
+                    this.rejectedQueryCounter.increment();
+                }
+                return Optional.empty();
+            }
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+
+        return Optional.of(new Permit(current + 1, System.nanoTime()));
+    }
+
+    private int getMaximumInFlight(OperationPriority priority) {
+        var currentLimit = this.limit;
+        if (priority == OperationPriority.MUTATION) {
+            return (int) currentLimit;
+        }
+        return Math.max(1, (int) (currentLimit * this.queryShare));
+    }
+
+    private void onSample(long latencyNanos, int inFlightOnStart) {
+        this.inFlight.decrementAndGet();
+        this.completedCount.increment();
+        this.completedCounter.increment();
+
+        synchronized (this) {
+            if (this.longLatencyNanos == 0) {
+                this.shortLatencyNanos = latencyNanos;
+                this.longLatencyNanos = latencyNanos;
+            } else {
+                this.shortLatencyNanos += (latencyNanos - this.shortLatencyNanos) / SHORT_WINDOW;
+                this.longLatencyNanos += (latencyNanos - this.longLatencyNanos) / LONG_WINDOW;
+            }
+
+            // Once the latency is back to normal after a long degradation, forget the degraded baseline faster
+            if (this.longLatencyNanos / this.shortLatencyNanos > 2) {
+                this.longLatencyNanos *= 0.95;
+            }
+
+            // Only learn from the samples where the limit was actually constraining the operations
+            if (inFlightOnStart >= this.limit / 2) {
+                var gradient = Math.max(MINIMUM_GRADIENT, Math.min(1.0, TOLERANCE * this.longLatencyNanos / this.shortLatencyNanos));
+                var newLimit = this.limit * gradient + Math.sqrt(this.limit);
+                newLimit = this.limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+                this.limit = Math.min(this.maximumLimit, Math.max(this.minimumLimit, newLimit));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    private synchronized double getShortLatencyMillis() {
+        return this.shortLatencyNanos / 1_000_000.0;
+    }
+
+    private synchronized double getLongLatencyMillis() {
+        return this.longLatencyNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the statistics since the previous call and starts a new reporting interval.
+     */
+    public ConcurrencyLimiterStatistics statistics() {
+        var completed = this.completedCount.sumThenReset();
+        var rejectedQueries = this.rejectedQueryCount.sumThenReset();
+        var rejectedMutations = this.rejectedMutationCount.sumThenReset();
+        var total = completed + rejectedQueries + rejectedMutations;
+        var rejectionRate = 0.0;
+        if (total > 0) {
+            rejectionRate = (double) (rejectedQueries + rejectedMutations) / total;
+        }
+
+        synchronized (this) {
+            return new ConcurrencyLimiterStatistics(
+                    this.getLimit(),
+                    this.inFlight.get(),
+                    completed,
+                    rejectedQueries,
+                    rejectedMutations,
+                    rejectionRate,
+                    this.shortLatencyNanos / 1_000_000.0,
+                    this.longLatencyNanos / 1_000_000.0);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${svalyn.graphql.concurrency.statistics-interval:60000}", fixedRateString = "${svalyn.graphql.concurrency.statistics-interval:60000}")
+    public void logStatistics() {
+        var statistics = this.statistics();
+        if (statistics.completedCount() > 0 || statistics.rejectedQueryCount() > 0 || statistics.rejectedMutationCount() > 0) {
+            this.logger.info("GraphQL concurrency: limit {}, {} in flight, {} completed, {} queries and {} mutations rejected ({}%), latency short {} ms (long {} ms)",
+                    statistics.limit(), statistics.inFlight(), statistics.completedCount(), statistics.rejectedQueryCount(), statistics.rejectedMutationCount(),
+                    String.format("%.1f", statistics.rejectionRate() * 100), String.format("%.1f", statistics.shortLatencyMillis()), String.format("%.1f", statistics.longLatencyMillis()));
+        }
+    }
+
+    /**
+     * The permission to execute an operation.
+     *
+     * @author sbegaudeau
+     */
+    public final class Permit {
+
+        private final int inFlightOnStart;
+
+        private final long startedOn;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightOnStart, long startedOn) {
+            this.inFlightOnStart = inFlightOnStart;
+            this.startedOn = startedOn;
+        }
+
+        /**
+         * Releases the permit and uses the latency of the operation to adjust the limit.
+         */
+        public void release() {
+            this.release(System.nanoTime() - this.startedOn);
+        }
+
+        void release(long latencyNanos) {
+            if (this.released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.onSample(latencyNanos, this.inFlightOnStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Used to shed the GraphQL operations which cannot be executed without slowing down the others.
+ *
+ * @author sbegaudeau
+ */
+@Component
+public class ConcurrencyLimitingInterceptor implements WebGraphQlInterceptor {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final PersistedQueryDocumentProvider persistedQueryDocumentProvider;
+
+    public ConcurrencyLimitingInterceptor(AdaptiveConcurrencyLimiter concurrencyLimiter, PersistedQueryDocumentProvider persistedQueryDocumentProvider) {
+        this.concurrencyLimiter = Objects.requireNonNull(concurrencyLimiter);
+        this.persistedQueryDocumentProvider = Objects.requireNonNull(persistedQueryDocumentProvider);
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        return Mono.defer(() -> {
+            var priority = this.getPriority(request);
+            return this.concurrencyLimiter.tryAcquire(priority)
+                    .map(permit -> chain.next(request).doFinally(signalType -> permit.release()))
+                    .orElseGet(() -> Mono.error(new ConcurrencyLimitExceededException(priority)));
+        });
+    }
+
+    private OperationPriority getPriority(WebGraphQlRequest request) {
+        var operationName = Optional.ofNullable(request.getOperationName()).filter(name -> !name.isBlank());
+        // Documents which have not been parsed yet are only scanned, they will be parsed by the execution of the request
+        var operation = this.persistedQueryDocumentProvider.findDocument(request.getDocument(), request.getExtensions())
+                .map(document -> this.findOperation(document, operationName))
+                .orElseGet(() -> new OperationTypeScanner(request.getDocument()).findOperation(operationName.orElse(null)));
+
+        var priority = OperationPriority.QUERY;
+        if (operation.filter(OperationDefinition.Operation.MUTATION::equals).isPresent()) {
+            priority = OperationPriority.MUTATION;
+        }
+        return priority;
+    }
+
+    private Optional<OperationDefinition.Operation> findOperation(Document document, Optional<String> operationName) {
+        return document.getDefinitionsOfType(OperationDefinition.class).stream()
+                .filter(operationDefinition -> operationName.map(name -> name.equals(operationDefinition.getName())).orElse(true))
+                .findFirst()
+                .map(OperationDefinition::getOperation);
+    }
+}
@@ -19,11 +19,28 @@
 
 package com.svalyn.studio.infrastructure.graphql;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.svalyn.studio.domain.account.services.api.IAuthorizationService;
+import com.zaxxer.hikari.HikariDataSource;
 import graphql.schema.GraphQLScalarType;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.convert.ApplicationConversionService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration of the GraphQL layer.
  *
@@ -31,6 +48,55 @@ import org.springframework.graphql.execution.RuntimeWiringConfigurer;
  */
 @Configuration
 public class GraphQLConfiguration {
+
+    private static final int DEFAULT_MAXIMUM_CONCURRENCY = 5;
+
+    /**
+     * Configures the annotated controllers like Spring Boot does, with an executor for the resolvers returning a
+     * {@link java.util.concurrent.Callable}.
+     *
+     * <p>
+     * Those resolvers run on their own virtual thread so that independent sibling fields, like the projects and the
+     * tags of an organization, are resolved in parallel. The thread locals of the request, including the security
+     * context, are propagated to these threads by Spring GraphQL. Their concurrency is bounded by the given limiter.
+     * When the concurrent resolution is disabled, for example in tests relying on a transaction bound to the current
+     * thread, they run on the calling thread instead.
+     * </p>
+     */
+    @Bean
+    public AnnotatedControllerConfigurer annotatedControllerConfigurer(ListableBeanFactory beanFactory, ResolverConcurrencyLimiter resolverConcurrencyLimiter,
+                                                                       @Value("${svalyn.graphql.resolvers.concurrent:true}") boolean concurrent) {
+        var controllerConfigurer = new AnnotatedControllerConfigurer();
+        controllerConfigurer.addFormatterRegistrar(registry -> ApplicationConversionService.addBeans(registry, beanFactory));
+        if (concurrent) {
+            controllerConfigurer.setExecutor(resolverConcurrencyLimiter);
+        } else {
+            controllerConfigurer.setExecutor(Runnable::run);
+        }
+        return controllerConfigurer;
+    }
+
+    /**
+     * Creates the limiter of the concurrency of the resolvers.
+     *
+     * <p>
+     * Unless configured, the resolvers of all the operations can use half of the pool of database connections at
+     * most, the other half remains available for the threads performing the operations and the other requests.
+     * </p>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ResolverConcurrencyLimiter resolverConcurrencyLimiter(DataSource dataSource,
+                                                                 @Value("${svalyn.graphql.resolvers.maximum-concurrency:0}") int maximumConcurrency,
+                                                                 @Value("${svalyn.graphql.resolvers.maximum-concurrency-per-operation:4}") int maximumConcurrencyPerOperation) throws SQLException {
+        var concurrency = maximumConcurrency;
+        if (concurrency <= 0 && dataSource.isWrapperFor(HikariDataSource.class)) {
+            concurrency = Math.max(1, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() / 2);
+        } else if (concurrency <= 0) {
+            concurrency = DEFAULT_MAXIMUM_CONCURRENCY;
+        }
+        return new ResolverConcurrencyLimiter(concurrency, Math.min(concurrency, maximumConcurrencyPerOperation));
+    }
+
     @Bean
     public RuntimeWiringConfigurer runtimeWiringConfigurer(ValidatedDirectiveWiring validatedDirectiveWiring) {
         var instantScalar = GraphQLScalarType.newScalar()
@@ -43,4 +109,49 @@ public class GraphQLConfiguration {
                 .directive("validated", validatedDirectiveWiring)
                 .scalar(instantScalar);
     }
+
+    @Bean
+    public ResolverTimingInstrumentation resolverTimingInstrumentation(IAuthorizationService authorizationService,
+                                                                       @Value("${svalyn.graphql.instrumentation.slow-operation-threshold:500}") long slowOperationThresholdMillis) {
+        return new ResolverTimingInstrumentation(authorizationService, Duration.ofMillis(slowOperationThresholdMillis));
+    }
+
+    @Bean
+    public QueryCostInstrumentation queryCostInstrumentation(@Value("${svalyn.graphql.cost.fields:}") List<String> fieldCosts,
+                                                             @Value("${svalyn.graphql.cost.maximum-cost:10000}") long maximumCost,
+                                                             @Value("${svalyn.graphql.cost.maximum-depth:15}") int maximumDepth,
+                                                             @Value("${svalyn.graphql.cost.maximum-rows-per-page:100}") int maximumRowsPerPage) {
+        return new QueryCostInstrumentation(QueryCostInstrumentation.parseFieldCosts(fieldCosts), maximumCost, maximumDepth, maximumRowsPerPage);
+    }
+
+    /**
+     * Creates the cache of the parsed documents, restricted to the operations of the given manifest in the allow-list
+     * mode.
+     *
+     * <p>
+     * The manifest uses the format of the Apollo persisted query manifests, only the body of its operations is used.
+     * </p>
+     */
+    @Bean
+    public PersistedQueryDocumentProvider persistedQueryDocumentProvider(ObjectMapper objectMapper, ResourceLoader resourceLoader,
+                                                                         @Value("${svalyn.graphql.persisted-queries.maximum-size:1000}") int maximumSize,
+                                                                         @Value("${svalyn.graphql.persisted-queries.allow-list-only:false}") boolean allowListOnly,
+                                                                         @Value("${svalyn.graphql.persisted-queries.manifest:}") String manifest) {
+        List<String> allowedQueries = new ArrayList<>();
+        if (!manifest.isBlank()) {
+            try (var inputStream = resourceLoader.getResource(manifest).getInputStream()) {
+                objectMapper.readTree(inputStream).path("operations").forEach(operation -> allowedQueries.add(operation.path("body").asText()));
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Unable to read the persisted queries manifest " + manifest, exception);
+            }
+        } else if (allowListOnly) {
+            throw new IllegalStateException("The allow-list mode of the persisted queries requires svalyn.graphql.persisted-queries.manifest");
+        }
+        return new PersistedQueryDocumentProvider(maximumSize, allowListOnly, allowedQueries);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryGraphQlSourceBuilderCustomizer(PersistedQueryDocumentProvider persistedQueryDocumentProvider) {
+        return builder -> builder.configureGraphQl(graphQLBuilder -> graphQLBuilder.preparsedDocumentProvider(persistedQueryDocumentProvider));
+    }
 }
@@ -24,6 +24,7 @@ import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Service;
 
 import jakarta.validation.ValidationException;
@@ -45,11 +46,21 @@ public class GraphQLExceptionResolver extends DataFetcherExceptionResolverAdapte
 
     @Override
     protected GraphQLError resolveToSingleError(Throwable exception, DataFetchingEnvironment environment) {
-        if (exception instanceof ValidationException) {
-            return GraphqlErrorBuilder.newError()
+        if (this.isValidationException(exception)) {
+            return GraphqlErrorBuilder.newError(environment)
+                    .errorType(ErrorType.BAD_REQUEST)
                     .message(this.messageService.invalid())
                     .build();
         }
         return super.resolveToSingleError(exception, environment);
     }
+
+    private boolean isValidationException(Throwable exception) {
+        // The exceptions thrown by the callables returned by the controllers are wrapped in an IllegalStateException
+        var cause = exception;
+        while (cause != null && !(cause instanceof ValidationException)) {
+            cause = cause.getCause();
+        }
+        return cause != null;
+    }
 }
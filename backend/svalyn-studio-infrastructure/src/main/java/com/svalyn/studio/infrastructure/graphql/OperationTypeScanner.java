@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.language.OperationDefinition;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Used to find the type of an operation of a GraphQL document without parsing it.
+ *
+ * <p>
+ * Only the names found outside of the selection sets, the arguments and the variable definitions are looked at, while
+ * the comments and the strings are skipped. Documents which have not been parsed yet can thus be classified for a
+ * fraction of the cost of their parsing, which is left to the execution of the request. An invalid document is
+ * classified as best as possible since its execution will fail anyway.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+final class OperationTypeScanner {
+
+    private static final Map<String, OperationDefinition.Operation> OPERATIONS = Map.of(
+            "query", OperationDefinition.Operation.QUERY,
+            "mutation", OperationDefinition.Operation.MUTATION,
+            "subscription", OperationDefinition.Operation.SUBSCRIPTION
+    );
+
+    private static final String BLOCK_STRING_DELIMITER = "\"\"\"";
+
+    private static final String OPENING_CHARACTERS = "{([";
+
+    private static final String CLOSING_CHARACTERS = "})]";
+
+    private static final String IGNORED_CHARACTERS = " \t\r\n,\uFEFF";
+
+    private final String document;
+
+    private int index;
+
+    private int depth;
+
+    OperationTypeScanner(String document) {
+        this.document = Objects.requireNonNull(document);
+    }
+
+    /**
+     * Returns the type of the operation with the given name or of the first operation if no name is given.
+     */
+    Optional<OperationDefinition.Operation> findOperation(String operationName) {
+        Optional<OperationDefinition.Operation> operation = Optional.empty();
+        var isInDefinitionHeader = false;
+        while (operation.isEmpty() && this.hasNext()) {
+            var character = this.document.charAt(this.index);
+            if (this.depth == 0 && !isInDefinitionHeader && this.isNameStart(character)) {
+                isInDefinitionHeader = true;
+                operation = this.readDefinition(operationName);
+            } else if (this.depth == 0 && !isInDefinitionHeader && character == '{') {
+                // A selection set on its own is an anonymous query
+                isInDefinitionHeader = true;
+                operation = this.match(OperationDefinition.Operation.QUERY, null, operationName);
+            } else {
+                isInDefinitionHeader = this.skip(character, isInDefinitionHeader);
+            }
+        }
+        return operation;
+    }
+
+    private Optional<OperationDefinition.Operation> readDefinition(String operationName) {
+        var keyword = this.readName();
+        return Optional.ofNullable(OPERATIONS.get(keyword)).flatMap(type -> {
+            this.skipIgnoredCharacters();
+            String name = null;
+            if (this.hasNext() && this.isNameStart(this.document.charAt(this.index))) {
+                name = this.readName();
+            }
+            return this.match(type, name, operationName);
+        });
+    }
+
+    private Optional<OperationDefinition.Operation> match(OperationDefinition.Operation type, String name, String operationName) {
+        return Optional.of(type).filter(operation -> operationName == null || operationName.equals(name));
+    }
+
+    /**
+     * Skips the given character, or the whole comment or string it starts, and returns whether the header of the
+     * current definition is still being read.
+     */
+    private boolean skip(char character, boolean isInDefinitionHeader) {
+        var isStillInDefinitionHeader = isInDefinitionHeader;
+        if (character == '#') {
+            this.skipComment();
+        } else if (character == '"') {
+            this.skipString();
+        } else {
+            if (OPENING_CHARACTERS.indexOf(character) >= 0) {
+                this.depth++;
+            } else if (CLOSING_CHARACTERS.indexOf(character) >= 0) {
+                this.depth--;
+                // The definition ends with its selection set
+                isStillInDefinitionHeader = !(this.depth == 0 && character == '}');
+            }
+            this.index++;
+        }
+        return isStillInDefinitionHeader;
+    }
+
+    private void skipIgnoredCharacters() {
+        while (this.hasNext() && (IGNORED_CHARACTERS.indexOf(this.document.charAt(this.index)) >= 0 || this.document.charAt(this.index) == '#')) {
+            if (this.document.charAt(this.index) == '#') {
+                this.skipComment();
+            } else {
+                this.index++;
+            }
+        }
+    }
+
+    private void skipComment() {
+        while (this.hasNext() && this.document.charAt(this.index) != '\n' && this.document.charAt(this.index) != '\r') {
+            this.index++;
+        }
+    }
+
+    private void skipString() {
+        if (this.document.startsWith(BLOCK_STRING_DELIMITER, this.index)) {
+            var end = this.document.indexOf(BLOCK_STRING_DELIMITER, this.index + BLOCK_STRING_DELIMITER.length());
+            // An escaped delimiter does not end the block string
+            while (end > 0 && this.document.charAt(end - 1) == '\\') {
+                end = this.document.indexOf(BLOCK_STRING_DELIMITER, end + BLOCK_STRING_DELIMITER.length());
+            }
+            this.index = this.document.length();
+            if (end >= 0) {
+                this.index = end + BLOCK_STRING_DELIMITER.length();
+            }
+        } else {
+            this.index++;
+            var isClosed = false;
+            while (!isClosed && this.hasNext()) {
+                var character = this.document.charAt(this.index);
+                if (character == '\\') {
+                    this.index++;
+                }
+                isClosed = character == '"' || character == '\n' || character == '\r';
+                this.index++;
+            }
+        }
+    }
+
+    private String readName() {
+        var start = this.index;
+        while (this.hasNext() && (this.isNameStart(this.document.charAt(this.index)) || this.isDigit(this.document.charAt(this.index)))) {
+            this.index++;
+        }
+        return this.document.substring(start, this.index);
+    }
+
+    private boolean isNameStart(char character) {
+        return character == '_' || this.isLetter(character);
+    }
+
+    private boolean isLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    private boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private boolean hasNext() {
+        return this.index < this.document.length();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryError;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Used to support automatic persisted queries and to skip the parsing and the validation of known documents.
+ *
+ * <p>
+ * Clients can send the SHA-256 hash of their document in the <code>persistedQuery</code> extension instead of the
+ * document itself. If the server does not know this hash yet, a <code>PersistedQueryNotFound</code> error is returned
+ * and the client sends the hash along with the document which is then remembered. The parsed and validated documents
+ * are kept in a bounded cache, keyed by their hash, whether they have been sent by hash or in full.
+ * </p>
+ *
+ * <p>
+ * In the allow-list mode, only the documents of the manifest given at startup can be executed, by hash or in full.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class PersistedQueryDocumentProvider implements PreparsedDocumentProvider {
+
+    public static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private static final String SHA256_HASH = "sha256Hash";
+
+    private final int maximumSize;
+
+    private final boolean allowListOnly;
+
+    private final Map<String, String> allowedQueries;
+
+    private final Map<String, String> queries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, PreparsedDocumentEntry> documents = new LinkedHashMap<>(16, 0.75f, true);
+
+    public PersistedQueryDocumentProvider(int maximumSize, boolean allowListOnly, Collection<String> allowedQueries) {
+        this.maximumSize = maximumSize;
+        this.allowListOnly = allowListOnly;
+        this.allowedQueries = allowedQueries.stream().collect(Collectors.toUnmodifiableMap(PersistedQueryDocumentProvider::sha256, Function.identity(), (left, right) -> left));
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        var optionalRequestedHash = this.getRequestedHash(executionInput.getExtensions());
+        var optionalQuery = Optional.ofNullable(executionInput.getQuery())
+                .filter(query -> !query.isBlank() && !PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query));
+        var hash = optionalRequestedHash.orElseGet(() -> optionalQuery.map(PersistedQueryDocumentProvider::sha256).orElse(""));
+
+        PreparsedDocumentEntry entry;
+        if (optionalRequestedHash.isPresent() && optionalQuery.isPresent() && !sha256(optionalQuery.get()).equals(hash)) {
+            var persistedQueryIdInvalid = new PersistedQueryIdInvalid(hash);
+            entry = this.toEntry(persistedQueryIdInvalid, persistedQueryIdInvalid.getExtensions());
+        } else if (this.allowListOnly && !this.allowedQueries.containsKey(hash)) {
+            entry = new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("The operation is not allowed").build());
+        } else {
+            entry = this.getCachedEntry(hash)
+                    .orElseGet(() -> this.parseAndValidate(executionInput, hash, optionalQuery, parseAndValidateFunction));
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the document already parsed for the given request, if any, without parsing it.
+     */
+    public Optional<Document> findDocument(String query, Map<String, Object> extensions) {
+        return this.getRequestedHash(extensions)
+                .or(() -> Optional.ofNullable(query).filter(text -> !PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(text)).map(PersistedQueryDocumentProvider::sha256))
+                .flatMap(this::getCachedEntry)
+                .map(PreparsedDocumentEntry::getDocument);
+    }
+
+    private PreparsedDocumentEntry parseAndValidate(ExecutionInput executionInput, String hash, Optional<String> optionalQuery, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        var optionalKnownQuery = optionalQuery.or(() -> this.getQuery(hash));
+        if (optionalKnownQuery.isEmpty()) {
+            var persistedQueryNotFound = new PersistedQueryNotFound(hash);
+            return this.toEntry(persistedQueryNotFound, persistedQueryNotFound.getExtensions());
+        }
+
+        var query = optionalKnownQuery.get();
+        var entry = parseAndValidateFunction.apply(executionInput.transform(builder -> builder.query(query)));
+        if (!entry.hasErrors()) {
+            synchronized (this) {
+                this.put(this.documents, hash, entry);
+                this.put(this.queries, hash, query);
+            }
+        }
+        return entry;
+    }
+
+    private PreparsedDocumentEntry toEntry(PersistedQueryError persistedQueryError, Map<String, Object> extensions) {
+        var error = GraphqlErrorBuilder.newError()
+                .errorType(persistedQueryError)
+                .message(persistedQueryError.getMessage())
+                .extensions(extensions)
+                .build();
+        return new PreparsedDocumentEntry(error);
+    }
+
+    private Optional<String> getRequestedHash(Map<String, Object> extensions) {
+        return Optional.ofNullable(extensions)
+                .map(map -> map.get(PERSISTED_QUERY_EXTENSION))
+                .filter(Map.class::isInstance)
+                .map(persistedQuery -> ((Map<?, ?>) persistedQuery).get(SHA256_HASH))
+                .filter(String.class::isInstance)
+                .map(String.class::cast);
+    }
+
+    private synchronized Optional<PreparsedDocumentEntry> getCachedEntry(String hash) {
+        return Optional.ofNullable(this.documents.get(hash));
+    }
+
+    private synchronized Optional<String> getQuery(String hash) {
+        return Optional.ofNullable(this.allowedQueries.get(hash)).or(() -> Optional.ofNullable(this.queries.get(hash)));
+    }
+
+    private <T> void put(Map<String, T> entries, String hash, T value) {
+        entries.put(hash, value);
+
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > this.maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String sha256(String query) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
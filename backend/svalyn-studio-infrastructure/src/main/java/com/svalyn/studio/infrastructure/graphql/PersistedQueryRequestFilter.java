@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Used to let the requests which only contain the hash of a persisted query reach the GraphQL engine.
+ *
+ * <p>
+ * Spring GraphQL rejects the requests without a <code>query</code>. When the <code>persistedQuery</code> extension is
+ * sent without any document, the marker of the persisted queries is used as the document so that the real one can be
+ * retrieved by the {@link PersistedQueryDocumentProvider}.
+ * </p>
+ *
+ * <p>
+ * The fields of the body are only scanned until the <code>query</code> is found, without building any tree, and the
+ * bytes read during the scan are then replayed in front of the rest of the body which has not been read. Only the
+ * requests without any document, which are small, are read and rewritten entirely.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Component
+public class PersistedQueryRequestFilter extends OncePerRequestFilter {
+
+    private static final String QUERY = "query";
+
+    private static final String EXTENSIONS = "extensions";
+
+    private final ObjectMapper objectMapper;
+
+    private final String graphQLPath;
+
+    public PersistedQueryRequestFilter(ObjectMapper objectMapper, @Value("${spring.graphql.path:/graphql}") String graphQLPath) {
+        this.objectMapper = Objects.requireNonNull(objectMapper);
+        this.graphQLPath = Objects.requireNonNull(graphQLPath);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod()) || !this.graphQLPath.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var inputStream = request.getInputStream();
+        var recordingInputStream = new RecordingInputStream(inputStream);
+        if (this.hasQuery(recordingInputStream)) {
+            filterChain.doFilter(new ReplayedBodyRequest(request, recordingInputStream.getRecordedBytes(), inputStream, request.getContentLengthLong()), response);
+        } else {
+            filterChain.doFilter(this.toPersistedQueryRequest(request, recordingInputStream.getRecordedBytes(), inputStream), response);
+        }
+    }
+
+    /**
+     * Scans the fields of the body until the query is found.
+     *
+     * <p>
+     * The bodies which are not valid JSON objects are considered to have a query, they will be rejected by Spring
+     * GraphQL.
+     * </p>
+     */
+    private boolean hasQuery(InputStream inputStream) throws IOException {
+        var hasQuery = true;
+        try (var parser = this.objectMapper.getFactory().createParser(inputStream)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                hasQuery = false;
+                while (!hasQuery && parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var fieldName = parser.currentName();
+                    var valueToken = parser.nextToken();
+                    hasQuery = QUERY.equals(fieldName) && valueToken != JsonToken.VALUE_NULL;
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException exception) {
+            hasQuery = true;
+        }
+        return hasQuery;
+    }
+
+    private ReplayedBodyRequest toPersistedQueryRequest(HttpServletRequest request, byte[] recordedBytes, ServletInputStream inputStream) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        outputStream.write(recordedBytes);
+        inputStream.transferTo(outputStream);
+        var body = outputStream.toByteArray();
+        try {
+            if (this.objectMapper.readTree(body) instanceof ObjectNode objectNode && this.isPersistedQueryWithoutDocument(objectNode)) {
+                objectNode.put(QUERY, PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+                body = this.objectMapper.writeValueAsBytes(objectNode);
+            }
+        } catch (JsonProcessingException exception) {
+            // The invalid body will be rejected by Spring GraphQL
+        }
+        return new ReplayedBodyRequest(request, body, inputStream, body.length);
+    }
+
+    private boolean isPersistedQueryWithoutDocument(ObjectNode objectNode) {
+        return !objectNode.hasNonNull(QUERY) && objectNode.path(EXTENSIONS).has(PersistedQueryDocumentProvider.PERSISTED_QUERY_EXTENSION);
+    }
+
+    /**
+     * Keeps a copy of the bytes read from the body.
+     *
+     * @author sbegaudeau
+     */
+    private static final class RecordingInputStream extends FilterInputStream {
+
+        private final ByteArrayOutputStream recordedBytes = new ByteArrayOutputStream();
+
+        RecordingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var value = super.read();
+            if (value != -1) {
+                this.recordedBytes.write(value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            var count = super.read(bytes, offset, length);
+            if (count > 0) {
+                this.recordedBytes.write(bytes, offset, count);
+            }
+            return count;
+        }
+
+        byte[] getRecordedBytes() {
+            return this.recordedBytes.toByteArray();
+        }
+    }
+
+    /**
+     * A request whose body starts with some bytes already read, followed by the rest of the original body.
+     *
+     * @author sbegaudeau
+     */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ReplayedBodyInputStream inputStream;
+
+        private final long contentLength;
+
+        ReplayedBodyRequest(HttpServletRequest request, byte[] readBytes, ServletInputStream remainingInputStream, long contentLength) {
+            super(request);
+            this.inputStream = new ReplayedBodyInputStream(readBytes, remainingInputStream);
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public int getContentLength() {
+            return (int) this.contentLength;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return this.contentLength;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return this.inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            var charset = Optional.ofNullable(this.getCharacterEncoding()).map(Charset::forName).orElse(StandardCharsets.UTF_8);
+            return new BufferedReader(new InputStreamReader(this.inputStream, charset));
+        }
+    }
+
+    /**
+     * Replays the bytes already read before the rest of the original body.
+     *
+     * @author sbegaudeau
+     */
+    private static final class ReplayedBodyInputStream extends ServletInputStream {
+
+        private final byte[] readBytes;
+
+        private final ServletInputStream remainingInputStream;
+
+        private int position;
+
+        ReplayedBodyInputStream(byte[] readBytes, ServletInputStream remainingInputStream) {
+            this.readBytes = readBytes;
+            this.remainingInputStream = remainingInputStream;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.position >= this.readBytes.length && this.remainingInputStream.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.position < this.readBytes.length || this.remainingInputStream.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (this.remainingInputStream.isFinished()) {
+                // The container will not notify the listener anymore, the bytes already read are available right away
+                try {
+                    if (this.position < this.readBytes.length) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                } catch (IOException exception) {
+                    readListener.onError(exception);
+                }
+            } else {
+                this.remainingInputStream.setReadListener(readListener);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            var value = -1;
+            if (this.position < this.readBytes.length) {
+                value = this.readBytes[this.position++] & 0xFF;
+            } else {
+                value = this.remainingInputStream.read();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            var count = 0;
+            if (this.position < this.readBytes.length) {
+                count = Math.min(length, this.readBytes.length - this.position);
+                System.arraycopy(this.readBytes, this.position, bytes, offset, count);
+                this.position += count;
+            } else {
+                count = this.remainingInputStream.read(bytes, offset, length);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Used to reject the GraphQL operations which are too expensive before they are executed.
+ *
+ * <p>
+ * The cost of an operation is computed statically from its document. Each field costs the amount configured for its
+ * coordinates, like <code>Change.resources</code>, or one if it returns an object and zero if it returns a scalar or
+ * an enumeration. The cost of the fields selected below a paginated field is multiplied by the size of the page
+ * requested with its <code>rowsPerPage</code> or <code>first</code> argument. Operations which are too deep, too
+ * expensive or requesting pages which are too large are rejected before any resolver is called. The cost of the
+ * operation is reported in the <code>cost</code> extension of the response.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    public static final String COST_RESPONSE_EXTENSION = "cost";
+
+    private static final List<String> PAGINATION_ARGUMENTS = List.of("rowsPerPage", "first");
+
+    private static final int DEFAULT_OBJECT_FIELD_COST = 1;
+
+    private final Map<String, Integer> fieldCosts;
+
+    private final long maximumCost;
+
+    private final int maximumDepth;
+
+    private final int maximumRowsPerPage;
+
+    public QueryCostInstrumentation(Map<String, Integer> fieldCosts, long maximumCost, int maximumDepth, int maximumRowsPerPage) {
+        this.fieldCosts = Map.copyOf(Objects.requireNonNull(fieldCosts));
+        this.maximumCost = maximumCost;
+        this.maximumDepth = maximumDepth;
+        this.maximumRowsPerPage = maximumRowsPerPage;
+    }
+
+    /**
+     * Parses field costs written as <code>Type.field=cost</code>, as found in the configuration.
+     */
+    public static Map<String, Integer> parseFieldCosts(List<String> entries) {
+        Map<String, Integer> fieldCosts = new HashMap<>();
+        for (var entry : entries) {
+            var separatorIndex = entry.indexOf('=');
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid field cost " + entry + ", expected Type.field=cost");
+            }
+            fieldCosts.put(entry.substring(0, separatorIndex).trim(), Integer.parseInt(entry.substring(separatorIndex + 1).trim()));
+        }
+        return fieldCosts;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new QueryCostState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        var executionContext = parameters.getExecutionContext();
+        var queryTraverser = QueryTraverser.newQueryTraverser()
+                .schema(executionContext.getGraphQLSchema())
+                .document(executionContext.getDocument())
+                .operationName(executionContext.getExecutionInput().getOperationName())
+                .coercedVariables(executionContext.getCoercedVariables())
+                .build();
+
+        var analysis = new CostAnalysis();
+        queryTraverser.visitPostOrder(analysis);
+
+        if (state instanceof QueryCostState queryCostState) {
+            queryCostState.cost = analysis.cost();
+            queryCostState.depth = analysis.depth;
+        }
+
+        if (analysis.largestPage > this.maximumRowsPerPage) {
+            throw new AbortExecutionException("The operation requests " + analysis.largestPage + " rows per page, the maximum is " + this.maximumRowsPerPage);
+        }
+        if (analysis.depth > this.maximumDepth) {
+            throw new AbortExecutionException("The operation has a depth of " + analysis.depth + ", the maximum is " + this.maximumDepth);
+        }
+        if (analysis.cost() > this.maximumCost) {
+            throw new AbortExecutionException("The operation has a cost of " + analysis.cost() + ", the maximum is " + this.maximumCost);
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        var result = executionResult;
+        if (state instanceof QueryCostState queryCostState && queryCostState.cost >= 0) {
+            Map<String, Object> extension = new LinkedHashMap<>();
+            extension.put("requestedQueryCost", queryCostState.cost);
+            extension.put("maximumQueryCost", this.maximumCost);
+            extension.put("depth", queryCostState.depth);
+            extension.put("maximumDepth", this.maximumDepth);
+
+            result = ExecutionResultImpl.newExecutionResult()
+                    .from(executionResult)
+                    .addExtension(COST_RESPONSE_EXTENSION, extension)
+                    .build();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private int getFieldCost(QueryVisitorFieldEnvironment environment) {
+        var coordinates = GraphQLTypeUtil.unwrapAll(environment.getParentType()).getName() + "." + environment.getField().getName();
+        var defaultCost = 0;
+        if (!GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(environment.getFieldDefinition().getType()))) {
+            defaultCost = DEFAULT_OBJECT_FIELD_COST;
+        }
+        return this.fieldCosts.getOrDefault(coordinates, defaultCost);
+    }
+
+    private int getPageSize(QueryVisitorFieldEnvironment environment) {
+        return PAGINATION_ARGUMENTS.stream()
+                .map(environment.getArguments()::get)
+                .filter(Integer.class::isInstance)
+                .map(Integer.class::cast)
+                .findFirst()
+                .orElse(1);
+    }
+
+    /**
+     * Computes the cost and the depth of an operation while its fields are visited, children first.
+     *
+     * @author sbegaudeau
+     */
+    private final class CostAnalysis extends QueryVisitorStub {
+
+        // The cost of the root fields is stored with a null parent
+        private final Map<QueryVisitorFieldEnvironment, Long> costByParent = new HashMap<>();
+
+        private int depth;
+
+        private int largestPage;
+
+        @Override
+        public void visitField(QueryVisitorFieldEnvironment environment) {
+            if (environment.isTypeNameIntrospectionField()) {
+                return;
+            }
+
+            var pageSize = getPageSize(environment);
+            this.largestPage = Math.max(this.largestPage, pageSize);
+            this.depth = Math.max(this.depth, this.getDepth(environment));
+
+            var childrenCost = this.costByParent.getOrDefault(environment, 0L);
+            var cost = saturatedAdd(getFieldCost(environment), saturatedMultiply(Math.max(pageSize, 1), childrenCost));
+            this.costByParent.merge(environment.getParentEnvironment(), cost, QueryCostInstrumentation::saturatedAdd);
+        }
+
+        private int getDepth(QueryVisitorFieldEnvironment environment) {
+            var depth = 0;
+            var current = environment;
+            while (current != null) {
+                depth = depth + 1;
+                current = current.getParentEnvironment();
+            }
+            return depth;
+        }
+
+        long cost() {
+            return this.costByParent.getOrDefault(null, 0L);
+        }
+    }
+
+    private static long saturatedAdd(long left, long right) {
+        var result = left + right;
+        if (result < 0) {
+            result = Long.MAX_VALUE;
+        }
+        return result;
+    }
+
+    private static long saturatedMultiply(long left, long right) {
+        var result = Long.MAX_VALUE;
+        if (right == 0 || left <= Long.MAX_VALUE / right) {
+            result = left * right;
+        }
+        return result;
+    }
+
+    /**
+     * The cost computed for a single operation.
+     *
+     * @author sbegaudeau
+     */
+    private static final class QueryCostState implements InstrumentationState {
+
+        private volatile long cost = -1;
+
+        private volatile int depth;
+    }
+}
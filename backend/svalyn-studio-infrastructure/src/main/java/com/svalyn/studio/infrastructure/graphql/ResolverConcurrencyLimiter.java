@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Used to execute the resolvers returning a {@link java.util.concurrent.Callable} with a bounded concurrency.
+ *
+ * <p>
+ * Each resolver runs on its own virtual thread but most of them need a database connection. Without any limit, a
+ * single operation with a lot of sibling fields could thus exhaust the pool of connections. A resolver has to acquire
+ * a permit of its operation and then a permit shared by all the operations, sized from the pool of connections,
+ * before running. The permits are acquired by the virtual thread of the resolver, the thread performing the operation
+ * is thus never blocked.
+ * </p>
+ *
+ * <p>
+ * Unlike the security context, the attributes of the current request are not propagated by Spring GraphQL, they are
+ * used for example to compute the url of the avatars. They are thus exposed to the resolvers by the executor.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class ResolverConcurrencyLimiter extends SimplePerformantInstrumentation implements Executor {
+
+    private static final ThreadLocal<Semaphore> OPERATION_PERMITS = new ThreadLocal<>();
+
+    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("graphql-resolver-", 0).factory());
+
+    private final Semaphore permits;
+
+    private final int maximumConcurrencyPerOperation;
+
+    private final AtomicInteger activeResolvers = new AtomicInteger();
+
+    private final AtomicInteger peakActiveResolvers = new AtomicInteger();
+
+    public ResolverConcurrencyLimiter(int maximumConcurrency, int maximumConcurrencyPerOperation) {
+        if (maximumConcurrency <= 0 || maximumConcurrencyPerOperation <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency of the resolvers must be positive");
+        }
+        this.permits = new Semaphore(maximumConcurrency, true);
+        this.maximumConcurrencyPerOperation = maximumConcurrencyPerOperation;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationPermits(new Semaphore(this.maximumConcurrencyPerOperation, true));
+    }
+
+    /**
+     * Exposes the permits of the operation to the executor while a data fetcher is called.
+     *
+     * <p>
+     * The resolvers returning a callable are submitted to the executor synchronously by their data fetcher, on the
+     * thread calling it.
+     * </p>
+     */
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || !(state instanceof OperationPermits operationPermits)) {
+            return dataFetcher;
+        }
+        return environment -> {
+            var previousPermits = OPERATION_PERMITS.get();
+            OPERATION_PERMITS.set(operationPermits.semaphore());
+            try {
+                return dataFetcher.get(environment);
+            } finally {
+                OPERATION_PERMITS.set(previousPermits);
+            }
+        };
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        var operationPermits = Optional.ofNullable(OPERATION_PERMITS.get()).orElseGet(() -> new Semaphore(this.maximumConcurrencyPerOperation));
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        this.executorService.execute(() -> {
+            operationPermits.acquireUninterruptibly();
+            this.permits.acquireUninterruptibly();
+            this.peakActiveResolvers.accumulateAndGet(this.activeResolvers.incrementAndGet(), Math::max);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                command.run();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                this.activeResolvers.decrementAndGet();
+                this.permits.release();
+                operationPermits.release();
+            }
+        });
+    }
+
+    /**
+     * Returns the highest number of resolvers which have been running at the same time.
+     *
+     * @return The highest number of resolvers running concurrently
+     */
+    public int getPeakActiveResolvers() {
+        return this.peakActiveResolvers.get();
+    }
+
+    public void shutdown() {
+        this.executorService.shutdown();
+    }
+
+    /**
+     * The permits shared by the resolvers of an operation.
+     *
+     * @author sbegaudeau
+     */
+    private record OperationPermits(Semaphore semaphore) implements InstrumentationState {
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.svalyn.studio.domain.account.services.api.IAuthorizationService;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Used to measure the time spent in the resolvers of the GraphQL operations.
+ *
+ * <p>
+ * The latency of every non trivial data fetcher, for example an annotated controller method, is recorded in a
+ * histogram per field coordinates along with the total latency of each operation. Operations slower than the
+ * configured threshold are logged with the breakdown of the time spent in their resolvers. Administrators can also
+ * retrieve this breakdown in the response by sending the <code>tracing</code> extension with their request.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class ResolverTimingInstrumentation extends SimplePerformantInstrumentation {
+
+    public static final String TRACING_REQUEST_EXTENSION = "tracing";
+
+    public static final String TRACING_RESPONSE_EXTENSION = "resolverTimings";
+
+    private static final String ANONYMOUS_OPERATION = "anonymous";
+
+    private static final String OTHER_OPERATIONS = "other";
+
+    private static final int MAXIMUM_OPERATION_NAMES = 500;
+
+    private static final int BREAKDOWN_SIZE = 10;
+
+    private final IAuthorizationService authorizationService;
+
+    private final Duration slowOperationThreshold;
+
+    private final Map<String, ResolverLatencyHistogram> resolverHistograms = new ConcurrentHashMap<>();
+
+    private final Map<String, ResolverLatencyHistogram> operationHistograms = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(ResolverTimingInstrumentation.class);
+
+    public ResolverTimingInstrumentation(IAuthorizationService authorizationService, Duration slowOperationThreshold) {
+        this.authorizationService = Objects.requireNonNull(authorizationService);
+        this.slowOperationThreshold = Objects.requireNonNull(slowOperationThreshold);
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        var tracingRequested = Optional.ofNullable(parameters.getExecutionInput().getExtensions())
+                .map(extensions -> extensions.get(TRACING_REQUEST_EXTENSION))
+                .filter(Boolean.TRUE::equals)
+                .isPresent();
+        return new ExecutionTimingState(tracingRequested && this.authorizationService.isAdmin());
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        if (state instanceof ExecutionTimingState executionTimingState) {
+            executionTimingState.operationName = parameters.getExecutionContext().getOperationDefinition().getName();
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || !(state instanceof ExecutionTimingState executionTimingState)) {
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        var coordinates = parameters.getExecutionStepInfo().getObjectType().getName() + "." + parameters.getField().getName();
+        var startedOn = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> {
+            var latencyNanos = System.nanoTime() - startedOn;
+            this.resolverHistograms.computeIfAbsent(coordinates, key -> new ResolverLatencyHistogram()).record(latencyNanos);
+            executionTimingState.record(coordinates, latencyNanos);
+        });
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        if (!(state instanceof ExecutionTimingState executionTimingState)) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+
+        var latencyNanos = System.nanoTime() - executionTimingState.startedOn;
+        var operationName = Optional.ofNullable(executionTimingState.operationName)
+                .or(() -> Optional.ofNullable(parameters.getOperation()))
+                .orElse(ANONYMOUS_OPERATION);
+        this.getOperationHistogram(operationName).record(latencyNanos);
+
+        var breakdown = executionTimingState.breakdown();
+        if (latencyNanos >= this.slowOperationThreshold.toNanos()) {
+            var details = breakdown.stream()
+                    .limit(BREAKDOWN_SIZE)
+                    .map(fieldTiming -> "%s %d call(s) %.1f ms (max %.1f ms)".formatted(fieldTiming.coordinates(), fieldTiming.count(), fieldTiming.totalNanos() / 1_000_000.0, fieldTiming.maxNanos() / 1_000_000.0))
+                    .collect(Collectors.joining(", "));
+            this.logger.warn("Slow GraphQL operation {} took {} ms: {}", operationName, String.format("%.1f", latencyNanos / 1_000_000.0), details);
+        }
+
+        var result = executionResult;
+        if (executionTimingState.tracing) {
+            result = ExecutionResultImpl.newExecutionResult()
+                    .from(executionResult)
+                    .addExtension(TRACING_RESPONSE_EXTENSION, this.toExtension(latencyNanos, breakdown))
+                    .build();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private ResolverLatencyHistogram getOperationHistogram(String operationName) {
+        var histogram = this.operationHistograms.get(operationName);
+        if (histogram == null) {
+            // The name of the operations is chosen by the clients, it should not be able to grow the map forever
+            var key = operationName;
+            if (this.operationHistograms.size() >= MAXIMUM_OPERATION_NAMES) {
+                key = OTHER_OPERATIONS;
+            }
+            histogram = this.operationHistograms.computeIfAbsent(key, name -> new ResolverLatencyHistogram());
+        }
+        return histogram;
+    }
+
+    private Map<String, Object> toExtension(long latencyNanos, List<FieldTiming> breakdown) {
+        var resolvers = breakdown.stream().map(fieldTiming -> {
+            Map<String, Object> resolver = new LinkedHashMap<>();
+            resolver.put("coordinates", fieldTiming.coordinates());
+            resolver.put("count", fieldTiming.count());
+            resolver.put("totalMillis", fieldTiming.totalNanos() / 1_000_000.0);
+            resolver.put("maxMillis", fieldTiming.maxNanos() / 1_000_000.0);
+            return resolver;
+        }).toList();
+
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("durationMillis", latencyNanos / 1_000_000.0);
+        extension.put("resolvers", resolvers);
+        return extension;
+    }
+
+    /**
+     * Returns the statistics of the resolvers since the previous call, from the slowest to the fastest one, and starts
+     * a new reporting interval.
+     */
+    public List<ResolverLatencyStatistics> resolverStatistics() {
+        return this.statisticsThenReset(this.resolverHistograms);
+    }
+
+    /**
+     * Returns the statistics of the operations since the previous call, from the slowest to the fastest one, and starts
+     * a new reporting interval.
+     */
+    public List<ResolverLatencyStatistics> operationStatistics() {
+        return this.statisticsThenReset(this.operationHistograms);
+    }
+
+    private List<ResolverLatencyStatistics> statisticsThenReset(Map<String, ResolverLatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+                .map(entry -> entry.getValue().statisticsThenReset(entry.getKey()))
+                .filter(statistics -> statistics.count() > 0)
+                .sorted(Comparator.comparingDouble(ResolverLatencyStatistics::p95Millis).reversed())
+                .toList();
+    }
+
+    @Scheduled(initialDelayString = "${svalyn.graphql.instrumentation.statistics-interval:60000}", fixedRateString = "${svalyn.graphql.instrumentation.statistics-interval:60000}")
+    public void logStatistics() {
+        this.operationStatistics().stream()
+                .limit(BREAKDOWN_SIZE)
+                .forEach(statistics -> this.log("GraphQL operation", statistics));
+        this.resolverStatistics().stream()
+                .limit(BREAKDOWN_SIZE)
+                .forEach(statistics -> this.log("GraphQL resolver", statistics));
+    }
+
+    private void log(String kind, ResolverLatencyStatistics statistics) {
+        this.logger.info("{} {}: {} calls, mean {} ms, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms",
+                kind, statistics.coordinates(), statistics.count(), String.format("%.1f", statistics.meanMillis()), String.format("%.1f", statistics.p50Millis()),
+                String.format("%.1f", statistics.p95Millis()), String.format("%.1f", statistics.p99Millis()), String.format("%.1f", statistics.maxMillis()));
+    }
+
+    /**
+     * The time spent in a resolver during an operation.
+     *
+     * @author sbegaudeau
+     */
+    private record FieldTiming(String coordinates, long count, long totalNanos, long maxNanos) {
+        FieldTiming merge(FieldTiming other) {
+            return new FieldTiming(this.coordinates, this.count + other.count, this.totalNanos + other.totalNanos, Math.max(this.maxNanos, other.maxNanos));
+        }
+    }
+
+    /**
+     * The timings of the resolvers of a single operation.
+     *
+     * @author sbegaudeau
+     */
+    private static final class ExecutionTimingState implements InstrumentationState {
+
+        private final long startedOn = System.nanoTime();
+
+        private final boolean tracing;
+
+        private final Map<String, FieldTiming> fieldTimings = new ConcurrentHashMap<>();
+
+        private volatile String operationName;
+
+        ExecutionTimingState(boolean tracing) {
+            this.tracing = tracing;
+        }
+
+        void record(String coordinates, long latencyNanos) {
+            this.fieldTimings.merge(coordinates, new FieldTiming(coordinates, 1, latencyNanos, latencyNanos), FieldTiming::merge);
+        }
+
+        List<FieldTiming> breakdown() {
+            return this.fieldTimings.values().stream()
+                    .sorted(Comparator.comparingLong(FieldTiming::totalNanos).reversed())
+                    .toList();
+        }
+    }
+}
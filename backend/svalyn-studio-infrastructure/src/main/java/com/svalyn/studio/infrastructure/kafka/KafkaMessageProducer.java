@@ -27,17 +27,39 @@ import com.svalyn.studio.domain.project.events.IProjectEvent;
 import com.svalyn.studio.domain.resource.events.IResourceEvent;
 import com.svalyn.studio.infrastructure.kafka.converters.api.IDomainEventToMessageConverter;
 import com.svalyn.studio.message.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Used to publish messages to the Kafka broker.
  *
+ * <p>
+ * Once the transaction has been committed, the events are converted and the messages are sent on the thread of the
+ * request. When the virtual threads are enabled with <code>svalyn.threads.virtual.enabled</code>, the messages are
+ * instead sent one after the other by a single virtual thread so that the request does not wait for the broker while
+ * the messages are still published in the order of the events. At most
+ * <code>svalyn.kafka.producer.queue-capacity</code> messages can wait for this thread, the following ones are counted
+ * in the <code>svalyn.kafka.producer.rejected</code> metric and sent on the thread of the request instead. The waiting
+ * messages are drained during the shutdown of the server.
+ * </p>
+ *
  * @author sbegaudeau
  */
 @Service
@@ -57,9 +79,42 @@ public class KafkaMessageProducer {
 
     private final List<IDomainEventToMessageConverter> domainEventToMessageConverters;
 
-    public KafkaMessageProducer(KafkaTemplate<String, Message> kafkaTemplate, List<IDomainEventToMessageConverter> domainEventToMessageConverters) {
+    private final Executor executor;
+
+    private final Duration shutdownTimeout;
+
+    private final Counter rejectedCounter;
+
+    private final Logger logger = LoggerFactory.getLogger(KafkaMessageProducer.class);
+
+    public KafkaMessageProducer(KafkaTemplate<String, Message> kafkaTemplate,
+                                List<IDomainEventToMessageConverter> domainEventToMessageConverters,
+                                @Value("${svalyn.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+                                @Value("${svalyn.kafka.producer.queue-capacity:10000}") int queueCapacity,
+                                @Value("${svalyn.kafka.producer.shutdown-timeout:PT10S}") Duration shutdownTimeout,
+                                MeterRegistry meterRegistry) {
         this.kafkaTemplate = Objects.requireNonNull(kafkaTemplate);
         this.domainEventToMessageConverters = Objects.requireNonNull(domainEventToMessageConverters);
+        this.shutdownTimeout = Objects.requireNonNull(shutdownTimeout);
+        this.rejectedCounter = Counter.builder("svalyn.kafka.producer.rejected")
+                .description("Number of messages sent on the thread of the request because too many messages were waiting")
+                .register(meterRegistry);
+
+        Executor messageExecutor = Runnable::run;
+        if (virtualThreadsEnabled) {
+            messageExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("kafka-producer").factory(), this::onRejectedMessage);
+        }
+        this.executor = messageExecutor;
+    }
+
+    private void onRejectedMessage(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
+        this.rejectedCounter.increment();
+        if (threadPoolExecutor.isShutdown()) {
+            this.logger.warn("A message has not been sent to the Kafka broker since the server is shutting down");
+        } else {
+            this.logger.warn("Too many messages are waiting to be sent to the Kafka broker, the message is sent by the thread of the request");
+            runnable.run();
+        }
     }
 
     private Optional<Message> toMessage(IDomainEvent event) {
@@ -69,7 +124,7 @@ public class KafkaMessageProducer {
     }
 
     private void publishMessage(String topic, Message message) {
-        this.kafkaTemplate.send(topic, message).whenComplete(new KafkaListenableFutureCallback());
+        this.executor.execute(() -> this.kafkaTemplate.send(topic, message).whenComplete(new KafkaListenableFutureCallback()));
     }
 
     @TransactionalEventListener
@@ -97,4 +152,20 @@ public class KafkaMessageProducer {
         this.toMessage(event).ifPresent(message -> this.publishMessage(TOPIC_EVENT_RESOURCE, message));
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (this.executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            try {
+                if (!executorService.awaitTermination(this.shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    var droppedMessages = executorService.shutdownNow();
+                    this.logger.warn("{} messages have not been sent to the Kafka broker before the shutdown of the server", droppedMessages.size());
+                }
+            } catch (InterruptedException exception) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Used to repair the drift between the counter table and the rows it is counting.
+ *
+ * <p>
+ * The counters are maintained by database triggers in the same transaction as the rows they count, this job only
+ * exists to fix the counters after manual changes or bulk operations performed with the triggers disabled. Each kind
+ * of counter is reconciled by batches of scopes, each batch in its own transaction, which only locks the counters of
+ * its scopes. An advisory lock ensures that only one server of the cluster is reconciling the counters at a time.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class CounterReconciliationJob {
+
+    private static final String LOCK_NAME = "svalyn_counter_reconciliation";
+
+    private static final List<String> COUNTER_KINDS = List.of("USER_ACTIVITY", "ORGANIZATION_ACTIVITY", "PROJECT_ACTIVITY", "NOTIFICATION", "ORGANIZATION_PROJECT", "PROJECT_CHANGE_PROPOSAL");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final Logger logger = LoggerFactory.getLogger(CounterReconciliationJob.class);
+
+    public CounterReconciliationJob(JdbcTemplate jdbcTemplate, @Value("${svalyn.counters.reconciliation.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${svalyn.counters.reconciliation.cron:0 0 3 * * *}")
+    public void reconcile() {
+        // The advisory lock belongs to the session, the whole reconciliation thus has to use the same connection
+        var repaired = Optional.ofNullable(this.jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            var connectionJdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            var locked = connectionJdbcTemplate.queryForObject("SELECT pg_try_advisory_lock(hashtext(?))", Boolean.class, LOCK_NAME);
+            if (!Boolean.TRUE.equals(locked)) {
+                this.logger.info("The counters are already being reconciled by another server");
+                return 0L;
+            }
+            try {
+                long repairedCount = 0;
+                for (var counterKind : COUNTER_KINDS) {
+                    repairedCount += this.reconcile(connectionJdbcTemplate, counterKind);
+                }
+                return repairedCount;
+            } finally {
+                connectionJdbcTemplate.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Boolean.class, LOCK_NAME);
+            }
+        })).orElse(0L);
+        if (repaired > 0) {
+            this.logger.warn("{} counters have been repaired", repaired);
+        }
+    }
+
+    private long reconcile(JdbcTemplate connectionJdbcTemplate, String counterKind) {
+        long repaired = 0;
+        UUID afterScopeId = null;
+        do {
+            var batch = connectionJdbcTemplate.queryForObject("SELECT * FROM reconcile_counters(?, CAST(? AS UUID), ?)", (resultSet, rowNum) -> new ReconciledBatch(resultSet.getObject("last_scope_id", UUID.class), resultSet.getLong("repaired_count")), counterKind, afterScopeId, this.batchSize);
+            repaired += batch.repairedCount();
+            afterScopeId = batch.lastScopeId();
+        } while (afterScopeId != null);
+        return repaired;
+    }
+
+    /**
+     * The result of the reconciliation of a batch of scopes.
+     *
+     * @author sbegaudeau
+     */
+    private record ReconciledBatch(UUID lastScopeId, long repairedCount) {
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.LongFunction;
+
+/**
+ * A request whose body is charged to the client while it is read, used when its length is not known in advance.
+ *
+ * <p>
+ * The bytes read from the input stream are consumed as they arrive. The parts of a multipart request are parsed by the
+ * servlet container without this input stream, their size is thus consumed once they have been parsed and before they
+ * are given to the application.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class ByteCountingRequest extends HttpServletRequestWrapper {
+
+    private final LongFunction<OptionalLong> bytesConsumer;
+
+    private ByteCountingInputStream inputStream;
+
+    private boolean partsConsumed;
+
+    /**
+     * Creates the request.
+     *
+     * @param request The original request
+     * @param bytesConsumer Consumes the given number of bytes and returns nothing or the number of nanoseconds to wait
+     *            if the client has uploaded too many bytes
+     */
+    public ByteCountingRequest(HttpServletRequest request, LongFunction<OptionalLong> bytesConsumer) {
+        super(request);
+        this.bytesConsumer = Objects.requireNonNull(bytesConsumer);
+    }
+
+    private void consume(long bytes) throws UploadRateLimitExceededException {
+        var waitNanos = this.bytesConsumer.apply(bytes);
+        if (waitNanos.isPresent()) {
+            throw new UploadRateLimitExceededException(waitNanos.getAsLong());
+        }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (this.inputStream == null) {
+            this.inputStream = new ByteCountingInputStream(super.getInputStream());
+        }
+        return this.inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        var charset = Optional.ofNullable(this.getCharacterEncoding()).map(Charset::forName).orElse(StandardCharsets.ISO_8859_1);
+        return new BufferedReader(new InputStreamReader(this.getInputStream(), charset));
+    }
+
+    @Override
+    public Collection<Part> getParts() throws IOException, ServletException {
+        var parts = super.getParts();
+        if (!this.partsConsumed) {
+            this.partsConsumed = true;
+            this.consume(parts.stream().mapToLong(Part::getSize).sum());
+        }
+        return parts;
+    }
+
+    @Override
+    public Part getPart(String name) throws IOException, ServletException {
+        this.getParts();
+        return super.getPart(name);
+    }
+
+    /**
+     * Consumes the bytes read from the original input stream.
+     *
+     * @author sbegaudeau
+     */
+    private final class ByteCountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+
+        ByteCountingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public int read() throws IOException {
+            var value = this.delegate.read();
+            if (value != -1) {
+                ByteCountingRequest.this.consume(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            var count = this.delegate.read(bytes, offset, length);
+            if (count > 0) {
+                ByteCountingRequest.this.consume(count);
+            }
+            return count;
+        }
+    }
+}
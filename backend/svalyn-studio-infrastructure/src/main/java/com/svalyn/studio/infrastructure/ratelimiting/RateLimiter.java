@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Used to keep the token buckets of the clients of the server.
+ *
+ * <p>
+ * Each client has its own buckets, one per kind of resource. Their size and refill rate depend on the role of the
+ * account and can be configured with the properties svalyn.rate-limits.[role].[kind].capacity and
+ * svalyn.rate-limits.[role].[kind].per-second, for example svalyn.rate-limits.user.operations.per-second. Both must be
+ * positive, the server does not start otherwise.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class RateLimiter {
+
+    private static final Map<RateLimitKind, RateLimit> DEFAULT_USER_LIMITS = Map.of(
+            RateLimitKind.OPERATIONS, new RateLimit(200, 20),
+            RateLimitKind.UPLOAD_BYTES, new RateLimit(64L * 1024 * 1024, 4L * 1024 * 1024)
+    );
+
+    private static final Map<RateLimitKind, RateLimit> DEFAULT_ADMIN_LIMITS = Map.of(
+            RateLimitKind.OPERATIONS, new RateLimit(1000, 100),
+            RateLimitKind.UPLOAD_BYTES, new RateLimit(256L * 1024 * 1024, 16L * 1024 * 1024)
+    );
+
+    private final Map<AccountRole, Map<RateLimitKind, RateLimit>> limits = new EnumMap<>(AccountRole.class);
+
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(Environment environment) {
+        for (var role : AccountRole.values()) {
+            var defaultLimits = DEFAULT_USER_LIMITS;
+            if (role == AccountRole.ADMIN) {
+                defaultLimits = DEFAULT_ADMIN_LIMITS;
+            }
+
+            var roleLimits = new EnumMap<RateLimitKind, RateLimit>(RateLimitKind.class);
+            for (var kind : RateLimitKind.values()) {
+                var prefix = "svalyn.rate-limits." + role.name().toLowerCase() + "." + kind.getPropertyName();
+                var defaultLimit = defaultLimits.get(kind);
+                var capacity = environment.getProperty(prefix + ".capacity", Long.class, defaultLimit.capacity());
+                var tokensPerSecond = environment.getProperty(prefix + ".per-second", Long.class, defaultLimit.tokensPerSecond());
+                if (capacity <= 0 || tokensPerSecond <= 0) {
+                    throw new IllegalArgumentException("The properties " + prefix + ".capacity and " + prefix + ".per-second must be positive");
+                }
+                roleLimits.put(kind, new RateLimit(capacity, tokensPerSecond));
+            }
+            this.limits.put(role, roleLimits);
+        }
+    }
+
+    public RateLimit getLimit(AccountRole role, RateLimitKind kind) {
+        return this.limits.get(Objects.requireNonNull(role)).get(Objects.requireNonNull(kind));
+    }
+
+    /**
+     * Tries to consume some tokens from the bucket of the given client.
+     *
+     * @return Nothing if the tokens have been consumed or the number of nanoseconds to wait before trying again
+     */
+    public OptionalLong tryConsume(String clientKey, AccountRole role, RateLimitKind kind, long tokens) {
+        return this.tryConsume(clientKey, role, Map.of(kind, tokens));
+    }
+
+    /**
+     * Tries to consume some tokens from several buckets of the given client.
+     *
+     * <p>
+     * All the buckets are checked before any token is consumed, a request rejected because of one of them does not
+     * consume the tokens of the others.
+     * </p>
+     *
+     * @return Nothing if all the tokens have been consumed or the number of nanoseconds to wait before trying again
+     */
+    public OptionalLong tryConsume(String clientKey, AccountRole role, Map<RateLimitKind, Long> tokensByKind) {
+        var result = this.attemptConsume(clientKey, role, tokensByKind);
+        while (result.isEmpty()) {
+            result = this.attemptConsume(clientKey, role, tokensByKind);
+        }
+        return result.get();
+    }
+
+    /**
+     * Tries to consume the tokens once.
+     *
+     * @return Nothing if one of the buckets has been retired concurrently, the attempt must then be performed again
+     *         with a new bucket
+     */
+    private Optional<OptionalLong> attemptConsume(String clientKey, AccountRole role, Map<RateLimitKind, Long> tokensByKind) {
+        var now = System.nanoTime();
+        var bucketTokens = tokensByKind.entrySet().stream()
+                .map(entry -> new BucketTokens(this.getBucket(clientKey, role, entry.getKey(), now), entry.getValue()))
+                .toList();
+
+        var waitNanos = bucketTokens.stream().mapToLong(entry -> entry.bucket().getWaitNanos(entry.tokens(), now)).max().orElse(0);
+        Optional<OptionalLong> result = Optional.of(OptionalLong.empty());
+        if (waitNanos > 0) {
+            result = Optional.of(OptionalLong.of(waitNanos));
+        } else {
+            // Another request of the same client may have consumed some tokens since the check
+            var consumedBucketTokens = new ArrayList<BucketTokens>();
+            for (var entry : bucketTokens) {
+                var consumption = entry.bucket().tryConsume(entry.tokens(), now);
+                if (consumption.isPresent()) {
+                    consumedBucketTokens.forEach(consumed -> consumed.bucket().refund(consumed.tokens()));
+                    result = Optional.of(consumption).filter(rejection -> !entry.bucket().isRetired());
+                    break;
+                }
+                consumedBucketTokens.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private TokenBucket getBucket(String clientKey, AccountRole role, RateLimitKind kind, long now) {
+        var key = new BucketKey(clientKey, role, kind);
+        var bucket = this.buckets.computeIfAbsent(key, bucketKey -> this.createBucket(role, kind, now));
+        while (bucket.isRetired()) {
+            // The bucket is being forgotten, it is replaced right away instead of waiting for its removal
+            this.buckets.remove(key, bucket);
+            bucket = this.buckets.computeIfAbsent(key, bucketKey -> this.createBucket(role, kind, now));
+        }
+        return bucket;
+    }
+
+    private TokenBucket createBucket(AccountRole role, RateLimitKind kind, long now) {
+        var limit = this.getLimit(role, kind);
+        return new TokenBucket(limit.capacity(), limit.tokensPerSecond(), now);
+    }
+
+    /**
+     * Forgets the buckets which are full since they are in the same state as new ones.
+     *
+     * <p>
+     * The buckets are retired before being removed, a request which has found a bucket just before its removal thus
+     * cannot consume its tokens anymore and uses a new bucket instead.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${svalyn.rate-limits.cleanup-interval:60000}")
+    public void removeFullBuckets() {
+        var now = System.nanoTime();
+        this.buckets.forEach((key, bucket) -> {
+            if (bucket.retireIfFull(now)) {
+                this.buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    /**
+     * The key of the bucket of a client.
+     *
+     * @author sbegaudeau
+     */
+    private record BucketKey(String clientKey, AccountRole role, RateLimitKind kind) {
+    }
+
+    /**
+     * The number of tokens to consume from a bucket.
+     *
+     * @author sbegaudeau
+     */
+    private record BucketTokens(TokenBucket bucket, long tokens) {
+    }
+}
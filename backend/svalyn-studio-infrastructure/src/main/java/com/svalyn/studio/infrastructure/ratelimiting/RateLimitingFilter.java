@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Used to reject the requests of the clients which have exceeded their quotas.
+ *
+ * <p>
+ * Authenticated clients are identified by their username or their access key and anonymous ones by their address.
+ * Each request to the API consumes an operation and each upload consumes as many bytes as its content. Both are
+ * checked before any of them is consumed. When the length of an upload is not known in advance, its bytes are
+ * consumed while they are read.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    private static final List<String> LIMITED_PATHS = List.of("/api/graphql", "/api/resources", "/api/changes/");
+
+    private static final String UPLOAD_PATH = "/api/resources";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final RateLimiter rateLimiter;
+
+    private final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    public RateLimitingFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = Objects.requireNonNull(rateLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        var path = this.getPath(request);
+        return LIMITED_PATHS.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var optionalAuthentication = Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                .filter(Authentication::isAuthenticated)
+                .filter(authentication -> !(authentication instanceof AnonymousAuthenticationToken));
+        var clientKey = optionalAuthentication.map(authentication -> "principal:" + authentication.getName())
+                .orElse("address:" + request.getRemoteAddr());
+        var role = optionalAuthentication.flatMap(this::getRole).orElse(AccountRole.USER);
+
+        var isUpload = this.getPath(request).startsWith(UPLOAD_PATH);
+        var contentLength = request.getContentLengthLong();
+
+        Map<RateLimitKind, Long> tokensByKind = new EnumMap<>(RateLimitKind.class);
+        tokensByKind.put(RateLimitKind.OPERATIONS, 1L);
+        if (isUpload && contentLength > 0) {
+            tokensByKind.put(RateLimitKind.UPLOAD_BYTES, contentLength);
+        }
+
+        var waitNanos = this.rateLimiter.tryConsume(clientKey, role, tokensByKind);
+        if (waitNanos.isPresent()) {
+            this.reject(response, clientKey, waitNanos.getAsLong());
+        } else if (isUpload && contentLength < 0) {
+            this.doFilterCountingBytes(request, response, filterChain, clientKey, role);
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void doFilterCountingBytes(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String clientKey, AccountRole role) throws ServletException, IOException {
+        var byteCountingRequest = new ByteCountingRequest(request, bytes -> this.rateLimiter.tryConsume(clientKey, role, RateLimitKind.UPLOAD_BYTES, bytes));
+        try {
+            filterChain.doFilter(byteCountingRequest, response);
+        } catch (ServletException | IOException exception) {
+            var optionalRateLimitExceeded = this.findUploadRateLimitExceeded(exception).filter(rateLimitExceeded -> !response.isCommitted());
+            if (optionalRateLimitExceeded.isEmpty()) {
+                throw exception;
+            }
+            this.reject(response, clientKey, optionalRateLimitExceeded.get().getWaitNanos());
+        }
+    }
+
+    private Optional<UploadRateLimitExceededException> findUploadRateLimitExceeded(Throwable throwable) {
+        return Stream.iterate(throwable, Objects::nonNull, Throwable::getCause)
+                .filter(UploadRateLimitExceededException.class::isInstance)
+                .map(UploadRateLimitExceededException.class::cast)
+                .findFirst();
+    }
+
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private Optional<AccountRole> getRole(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .flatMap(roleName -> Arrays.stream(AccountRole.values()).filter(role -> role.name().equals(roleName)))
+                .findFirst();
+    }
+
+    private void reject(HttpServletResponse response, String clientKey, long waitNanos) throws IOException {
+        var retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        this.logger.debug("Too many requests from {}, retry after {}s", clientKey, retryAfterSeconds);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket which can be used concurrently without locks.
+ *
+ * <p>
+ * Instead of storing the number of tokens left, the bucket stores the instant at which it will be full again, in the
+ * style of the generic cell rate algorithm. Consuming tokens moves this instant forward and the request is rejected if
+ * it would move further in the future than the time needed to refill the whole bucket. This single value can be updated
+ * with a compare and set.
+ * </p>
+ *
+ * <p>
+ * A full bucket can be retired to be forgotten. Its instant is then replaced by a marker with the same compare and
+ * set, so that a bucket is either retired or used by a concurrent request but never both.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class TokenBucket {
+
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final long capacity;
+
+    private final long nanosPerToken;
+
+    private final long refillNanos;
+
+    private final AtomicLong fullOn;
+
+    public TokenBucket(long capacity, long tokensPerSecond, long now) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("The capacity and the rate of a bucket must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, 1_000_000_000L / tokensPerSecond);
+        this.refillNanos = capacity * this.nanosPerToken;
+        this.fullOn = new AtomicLong(now);
+    }
+
+    /**
+     * Tries to consume the given number of tokens.
+     *
+     * <p>
+     * A request which costs more than the capacity of the bucket is accepted once the bucket is full and empties it.
+     * </p>
+     *
+     * @return Nothing if the tokens have been consumed or the number of nanoseconds to wait before trying again, zero
+     *         if the bucket has been retired and must be replaced by a new one
+     */
+    public OptionalLong tryConsume(long tokens, long now) {
+        var cost = Math.min(tokens, this.capacity) * this.nanosPerToken;
+        OptionalLong result = null;
+        while (result == null) {
+            var currentFullOn = this.fullOn.get();
+            var newFullOn = Math.max(currentFullOn, now) + cost;
+            var waitNanos = newFullOn - now - this.refillNanos;
+            if (currentFullOn == RETIRED) {
+                result = OptionalLong.of(0);
+            } else if (waitNanos > 0) {
+                result = OptionalLong.of(waitNanos);
+            } else if (this.fullOn.compareAndSet(currentFullOn, newFullOn)) {
+                result = OptionalLong.empty();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of nanoseconds to wait before the given number of tokens can be consumed, without consuming
+     * them.
+     */
+    public long getWaitNanos(long tokens, long now) {
+        var cost = Math.min(tokens, this.capacity) * this.nanosPerToken;
+        return Math.max(0, Math.max(this.fullOn.get(), now) + cost - now - this.refillNanos);
+    }
+
+    /**
+     * Gives back tokens which have been consumed for a request which has not been performed after all.
+     */
+    public void refund(long tokens) {
+        var refundNanos = Math.min(tokens, this.capacity) * this.nanosPerToken;
+        this.fullOn.updateAndGet(currentFullOn -> {
+            var newFullOn = currentFullOn - refundNanos;
+            if (currentFullOn == RETIRED) {
+                newFullOn = RETIRED;
+            }
+            return newFullOn;
+        });
+    }
+
+    public boolean isFull(long now) {
+        return this.fullOn.get() <= now;
+    }
+
+    /**
+     * Retires the bucket if it is full, no tokens can be consumed from a retired bucket anymore.
+     *
+     * @return <code>true</code> if the bucket has been retired
+     */
+    public boolean retireIfFull(long now) {
+        var currentFullOn = this.fullOn.get();
+        while (currentFullOn != RETIRED && currentFullOn <= now && !this.fullOn.compareAndSet(currentFullOn, RETIRED)) {
+            currentFullOn = this.fullOn.get();
+        }
+        return this.isRetired();
+    }
+
+    public boolean isRetired() {
+        return this.fullOn.get() == RETIRED;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import com.svalyn.studio.domain.account.AccessKeyCredentials;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Used to authenticate automated clients with their access key and secret key.
+ *
+ * <p>
+ * Only the columns needed to check the credentials are loaded and successful verifications are cached for a short
+ * time. If the access key is unknown, the authentication is left to the other providers which will try to find an
+ * account with this username.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class AccessKeyAuthenticationProvider implements AuthenticationProvider {
+
+    private final IAccountRepository accountRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final VerifiedCredentialsCache verifiedCredentialsCache;
+
+    public AccessKeyAuthenticationProvider(IAccountRepository accountRepository, PasswordEncoder passwordEncoder, VerifiedCredentialsCache verifiedCredentialsCache) {
+        this.accountRepository = Objects.requireNonNull(accountRepository);
+        this.passwordEncoder = Objects.requireNonNull(passwordEncoder);
+        this.verifiedCredentialsCache = Objects.requireNonNull(verifiedCredentialsCache);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        var accessKey = authentication.getName();
+        var secretKey = Optional.ofNullable(authentication.getCredentials()).map(Object::toString).orElse("");
+
+        return this.verifiedCredentialsCache.find(accessKey, secretKey)
+                .or(() -> this.verify(accessKey, secretKey))
+                .map(userDetails -> UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities()))
+                .orElse(null);
+    }
+
+    private Optional<SvalynUserDetails> verify(String accessKey, String secretKey) {
+        var stamp = this.verifiedCredentialsCache.stamp();
+        return this.accountRepository.findCredentialsByAccessKey(accessKey).map(credentials -> {
+            if (!this.passwordEncoder.matches(secretKey, credentials.secretKey())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+
+            var userDetails = this.toUserDetails(credentials);
+            this.verifiedCredentialsCache.put(accessKey, secretKey, userDetails, stamp);
+            return userDetails;
+        });
+    }
+
+    private SvalynUserDetails toUserDetails(AccessKeyCredentials credentials) {
+        return new SvalynUserDetails(
+                credentials.accountId(),
+                credentials.name(),
+                credentials.accessKey(),
+                "",
+                List.of(new SimpleGrantedAuthority("ROLE_" + credentials.role())));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used to hash and verify passwords with BCrypt on a dedicated bounded executor.
+ *
+ * <p>
+ * BCrypt is deliberately expensive. A burst of logins would otherwise keep all the request threads busy hashing
+ * passwords and starve the other endpoints. Only a few passwords are hashed concurrently, a limited number of them
+ * can wait for their turn and the others are rejected immediately.
+ * </p>
+ *
+ * <p>
+ * The time spent waiting in the queue and hashing, the depth of the queue, the busy threads and the rejections are
+ * published as the <code>svalyn.passwords.hashing.*</code> metrics.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder totalLatencyNanos = new LongAdder();
+
+    private final AtomicLong maximumLatencyNanos = new AtomicLong();
+
+    private final AtomicInteger maximumQueueDepth = new AtomicInteger();
+
+    private final Timer queueWaitTimer;
+
+    private final Timer hashingTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    public BoundedPasswordEncoder(@Value("${svalyn.passwords.hashing.threads:2}") int threads,
+                                  @Value("${svalyn.passwords.hashing.queue-capacity:32}") int queueCapacity,
+                                  @Value("${svalyn.passwords.hashing.timeout:PT5S}") Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"), new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = Objects.requireNonNull(timeout);
+
+        this.queueWaitTimer = Timer.builder("svalyn.passwords.hashing.queue.wait")
+                .description("Time spent by the passwords waiting to be hashed")
+                .register(meterRegistry);
+        this.hashingTimer = Timer.builder("svalyn.passwords.hashing.duration")
+                .description("Time spent hashing or verifying the passwords")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("svalyn.passwords.hashing.rejected")
+                .description("Number of passwords which could not be hashed in time or at all")
+                .register(meterRegistry);
+        Gauge.builder("svalyn.passwords.hashing.queue.depth", this.executor, executor -> executor.getQueue().size())
+                .description("Number of passwords waiting to be hashed")
+                .register(meterRegistry);
+        Gauge.builder("svalyn.passwords.hashing.active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of passwords being hashed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.execute(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> callable) {
+        var submittedOn = System.nanoTime();
+        try {
+            var future = this.executor.submit(() -> {
+                this.queueWaitTimer.record(System.nanoTime() - submittedOn, TimeUnit.NANOSECONDS);
+                return this.hashingTimer.recordCallable(callable);
+            });
+            this.maximumQueueDepth.accumulateAndGet(this.executor.getQueue().size(), Math::max);
+
+            try {
+                var result = future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+                this.record(System.nanoTime() - submittedOn);
+                return result;
+            } catch (TimeoutException exception) {
+                future.cancel(true);
+                this.rejectedCount.increment();
+                this.rejectedCounter.increment();
+                throw new PasswordHashingRejectedException("The password could not be hashed in time", exception);
+            } catch (ExecutionException exception) {
+                if (exception.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(exception.getCause());
+            }
+        } catch (RejectedExecutionException exception) {
+            this.rejectedCount.increment();
+            this.rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are waiting to be hashed", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for the password to be hashed", exception);
+        }
+    }
+
+    private void record(long latencyNanos) {
+        this.completedCount.increment();
+        this.totalLatencyNanos.add(latencyNanos);
+        this.maximumLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    /**
+     * Returns the statistics since the previous call and starts a new reporting interval.
+     */
+    public PasswordHashingStatistics statistics() {
+        var completed = this.completedCount.sumThenReset();
+        var totalLatencyMillis = this.totalLatencyNanos.sumThenReset() / 1_000_000.0;
+        var averageLatencyMillis = 0.0;
+        if (completed > 0) {
+            averageLatencyMillis = totalLatencyMillis / completed;
+        }
+        return new PasswordHashingStatistics(
+                this.executor.getQueue().size(),
+                this.maximumQueueDepth.getAndSet(0),
+                this.executor.getActiveCount(),
+                completed,
+                this.rejectedCount.sumThenReset(),
+                averageLatencyMillis,
+                this.maximumLatencyNanos.getAndSet(0) / 1_000_000.0);
+    }
+
+    @Scheduled(initialDelayString = "${svalyn.passwords.hashing.statistics-interval:60000}", fixedRateString = "${svalyn.passwords.hashing.statistics-interval:60000}")
+    public void logStatistics() {
+        var statistics = this.statistics();
+        if (statistics.completedCount() > 0 || statistics.rejectedCount() > 0) {
+            this.logger.info("Password hashing: {} completed, {} rejected, queue depth {} (max {}), latency avg {} ms (max {} ms)",
+                    statistics.completedCount(), statistics.rejectedCount(), statistics.queueDepth(), statistics.maximumQueueDepth(),
+                    String.format("%.1f", statistics.averageLatencyMillis()), String.format("%.1f", statistics.maximumLatencyMillis()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
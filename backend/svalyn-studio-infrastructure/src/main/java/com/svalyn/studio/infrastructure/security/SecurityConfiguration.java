@@ -18,22 +18,26 @@
  */
 package com.svalyn.studio.infrastructure.security;
 
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.infrastructure.ratelimiting.RateLimiter;
+import com.svalyn.studio.infrastructure.ratelimiting.RateLimitingFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
@@ -57,23 +61,35 @@ public class SecurityConfiguration {
 
     private final SvalynOAuth2UserService oAuth2UserService;
 
+    private final IAccountRepository accountRepository;
+
+    private final VerifiedCredentialsCache verifiedCredentialsCache;
+
+    private final PasswordEncoder passwordEncoder;
+
     private final Logger logger = LoggerFactory.getLogger(SecurityConfiguration.class);
 
-    public SecurityConfiguration(HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository, OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler, OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler, SvalynOAuth2UserService oAuth2UserService) {
+    public SecurityConfiguration(HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository, OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler, OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler, SvalynOAuth2UserService oAuth2UserService, IAccountRepository accountRepository, VerifiedCredentialsCache verifiedCredentialsCache, PasswordEncoder passwordEncoder) {
         this.httpCookieOAuth2AuthorizationRequestRepository = Objects.requireNonNull(httpCookieOAuth2AuthorizationRequestRepository);
         this.oAuth2AuthenticationSuccessHandler = Objects.requireNonNull(oAuth2AuthenticationSuccessHandler);
         this.oAuth2AuthenticationFailureHandler = Objects.requireNonNull(oAuth2AuthenticationFailureHandler);
         this.oAuth2UserService = Objects.requireNonNull(oAuth2UserService);
+        this.accountRepository = Objects.requireNonNull(accountRepository);
+        this.verifiedCredentialsCache = Objects.requireNonNull(verifiedCredentialsCache);
+        this.passwordEncoder = Objects.requireNonNull(passwordEncoder);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter) throws Exception {
         http.authorizeHttpRequests((authz) -> {
             authz.requestMatchers("/api/graphql").authenticated();
             authz.requestMatchers("/api/avatars").authenticated();
+            authz.requestMatchers("/api/domains/**").authenticated();
             authz.requestMatchers("/**").permitAll();
         });
 
+        http.addFilterAfter(new RateLimitingFilter(rateLimiter), AnonymousAuthenticationFilter.class);
+
         http.cors();
         http.csrf().disable();
         // http.csrf().csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse());
@@ -95,9 +111,16 @@ public class SecurityConfiguration {
             response.setStatus(HttpStatus.OK.value());
         };
         AuthenticationFailureHandler authenticationFailureHandler = (HttpServletRequest request, HttpServletResponse response, AuthenticationException exception) -> {
-            this.logger.debug("AuthenticationFailureHandler: Status 401 UNAUTHORIZED");
-            response.sendError(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase());
+            if (exception instanceof PasswordHashingRejectedException) {
+                this.logger.debug("AuthenticationFailureHandler: Status 503 SERVICE UNAVAILABLE");
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+            } else {
+                this.logger.debug("AuthenticationFailureHandler: Status 401 UNAUTHORIZED");
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase());
+            }
         };
+        http.authenticationProvider(new AccessKeyAuthenticationProvider(this.accountRepository, this.passwordEncoder, this.verifiedCredentialsCache));
         http.formLogin()
                 .loginPage("/login")
                 .loginProcessingUrl("/api/login")
@@ -128,9 +151,4 @@ public class SecurityConfiguration {
 
         return http.build();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
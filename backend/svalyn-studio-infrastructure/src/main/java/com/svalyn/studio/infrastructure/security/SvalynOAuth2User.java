@@ -16,55 +16,51 @@
  * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
  * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
+
 package com.svalyn.studio.infrastructure.security;
 
-import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountRole;
 import com.svalyn.studio.domain.account.IUser;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
-import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * The oauth2 user created from the domain.
  *
+ * <p>
+ * It only keeps what is needed to identify the account since it is stored in the session and read on every request.
+ * The attributes retrieved from the OAuth2 provider are not kept.
+ * </p>
+ *
  * @author sbegaudeau
  */
 public class SvalynOAuth2User implements OAuth2User, IUser, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final UUID id;
 
     private final String username;
 
     private final String name;
 
-    private final String email;
-
-    private final Map<String, Object> attributes;
-
-    private final Collection<? extends GrantedAuthority> authorities;
-
-    public SvalynOAuth2User(Account account, OAuth2User oAuth2User, OAuth2AccessToken oAuth2AccessToken) {
-        this.id = account.getId();
-        this.username = account.getUsername();
-        this.name = account.getName();
-        this.email = account.getEmail();
-        this.attributes = oAuth2User.getAttributes();
+    private final AccountRole role;
 
-        var authorities = new ArrayList<GrantedAuthority>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + account.getRole()));
-        authorities.add(new OAuth2UserAuthority(oAuth2User.getAttributes()));
-        var oAuth2Authorities = oAuth2AccessToken.getScopes().stream()
-                .map(scope -> new SimpleGrantedAuthority("SCOPE_" + scope))
-                .toList();
-        authorities.addAll(oAuth2Authorities);
-        this.authorities = authorities;
+    public SvalynOAuth2User(UUID id, String username, String name, AccountRole role) {
+        this.id = Objects.requireNonNull(id);
+        this.username = Objects.requireNonNull(username);
+        this.name = Objects.requireNonNull(name);
+        this.role = Objects.requireNonNull(role);
     }
 
     @Override
@@ -87,17 +83,17 @@ public class SvalynOAuth2User implements OAuth2User, IUser, Serializable {
         return this.name;
     }
 
-    public String getEmail() {
-        return email;
+    public AccountRole getRole() {
+        return this.role;
     }
 
     @Override
     public Map<String, Object> getAttributes() {
-        return this.attributes;
+        return Map.of("id", this.id, "username", this.username, "name", this.name);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return this.authorities;
+        return List.of(new SimpleGrantedAuthority("ROLE_" + this.role));
     }
 }
@@ -22,10 +22,10 @@ import com.svalyn.studio.domain.account.Account;
 import com.svalyn.studio.domain.account.AccountRole;
 import com.svalyn.studio.domain.account.OAuth2Metadata;
 import com.svalyn.studio.domain.account.repositories.IAccountRepository;
-import com.svalyn.studio.infrastructure.avatar.api.AvatarData;
-import com.svalyn.studio.infrastructure.avatar.api.IAvatarRetrievalService;
+import com.svalyn.studio.infrastructure.avatar.api.AvatarRetrievalRequestedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
@@ -54,15 +54,15 @@ public class SvalynOAuth2UserService extends DefaultOAuth2UserService {
 
     private final IAccountRepository accountRepository;
 
-    private final IAvatarRetrievalService avatarRetrievalService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     private final WebClient webClient;
 
     private final Logger logger = LoggerFactory.getLogger(SvalynOAuth2UserService.class);
 
-    public SvalynOAuth2UserService(IAccountRepository accountRepository, IAvatarRetrievalService avatarRetrievalService, WebClient webClient) {
+    public SvalynOAuth2UserService(IAccountRepository accountRepository, ApplicationEventPublisher applicationEventPublisher, WebClient webClient) {
         this.accountRepository = Objects.requireNonNull(accountRepository);
-        this.avatarRetrievalService = Objects.requireNonNull(avatarRetrievalService);
+        this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher);
         this.webClient = Objects.requireNonNull(webClient);
     }
 
@@ -100,7 +100,7 @@ public class SvalynOAuth2UserService extends DefaultOAuth2UserService {
             account = this.createAccount(userRequest, oAuth2UserInfo);
         }
 
-        return new SvalynOAuth2User(account, oAuth2User, userRequest.getAccessToken());
+        return new SvalynOAuth2User(account.getId(), account.getUsername(), account.getName(), account.getRole());
     }
 
     private OAuth2UserInfo getUserInfo(String registrationId, OAuth2User oAuth2User, List<Map<String, Object>> additionalData) {
@@ -139,18 +139,19 @@ public class SvalynOAuth2UserService extends DefaultOAuth2UserService {
                 .providerId(oAuth2UserInfo.getId())
                 .build();
 
-        var optionalImageData = this.avatarRetrievalService.getData(oAuth2UserInfo.getImageUrl());
-
         var account = Account.newAccount()
                 .role(AccountRole.USER)
                 .username(oAuth2UserInfo.getUsername())
                 .name(oAuth2UserInfo.getName())
                 .email(oAuth2UserInfo.getEmail())
-                .image(optionalImageData.map(AvatarData::content).orElse(null))
-                .imageContentType(optionalImageData.map(AvatarData::contentType).orElse(null))
                 .oAuth2Metadata(Set.of(oAuth2Metadata))
                 .build();
+        var savedAccount = this.accountRepository.save(account);
 
-        return this.accountRepository.save(account);
+        Optional.ofNullable(oAuth2UserInfo.getImageUrl())
+                .map(imageUrl -> new AvatarRetrievalRequestedEvent(savedAccount.getId(), savedAccount.getUsername(), imageUrl))
+                .ifPresent(this.applicationEventPublisher::publishEvent);
+
+        return savedAccount;
     }
 }
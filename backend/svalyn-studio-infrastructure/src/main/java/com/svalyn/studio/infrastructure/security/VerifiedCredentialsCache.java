@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Used to remember for a short time the access keys whose secret key has been successfully verified.
+ *
+ * <p>
+ * Verifying a secret key against its BCrypt hash is deliberately expensive. Automated clients authenticate with the
+ * same access key over and over so a digest of the verified secret key is kept in memory and compared instead. Only
+ * successful verifications are remembered.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class VerifiedCredentialsCache {
+
+    private final int maximumSize;
+
+    private final Duration timeToLive;
+
+    private final Map<String, VerifiedCredentials> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public VerifiedCredentialsCache(@Value("${svalyn.access-keys.cache.maximum-size:1000}") int maximumSize, @Value("${svalyn.access-keys.cache.time-to-live:PT1M}") Duration timeToLive) {
+        this.maximumSize = maximumSize;
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+    }
+
+    public Optional<SvalynUserDetails> find(String accessKey, String secretKey) {
+        var now = Instant.now();
+        Optional<VerifiedCredentials> optionalVerifiedCredentials;
+        synchronized (this.entries) {
+            optionalVerifiedCredentials = Optional.ofNullable(this.entries.get(accessKey))
+                    .filter(verifiedCredentials -> verifiedCredentials.expiresOn().isAfter(now));
+        }
+        return optionalVerifiedCredentials
+                .filter(verifiedCredentials -> MessageDigest.isEqual(verifiedCredentials.secretKeyDigest(), this.digest(secretKey)))
+                .map(VerifiedCredentials::userDetails);
+    }
+
+    /**
+     * Used to detect that the cache has been invalidated while some credentials were being verified.
+     */
+    public long stamp() {
+        return this.invalidationCount.get();
+    }
+
+    public void put(String accessKey, String secretKey, SvalynUserDetails userDetails, long stamp) {
+        var verifiedCredentials = new VerifiedCredentials(this.digest(secretKey), userDetails, Instant.now().plus(this.timeToLive));
+        synchronized (this.entries) {
+            if (stamp == this.invalidationCount.get()) {
+                this.entries.put(accessKey, verifiedCredentials);
+
+                var iterator = this.entries.entrySet().iterator();
+                while (this.entries.size() > this.maximumSize && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void evictAccount(UUID accountId) {
+        synchronized (this.entries) {
+            this.invalidationCount.incrementAndGet();
+            this.entries.values().removeIf(verifiedCredentials -> verifiedCredentials.userDetails().getId().equals(accountId));
+        }
+    }
+
+    public void evictAll() {
+        synchronized (this.entries) {
+            this.invalidationCount.incrementAndGet();
+            this.entries.clear();
+        }
+    }
+
+    private byte[] digest(String secretKey) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secretKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Credentials which have been verified.
+     *
+     * @author sbegaudeau
+     */
+    private record VerifiedCredentials(byte[] secretKeyDigest, SvalynUserDetails userDetails, Instant expiresOn) {
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.account.events.AccountDeletedEvent;
+import com.svalyn.studio.domain.account.events.AccountModifiedEvent;
+import com.svalyn.studio.domain.account.events.AuthenticationTokenModifiedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Used to forget the verified credentials of an account once its authentication tokens or its role may have changed.
+ *
+ * <p>
+ * The credentials are forgotten by this server once the transaction has been committed. The identifier of the account
+ * is also published to the cluster with the transaction so that a revoked access key is rejected by all the other
+ * servers too. If some messages have been missed, all the verified credentials are forgotten.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+public class VerifiedCredentialsCacheInvalidator {
+
+    private static final String CHANNEL = "svalyn_credentials";
+
+    private final VerifiedCredentialsCache verifiedCredentialsCache;
+
+    private final IClusterMessageBus clusterMessageBus;
+
+    public VerifiedCredentialsCacheInvalidator(VerifiedCredentialsCache verifiedCredentialsCache, IClusterMessageBus clusterMessageBus) {
+        this.verifiedCredentialsCache = Objects.requireNonNull(verifiedCredentialsCache);
+        this.clusterMessageBus = Objects.requireNonNull(clusterMessageBus);
+        this.clusterMessageBus.subscribe(CHANNEL, new CredentialsInvalidationListener());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAuthenticationTokenModifiedEvent(AuthenticationTokenModifiedEvent event) {
+        this.clusterMessageBus.publish(CHANNEL, event.account().getId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountModifiedEvent(AccountModifiedEvent event) {
+        this.clusterMessageBus.publish(CHANNEL, event.account().getId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publishAccountDeletedEvent(AccountDeletedEvent event) {
+        this.clusterMessageBus.publish(CHANNEL, event.account().getId().toString());
+    }
+
+    @TransactionalEventListener
+    public void onAuthenticationTokenModifiedEvent(AuthenticationTokenModifiedEvent event) {
+        this.verifiedCredentialsCache.evictAccount(event.account().getId());
+    }
+
+    @TransactionalEventListener
+    public void onAccountModifiedEvent(AccountModifiedEvent event) {
+        this.verifiedCredentialsCache.evictAccount(event.account().getId());
+    }
+
+    @TransactionalEventListener
+    public void onAccountDeletedEvent(AccountDeletedEvent event) {
+        this.verifiedCredentialsCache.evictAccount(event.account().getId());
+    }
+
+    /**
+     * Used to forget the verified credentials of the accounts modified on the other servers of the cluster.
+     *
+     * @author sbegaudeau
+     */
+    private final class CredentialsInvalidationListener implements IClusterMessageListener {
+        @Override
+        public void onMessage(String payload) {
+            VerifiedCredentialsCacheInvalidator.this.verifiedCredentialsCache.evictAccount(UUID.fromString(payload));
+        }
+
+        @Override
+        public void onMessagesLost() {
+            VerifiedCredentialsCacheInvalidator.this.verifiedCredentialsCache.evictAll();
+        }
+    }
+}
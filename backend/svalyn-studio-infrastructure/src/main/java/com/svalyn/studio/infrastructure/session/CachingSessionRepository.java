@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.session;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Used to keep the recently used sessions in memory in front of the JDBC session repository.
+ *
+ * <p>
+ * Every request updates the last access time of its session. Sessions which have only been accessed are not written
+ * back to the database immediately, their last access time is flushed periodically in a single batch. Any other
+ * change, like the security context stored after a login or the identifier changed to prevent session fixation, is
+ * written through immediately.
+ * </p>
+ *
+ * <p>
+ * Once a session has been modified, deleted or given a new identifier, the other servers are told to forget their
+ * copy. Sessions are also kept in memory for a short time only and all of them are forgotten if some of these
+ * messages may have been missed.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Service
+@Primary
+public class CachingSessionRepository implements FindByIndexNameSessionRepository<CachingSessionRepository.CachedSession> {
+
+    private static final String CHANNEL = "svalyn_sessions";
+
+    private static final String UPDATE_LAST_ACCESS_TIME_QUERY = """
+            UPDATE %TABLE_NAME% SET LAST_ACCESS_TIME = ?, EXPIRY_TIME = ?
+            WHERE SESSION_ID = ? AND LAST_ACCESS_TIME < ?
+            """;
+
+    private final FindByIndexNameSessionRepository<Session> sessionRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final IClusterMessageBus clusterMessageBus;
+
+    private final String updateLastAccessTimeQuery;
+
+    private final int maximumSize;
+
+    private final Duration timeToLive;
+
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, SharedSession> pendingAccesses = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(CachingSessionRepository.class);
+
+    @SuppressWarnings("unchecked")
+    public CachingSessionRepository(JdbcIndexedSessionRepository sessionRepository, JdbcTemplate jdbcTemplate, IClusterMessageBus clusterMessageBus,
+                                    @Value("${spring.session.jdbc.table-name:" + JdbcIndexedSessionRepository.DEFAULT_TABLE_NAME + "}") String tableName,
+                                    @Value("${svalyn.sessions.cache.maximum-size:10000}") int maximumSize,
+                                    @Value("${svalyn.sessions.cache.time-to-live:PT10S}") Duration timeToLive) {
+        this.sessionRepository = (FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository<?>) Objects.requireNonNull(sessionRepository);
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.clusterMessageBus = Objects.requireNonNull(clusterMessageBus);
+        this.updateLastAccessTimeQuery = UPDATE_LAST_ACCESS_TIME_QUERY.replace("%TABLE_NAME%", tableName);
+        this.maximumSize = maximumSize;
+        this.timeToLive = Objects.requireNonNull(timeToLive);
+        this.clusterMessageBus.subscribe(CHANNEL, new SessionInvalidationListener());
+    }
+
+    @Override
+    public CachedSession createSession() {
+        return new CachedSession(new SharedSession(this.sessionRepository.createSession()), true);
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        var sharedSession = session.sharedSession;
+        if (session.isModified()) {
+            var id = sharedSession.withLock(() -> {
+                this.sessionRepository.save(sharedSession.session());
+                return sharedSession.session().getId();
+            });
+
+            if (!id.equals(session.originalId)) {
+                this.evict(session.originalId);
+            }
+            this.pendingAccesses.remove(id);
+            this.put(sharedSession);
+
+            if (!session.created) {
+                this.clusterMessageBus.publish(CHANNEL, session.originalId);
+            }
+        } else {
+            this.pendingAccesses.put(session.getId(), sharedSession);
+        }
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        var now = Instant.now();
+
+        Optional<SharedSession> optionalCachedSession;
+        synchronized (this.entries) {
+            optionalCachedSession = Optional.ofNullable(this.entries.get(id))
+                    .filter(entry -> entry.cachedOn().plus(this.timeToLive).isAfter(now))
+                    .map(CacheEntry::sharedSession)
+                    .filter(sharedSession -> !sharedSession.withLock(sharedSession.session()::isExpired));
+        }
+
+        var session = optionalCachedSession.orElseGet(() -> {
+            var loadedSession = Optional.ofNullable(this.sessionRepository.findById(id)).map(SharedSession::new);
+            loadedSession.ifPresentOrElse(this::put, () -> this.evict(id));
+            return loadedSession.orElse(null);
+        });
+        return Optional.ofNullable(session).map(sharedSession -> new CachedSession(sharedSession, false)).orElse(null);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        this.evict(id);
+        this.sessionRepository.deleteById(id);
+        this.clusterMessageBus.publish(CHANNEL, id);
+    }
+
+    @Override
+    public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        return this.sessionRepository.findByIndexNameAndIndexValue(indexName, indexValue).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new CachedSession(new SharedSession(entry.getValue()), false)));
+    }
+
+    private void put(SharedSession sharedSession) {
+        var id = sharedSession.withLock(sharedSession.session()::getId);
+        synchronized (this.entries) {
+            this.entries.put(id, new CacheEntry(sharedSession, Instant.now()));
+
+            var iterator = this.entries.entrySet().iterator();
+            while (this.entries.size() > this.maximumSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evict(String id) {
+        synchronized (this.entries) {
+            this.entries.remove(id);
+        }
+        this.pendingAccesses.remove(id);
+    }
+
+    /**
+     * Writes the last access time of the sessions which have only been accessed since the previous flush.
+     */
+    @PreDestroy
+    @Scheduled(initialDelayString = "${svalyn.sessions.last-access.flush-interval:30000}", fixedDelayString = "${svalyn.sessions.last-access.flush-interval:30000}")
+    public void flush() {
+        var batchArguments = new ArrayList<Object[]>();
+        for (var id : Set.copyOf(this.pendingAccesses.keySet())) {
+            var sharedSession = this.pendingAccesses.remove(id);
+            if (sharedSession != null) {
+                batchArguments.add(sharedSession.withLock(() -> {
+                    var session = sharedSession.session();
+                    var lastAccessTime = session.getLastAccessedTime().toEpochMilli();
+                    var expiryTime = session.getLastAccessedTime().plus(session.getMaxInactiveInterval()).toEpochMilli();
+                    return new Object[] { lastAccessTime, expiryTime, session.getId(), lastAccessTime };
+                }));
+            }
+        }
+
+        if (!batchArguments.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(this.updateLastAccessTimeQuery, batchArguments);
+            this.logger.debug("Last access time of {} sessions flushed", batchArguments.size());
+        }
+    }
+
+    /**
+     * Forgets the copy of the sessions modified or deleted by any server.
+     *
+     * <p>
+     * Only the copy is removed, the last access time of the session may still be flushed since it is never written
+     * over a more recent one.
+     * </p>
+     *
+     * @author sbegaudeau
+     */
+    private final class SessionInvalidationListener implements IClusterMessageListener {
+        @Override
+        public void onMessage(String payload) {
+            synchronized (CachingSessionRepository.this.entries) {
+                CachingSessionRepository.this.entries.remove(payload);
+            }
+        }
+
+        @Override
+        public void onMessagesLost() {
+            synchronized (CachingSessionRepository.this.entries) {
+                CachingSessionRepository.this.entries.clear();
+            }
+        }
+    }
+
+    /**
+     * An entry of the cache.
+     *
+     * @author sbegaudeau
+     */
+    private record CacheEntry(SharedSession sharedSession, Instant cachedOn) {
+    }
+
+    /**
+     * A session which may be used by concurrent requests along with the lock guarding all its accesses.
+     *
+     * <p>
+     * A lock is used instead of a monitor since it is held while the session is written to the database and a virtual
+     * thread blocked inside a monitor would also block its carrier thread.
+     * </p>
+     *
+     * @author sbegaudeau
+     */
+    private record SharedSession(Session session, ReentrantLock lock) {
+
+        SharedSession(Session session) {
+            this(session, new ReentrantLock());
+        }
+
+        <T> T withLock(Supplier<T> supplier) {
+            this.lock.lock();
+            try {
+                return supplier.get();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        void runWithLock(Runnable runnable) {
+            this.withLock(() -> {
+                runnable.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * The session given to a request, it remembers whether something else than its last access time has changed.
+     *
+     * @author sbegaudeau
+     */
+    public static final class CachedSession implements Session {
+
+        private final SharedSession sharedSession;
+
+        private final String originalId;
+
+        private final boolean created;
+
+        private boolean modified;
+
+        CachedSession(SharedSession sharedSession, boolean created) {
+            this.sharedSession = Objects.requireNonNull(sharedSession);
+            this.originalId = sharedSession.withLock(sharedSession.session()::getId);
+            this.created = created;
+            this.modified = created;
+        }
+
+        boolean isModified() {
+            return this.sharedSession.withLock(() -> this.modified);
+        }
+
+        @Override
+        public String getId() {
+            return this.sharedSession.withLock(this.sharedSession.session()::getId);
+        }
+
+        @Override
+        public String changeSessionId() {
+            return this.sharedSession.withLock(() -> {
+                this.modified = true;
+                return this.sharedSession.session().changeSessionId();
+            });
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return this.sharedSession.withLock(() -> this.sharedSession.session().getAttribute(attributeName));
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return this.sharedSession.withLock(() -> Set.copyOf(this.sharedSession.session().getAttributeNames()));
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            this.sharedSession.runWithLock(() -> {
+                this.modified = true;
+                this.sharedSession.session().setAttribute(attributeName, attributeValue);
+            });
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            this.sharedSession.runWithLock(() -> {
+                this.modified = true;
+                this.sharedSession.session().removeAttribute(attributeName);
+            });
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return this.sharedSession.withLock(this.sharedSession.session()::getCreationTime);
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            this.sharedSession.runWithLock(() -> this.sharedSession.session().setLastAccessedTime(lastAccessedTime));
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return this.sharedSession.withLock(this.sharedSession.session()::getLastAccessedTime);
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            this.sharedSession.runWithLock(() -> {
+                this.modified = true;
+                this.sharedSession.session().setMaxInactiveInterval(interval);
+            });
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return this.sharedSession.withLock(this.sharedSession.session()::getMaxInactiveInterval);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return this.sharedSession.withLock(this.sharedSession.session()::isExpired);
+        }
+    }
+}
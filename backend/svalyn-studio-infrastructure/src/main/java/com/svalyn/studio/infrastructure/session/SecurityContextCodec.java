@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.session;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import com.svalyn.studio.infrastructure.security.SvalynOAuth2User;
+import com.svalyn.studio.infrastructure.security.SvalynUserDetails;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Used to store the security context of our users in the session with a compact binary format.
+ *
+ * <p>
+ * The security context is read from the session on every request. Instead of relying on the Java serialization, which
+ * writes the class descriptors of the whole object graph, only the fields of the principal are written. Security
+ * contexts of other kinds of authentication are not supported.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class SecurityContextCodec {
+
+    /**
+     * The first byte of the encoded security contexts, it cannot be confused with the header of the Java serialization
+     * which starts with 0xACED.
+     */
+    private static final byte MAGIC = 0x53;
+
+    private static final byte VERSION = 1;
+
+    private static final byte OAUTH2_USER = 1;
+
+    private static final byte USER_DETAILS = 2;
+
+    public boolean canEncode(Object object) {
+        return object instanceof SecurityContextImpl securityContext
+                && (this.isOAuth2Authentication(securityContext) || this.isUserDetailsAuthentication(securityContext));
+    }
+
+    private boolean isOAuth2Authentication(SecurityContext securityContext) {
+        return securityContext.getAuthentication() instanceof OAuth2AuthenticationToken authentication
+                && authentication.getPrincipal() instanceof SvalynOAuth2User;
+    }
+
+    private boolean isUserDetailsAuthentication(SecurityContext securityContext) {
+        return securityContext.getAuthentication() instanceof UsernamePasswordAuthenticationToken authentication
+                && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof SvalynUserDetails;
+    }
+
+    public boolean isEncoded(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == MAGIC && bytes[1] == VERSION;
+    }
+
+    public byte[] encode(SecurityContext securityContext) {
+        var outputStream = new ByteArrayOutputStream(128);
+        try (var dataOutputStream = new DataOutputStream(outputStream)) {
+            dataOutputStream.writeByte(MAGIC);
+            dataOutputStream.writeByte(VERSION);
+
+            if (securityContext.getAuthentication() instanceof OAuth2AuthenticationToken authentication
+                    && authentication.getPrincipal() instanceof SvalynOAuth2User user) {
+                dataOutputStream.writeByte(OAUTH2_USER);
+                this.writeId(dataOutputStream, user.getId());
+                dataOutputStream.writeUTF(user.getUsername());
+                dataOutputStream.writeUTF(user.getFullName());
+                dataOutputStream.writeUTF(user.getRole().name());
+                dataOutputStream.writeUTF(authentication.getAuthorizedClientRegistrationId());
+            } else if (securityContext.getAuthentication() instanceof UsernamePasswordAuthenticationToken authentication
+                    && authentication.getPrincipal() instanceof SvalynUserDetails userDetails) {
+                dataOutputStream.writeByte(USER_DETAILS);
+                this.writeId(dataOutputStream, userDetails.getId());
+                dataOutputStream.writeUTF(userDetails.getUsername());
+                dataOutputStream.writeUTF(userDetails.getFullName());
+                dataOutputStream.writeByte(authentication.getAuthorities().size());
+                for (var authority : authentication.getAuthorities()) {
+                    dataOutputStream.writeUTF(authority.getAuthority());
+                }
+            } else {
+                throw new SerializationFailedException("Unsupported security context " + securityContext);
+            }
+        } catch (IOException exception) {
+            throw new SerializationFailedException(exception.getMessage(), exception);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void writeId(DataOutputStream dataOutputStream, UUID id) throws IOException {
+        dataOutputStream.writeLong(id.getMostSignificantBits());
+        dataOutputStream.writeLong(id.getLeastSignificantBits());
+    }
+
+    public SecurityContext decode(byte[] bytes) {
+        var securityContext = new SecurityContextImpl();
+        try (var dataInputStream = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            dataInputStream.skipNBytes(2);
+
+            var kind = dataInputStream.readByte();
+            var id = new UUID(dataInputStream.readLong(), dataInputStream.readLong());
+            var username = dataInputStream.readUTF();
+            var name = dataInputStream.readUTF();
+            if (kind == OAUTH2_USER) {
+                var role = AccountRole.valueOf(dataInputStream.readUTF());
+                var registrationId = dataInputStream.readUTF();
+
+                var user = new SvalynOAuth2User(id, username, name, role);
+                securityContext.setAuthentication(new OAuth2AuthenticationToken(user, user.getAuthorities(), registrationId));
+            } else if (kind == USER_DETAILS) {
+                var count = dataInputStream.readUnsignedByte();
+                List<GrantedAuthority> authorities = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    authorities.add(new SimpleGrantedAuthority(dataInputStream.readUTF()));
+                }
+
+                var userDetails = new SvalynUserDetails(id, name, username, "", authorities);
+                securityContext.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(userDetails, null, authorities));
+            } else {
+                throw new SerializationFailedException("Unsupported kind of security context " + kind);
+            }
+        } catch (IOException exception) {
+            throw new SerializationFailedException(exception.getMessage(), exception);
+        }
+        return securityContext;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.util.Objects;
+
+/**
+ * Used to deserialize the attributes of the session.
+ *
+ * <p>
+ * Attributes which cannot be deserialized anymore, for example those written by a previous version of the principal,
+ * are dropped instead of failing the request, the user will just have to log in again.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class SessionAttributeDeserializer implements Converter<byte[], Object> {
+
+    private final SecurityContextCodec securityContextCodec;
+
+    private final DeserializingConverter deserializingConverter;
+
+    private final Logger logger = LoggerFactory.getLogger(SessionAttributeDeserializer.class);
+
+    public SessionAttributeDeserializer(SecurityContextCodec securityContextCodec, ClassLoader classLoader) {
+        this.securityContextCodec = Objects.requireNonNull(securityContextCodec);
+        this.deserializingConverter = new DeserializingConverter(classLoader);
+    }
+
+    @Override
+    public Object convert(byte[] source) {
+        Object object = null;
+        try {
+            if (this.securityContextCodec.isEncoded(source)) {
+                object = this.securityContextCodec.decode(source);
+            } else {
+                object = this.deserializingConverter.convert(source);
+            }
+        } catch (SerializationFailedException exception) {
+            this.logger.debug("Unable to deserialize a session attribute: {}", exception.getMessage());
+        }
+        return object;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.session;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.core.context.SecurityContext;
+
+import java.util.Objects;
+
+/**
+ * Used to serialize the attributes of the session.
+ *
+ * <p>
+ * The security context of our users is written with a compact format, the other attributes fall back to the Java
+ * serialization.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class SessionAttributeSerializer implements Converter<Object, byte[]> {
+
+    private final SecurityContextCodec securityContextCodec;
+
+    private final SerializingConverter serializingConverter = new SerializingConverter();
+
+    public SessionAttributeSerializer(SecurityContextCodec securityContextCodec) {
+        this.securityContextCodec = Objects.requireNonNull(securityContextCodec);
+    }
+
+    @Override
+    public byte[] convert(Object source) {
+        byte[] bytes;
+        if (this.securityContextCodec.canEncode(source)) {
+            bytes = this.securityContextCodec.encode((SecurityContext) source);
+        } else {
+            bytes = this.serializingConverter.convert(source);
+        }
+        return bytes;
+    }
+}
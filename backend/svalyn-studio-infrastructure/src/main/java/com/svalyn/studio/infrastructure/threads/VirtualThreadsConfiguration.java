@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Used to execute the requests and the background work of the server on virtual threads.
+ *
+ * <p>
+ * Once enabled with <code>svalyn.threads.virtual.enabled</code>, the servlet requests are handled on a new virtual
+ * thread each instead of a pool of Tomcat workers and the tasks of the application task executor are executed on
+ * virtual threads too. A request blocked on the database or on a remote server does not hold a platform thread
+ * anymore, the number of connections of the pool thus becomes the real limit of the concurrency of the server and it
+ * is sized independently.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "svalyn.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tomcat-handler-", 0).factory()));
+    }
+
+    @Bean(name = { "applicationTaskExecutor", "taskExecutor" })
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        var executor = new TaskExecutorAdapter(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-", 0).factory()));
+        return new DelegatingSecurityContextAsyncTaskExecutor(executor);
+    }
+
+    @Bean
+    public static VirtualThreadsDataSourcePostProcessor virtualThreadsDataSourcePostProcessor(@Value("${svalyn.threads.virtual.datasource.maximum-pool-size:20}") int maximumPoolSize,
+                                                                                              @Value("${svalyn.threads.virtual.datasource.connection-timeout:PT5S}") Duration connectionTimeout) {
+        return new VirtualThreadsDataSourcePostProcessor(maximumPoolSize, connectionTimeout);
+    }
+}
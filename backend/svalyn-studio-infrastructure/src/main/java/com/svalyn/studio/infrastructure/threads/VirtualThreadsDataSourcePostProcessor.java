@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Used to size the pool of database connections when the requests are executed on virtual threads.
+ *
+ * <p>
+ * With platform threads, the number of Tomcat workers already limits the number of requests waiting for a
+ * connection. With virtual threads, every request can wait for one, the pool is thus sized on its own and requests
+ * give up quickly when no connection is available instead of piling up.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class VirtualThreadsDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    private final int maximumPoolSize;
+
+    private final Duration connectionTimeout;
+
+    private final Logger logger = LoggerFactory.getLogger(VirtualThreadsDataSourcePostProcessor.class);
+
+    public VirtualThreadsDataSourcePostProcessor(int maximumPoolSize, Duration connectionTimeout) {
+        this.maximumPoolSize = maximumPoolSize;
+        this.connectionTimeout = Objects.requireNonNull(connectionTimeout);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikariDataSource) {
+            hikariDataSource.setMaximumPoolSize(this.maximumPoolSize);
+            hikariDataSource.setConnectionTimeout(this.connectionTimeout.toMillis());
+            this.logger.info("Running on virtual threads with {} database connections at most", this.maximumPoolSize);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
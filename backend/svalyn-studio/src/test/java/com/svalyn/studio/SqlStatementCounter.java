@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Used to count the SQL statements executed during an integration test.
+ *
+ * <p>
+ * Every data source of the application is wrapped in order to record the statements executed while a GraphQL
+ * operation or a service call is being performed. It can be used to declare the budget of statements of an
+ * operation and thus to detect N+1 queries as soon as they are introduced. It is not a component, the tests
+ * counting statements have to import it so that the data source of the other tests is left untouched.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * Records the SQL statements executed by the given runnable.
+     *
+     * @param runnable
+     *         The code to run
+     * @return The SQL statements executed, in order
+     */
+    public List<String> record(Runnable runnable) {
+        if (!this.recording.compareAndSet(false, true)) {
+            throw new IllegalStateException("The SQL statements are already being recorded");
+        }
+        try {
+            this.statements.clear();
+            runnable.run();
+            return List.copyOf(this.statements);
+        } finally {
+            this.recording.set(false);
+        }
+    }
+
+    /**
+     * Performs the given operation and fails if it has executed more SQL statements than its budget.
+     *
+     * @param operation
+     *         The description of the operation used in the failure message
+     * @param budget
+     *         The maximum number of SQL statements that the operation can execute
+     * @param supplier
+     *         The operation
+     * @return The result of the operation
+     */
+    public <T> T assertWithinBudget(String operation, int budget, Supplier<T> supplier) {
+        var result = new ArrayList<T>(1);
+        var executedStatements = this.record(() -> result.add(supplier.get()));
+        if (executedStatements.size() > budget) {
+            var details = executedStatements.stream()
+                    .map(sql -> "  - " + sql)
+                    .collect(Collectors.joining(System.lineSeparator()));
+            var message = "%s executed %d SQL statements while its budget is %d:%n%s".formatted(operation, executedStatements.size(), budget, details);
+            throw new AssertionError(message);
+        }
+        return result.get(0);
+    }
+
+    private void onExecute(String sql) {
+        if (this.recording.get()) {
+            this.statements.add(Objects.requireNonNullElse(sql, "<unknown>").strip().replaceAll("\\s+", " "));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Wraps the connections of a data source to record the statements they execute.
+     *
+     * @author sbegaudeau
+     */
+    private final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return this.wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return this.wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, arguments) -> {
+                var result = this.handle(proxy, connection, method, arguments);
+                if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    String sql = null;
+                    if (arguments != null && arguments.length > 0 && arguments[0] instanceof String query) {
+                        sql = query;
+                    }
+                    result = this.wrap(statement, method.getReturnType(), sql);
+                }
+                return result;
+            });
+        }
+
+        private Object wrap(Statement statement, Class<?> statementType, String preparedSql) {
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { statementType }, (proxy, method, arguments) -> {
+                if (method.getName().startsWith("execute")) {
+                    var sql = preparedSql;
+                    if (arguments != null && arguments.length > 0 && arguments[0] instanceof String query) {
+                        sql = query;
+                    }
+                    SqlStatementCounter.this.onExecute(sql);
+                }
+                return this.handle(proxy, statement, method, arguments);
+            });
+        }
+
+        private Object handle(Object proxy, Object target, Method method, Object[] arguments) throws Throwable {
+            Object result;
+            if ("equals".equals(method.getName()) && arguments != null && arguments.length == 1) {
+                result = proxy == arguments[0];
+            } else if ("hashCode".equals(method.getName()) && arguments == null) {
+                result = System.identityHashCode(proxy);
+            } else {
+                result = invoke(target, method, arguments);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.listeners.account;
+
+import com.svalyn.studio.application.services.account.AvatarService;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.Profile;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.Avatar;
+import com.svalyn.studio.domain.account.events.AccountDeletedEvent;
+import com.svalyn.studio.domain.account.events.AccountModifiedEvent;
+import com.svalyn.studio.domain.account.repositories.IAvatarRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the invalidation of the cached avatars.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class AvatarCacheInvalidatorTests {
+
+    private static final String USERNAME = "johndoe";
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final SynchronousClusterMessageBus clusterMessageBus = new SynchronousClusterMessageBus();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final IAvatarRepository avatarRepository = mock(IAvatarRepository.class);
+
+    private final AvatarService avatarService = new AvatarService(this.avatarRepository, this.transactionManager, this.clusterMessageBus, 1024 * 1024, Duration.ofHours(1));
+
+    private final AvatarCacheInvalidator avatarCacheInvalidator = new AvatarCacheInvalidator(this.avatarService);
+
+    private Avatar avatar() {
+        return Avatar.newAvatar()
+                .accountId(AggregateReference.to(this.accountId))
+                .content("avatar".getBytes(StandardCharsets.UTF_8))
+                .contentType("image/png")
+                .build();
+    }
+
+    private Account account() {
+        var account = mock(Account.class);
+        when(account.getId()).thenReturn(this.accountId);
+        when(account.getUsername()).thenReturn(USERNAME);
+        return account;
+    }
+
+    private Account cachedAccount() {
+        when(this.avatarRepository.findByUsername(USERNAME)).thenReturn(Optional.of(this.avatar()));
+
+        this.avatarService.findByUsername(USERNAME, null);
+        this.avatarService.findByUsername(USERNAME, null);
+        verify(this.avatarRepository, times(1)).findByUsername(USERNAME);
+        return this.account();
+    }
+
+    @Test
+    @DisplayName("Given a cached avatar, when it is requested again, then no transaction is used")
+    public void givenACachedAvatar_whenItIsRequestedAgain_thenNoTransactionIsUsed() {
+        this.cachedAccount();
+
+        verify(this.transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Given a cached avatar, when its account is modified, then the avatar is loaded again")
+    public void givenACachedAvatar_whenItsAccountIsModified_thenTheAvatarIsLoadedAgain() {
+        var account = this.cachedAccount();
+
+        this.avatarCacheInvalidator.onAccountModifiedEvent(new AccountModifiedEvent(UUID.randomUUID(), Instant.now(), new Profile(this.accountId, "John Doe", USERNAME), account));
+
+        this.avatarService.findByUsername(USERNAME, null);
+        verify(this.avatarRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    @DisplayName("Given a cached avatar, when its account is deleted, then the avatar is loaded again")
+    public void givenACachedAvatar_whenItsAccountIsDeleted_thenTheAvatarIsLoadedAgain() {
+        var account = this.cachedAccount();
+
+        this.avatarCacheInvalidator.onAccountDeletedEvent(new AccountDeletedEvent(UUID.randomUUID(), Instant.now(), new Profile(this.accountId, "John Doe", USERNAME), account));
+
+        this.avatarService.findByUsername(USERNAME, null);
+        verify(this.avatarRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    @DisplayName("Given an account cached without any avatar, when it is modified, then its avatar is loaded again")
+    public void givenAnAccountCachedWithoutAnyAvatar_whenItIsModified_thenItsAvatarIsLoadedAgain() {
+        when(this.avatarRepository.findByUsername(USERNAME)).thenReturn(Optional.empty());
+        assertThat(this.avatarService.findByUsername(USERNAME, null)).isEmpty();
+
+        this.avatarCacheInvalidator.onAccountModifiedEvent(new AccountModifiedEvent(UUID.randomUUID(), Instant.now(), new Profile(this.accountId, "John Doe", USERNAME), this.account()));
+
+        when(this.avatarRepository.findByUsername(USERNAME)).thenReturn(Optional.of(this.avatar()));
+        assertThat(this.avatarService.findByUsername(USERNAME, null)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given an avatar cached by another server, when its account is modified, then it is evicted from the cache of the other server")
+    public void givenAnAvatarCachedByAnotherServer_whenItsAccountIsModified_thenItIsEvictedFromTheCacheOfTheOtherServer() {
+        var otherAvatarRepository = mock(IAvatarRepository.class);
+        when(otherAvatarRepository.findByUsername(USERNAME)).thenReturn(Optional.of(this.avatar()));
+        var otherAvatarService = new AvatarService(otherAvatarRepository, this.transactionManager, this.clusterMessageBus, 1024 * 1024, Duration.ofHours(1));
+        otherAvatarService.findByUsername(USERNAME, null);
+
+        this.avatarCacheInvalidator.publishAccountModifiedEvent(new AccountModifiedEvent(UUID.randomUUID(), Instant.now(), new Profile(this.accountId, "John Doe", USERNAME), this.account()));
+
+        otherAvatarService.findByUsername(USERNAME, null);
+        verify(otherAvatarRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    @DisplayName("Given a cached avatar, when some messages of the cluster are lost, then the avatar is loaded again")
+    public void givenACachedAvatar_whenSomeMessagesOfTheClusterAreLost_thenTheAvatarIsLoadedAgain() {
+        this.cachedAccount();
+
+        this.clusterMessageBus.loseMessages();
+
+        this.avatarService.findByUsername(USERNAME, null);
+        verify(this.avatarRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    /**
+     * Used to deliver the messages of the cluster as soon as they are published.
+     *
+     * @author sbegaudeau
+     */
+    private static final class SynchronousClusterMessageBus implements IClusterMessageBus {
+
+        private final Map<String, List<IClusterMessageListener>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String payload) {
+            this.listeners.getOrDefault(channel, List.of()).forEach(listener -> listener.onMessage(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, IClusterMessageListener listener) {
+            this.listeners.computeIfAbsent(channel, key -> new ArrayList<>()).add(listener);
+        }
+
+        public void loseMessages() {
+            this.listeners.values().forEach(channelListeners -> channelListeners.forEach(IClusterMessageListener::onMessagesLost));
+        }
+    }
+}
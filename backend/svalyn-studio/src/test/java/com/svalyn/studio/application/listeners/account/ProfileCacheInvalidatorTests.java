@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.listeners.account;
+
+import com.svalyn.studio.application.services.account.ProfileCache;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.Profile;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.AccountSummary;
+import com.svalyn.studio.domain.account.events.AccountDeletedEvent;
+import com.svalyn.studio.domain.account.events.AccountModifiedEvent;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the invalidation of the profile cache of all the servers of the cluster.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ProfileCacheInvalidatorTests {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private IAccountRepository accountRepository() {
+        var accountRepository = mock(IAccountRepository.class);
+        when(accountRepository.findAllSummariesByIds(any())).thenReturn(List.of(new AccountSummary(this.accountId, "John Doe", "johndoe", Instant.now())));
+        return accountRepository;
+    }
+
+    private Account account() {
+        var account = mock(Account.class);
+        when(account.getId()).thenReturn(this.accountId);
+        return account;
+    }
+
+    @Test
+    @DisplayName("Given an account cached by another server, when it is modified, then it is evicted from the cache of the other server")
+    public void givenAnAccountCachedByAnotherServer_whenItIsModified_thenItIsEvictedFromTheCacheOfTheOtherServer() {
+        var clusterMessageBus = new SynchronousClusterMessageBus();
+        var invalidator = new ProfileCacheInvalidator(new ProfileCache(this.accountRepository(), 10, Duration.ofMinutes(10)), clusterMessageBus);
+
+        var otherAccountRepository = this.accountRepository();
+        var otherProfileCache = new ProfileCache(otherAccountRepository, 10, Duration.ofMinutes(10));
+        new ProfileCacheInvalidator(otherProfileCache, clusterMessageBus);
+
+        otherProfileCache.findAllByIds(Set.of(this.accountId));
+        otherProfileCache.findAllByIds(Set.of(this.accountId));
+        verify(otherAccountRepository, times(1)).findAllSummariesByIds(any());
+
+        var profile = new Profile(this.accountId, "John Doe", "johndoe");
+        invalidator.publishAccountModifiedEvent(new AccountModifiedEvent(UUID.randomUUID(), Instant.now(), profile, this.account()));
+        otherProfileCache.findAllByIds(Set.of(this.accountId));
+        verify(otherAccountRepository, times(2)).findAllSummariesByIds(any());
+
+        invalidator.publishAccountDeletedEvent(new AccountDeletedEvent(UUID.randomUUID(), Instant.now(), profile, this.account()));
+        otherProfileCache.findAllByIds(Set.of(this.accountId));
+        verify(otherAccountRepository, times(3)).findAllSummariesByIds(any());
+    }
+
+    @Test
+    @DisplayName("Given cached accounts, when some messages of the cluster are lost, then all the accounts are evicted")
+    public void givenCachedAccounts_whenSomeMessagesOfTheClusterAreLost_thenAllTheAccountsAreEvicted() {
+        var clusterMessageBus = new SynchronousClusterMessageBus();
+        var profileCache = new ProfileCache(this.accountRepository(), 10, Duration.ofMinutes(10));
+        new ProfileCacheInvalidator(profileCache, clusterMessageBus);
+
+        profileCache.findAllByIds(Set.of(this.accountId));
+        assertThat(profileCache.statistics().size()).isEqualTo(1);
+
+        clusterMessageBus.loseMessages();
+        assertThat(profileCache.statistics().size()).isZero();
+    }
+
+    /**
+     * Used to deliver the messages of the cluster as soon as they are published.
+     *
+     * @author sbegaudeau
+     */
+    private static final class SynchronousClusterMessageBus implements IClusterMessageBus {
+
+        private final Map<String, List<IClusterMessageListener>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String payload) {
+            this.listeners.getOrDefault(channel, List.of()).forEach(listener -> listener.onMessage(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, IClusterMessageListener listener) {
+            this.listeners.computeIfAbsent(channel, key -> new ArrayList<>()).add(listener);
+        }
+
+        public void loseMessages() {
+            this.listeners.values().forEach(channelListeners -> channelListeners.forEach(IClusterMessageListener::onMessagesLost));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.listeners.notification;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.application.services.notification.NotificationPublisher;
+import com.svalyn.studio.domain.Profile;
+import com.svalyn.studio.domain.notification.Notification;
+import com.svalyn.studio.domain.notification.events.NotificationCreatedEvent;
+import com.svalyn.studio.domain.notification.events.NotificationMarkedAsReadEvent;
+import com.svalyn.studio.domain.notification.repositories.INotificationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the publication of the notification events to the subscriptions.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class NotificationSubscriptionsPublisherTests {
+
+    private NotificationMarkedAsReadEvent notificationMarkedAsReadEvent(UUID ownerId) {
+        var notification = mock(Notification.class);
+        when(notification.getOwnedBy()).thenReturn(AggregateReference.to(ownerId));
+        return new NotificationMarkedAsReadEvent(UUID.randomUUID(), Instant.now(), new Profile(ownerId, "John Doe", "johndoe"), notification);
+    }
+
+    @Test
+    @DisplayName("Given an account without subscription, when one of its notifications changes, then nothing is computed")
+    public void givenAnAccountWithoutSubscription_whenOneOfItsNotificationsChanges_thenNothingIsComputed() {
+        var notificationRepository = mock(INotificationRepository.class);
+        var listener = new NotificationSubscriptionsPublisher(notificationRepository, new NotificationPublisher(), new SynchronousClusterMessageBus());
+
+        listener.onNotificationEvent(this.notificationMarkedAsReadEvent(UUID.randomUUID()));
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    @DisplayName("Given an account with a subscription, when one of its notifications is read, then its new unread count is published")
+    public void givenAnAccountWithASubscription_whenOneOfItsNotificationsIsRead_thenItsNewUnreadCountIsPublished() {
+        var ownerId = UUID.randomUUID();
+        var notificationRepository = mock(INotificationRepository.class);
+        when(notificationRepository.countByStatus(any(), eq(ownerId))).thenReturn(2L);
+        var notificationPublisher = new NotificationPublisher();
+        var listener = new NotificationSubscriptionsPublisher(notificationRepository, notificationPublisher, new SynchronousClusterMessageBus());
+
+        List<Long> unreadCounts = new ArrayList<>();
+        var subscription = notificationPublisher.unreadCounts(ownerId, () -> 3).subscribe(unreadCounts::add);
+
+        listener.onNotificationEvent(this.notificationMarkedAsReadEvent(ownerId));
+
+        assertThat(unreadCounts).containsExactly(3L, 2L);
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Given an account with a subscription, when several of its notifications are read in a transaction, then its unread count is computed once after the commit")
+    public void givenAnAccountWithASubscription_whenSeveralOfItsNotificationsAreReadInATransaction_thenItsUnreadCountIsComputedOnceAfterTheCommit() {
+        var ownerId = UUID.randomUUID();
+        var notificationRepository = mock(INotificationRepository.class);
+        when(notificationRepository.countByStatus(any(), eq(ownerId))).thenReturn(0L);
+        var notificationPublisher = new NotificationPublisher();
+        var listener = new NotificationSubscriptionsPublisher(notificationRepository, notificationPublisher, new SynchronousClusterMessageBus());
+
+        List<Long> unreadCounts = new ArrayList<>();
+        var subscription = notificationPublisher.unreadCounts(ownerId, () -> 3).subscribe(unreadCounts::add);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onNotificationEvent(this.notificationMarkedAsReadEvent(ownerId));
+            listener.onNotificationEvent(this.notificationMarkedAsReadEvent(ownerId));
+            listener.onNotificationEvent(this.notificationMarkedAsReadEvent(ownerId));
+            assertThat(unreadCounts).containsExactly(3L);
+
+            var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(unreadCounts).containsExactly(3L, 0L);
+        verify(notificationRepository, times(1)).countByStatus(any(), eq(ownerId));
+        assertThat(TransactionSynchronizationManager.getResource(listener)).isNull();
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Given a transaction being committed, when a notification is created by one of its listeners, then it is published once the transaction has been completed")
+    public void givenATransactionBeingCommitted_whenANotificationIsCreatedByOneOfItsListeners_thenItIsPublishedOnceTheTransactionHasBeenCompleted() {
+        var ownerId = UUID.randomUUID();
+        var notification = mock(Notification.class);
+        when(notification.getId()).thenReturn(UUID.randomUUID());
+        when(notification.getOwnedBy()).thenReturn(AggregateReference.to(ownerId));
+        var notificationRepository = mock(INotificationRepository.class);
+        when(notificationRepository.countByStatus(any(), eq(ownerId))).thenReturn(1L);
+        var notificationPublisher = new NotificationPublisher();
+        var listener = new NotificationSubscriptionsPublisher(notificationRepository, notificationPublisher, new SynchronousClusterMessageBus());
+
+        List<Long> unreadCounts = new ArrayList<>();
+        var subscription = notificationPublisher.unreadCounts(ownerId, () -> 0).subscribe(unreadCounts::add);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // The afterCommit callbacks have already been invoked when the listeners of the transaction create the notification
+            listener.onNotificationEvent(new NotificationCreatedEvent(UUID.randomUUID(), Instant.now(), new Profile(ownerId, "John Doe", "johndoe"), notification));
+            assertThat(unreadCounts).containsExactly(0L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(unreadCounts).containsExactly(0L, 1L);
+        verify(notificationRepository, times(1)).findAllById(List.of(notification.getId()), ownerId);
+        subscription.dispose();
+    }
+
+    /**
+     * Used to deliver the messages of the cluster as soon as they are published.
+     *
+     * @author sbegaudeau
+     */
+    private static final class SynchronousClusterMessageBus implements IClusterMessageBus {
+
+        private final Map<String, List<IClusterMessageListener>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String payload) {
+            this.listeners.getOrDefault(channel, List.of()).forEach(listener -> listener.onMessage(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, IClusterMessageListener listener) {
+            this.listeners.computeIfAbsent(channel, key -> new ArrayList<>()).add(listener);
+        }
+    }
+}
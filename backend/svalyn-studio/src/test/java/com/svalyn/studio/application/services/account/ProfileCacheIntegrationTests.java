@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.application.services.account;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.application.services.account.api.IProfileCache;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the profile cache.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings("checkstyle:MethodName")
+public class ProfileCacheIntegrationTests extends AbstractIntegrationTests {
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    @Autowired
+    private IProfileCache profileCache;
+
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a cached profile, when the account is modified, then the new name is returned")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenCachedProfile_whenAccountModified_thenNewNameReturned() {
+        assertThat(this.profileCache.findAllByIds(Set.of(JOHN_DOE_ID)).get(JOHN_DOE_ID).name()).isEqualTo("John Doe");
+        var hitCount = this.profileCache.statistics().hitCount();
+        assertThat(this.profileCache.findAllByIds(Set.of(JOHN_DOE_ID)).get(JOHN_DOE_ID).name()).isEqualTo("John Doe");
+        assertThat(this.profileCache.statistics().hitCount()).isEqualTo(hitCount + 1);
+
+        var account = this.accountRepository.findById(JOHN_DOE_ID).orElseThrow();
+        account.updateName("John Smith");
+        this.accountRepository.save(account);
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(this.profileCache.findAllByIds(Set.of(JOHN_DOE_ID)).get(JOHN_DOE_ID).name()).isEqualTo("John Smith");
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.account;
+
+import com.svalyn.studio.domain.account.AccountSummary;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the profile cache.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ProfileCacheTests {
+
+    @Test
+    @DisplayName("Given an expired summary, when it is requested, then it is loaded again")
+    public void givenAnExpiredSummary_whenItIsRequested_thenItIsLoadedAgain() {
+        var accountId = UUID.randomUUID();
+        var accountRepository = mock(IAccountRepository.class);
+        when(accountRepository.findAllSummariesByIds(any())).thenReturn(List.of(new AccountSummary(accountId, "John Doe", "johndoe", Instant.now())));
+
+        var profileCache = new ProfileCache(accountRepository, 10, Duration.ZERO);
+        profileCache.findAllByIds(Set.of(accountId));
+        profileCache.findAllByIds(Set.of(accountId));
+
+        verify(accountRepository, times(2)).findAllSummariesByIds(any());
+        assertThat(profileCache.statistics().hitCount()).isZero();
+        assertThat(profileCache.statistics().missCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.business;
+
+import com.svalyn.studio.application.controllers.business.dto.EntityDTO;
+import com.svalyn.studio.domain.business.services.EPackageRegistration;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the catalog of the domains.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class DomainCatalogTests {
+
+    @Test
+    @DisplayName("Given a registered EPackage, when its domain is requested, then the same DTO is returned every time")
+    public void givenARegisteredEPackage_whenItsDomainIsRequested_thenTheSameDTOIsReturnedEveryTime() {
+        var domainCatalog = new DomainCatalog(List.of(new EPackageRegistration(EcorePackage.eINSTANCE, "Ecore", "2002", "")));
+
+        var domain = domainCatalog.findByIdentifier("ecore");
+
+        assertThat(domain).isPresent();
+        assertThat(domain.get().label()).isEqualTo("Ecore");
+        assertThat(domain.get().entities()).extracting(EntityDTO::name).contains("EClass", "EPackage");
+        assertThat(domainCatalog.findByIdentifier("ecore")).containsSame(domain.get());
+        assertThat(domainCatalog.findByIdentifier("unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a new version of a domain, when the catalog is created, then the version of the domain changes")
+    public void givenANewVersionOfADomain_whenTheCatalogIsCreated_thenTheVersionOfTheDomainChanges() {
+        var version = new DomainCatalog(List.of(new EPackageRegistration(EcorePackage.eINSTANCE, "Ecore", "2002", ""))).findVersion("ecore");
+        var sameVersion = new DomainCatalog(List.of(new EPackageRegistration(EcorePackage.eINSTANCE, "Ecore", "2002", ""))).findVersion("ecore");
+        var newVersion = new DomainCatalog(List.of(new EPackageRegistration(EcorePackage.eINSTANCE, "Ecore", "2003", ""))).findVersion("ecore");
+
+        assertThat(version).isPresent().isEqualTo(sameVersion).isNotEqualTo(newVersion);
+        assertThat(new DomainCatalog(List.of()).findVersion("ecore")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a modified metamodel with the same version, when the catalog is created, then the version of the domain changes")
+    public void givenAModifiedMetamodelWithTheSameVersion_whenTheCatalogIsCreated_thenTheVersionOfTheDomainChanges() {
+        var ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("library");
+        var book = EcoreFactory.eINSTANCE.createEClass();
+        book.setName("Book");
+        ePackage.getEClassifiers().add(book);
+
+        var version = new DomainCatalog(List.of(new EPackageRegistration(ePackage, "Library", "1.0.0", ""))).findVersion("library");
+
+        var title = EcoreFactory.eINSTANCE.createEAttribute();
+        title.setName("title");
+        title.setEType(EcorePackage.Literals.ESTRING);
+        book.getEStructuralFeatures().add(title);
+
+        var modifiedVersion = new DomainCatalog(List.of(new EPackageRegistration(ePackage, "Library", "1.0.0", ""))).findVersion("library");
+
+        assertThat(version).isPresent().isNotEqualTo(modifiedVersion);
+    }
+}
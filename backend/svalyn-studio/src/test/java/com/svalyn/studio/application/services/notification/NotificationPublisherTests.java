@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.application.services.notification;
+
+import com.svalyn.studio.application.controllers.notification.dto.NotificationDTO;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.notification.Notification;
+import com.svalyn.studio.domain.notification.NotificationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the publication of the changes of the notifications.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class NotificationPublisherTests {
+
+    private Notification notification(UUID ownerId) {
+        AggregateReference<Account, UUID> ownedBy = AggregateReference.to(ownerId);
+        var notification = mock(Notification.class);
+        when(notification.getId()).thenReturn(UUID.randomUUID());
+        when(notification.getTitle()).thenReturn("The project Svalyn has been created");
+        when(notification.getStatus()).thenReturn(NotificationStatus.UNREAD);
+        when(notification.getRelatedUrl()).thenReturn("/projects/svalyn");
+        when(notification.getOwnedBy()).thenReturn(ownedBy);
+        when(notification.getCreatedBy()).thenReturn(ownedBy);
+        when(notification.getCreatedOn()).thenReturn(Instant.now());
+        when(notification.getLastModifiedBy()).thenReturn(ownedBy);
+        when(notification.getLastModifiedOn()).thenReturn(Instant.now());
+        return notification;
+    }
+
+    @Test
+    @DisplayName("Given subscriptions of several accounts, when changes are published, then each account only receives its own changes")
+    public void givenSubscriptionsOfSeveralAccounts_whenChangesArePublished_thenEachAccountOnlyReceivesItsOwnChanges() {
+        var notificationPublisher = new NotificationPublisher();
+        var johnId = UUID.randomUUID();
+        var janeId = UUID.randomUUID();
+
+        List<NotificationDTO> johnNotifications = new ArrayList<>();
+        List<Long> johnUnreadCounts = new ArrayList<>();
+        List<Long> janeUnreadCounts = new ArrayList<>();
+        var johnNotificationsSubscription = notificationPublisher.notificationsAdded(johnId).subscribe(johnNotifications::add);
+        var johnUnreadCountsSubscription = notificationPublisher.unreadCounts(johnId, () -> 2).subscribe(johnUnreadCounts::add);
+        var janeUnreadCountsSubscription = notificationPublisher.unreadCounts(janeId, () -> 0).subscribe(janeUnreadCounts::add);
+
+        notificationPublisher.publishNotificationAdded(this.notification(johnId));
+        notificationPublisher.publishUnreadCount(johnId, () -> 3);
+        notificationPublisher.publishUnreadCount(janeId, () -> 1);
+
+        assertThat(johnNotifications).extracting(NotificationDTO::title).containsExactly("The project Svalyn has been created");
+        assertThat(johnUnreadCounts).containsExactly(2L, 3L);
+        assertThat(janeUnreadCounts).containsExactly(0L, 1L);
+
+        johnNotificationsSubscription.dispose();
+        johnUnreadCountsSubscription.dispose();
+        janeUnreadCountsSubscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Given a subscription, when it is cancelled, then the account does not have any subscriber anymore")
+    public void givenASubscription_whenItIsCancelled_thenTheAccountDoesNotHaveAnySubscriberAnymore() {
+        var notificationPublisher = new NotificationPublisher();
+        var ownerId = UUID.randomUUID();
+        assertThat(notificationPublisher.hasSubscribers(ownerId)).isFalse();
+
+        var firstSubscription = notificationPublisher.unreadCounts(ownerId, () -> 0).subscribe();
+        var secondSubscription = notificationPublisher.notificationsAdded(ownerId).subscribe();
+        assertThat(notificationPublisher.hasSubscribers(ownerId)).isTrue();
+
+        firstSubscription.dispose();
+        assertThat(notificationPublisher.hasSubscribers(ownerId)).isTrue();
+
+        secondSubscription.dispose();
+        assertThat(notificationPublisher.hasSubscribers(ownerId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given a subscription, when its current unread count is received after a newer one, then the current unread count is dropped")
+    public void givenASubscription_whenItsCurrentUnreadCountIsReceivedAfterANewerOne_thenTheCurrentUnreadCountIsDropped() {
+        var notificationPublisher = new NotificationPublisher();
+        var ownerId = UUID.randomUUID();
+
+        List<Long> unreadCounts = new ArrayList<>();
+        var subscription = notificationPublisher.unreadCounts(ownerId, () -> {
+            // A notification is read on another server while the current unread count is being computed
+            notificationPublisher.publishUnreadCount(ownerId, () -> 4);
+            return 5;
+        }).subscribe(unreadCounts::add);
+        notificationPublisher.publishUnreadCount(ownerId, () -> 3);
+
+        assertThat(unreadCounts).containsExactly(4L, 3L);
+        subscription.dispose();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.domain.message.api.IMessageService;
+import graphql.relay.Relay;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the activity entry controller.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ActivityEntryControllerIntegrationTests extends AbstractIntegrationTests {
+
+    private static final String ACTIVITY_ENTRIES = """
+    activityEntries(first: $first, after: $after) {
+      edges {
+        node {
+          title
+        }
+      }
+      pageInfo {
+        hasPreviousPage
+        hasNextPage
+        endCursor
+      }
+    }
+    """;
+
+    private static final Map<String, String> PATH_TO_PARENT = Map.of(
+            "viewer.activityEntries", "",
+            "viewer.profile.activityEntries", "profile(username: \"johndoe\")",
+            "viewer.organization.activityEntries", "organization(identifier: \"mockorganization\")",
+            "viewer.project.activityEntries", "project(identifier: \"mockproject\")"
+    );
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private IMessageService messageService;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some activity entries, when they are requested after a cursor, then the following activity entries are returned")
+    @Sql(scripts = {"/scripts/cleanup.sql", "/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenActivityEntries_whenRequestedAfterCursor_thenFollowingActivityEntriesReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        for (var path : PATH_TO_PARENT.keySet()) {
+            var document = this.getDocument(path);
+            var firstPage = tester.document(document)
+                    .variable("first", 2)
+                    .execute();
+            firstPage.path(path + ".edges[*].node.title").entityList(String.class).containsExactly("Third activity", "Second activity");
+            firstPage.path(path + ".pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false);
+            firstPage.path(path + ".pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+
+            var endCursor = firstPage.path(path + ".pageInfo.endCursor").entity(String.class).get();
+
+            var secondPage = tester.document(document)
+                    .variable("first", 2)
+                    .variable("after", endCursor)
+                    .execute();
+            secondPage.path(path + ".edges[*].node.title").entityList(String.class).containsExactly("First activity");
+            secondPage.path(path + ".pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+            secondPage.path(path + ".pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+        }
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some activity entries, when they are requested without any pagination argument, then an error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenActivityEntries_whenRequestedWithoutPagination_thenErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        for (var path : PATH_TO_PARENT.keySet()) {
+            tester.document(this.getDocument(path))
+                    .execute()
+                    .errors()
+                    .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage())));
+        }
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some activity entries, when they are requested after an invalid cursor, then a validation error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenActivityEntries_whenRequestedAfterInvalidCursor_thenValidationErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+        var relay = new Relay();
+        var invalidCursors = List.of(
+                "not a cursor",
+                relay.toGlobalId("ActivityEntry", "not a uuid"),
+                relay.toGlobalId("Project", UUID.randomUUID().toString()),
+                relay.toGlobalId("ActivityEntry", UUID.randomUUID().toString())
+        );
+
+        for (var path : PATH_TO_PARENT.keySet()) {
+            for (var invalidCursor : invalidCursors) {
+                tester.document(this.getDocument(path))
+                        .variable("first", 2)
+                        .variable("after", invalidCursor)
+                        .execute()
+                        .errors()
+                        .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage()) && error.getErrorType() == ErrorType.BAD_REQUEST));
+            }
+        }
+    }
+
+    private String getDocument(String path) {
+        var selection = ACTIVITY_ENTRIES;
+        var parent = PATH_TO_PARENT.get(path);
+        if (!parent.isEmpty()) {
+            selection = parent + " {\n" + selection + "}\n";
+        }
+        return "query getActivityEntries($first: Int, $after: String) {\n  viewer {\n" + selection + "  }\n}\n";
+    }
+}
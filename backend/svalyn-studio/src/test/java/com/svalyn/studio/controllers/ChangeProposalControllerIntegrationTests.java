@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests of the change proposal controller.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ChangeProposalControllerIntegrationTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a project, when its change proposals are requested, then their authors are resolved")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenProject_whenChangeProposalsRequested_thenAuthorsResolved() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var document = """
+        query getChangeProposals {
+          viewer {
+            project(identifier: "mockproject") {
+              changeProposals(status: [OPEN], page: 0, rowsPerPage: 10) {
+                edges {
+                  node {
+                    createdBy {
+                      username
+                    }
+                    lastModifiedBy {
+                      username
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+        """;
+        var response = tester.document(document).execute();
+        response.path("viewer.project.changeProposals.edges[*].node.createdBy.username").entityList(String.class).containsExactly("johndoe", "johndoe");
+        response.path("viewer.project.changeProposals.edges[*].node.lastModifiedBy.username").entityList(String.class).containsExactly("johndoe", "johndoe");
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a project, when its change proposals are requested after a cursor, then the following change proposals are returned")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenProject_whenChangeProposalsRequestedAfterCursor_thenFollowingChangeProposalsReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var document = """
+        query getChangeProposals($first: Int!, $after: String) {
+          viewer {
+            project(identifier: "mockproject") {
+              changeProposals(status: [OPEN], first: $first, after: $after) {
+                edges {
+                  node {
+                    name
+                  }
+                }
+                pageInfo {
+                  hasPreviousPage
+                  hasNextPage
+                  endCursor
+                  count
+                }
+              }
+            }
+          }
+        }
+        """;
+        var firstPage = tester.document(document)
+                .variable("first", 1)
+                .execute();
+        firstPage.path("viewer.project.changeProposals.edges[0].node.name").entity(String.class).isEqualTo("Second contribution");
+        firstPage.path("viewer.project.changeProposals.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false);
+        firstPage.path("viewer.project.changeProposals.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+        firstPage.path("viewer.project.changeProposals.pageInfo.count").entity(Long.class).isEqualTo(2L);
+
+        var endCursor = firstPage.path("viewer.project.changeProposals.pageInfo.endCursor").entity(String.class).get();
+
+        var secondPage = tester.document(document)
+                .variable("first", 1)
+                .variable("after", endCursor)
+                .execute();
+        secondPage.path("viewer.project.changeProposals.edges[0].node.name").entity(String.class).isEqualTo("Initial contribution");
+        secondPage.path("viewer.project.changeProposals.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+        secondPage.path("viewer.project.changeProposals.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+}
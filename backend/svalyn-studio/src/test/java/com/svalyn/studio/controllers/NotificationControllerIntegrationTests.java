@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.domain.message.api.IMessageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the notification controller.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class NotificationControllerIntegrationTests extends AbstractIntegrationTests {
+
+    private static final String GET_NOTIFICATIONS = """
+    query getNotifications($first: Int, $after: String) {
+      viewer {
+        notifications(status: [UNREAD], first: $first, after: $after) {
+          edges {
+            node {
+              title
+            }
+          }
+          pageInfo {
+            hasPreviousPage
+            hasNextPage
+            endCursor
+            count
+          }
+        }
+      }
+    }
+    """;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private IMessageService messageService;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some notifications, when they are requested after a cursor, then the following notifications are returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenNotifications_whenRequestedAfterCursor_thenFollowingNotificationsReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var firstPage = tester.document(GET_NOTIFICATIONS)
+                .variable("first", 2)
+                .execute();
+        firstPage.path("viewer.notifications.edges[*].node.title").entityList(String.class).containsExactly("Third notification", "Second notification");
+        firstPage.path("viewer.notifications.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false);
+        firstPage.path("viewer.notifications.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+        firstPage.path("viewer.notifications.pageInfo.count").entity(Long.class).isEqualTo(3L);
+
+        var endCursor = firstPage.path("viewer.notifications.pageInfo.endCursor").entity(String.class).get();
+
+        var secondPage = tester.document(GET_NOTIFICATIONS)
+                .variable("first", 2)
+                .variable("after", endCursor)
+                .execute();
+        secondPage.path("viewer.notifications.edges[*].node.title").entityList(String.class).containsExactly("First notification");
+        secondPage.path("viewer.notifications.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+        secondPage.path("viewer.notifications.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some notifications, when they are requested without any pagination argument, then an error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenNotifications_whenRequestedWithoutPagination_thenErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        tester.document(GET_NOTIFICATIONS)
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage())));
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given some notifications, when zero of them are requested, then an error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenNotifications_whenZeroRequested_thenErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        tester.document(GET_NOTIFICATIONS)
+                .variable("first", 0)
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage())));
+    }
+}
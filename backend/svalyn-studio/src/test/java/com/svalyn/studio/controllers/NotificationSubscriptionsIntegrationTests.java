@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.graphql.test.tester.WebSocketGraphQlTester;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Integration tests of the subscriptions to the notifications over a websocket.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SuppressWarnings("checkstyle:MethodName")
+public class NotificationSubscriptionsIntegrationTests extends AbstractIntegrationTests {
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private static final UUID JANE_DOE_ID = UUID.fromString("1116f75f-2ceb-43cf-b6a6-c11dabbc5977");
+
+    private static final String PASSWORD = "0123456789";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @DisplayName("Given a subscription to the unread count, when some notifications are read, then the new unread count is received once")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenASubscriptionToTheUnreadCount_whenSomeNotificationsAreRead_thenTheNewUnreadCountIsReceivedOnce() {
+        var graphQlTester = WebSocketGraphQlTester.builder("ws://localhost:" + this.port + "/api/graphql", new ReactorNettyWebSocketClient())
+                .header(HttpHeaders.COOKIE, this.login(JOHN_DOE_ID, "johndoe"))
+                .build();
+
+        List<Long> unreadCounts = new CopyOnWriteArrayList<>();
+        var subscription = graphQlTester.document("subscription { unreadCountChanged }")
+                .executeSubscription()
+                .toFlux("unreadCountChanged", Long.class)
+                .subscribe(unreadCounts::add);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(unreadCounts).containsExactly(3L));
+
+        var notificationIds = this.jdbcTemplate.queryForList("SELECT id FROM notification WHERE owned_by = ?", UUID.class, JOHN_DOE_ID);
+        var mutation = """
+        mutation updateNotificationsStatus($input: UpdateNotificationsStatusInput!) {
+          updateNotificationsStatus(input: $input) {
+            __typename
+          }
+        }
+        """;
+        graphQlTester.document(mutation)
+                .variable("input", new UpdateNotificationsStatusInput(UUID.randomUUID(), notificationIds, "READ"))
+                .execute()
+                .path("updateNotificationsStatus.__typename").entity(String.class).isEqualTo("SuccessPayload");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(unreadCounts).containsExactly(3L, 0L));
+        subscription.dispose();
+        graphQlTester.stop().block();
+    }
+
+    @Test
+    @DisplayName("Given a subscription to the new notifications, when a project is created by another member, then the notification and the new unread count are received")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenASubscriptionToTheNewNotifications_whenAProjectIsCreatedByAnotherMember_thenTheNotificationAndTheNewUnreadCountAreReceived() {
+        var janeDoeGraphQlTester = WebSocketGraphQlTester.builder("ws://localhost:" + this.port + "/api/graphql", new ReactorNettyWebSocketClient())
+                .header(HttpHeaders.COOKIE, this.login(JANE_DOE_ID, "janedoe"))
+                .build();
+
+        List<String> notificationTitles = new CopyOnWriteArrayList<>();
+        var notificationSubscription = janeDoeGraphQlTester.document("subscription { notificationAdded { title } }")
+                .executeSubscription()
+                .toFlux("notificationAdded.title", String.class)
+                .subscribe(notificationTitles::add);
+        List<Long> unreadCounts = new CopyOnWriteArrayList<>();
+        var unreadCountSubscription = janeDoeGraphQlTester.document("subscription { unreadCountChanged }")
+                .executeSubscription()
+                .toFlux("unreadCountChanged", Long.class)
+                .subscribe(unreadCounts::add);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(unreadCounts).hasSize(1));
+        var initialUnreadCount = unreadCounts.get(0);
+
+        var johnDoeGraphQlTester = WebSocketGraphQlTester.builder("ws://localhost:" + this.port + "/api/graphql", new ReactorNettyWebSocketClient())
+                .header(HttpHeaders.COOKIE, this.login(JOHN_DOE_ID, "johndoe"))
+                .build();
+        var mutation = """
+        mutation createProject($input: CreateProjectInput!) {
+          createProject(input: $input) {
+            __typename
+          }
+        }
+        """;
+        johnDoeGraphQlTester.document(mutation)
+                .variable("input", new CreateProjectInput(UUID.randomUUID(), "mockorganization", "newproject", "New Project", "A new project"))
+                .execute()
+                .path("createProject.__typename").entity(String.class).isEqualTo("CreateProjectSuccessPayload");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(notificationTitles).containsExactly("The project New Project has been created in the organization Mock Organization");
+            assertThat(unreadCounts).containsExactly(initialUnreadCount, initialUnreadCount + 1);
+        });
+        notificationSubscription.dispose();
+        unreadCountSubscription.dispose();
+        janeDoeGraphQlTester.stop().block();
+        johnDoeGraphQlTester.stop().block();
+    }
+
+    private String login(UUID accountId, String username) {
+        this.jdbcTemplate.update("INSERT INTO password_credentials (password, active, account_id, created_on, last_modified_on) VALUES (?, true, ?, now(), now())", this.passwordEncoder.encode(PASSWORD), accountId);
+
+        var response = WebClient.create("http://localhost:" + this.port)
+                .post()
+                .uri("/api/login")
+                .body(BodyInserters.fromFormData("username", username).with("password", PASSWORD))
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+        var setCookie = Objects.requireNonNull(response).getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        return Objects.requireNonNull(setCookie).split(";")[0];
+    }
+
+    /**
+     * The input of the mutation used to update the status of some notifications.
+     *
+     * @author sbegaudeau
+     */
+    private record UpdateNotificationsStatusInput(UUID id, List<UUID> notificationIds, String status) {
+    }
+
+    /**
+     * The input of the mutation used to create a project.
+     *
+     * @author sbegaudeau
+     */
+    private record CreateProjectInput(UUID id, String organizationIdentifier, String identifier, String name, String description) {
+    }
+}
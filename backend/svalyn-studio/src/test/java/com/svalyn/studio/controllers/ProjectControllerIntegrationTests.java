@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.domain.message.api.IMessageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the project controller.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ProjectControllerIntegrationTests extends AbstractIntegrationTests {
+
+    private static final String GET_PROJECTS = """
+    query getProjects($first: Int, $after: String, $page: Int, $rowsPerPage: Int) {
+      viewer {
+        organization(identifier: "mockorganization") {
+          projects(first: $first, after: $after, page: $page, rowsPerPage: $rowsPerPage) {
+            edges {
+              node {
+                identifier
+              }
+            }
+            pageInfo {
+              hasPreviousPage
+              hasNextPage
+              endCursor
+              count
+            }
+          }
+        }
+      }
+    }
+    """;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private IMessageService messageService;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when its projects are requested after a cursor, then the following projects are returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenOrganization_whenProjectsRequestedAfterCursor_thenFollowingProjectsReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var firstPage = tester.document(GET_PROJECTS)
+                .variable("first", 2)
+                .execute();
+        firstPage.path("viewer.organization.projects.edges[*].node.identifier").entityList(String.class).containsExactly("thirdproject", "secondproject");
+        firstPage.path("viewer.organization.projects.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false);
+        firstPage.path("viewer.organization.projects.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+        firstPage.path("viewer.organization.projects.pageInfo.count").entity(Long.class).isEqualTo(3L);
+
+        var endCursor = firstPage.path("viewer.organization.projects.pageInfo.endCursor").entity(String.class).get();
+
+        var secondPage = tester.document(GET_PROJECTS)
+                .variable("first", 2)
+                .variable("after", endCursor)
+                .execute();
+        secondPage.path("viewer.organization.projects.edges[*].node.identifier").entityList(String.class).containsExactly("mockproject");
+        secondPage.path("viewer.organization.projects.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+        secondPage.path("viewer.organization.projects.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when its projects are requested with an offset, then the requested page is returned")
+    @Sql(scripts = {"/scripts/initialize.sql", "/scripts/keyset-pagination.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenOrganization_whenProjectsRequestedWithOffset_thenPageReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var response = tester.document(GET_PROJECTS)
+                .variable("page", 1)
+                .variable("rowsPerPage", 2)
+                .execute();
+        response.path("viewer.organization.projects.edges[*].node.identifier").entityList(String.class).containsExactly("mockproject");
+        response.path("viewer.organization.projects.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+        response.path("viewer.organization.projects.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when its projects are requested without any pagination argument, then an error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenOrganization_whenProjectsRequestedWithoutPagination_thenErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        tester.document(GET_PROJECTS)
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage())));
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when a negative number of projects is requested, then an error is returned")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenOrganization_whenNegativeNumberOfProjectsRequested_thenErrorReturned() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        tester.document(GET_PROJECTS)
+                .variable("first", -1)
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).anyMatch(error -> this.messageService.invalid().equals(error.getMessage())));
+    }
+}
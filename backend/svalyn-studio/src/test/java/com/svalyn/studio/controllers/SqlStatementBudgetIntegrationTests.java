@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.controllers;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.SqlStatementCounter;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.application.services.account.api.IProfileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Used to declare the budget of SQL statements of the hot GraphQL operations.
+ *
+ * <p>
+ * The budgets have been measured with an empty cache of profiles and they include the statement needed to resolve
+ * the viewer. The budget of the project page includes the organization aggregate, along with its invitations and its
+ * memberships, and the role of the user in this organization.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Import(SqlStatementCounter.class)
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class SqlStatementBudgetIntegrationTests extends AbstractIntegrationTests {
+
+    private static final UUID MOCK_ORGANIZATION_ID = UUID.fromString("a9261e91-fb20-4d48-8731-d5297e441315");
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private static final int ADDITIONAL_ROWS = 10;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IProfileCache profileCache;
+
+    @BeforeEach
+    public void setup() {
+        this.profileCache.evict(JOHN_DOE_ID);
+    }
+
+    private GraphQlTester.Response execute(String operation, int budget, String document) {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+        return this.sqlStatementCounter.assertWithinBudget(operation, budget, () -> tester.document(document).execute());
+    }
+
+    private int count(String document) {
+        this.profileCache.evict(JOHN_DOE_ID);
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+        return this.sqlStatementCounter.record(() -> tester.document(document).execute()).size();
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when the organization page is requested, then it stays within its budget of SQL statements")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAnOrganization_whenTheOrganizationPageIsRequested_thenItStaysWithinItsBudgetOfSQLStatements() {
+        var document = """
+        query getOrganization {
+          viewer {
+            organization(identifier: "mockorganization") {
+              identifier
+              name
+              role
+              createdBy {
+                username
+              }
+              lastModifiedBy {
+                username
+              }
+            }
+          }
+        }
+        """;
+        this.execute("The organization page", 6, document)
+                .path("viewer.organization.identifier")
+                .entity(String.class)
+                .isEqualTo("mockorganization");
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a project, when the project page is requested, then it stays within its budget of SQL statements")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAProject_whenTheProjectPageIsRequested_thenItStaysWithinItsBudgetOfSQLStatements() {
+        var document = """
+        query getProject {
+          viewer {
+            project(identifier: "mockproject") {
+              identifier
+              name
+              description
+              readMe
+              organization {
+                identifier
+                name
+                role
+              }
+              createdBy {
+                username
+              }
+              lastModifiedBy {
+                username
+              }
+            }
+          }
+        }
+        """;
+        this.execute("The project page", 7, document)
+                .path("viewer.project.identifier")
+                .entity(String.class)
+                .isEqualTo("mockproject");
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given an organization, when its projects are requested, then the number of SQL statements does not depend on the number of projects")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAnOrganization_whenItsProjectsAreRequested_thenTheNumberOfSQLStatementsDoesNotDependOnTheNumberOfProjects() {
+        var document = """
+        query getOrganizationProjects {
+          viewer {
+            organization(identifier: "mockorganization") {
+              projects(page: 0, rowsPerPage: 20) {
+                edges {
+                  node {
+                    identifier
+                    name
+                    description
+                    createdBy {
+                      username
+                    }
+                    lastModifiedBy {
+                      username
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+        """;
+        this.execute("The projects of an organization", 8, document)
+                .path("viewer.organization.projects.edges")
+                .entityList(Object.class)
+                .hasSize(1);
+
+        var statementCount = this.count(document);
+        for (int i = 0; i < ADDITIONAL_ROWS; i++) {
+            this.jdbcTemplate.update("""
+                INSERT INTO project (id, identifier, name, description, read_me, organization_id, created_by, created_on, last_modified_by, last_modified_on)
+                VALUES (?, ?, ?, '', '', ?, ?, now(), ?, now())
+                """, UUID.randomUUID(), "project" + i, "Project " + i, MOCK_ORGANIZATION_ID, JOHN_DOE_ID, JOHN_DOE_ID);
+        }
+        assertThat(this.count(document)).isEqualTo(statementCount);
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a change proposal, when the change proposal page is requested, then it stays within its budget of SQL statements")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAChangeProposal_whenTheChangeProposalPageIsRequested_thenItStaysWithinItsBudgetOfSQLStatements() {
+        var document = """
+        query getChangeProposal {
+          viewer {
+            changeProposal(id: "60dd31a6-7e0c-47e9-af9f-b290e383822d") {
+              id
+              name
+              readMe
+              status
+              createdBy {
+                username
+              }
+              lastModifiedBy {
+                username
+              }
+            }
+          }
+        }
+        """;
+        this.execute("The change proposal page", 4, document)
+                .path("viewer.changeProposal.id")
+                .entity(String.class)
+                .isEqualTo("60dd31a6-7e0c-47e9-af9f-b290e383822d");
+    }
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a user, when its notifications are requested, then the number of SQL statements does not depend on the number of notifications")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAUser_whenItsNotificationsAreRequested_thenTheNumberOfSQLStatementsDoesNotDependOnTheNumberOfNotifications() {
+        var document = """
+        query getNotifications {
+          viewer {
+            unreadNotificationsCount
+            notifications(status: [UNREAD], page: 0, rowsPerPage: 20) {
+              edges {
+                node {
+                  id
+                  title
+                  status
+                  createdBy {
+                    username
+                  }
+                }
+              }
+            }
+          }
+        }
+        """;
+        this.insertNotifications();
+        this.execute("The notifications of the viewer", 5, document);
+
+        var statementCount = this.count(document);
+        this.insertNotifications();
+        assertThat(this.count(document)).isEqualTo(statementCount);
+    }
+
+    private void insertNotifications() {
+        for (int i = 0; i < ADDITIONAL_ROWS; i++) {
+            this.jdbcTemplate.update("""
+                INSERT INTO notification (id, title, owned_by, status, related_url, created_by, created_on, last_modified_by, last_modified_on)
+                VALUES (?, ?, ?, 'UNREAD', '', ?, now(), ?, now())
+                """, UUID.randomUUID(), "Notification " + i, JOHN_DOE_ID, JOHN_DOE_ID, JOHN_DOE_ID);
+        }
+    }
+}
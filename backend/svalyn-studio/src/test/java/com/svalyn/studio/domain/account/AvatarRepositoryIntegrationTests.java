@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.domain.account;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.domain.account.repositories.IAvatarRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the avatars of the accounts.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings("checkstyle:MethodName")
+public class AvatarRepositoryIntegrationTests extends AbstractIntegrationTests {
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    @Autowired
+    private IAvatarRepository avatarRepository;
+
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Given an avatar, when it is persisted, then it can be found by the id and the username of its account")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenAnAvatar_whenItIsPersisted_thenItCanBeFoundByTheIdAndTheUsernameOfItsAccount() {
+        var content = "avatar".getBytes(StandardCharsets.UTF_8);
+        var avatar = Avatar.newAvatar()
+                .accountId(AggregateReference.to(JOHN_DOE_ID))
+                .content(content)
+                .contentType("image/png")
+                .build();
+        this.avatarRepository.deleteByAccountId(JOHN_DOE_ID);
+        this.avatarRepository.save(avatar);
+
+        var avatarFound = this.avatarRepository.findByAccountId(JOHN_DOE_ID).orElseThrow();
+        assertThat(avatarFound.getId()).isEqualTo(avatar.getId());
+        assertThat(avatarFound.getContent()).isEqualTo(content);
+        assertThat(avatarFound.getContentType()).isEqualTo("image/png");
+        assertThat(this.avatarRepository.findByUsername("johndoe").map(Avatar::getId)).hasValue(avatar.getId());
+
+        avatarFound.updateContent("other".getBytes(StandardCharsets.UTF_8), "image/jpeg");
+        this.avatarRepository.save(avatarFound);
+        assertThat(this.avatarRepository.findByAccountId(JOHN_DOE_ID).map(Avatar::getContentType)).hasValue("image/jpeg");
+
+        this.avatarRepository.deleteByAccountId(JOHN_DOE_ID);
+        assertThat(this.avatarRepository.findByAccountId(JOHN_DOE_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given an account with an avatar, when the account is deleted, then its avatar is deleted too")
+    public void givenAnAccountWithAnAvatar_whenTheAccountIsDeleted_thenItsAvatarIsDeletedToo() {
+        var account = this.accountRepository.save(Account.newAccount()
+                .role(AccountRole.USER)
+                .username("username")
+                .name("John Smith")
+                .email("john.smith@example.org")
+                .build());
+        this.avatarRepository.save(Avatar.newAvatar()
+                .accountId(AggregateReference.to(account.getId()))
+                .content("avatar".getBytes(StandardCharsets.UTF_8))
+                .contentType("image/png")
+                .build());
+        assertThat(this.avatarRepository.findByUsername("username")).isPresent();
+
+        this.jdbcTemplate.update("DELETE FROM account WHERE id = ?", account.getId());
+        assertThat(this.avatarRepository.findByAccountId(account.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given the account table, when its columns are retrieved, then it does not contain the avatars anymore")
+    public void givenTheAccountTable_whenItsColumnsAreRetrieved_thenItDoesNotContainTheAvatarsAnymore() {
+        var accountColumns = this.jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = 'account'", String.class);
+        assertThat(accountColumns).contains("id", "username").doesNotContain("image", "image_content_type");
+    }
+}
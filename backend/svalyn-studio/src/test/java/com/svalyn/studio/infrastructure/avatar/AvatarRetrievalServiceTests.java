@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.avatar;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the avatar retrieval service against a local HTTP stub.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class AvatarRetrievalServiceTests {
+
+    private static final int MAXIMUM_SIZE = 1024;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private HttpServer server;
+
+    private AvatarRetrievalService avatarRetrievalService;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+
+        // The timeout leaves room for the first request of a busy build, it would be retried otherwise
+        this.avatarRetrievalService = new AvatarRetrievalService(WebClient.create(), Duration.ofSeconds(5), MAXIMUM_SIZE, 2, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    public void teardown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Given an avatar host, when an avatar is retrieved, then its content and content type are returned")
+    public void givenAnAvatarHost_whenAnAvatarIsRetrieved_thenItsContentAndContentTypeAreReturned() {
+        this.server.createContext("/avatar", exchange -> this.respond(exchange, 200, new byte[] { 1, 2, 3 }));
+
+        var avatarData = this.avatarRetrievalService.retrieve(this.url()).block();
+
+        assertThat(avatarData).isNotNull();
+        assertThat(avatarData.content()).containsExactly(1, 2, 3);
+        assertThat(avatarData.contentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("Given an unavailable avatar host, when an avatar is retrieved, then the request is retried")
+    public void givenAnUnavailableAvatarHost_whenAnAvatarIsRetrieved_thenTheRequestIsRetried() {
+        this.server.createContext("/avatar", exchange -> {
+            if (this.requestCount.incrementAndGet() == 1) {
+                this.respond(exchange, 503, new byte[] {});
+            } else {
+                this.respond(exchange, 200, new byte[] { 1 });
+            }
+        });
+
+        var avatarData = this.avatarRetrievalService.retrieve(this.url()).block();
+
+        assertThat(avatarData).isNotNull();
+        assertThat(this.requestCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a missing avatar, when it is retrieved, then the request is not retried")
+    public void givenAMissingAvatar_whenItIsRetrieved_thenTheRequestIsNotRetried() {
+        this.server.createContext("/avatar", exchange -> {
+            this.requestCount.incrementAndGet();
+            this.respond(exchange, 404, new byte[] {});
+        });
+
+        var avatarData = this.avatarRetrievalService.retrieve(this.url()).block();
+
+        assertThat(avatarData).isNull();
+        assertThat(this.requestCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a large avatar, when it is retrieved, then it is rejected")
+    public void givenALargeAvatar_whenItIsRetrieved_thenItIsRejected() {
+        this.server.createContext("/avatar", exchange -> {
+            this.requestCount.incrementAndGet();
+            this.respond(exchange, 200, new byte[MAXIMUM_SIZE * 4]);
+        });
+
+        var avatarData = this.avatarRetrievalService.retrieve(this.url()).block();
+
+        assertThat(avatarData).isNull();
+        assertThat(this.requestCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a hung avatar host, when an avatar is retrieved, then it gives up after the timeout")
+    public void givenAHungAvatarHost_whenAnAvatarIsRetrieved_thenItGivesUpAfterTheTimeout() {
+        this.server.createContext("/avatar", exchange -> {
+            this.requestCount.incrementAndGet();
+            try {
+                Thread.sleep(Duration.ofSeconds(3));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            this.respond(exchange, 200, new byte[] { 1 });
+        });
+
+        var avatarRetrievalService = new AvatarRetrievalService(WebClient.create(), Duration.ofSeconds(1), MAXIMUM_SIZE, 2, Duration.ofMillis(10));
+        var avatarData = avatarRetrievalService.retrieve(this.url()).block(Duration.ofSeconds(10));
+
+        assertThat(avatarData).isNull();
+    }
+
+    private String url() {
+        return "http://localhost:" + this.server.getAddress().getPort() + "/avatar";
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] content) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "image/png");
+        if (content.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(status, content.length);
+            exchange.getResponseBody().write(content);
+        }
+        exchange.close();
+    }
+}
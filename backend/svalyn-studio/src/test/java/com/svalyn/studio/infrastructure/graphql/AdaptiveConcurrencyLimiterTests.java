@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the adaptive concurrency limiter.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    @DisplayName("Given a limiter, when it is saturated, then queries are rejected before mutations")
+    public void givenALimiter_whenItIsSaturated_thenQueriesAreRejectedBeforeMutations() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 0.5, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(OperationPriority.QUERY)).isPresent();
+        }
+        assertThat(limiter.tryAcquire(OperationPriority.QUERY)).isEmpty();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(OperationPriority.MUTATION)).isPresent();
+        }
+        assertThat(limiter.tryAcquire(OperationPriority.MUTATION)).isEmpty();
+
+        var statistics = limiter.statistics();
+        assertThat(statistics.inFlight()).isEqualTo(10);
+        assertThat(statistics.rejectedQueryCount()).isEqualTo(1);
+        assertThat(statistics.rejectedMutationCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a limiter, when operations are executed and rejected, then its metrics are published")
+    public void givenALimiter_whenOperationsAreExecutedAndRejected_thenItsMetricsArePublished() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var limiter = new AdaptiveConcurrencyLimiter(4, 4, 100, 0.5, meterRegistry);
+
+        var permit = limiter.tryAcquire(OperationPriority.QUERY).orElseThrow();
+        assertThat(limiter.tryAcquire(OperationPriority.QUERY)).isPresent();
+        assertThat(limiter.tryAcquire(OperationPriority.QUERY)).isEmpty();
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.in.flight").gauge().value()).isEqualTo(2);
+
+        permit.release(TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.limit").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.in.flight").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.latency.short").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.completed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.rejected").tag("priority", "query").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("svalyn.graphql.concurrency.rejected").tag("priority", "mutation").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a saturated limiter, when the latency is stable, then the limit grows")
+    public void givenASaturatedLimiter_whenTheLatencyIsStable_thenTheLimitGrows() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.0, new SimpleMeterRegistry());
+
+        this.saturate(limiter, 20, TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Given a saturated limiter, when the latency increases, then the limit shrinks")
+    public void givenASaturatedLimiter_whenTheLatencyIncreases_thenTheLimitShrinks() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.0, new SimpleMeterRegistry());
+        this.saturate(limiter, 20, TimeUnit.MILLISECONDS.toNanos(10));
+        var limit = limiter.getLimit();
+
+        this.saturate(limiter, 20, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(limiter.getLimit()).isLessThan(limit);
+    }
+
+    @Test
+    @DisplayName("Given a permit, when it is released twice, then it is only counted once")
+    public void givenAPermit_whenItIsReleasedTwice_thenItIsOnlyCountedOnce() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.0, new SimpleMeterRegistry());
+        var permit = limiter.tryAcquire(OperationPriority.QUERY).orElseThrow();
+
+        permit.release();
+        permit.release();
+
+        var statistics = limiter.statistics();
+        assertThat(statistics.inFlight()).isZero();
+        assertThat(statistics.completedCount()).isEqualTo(1);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, int rounds, long latencyNanos) {
+        for (int round = 0; round < rounds; round++) {
+            var permits = new ArrayList<AdaptiveConcurrencyLimiter.Permit>();
+            var permit = limiter.tryAcquire(OperationPriority.QUERY);
+            while (permit.isPresent()) {
+                permits.add(permit.get());
+                permit = limiter.tryAcquire(OperationPriority.QUERY);
+            }
+            permits.forEach(acquiredPermit -> acquiredPermit.release(latencyNanos));
+        }
+    }
+}
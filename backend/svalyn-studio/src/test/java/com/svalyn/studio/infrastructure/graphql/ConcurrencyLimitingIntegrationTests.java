@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests of the shedding of the GraphQL operations above the concurrency limit.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@AutoConfigureMockMvc
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ConcurrencyLimitingIntegrationTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a saturated limiter, when a query is sent, then it is rejected as unavailable with a delay to retry after")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenASaturatedLimiter_whenAQueryIsSent_thenItIsRejectedAsUnavailableWithADelayToRetryAfter() throws Exception {
+        var permits = new ArrayList<AdaptiveConcurrencyLimiter.Permit>();
+        try {
+            var permit = this.concurrencyLimiter.tryAcquire(OperationPriority.QUERY);
+            while (permit.isPresent()) {
+                permits.add(permit.get());
+                permit = this.concurrencyLimiter.tryAcquire(OperationPriority.QUERY);
+            }
+            var rejectedQueries = this.meterRegistry.get("svalyn.graphql.concurrency.rejected").tag("priority", "query").counter().count();
+
+            var result = this.mvc.perform(post("/api/graphql")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"query\":\"query getViewer { viewer { username } }\"}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            this.mvc.perform(asyncDispatch(result))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            assertThat(this.meterRegistry.get("svalyn.graphql.concurrency.rejected").tag("priority", "query").counter().count()).isEqualTo(rejectedQueries + 1);
+        } finally {
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the resolution of the fields on virtual threads with a bounded concurrency.
+ *
+ * <p>
+ * The resolvers cannot see the data of a transaction bound to the thread of the test, the data is thus committed.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest(properties = {
+    "svalyn.graphql.resolvers.concurrent=true",
+    "svalyn.graphql.resolvers.maximum-concurrency-per-operation=2",
+})
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ConcurrentResolversIntegrationTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private ResolverConcurrencyLimiter resolverConcurrencyLimiter;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given the concurrent resolution, when sibling fields are requested, then they are resolved with at most the concurrency of an operation")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenTheConcurrentResolution_whenSiblingFieldsAreRequested_thenTheyAreResolvedWithAtMostTheConcurrencyOfAnOperation() {
+        var tester = ExecutionGraphQlServiceTester.create(this.graphQlService);
+
+        var document = """
+        query getOrganization {
+          viewer {
+            organization(identifier: "mockorganization") {
+              projects(page: 0, rowsPerPage: 10) { edges { node { identifier } } }
+              memberships(page: 0, rowsPerPage: 10) { edges { node { member { username } } } }
+              invitations(page: 0, rowsPerPage: 10) { edges { node { id } } }
+              tags(page: 0, rowsPerPage: 10) { edges { node { key } } }
+            }
+          }
+        }
+        """;
+        var response = tester.document(document).execute();
+        response.path("viewer.organization.projects.edges[*].node.identifier").entityList(String.class).contains("mockproject");
+        response.path("viewer.organization.memberships.edges[*].node.member.username").entityList(String.class).contains("johndoe", "janedoe");
+        response.path("viewer.organization.invitations.edges").entityList(Object.class).hasSize(1);
+        response.path("viewer.organization.tags.edges").entityList(Object.class).hasSize(0);
+
+        assertThat(this.resolverConcurrencyLimiter.getPeakActiveResolvers()).isBetween(1, 2);
+    }
+}
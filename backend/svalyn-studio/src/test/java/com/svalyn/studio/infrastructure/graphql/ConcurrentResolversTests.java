@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the resolution of sibling fields on virtual threads.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ConcurrentResolversTests {
+
+    private static final String SCHEMA = """
+            type Query {
+              first: Resolution!
+              second: Resolution!
+            }
+
+            type Resolution {
+              username: String
+              virtual: Boolean!
+              concurrent: Boolean!
+            }
+            """;
+
+    private static final String QUERY = "query getResolutions { first { username virtual concurrent } second { username virtual concurrent } }";
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Map<String, Object> execute(boolean concurrent, int maximumConcurrencyPerOperation) {
+        var applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.registerBean(ResolutionController.class);
+        applicationContext.refresh();
+
+        var resolverConcurrencyLimiter = new ResolverConcurrencyLimiter(10, maximumConcurrencyPerOperation);
+        try {
+            var controllerConfigurer = new GraphQLConfiguration().annotatedControllerConfigurer(applicationContext.getBeanFactory(), resolverConcurrencyLimiter, concurrent);
+            controllerConfigurer.setApplicationContext(applicationContext);
+            controllerConfigurer.afterPropertiesSet();
+
+            var graphQlSource = GraphQlSource.schemaResourceBuilder()
+                    .schemaResources(new ByteArrayResource(SCHEMA.getBytes(StandardCharsets.UTF_8)))
+                    .configureRuntimeWiring(controllerConfigurer)
+                    .instrumentation(List.of(resolverConcurrencyLimiter))
+                    .build();
+            var webGraphQlHandler = WebGraphQlHandler.builder(new DefaultExecutionGraphQlService(graphQlSource)).build();
+
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated("johndoe", null, List.of()));
+            var request = new WebGraphQlRequest(URI.create("/api/graphql"), new HttpHeaders(), Map.of("query", QUERY), "1", null);
+            var response = webGraphQlHandler.handleRequest(request).block();
+
+            assertThat(response).isNotNull();
+            assertThat(response.getErrors()).isEmpty();
+            return response.getData();
+        } finally {
+            resolverConcurrencyLimiter.shutdown();
+            applicationContext.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Given resolvers returning callables, when sibling fields are requested, then they are resolved concurrently with the security context")
+    public void givenResolversReturningCallables_whenSiblingFieldsAreRequested_thenTheyAreResolvedConcurrentlyWithTheSecurityContext() {
+        var data = this.execute(true, 2);
+
+        for (var field : List.of("first", "second")) {
+            assertThat(data.get(field)).isEqualTo(Map.of("username", "johndoe", "virtual", true, "concurrent", true));
+        }
+    }
+
+    @Test
+    @DisplayName("Given the concurrent resolution disabled, when sibling fields are requested, then they are resolved on the calling thread")
+    public void givenTheConcurrentResolutionDisabled_whenSiblingFieldsAreRequested_thenTheyAreResolvedOnTheCallingThread() {
+        var data = this.execute(false, 2);
+
+        // The first field has given up waiting for the second one before it could start
+        assertThat(data.get("first")).isEqualTo(Map.of("username", "johndoe", "virtual", false, "concurrent", false));
+        assertThat(data.get("second")).isEqualTo(Map.of("username", "johndoe", "virtual", false, "concurrent", true));
+    }
+
+    @Test
+    @DisplayName("Given a single resolver per operation at most, when sibling fields are requested, then they are resolved one after the other on virtual threads")
+    public void givenASingleResolverPerOperationAtMost_whenSiblingFieldsAreRequested_thenTheyAreResolvedOneAfterTheOtherOnVirtualThreads() {
+        var data = this.execute(true, 1);
+
+        assertThat(data.get("first")).isEqualTo(Map.of("username", "johndoe", "virtual", true, "concurrent", false));
+        assertThat(data.get("second")).isEqualTo(Map.of("username", "johndoe", "virtual", true, "concurrent", true));
+    }
+
+    /**
+     * The result of the resolution of a field.
+     *
+     * @author sbegaudeau
+     */
+    public record Resolution(String username, boolean virtual, boolean concurrent) {
+    }
+
+    /**
+     * Controller whose resolvers wait for each other to detect whether they are executed concurrently.
+     *
+     * @author sbegaudeau
+     */
+    @Controller
+    public static class ResolutionController {
+
+        private final CountDownLatch latch = new CountDownLatch(2);
+
+        @QueryMapping
+        public Callable<Resolution> first() {
+            return this::resolve;
+        }
+
+        @QueryMapping
+        public Callable<Resolution> second() {
+            return this::resolve;
+        }
+
+        private Resolution resolve() throws InterruptedException {
+            var username = Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+                    .map(authentication -> authentication.getName())
+                    .orElse(null);
+            this.latch.countDown();
+            var concurrent = this.latch.await(200, TimeUnit.MILLISECONDS);
+            return new Resolution(username, Thread.currentThread().isVirtual(), concurrent);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.language.OperationDefinition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the scanner of the type of the operations.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class OperationTypeScannerTests {
+
+    @Test
+    @DisplayName("Given a query in the shorthand form, when its type is scanned, then it is a query")
+    public void givenShorthandQueryWhenScannedThenQueryIsFound() {
+        var operation = new OperationTypeScanner("{ viewer { username } }").findOperation(null);
+        assertThat(operation).contains(OperationDefinition.Operation.QUERY);
+    }
+
+    @Test
+    @DisplayName("Given a named mutation, when its type is scanned, then it is a mutation")
+    public void givenNamedMutationWhenScannedThenMutationIsFound() {
+        var operation = new OperationTypeScanner("mutation createProject($input: CreateProjectInput!) { createProject(input: $input) { __typename } }").findOperation(null);
+        assertThat(operation).contains(OperationDefinition.Operation.MUTATION);
+    }
+
+    @Test
+    @DisplayName("Given a document with several operations, when the type of one of them is scanned, then the type of the selected operation is found")
+    public void givenSeveralOperationsWhenScannedByNameThenSelectedOperationIsFound() {
+        var document = """
+                query getProjects { projects { edges { node { name } } } }
+                mutation deleteProject($input: DeleteProjectInput!) { deleteProject(input: $input) { __typename } }
+                subscription onNotification { notificationAdded { id } }
+                """;
+        var scanner = new OperationTypeScanner(document);
+        assertThat(scanner.findOperation("getProjects")).contains(OperationDefinition.Operation.QUERY);
+        assertThat(scanner.findOperation("deleteProject")).contains(OperationDefinition.Operation.MUTATION);
+        assertThat(scanner.findOperation("onNotification")).contains(OperationDefinition.Operation.SUBSCRIPTION);
+        assertThat(scanner.findOperation("unknown")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given a document with fragments, comments and strings, when its type is scanned, then they are ignored")
+    public void givenFragmentsCommentsAndStringsWhenScannedThenTheyAreIgnored() {
+        var document = """
+                # mutation commented { deleteProject }
+                fragment mutation on Project { name }
+                query search { search(query: "mutation { deleteProject }", description: \"""
+                  mutation \\\""" { deleteProject }
+                \""") { ...mutation } }
+                mutation update { updateProject { __typename } }
+                """;
+        var scanner = new OperationTypeScanner(document);
+        assertThat(scanner.findOperation(null)).contains(OperationDefinition.Operation.QUERY);
+        assertThat(scanner.findOperation("update")).contains(OperationDefinition.Operation.MUTATION);
+        assertThat(scanner.findOperation("mutation")).isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the support of the persisted queries.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class PersistedQueryDocumentProviderTests {
+
+    private static final String SCHEMA = """
+            type Query {
+              name: String
+              description: String
+            }
+            """;
+
+    private static final String QUERY = "query getName { name }";
+
+    private static final String OTHER_QUERY = "query getDescription { description }";
+
+    private GraphQL graphQL(PersistedQueryDocumentProvider persistedQueryDocumentProvider) {
+        var runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder
+                        .dataFetcher("name", environment -> "Svalyn")
+                        .dataFetcher("description", environment -> "Studio"))
+                .build();
+        var schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), runtimeWiring);
+        return GraphQL.newGraphQL(schema).preparsedDocumentProvider(persistedQueryDocumentProvider).build();
+    }
+
+    private ExecutionResult execute(GraphQL graphQL, String query, String hash) {
+        var executionInput = ExecutionInput.newExecutionInput(query)
+                .extensions(Map.of(PersistedQueryDocumentProvider.PERSISTED_QUERY_EXTENSION, Map.of("version", 1, "sha256Hash", hash)))
+                .build();
+        return graphQL.execute(executionInput);
+    }
+
+    private String sha256(String query) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Given an unknown hash, when it is sent alone, then the client is asked for the document")
+    public void givenAnUnknownHash_whenItIsSentAlone_thenTheClientIsAskedForTheDocument() throws NoSuchAlgorithmException {
+        var graphQL = this.graphQL(new PersistedQueryDocumentProvider(10, false, List.of()));
+
+        var result = this.execute(graphQL, PersistedQuerySupport.PERSISTED_QUERY_MARKER, this.sha256(QUERY));
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly("PersistedQueryNotFound");
+    }
+
+    @Test
+    @DisplayName("Given a hash sent with its document, when the hash is sent alone, then the document is executed")
+    public void givenAHashSentWithItsDocument_whenTheHashIsSentAlone_thenTheDocumentIsExecuted() throws NoSuchAlgorithmException {
+        var graphQL = this.graphQL(new PersistedQueryDocumentProvider(10, false, List.of()));
+
+        var firstResult = this.execute(graphQL, QUERY, this.sha256(QUERY));
+        var secondResult = this.execute(graphQL, PersistedQuerySupport.PERSISTED_QUERY_MARKER, this.sha256(QUERY));
+
+        assertThat(firstResult.getErrors()).isEmpty();
+        assertThat(secondResult.getErrors()).isEmpty();
+        assertThat(secondResult.<Map<String, Object>>getData()).containsEntry("name", "Svalyn");
+    }
+
+    @Test
+    @DisplayName("Given a hash which does not match the document, when it is sent, then the operation is rejected")
+    public void givenAHashWhichDoesNotMatchTheDocument_whenItIsSent_thenTheOperationIsRejected() throws NoSuchAlgorithmException {
+        var graphQL = this.graphQL(new PersistedQueryDocumentProvider(10, false, List.of()));
+
+        var result = this.execute(graphQL, QUERY, this.sha256(OTHER_QUERY));
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly("PersistedQueryIdInvalid");
+    }
+
+    @Test
+    @DisplayName("Given a document, when it is executed several times, then it is parsed and validated once")
+    public void givenADocument_whenItIsExecutedSeveralTimes_thenItIsParsedAndValidatedOnce() {
+        var persistedQueryDocumentProvider = new PersistedQueryDocumentProvider(10, false, List.of());
+        var parseCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            var entry = persistedQueryDocumentProvider.getDocument(ExecutionInput.newExecutionInput(QUERY).build(), executionInput -> {
+                parseCount.incrementAndGet();
+                return new PreparsedDocumentEntry(Parser.parse(executionInput.getQuery()));
+            });
+            assertThat(entry.hasErrors()).isFalse();
+        }
+
+        assertThat(parseCount.get()).isEqualTo(1);
+        assertThat(persistedQueryDocumentProvider.findDocument(QUERY, Map.of())).isPresent();
+        assertThat(persistedQueryDocumentProvider.findDocument(OTHER_QUERY, Map.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given the allow-list mode, when operations are executed, then only the operations of the manifest are accepted")
+    public void givenTheAllowListMode_whenOperationsAreExecuted_thenOnlyTheOperationsOfTheManifestAreAccepted() throws NoSuchAlgorithmException {
+        var graphQL = this.graphQL(new PersistedQueryDocumentProvider(10, true, List.of(QUERY)));
+
+        var allowedResult = this.execute(graphQL, PersistedQuerySupport.PERSISTED_QUERY_MARKER, this.sha256(QUERY));
+        var rejectedResult = graphQL.execute(OTHER_QUERY);
+
+        assertThat(allowedResult.getErrors()).isEmpty();
+        assertThat(rejectedResult.getErrors()).extracting(GraphQLError::getMessage).containsExactly("The operation is not allowed");
+        assertThat(rejectedResult.isDataPresent()).isFalse();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the filter letting the persisted queries without any document reach the GraphQL engine.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class PersistedQueryRequestFilterTests {
+
+    private static final String HASH_ONLY_BODY = """
+            {"operationName":"getViewer","extensions":{"persistedQuery":{"version":1,"sha256Hash":"0123456789abcdef"}}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PersistedQueryRequestFilter persistedQueryRequestFilter = new PersistedQueryRequestFilter(this.objectMapper, "/api/graphql");
+
+    private MockHttpServletRequest request(String body) {
+        var request = new MockHttpServletRequest("POST", "/api/graphql");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    @DisplayName("Given the hash of a persisted query without its document, when it is filtered, then the marker of the persisted queries is used as the document")
+    public void givenTheHashOfAPersistedQueryWithoutItsDocument_whenItIsFiltered_thenTheMarkerOfThePersistedQueriesIsUsedAsTheDocument() throws Exception {
+        var filterChain = new MockFilterChain();
+        this.persistedQueryRequestFilter.doFilter(this.request(HASH_ONLY_BODY), new MockHttpServletResponse(), filterChain);
+
+        var filteredRequest = filterChain.getRequest();
+        var body = filteredRequest.getInputStream().readAllBytes();
+        assertThat(filteredRequest.getContentLengthLong()).isEqualTo(body.length);
+        assertThat(this.objectMapper.readTree(body).path("query").asText()).isEqualTo(PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+        assertThat(this.objectMapper.readTree(body).path("operationName").asText()).isEqualTo("getViewer");
+    }
+
+    @Test
+    @DisplayName("Given a large request with a document, when it is filtered, then its body is left unread and is replayed unchanged")
+    public void givenALargeRequestWithADocument_whenItIsFiltered_thenItsBodyIsLeftUnreadAndIsReplayedUnchanged() throws Exception {
+        var body = "{\"query\":\"mutation { createResource }\",\"variables\":{\"content\":\"" + "a".repeat(1_000_000) + "\"}}";
+        var request = this.request(body);
+
+        var filterChain = new MockFilterChain();
+        this.persistedQueryRequestFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        assertThat(request.getInputStream().available()).isGreaterThan(body.length() / 2);
+
+        var filteredRequest = filterChain.getRequest();
+        assertThat(filteredRequest.getContentLengthLong()).isEqualTo(body.length());
+        assertThat(new String(filteredRequest.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(filteredRequest.getInputStream().isFinished()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given a filtered request, when a read listener is registered, then it is notified of the body available")
+    public void givenAFilteredRequest_whenAReadListenerIsRegistered_thenItIsNotifiedOfTheBodyAvailable() throws Exception {
+        var filterChain = new MockFilterChain();
+        this.persistedQueryRequestFilter.doFilter(this.request(HASH_ONLY_BODY), new MockHttpServletResponse(), filterChain);
+
+        var inputStream = filterChain.getRequest().getInputStream();
+        List<String> notifications = new ArrayList<>();
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                notifications.add("onDataAvailable");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                notifications.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                notifications.add("onError");
+            }
+        });
+
+        assertThat(notifications).containsExactly("onDataAvailable", "onAllDataRead");
+        assertThat(inputStream.isReady()).isTrue();
+    }
+}
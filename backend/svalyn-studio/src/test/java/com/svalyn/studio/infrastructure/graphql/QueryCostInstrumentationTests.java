@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the static cost analysis of the operations.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class QueryCostInstrumentationTests {
+
+    private static final String SCHEMA = """
+            type Query {
+              organization: Organization
+            }
+
+            type Organization {
+              name: String
+              projects(rowsPerPage: Int!): [Project!]!
+            }
+
+            type Project {
+              name: String
+              organization: Organization
+              changeProposals(rowsPerPage: Int!): [ChangeProposal!]!
+            }
+
+            type ChangeProposal {
+              name: String
+            }
+            """;
+
+    private static final String QUERY = """
+            query getOrganization($rowsPerPage: Int!) {
+              organization {
+                name
+                projects(rowsPerPage: $rowsPerPage) {
+                  name
+                  changeProposals(rowsPerPage: 10) {
+                    name
+                  }
+                }
+              }
+            }
+            """;
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    private GraphQL graphQL(QueryCostInstrumentation instrumentation) {
+        var runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder.dataFetcher("organization", environment -> {
+                    this.fetchCount.incrementAndGet();
+                    return Map.of("name", "organization");
+                }))
+                .type("Organization", builder -> builder.dataFetcher("projects", environment -> List.of()))
+                .type("Project", builder -> builder.dataFetcher("changeProposals", environment -> List.of()))
+                .build();
+        var schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), runtimeWiring);
+        return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+    }
+
+    private ExecutionInput executionInput(String query, int rowsPerPage) {
+        return ExecutionInput.newExecutionInput(query)
+                .variables(Map.of("rowsPerPage", rowsPerPage))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Given an operation, when it is executed, then its cost is reported in the extensions")
+    public void givenAnOperation_whenItIsExecuted_thenItsCostIsReportedInTheExtensions() {
+        var graphQL = this.graphQL(new QueryCostInstrumentation(Map.of("Project.changeProposals", 2), 1000, 10, 100));
+
+        var result = graphQL.execute(this.executionInput(QUERY, 20));
+
+        assertThat(result.getErrors()).isEmpty();
+        // organization (1) + projects (1) + 20 x changeProposals (2 + 10 x name (0))
+        assertThat(result.getExtensions().get(QueryCostInstrumentation.COST_RESPONSE_EXTENSION))
+                .asInstanceOf(InstanceOfAssertFactories.MAP)
+                .containsEntry("requestedQueryCost", 42L)
+                .containsEntry("depth", 4);
+    }
+
+    @Test
+    @DisplayName("Given an expensive operation, when it is executed, then it is rejected before any resolver is called")
+    public void givenAnExpensiveOperation_whenItIsExecuted_thenItIsRejectedBeforeAnyResolverIsCalled() {
+        var graphQL = this.graphQL(new QueryCostInstrumentation(Map.of("ChangeProposal.name", 1), 1000, 10, 100));
+
+        var result = graphQL.execute(this.executionInput(QUERY, 100));
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly("The operation has a cost of 1102, the maximum is 1000");
+        assertThat(result.isDataPresent()).isFalse();
+        assertThat(this.fetchCount.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given an operation with a large page, when it is executed, then it is rejected")
+    public void givenAnOperationWithALargePage_whenItIsExecuted_thenItIsRejected() {
+        var graphQL = this.graphQL(new QueryCostInstrumentation(Map.of(), 1_000_000, 10, 100));
+
+        var result = graphQL.execute(this.executionInput(QUERY, 1000));
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly("The operation requests 1000 rows per page, the maximum is 100");
+        assertThat(this.fetchCount.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a deep operation, when it is executed, then it is rejected")
+    public void givenADeepOperation_whenItIsExecuted_thenItIsRejected() {
+        var graphQL = this.graphQL(new QueryCostInstrumentation(Map.of(), 1_000_000, 4, 100));
+        var query = "{ organization { projects(rowsPerPage: 1) { organization { projects(rowsPerPage: 1) { name } } } } }";
+
+        var result = graphQL.execute(query);
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage).containsExactly("The operation has a depth of 5, the maximum is 4");
+        assertThat(this.fetchCount.get()).isZero();
+    }
+}
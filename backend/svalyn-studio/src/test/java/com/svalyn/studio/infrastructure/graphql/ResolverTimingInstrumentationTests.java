@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.graphql;
+
+import com.svalyn.studio.domain.account.services.api.IAuthorizationService;
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the instrumentation of the resolvers.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class ResolverTimingInstrumentationTests {
+
+    private static final String SCHEMA = """
+            type Query {
+              slow: String
+              fast: String
+            }
+            """;
+
+    private static final String QUERY = "query getValues { slow fast }";
+
+    private GraphQL graphQL(ResolverTimingInstrumentation instrumentation) {
+        var runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", builder -> builder
+                        .dataFetcher("slow", environment -> {
+                            LockSupport.parkNanos(Duration.ofMillis(20).toNanos());
+                            return "slow";
+                        })
+                        .dataFetcher("fast", environment -> "fast"))
+                .build();
+        var schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), runtimeWiring);
+        return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+    }
+
+    private IAuthorizationService authorizationService(boolean isAdmin) {
+        var authorizationService = mock(IAuthorizationService.class);
+        when(authorizationService.isAdmin()).thenReturn(isAdmin);
+        return authorizationService;
+    }
+
+    @Test
+    @DisplayName("Given an operation, when it is executed, then the latency of its resolvers is recorded")
+    public void givenAnOperation_whenItIsExecuted_thenTheLatencyOfItsResolversIsRecorded() {
+        var instrumentation = new ResolverTimingInstrumentation(this.authorizationService(false), Duration.ofSeconds(10));
+        var graphQL = this.graphQL(instrumentation);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(graphQL.execute(QUERY).getErrors()).isEmpty();
+        }
+
+        var resolverStatistics = instrumentation.resolverStatistics();
+        assertThat(resolverStatistics).extracting(ResolverLatencyStatistics::coordinates).containsExactly("Query.slow", "Query.fast");
+        assertThat(resolverStatistics.get(0).count()).isEqualTo(3);
+        assertThat(resolverStatistics.get(0).meanMillis()).isGreaterThanOrEqualTo(20);
+        assertThat(resolverStatistics.get(0).p95Millis()).isGreaterThanOrEqualTo(20);
+
+        var operationStatistics = instrumentation.operationStatistics();
+        assertThat(operationStatistics).extracting(ResolverLatencyStatistics::coordinates).containsExactly("getValues");
+        assertThat(operationStatistics.get(0).count()).isEqualTo(3);
+
+        assertThat(instrumentation.resolverStatistics()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given an admin, when the tracing extension is requested, then the breakdown of the resolvers is returned")
+    public void givenAnAdmin_whenTheTracingExtensionIsRequested_thenTheBreakdownOfTheResolversIsReturned() {
+        var graphQL = this.graphQL(new ResolverTimingInstrumentation(this.authorizationService(true), Duration.ofSeconds(10)));
+
+        var executionInput = ExecutionInput.newExecutionInput(QUERY)
+                .extensions(Map.of(ResolverTimingInstrumentation.TRACING_REQUEST_EXTENSION, true))
+                .build();
+        var result = graphQL.execute(executionInput);
+
+        assertThat(result.getExtensions()).containsKey(ResolverTimingInstrumentation.TRACING_RESPONSE_EXTENSION);
+        var tracing = (Map<?, ?>) result.getExtensions().get(ResolverTimingInstrumentation.TRACING_RESPONSE_EXTENSION);
+        assertThat((List<?>) tracing.get("resolvers")).hasSize(2).first().asInstanceOf(InstanceOfAssertFactories.MAP).containsEntry("coordinates", "Query.slow");
+    }
+
+    @Test
+    @DisplayName("Given a regular user, when the tracing extension is requested, then the breakdown of the resolvers is not returned")
+    public void givenARegularUser_whenTheTracingExtensionIsRequested_thenTheBreakdownOfTheResolversIsNotReturned() {
+        var graphQL = this.graphQL(new ResolverTimingInstrumentation(this.authorizationService(false), Duration.ofSeconds(10)));
+
+        var executionInput = ExecutionInput.newExecutionInput(QUERY)
+                .extensions(Map.of(ResolverTimingInstrumentation.TRACING_REQUEST_EXTENSION, true))
+                .build();
+        var result = graphQL.execute(executionInput);
+
+        assertThat(result.getExtensions()).isNull();
+    }
+}
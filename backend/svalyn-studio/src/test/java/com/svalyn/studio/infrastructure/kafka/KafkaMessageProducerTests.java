@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2022 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.kafka;
+
+import com.svalyn.studio.domain.IDomainEvent;
+import com.svalyn.studio.domain.project.events.IProjectEvent;
+import com.svalyn.studio.domain.resource.events.IResourceEvent;
+import com.svalyn.studio.infrastructure.kafka.converters.api.IDomainEventToMessageConverter;
+import com.svalyn.studio.message.IMessageContent;
+import com.svalyn.studio.message.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the publication of the messages to the Kafka broker.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName", "unchecked" })
+public class KafkaMessageProducerTests {
+
+    @Test
+    @DisplayName("Given the virtual threads disabled, when an event is published, then the message is sent by the thread of the request")
+    public void givenTheVirtualThreadsDisabled_whenAnEventIsPublished_thenTheMessageIsSentByTheThreadOfTheRequest() {
+        var message = new Message(UUID.randomUUID(), IDomainEventToMessageConverter.FROM, "Message", mock(IMessageContent.class));
+        List<Thread> sendingThreads = new ArrayList<>();
+        KafkaTemplate<String, Message> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(Message.class))).thenAnswer(invocation -> {
+            sendingThreads.add(Thread.currentThread());
+            return CompletableFuture.<SendResult<String, Message>>completedFuture(null);
+        });
+
+        IDomainEventToMessageConverter converter = event -> Optional.of(message);
+        var kafkaMessageProducer = new KafkaMessageProducer(kafkaTemplate, List.of(converter), false, 100, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        kafkaMessageProducer.onProjectEvent(mock(IProjectEvent.class));
+        kafkaMessageProducer.shutdown();
+
+        assertThat(sendingThreads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Given too many messages waiting, when an event is published, then the rejection is counted and the message is sent by the thread of the request")
+    public void givenTooManyMessagesWaiting_whenAnEventIsPublished_thenTheRejectionIsCountedAndTheMessageIsSentByTheThreadOfTheRequest() throws InterruptedException {
+        var message = new Message(UUID.randomUUID(), IDomainEventToMessageConverter.FROM, "Message", mock(IMessageContent.class));
+        var sendingStarted = new CountDownLatch(1);
+        var brokerAvailable = new CountDownLatch(1);
+        List<Thread> sendingThreads = Collections.synchronizedList(new ArrayList<>());
+        KafkaTemplate<String, Message> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(Message.class))).thenAnswer(invocation -> {
+            sendingThreads.add(Thread.currentThread());
+            sendingStarted.countDown();
+            if (Thread.currentThread().isVirtual()) {
+                brokerAvailable.await();
+            }
+            return CompletableFuture.<SendResult<String, Message>>completedFuture(null);
+        });
+
+        var meterRegistry = new SimpleMeterRegistry();
+        IDomainEventToMessageConverter converter = event -> Optional.of(message);
+        var kafkaMessageProducer = new KafkaMessageProducer(kafkaTemplate, List.of(converter), true, 1, Duration.ofSeconds(5), meterRegistry);
+        try {
+            kafkaMessageProducer.onProjectEvent(mock(IProjectEvent.class));
+            assertThat(sendingStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            kafkaMessageProducer.onProjectEvent(mock(IProjectEvent.class));
+            kafkaMessageProducer.onProjectEvent(mock(IProjectEvent.class));
+
+            assertThat(sendingThreads).contains(Thread.currentThread());
+            assertThat(meterRegistry.counter("svalyn.kafka.producer.rejected").count()).isEqualTo(1);
+        } finally {
+            brokerAvailable.countDown();
+            kafkaMessageProducer.shutdown();
+        }
+        assertThat(sendingThreads).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Given messages waiting, when the producer is shut down, then the messages are sent before")
+    public void givenMessagesWaiting_whenTheProducerIsShutDown_thenTheMessagesAreSentBefore() {
+        var message = new Message(UUID.randomUUID(), IDomainEventToMessageConverter.FROM, "Message", mock(IMessageContent.class));
+        List<Message> sentMessages = Collections.synchronizedList(new ArrayList<>());
+        KafkaTemplate<String, Message> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(Message.class))).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            sentMessages.add(invocation.getArgument(1));
+            return CompletableFuture.<SendResult<String, Message>>completedFuture(null);
+        });
+
+        IDomainEventToMessageConverter converter = event -> Optional.of(message);
+        var kafkaMessageProducer = new KafkaMessageProducer(kafkaTemplate, List.of(converter), true, 100, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        for (int i = 0; i < 10; i++) {
+            kafkaMessageProducer.onProjectEvent(mock(IProjectEvent.class));
+        }
+        kafkaMessageProducer.shutdown();
+
+        assertThat(sentMessages).hasSize(10);
+    }
+
+    @Test
+    @DisplayName("Given the events of a transaction, when they are published, then the messages are sent in the order of the events")
+    public void givenTheEventsOfATransaction_whenTheyArePublished_thenTheMessagesAreSentInTheOrderOfTheEvents() {
+        Map<IDomainEvent, Message> messages = new HashMap<>();
+        List<IDomainEvent> events = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            IDomainEvent event = mock(IResourceEvent.class);
+            if (i % 2 == 0) {
+                event = mock(IProjectEvent.class);
+            }
+            events.add(event);
+            messages.put(event, new Message(UUID.randomUUID(), IDomainEventToMessageConverter.FROM, "Message" + i, mock(IMessageContent.class)));
+        }
+
+        List<Message> sentMessages = Collections.synchronizedList(new ArrayList<>());
+        KafkaTemplate<String, Message> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(1);
+            // The first message is slow to be sent, the following ones must still wait for it
+            if (sentMessages.isEmpty()) {
+                Thread.sleep(50);
+            }
+            sentMessages.add(message);
+            return CompletableFuture.<SendResult<String, Message>>completedFuture(null);
+        });
+
+        IDomainEventToMessageConverter converter = event -> Optional.ofNullable(messages.get(event));
+        var kafkaMessageProducer = new KafkaMessageProducer(kafkaTemplate, List.of(converter), true, 100, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        try {
+            events.forEach(event -> {
+                if (event instanceof IProjectEvent projectEvent) {
+                    kafkaMessageProducer.onProjectEvent(projectEvent);
+                } else if (event instanceof IResourceEvent resourceEvent) {
+                    kafkaMessageProducer.onResourceEvent(resourceEvent);
+                }
+            });
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> sentMessages.size() == events.size());
+            assertThat(sentMessages).containsExactlyElementsOf(events.stream().map(messages::get).toList());
+        } finally {
+            kafkaMessageProducer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.persistence;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the migration moving the avatars out of the account table.
+ *
+ * <p>
+ * The change sets are applied to an empty schema up to the one of the avatars so that accounts can be created with
+ * their image before it is migrated.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@SuppressWarnings("checkstyle:MethodName")
+public class AvatarMigrationIntegrationTests extends AbstractIntegrationTests {
+
+    private static final String SCHEMA = "avatar_migration";
+
+    private static final String AVATAR_CHANGE_SET_ID = "2024.1.0-avatar";
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private static final UUID JANE_DOE_ID = UUID.fromString("1116f75f-2ceb-43cf-b6a6-c11dabbc5977");
+
+    private static final String INSERT_ACCOUNT = """
+    INSERT INTO avatar_migration.account (id, role, username, name, email, image, image_content_type, created_on, last_modified_on)
+    VALUES (?, 'USER', ?, ?, ?, ?, ?, now(), now())
+    """;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Given accounts with and without an image, when the avatars are migrated, then the images are moved to the avatars")
+    public void givenAccountsWithAndWithoutAnImage_whenTheAvatarsAreMigrated_thenTheImagesAreMovedToTheAvatars() throws SQLException, LiquibaseException {
+        var image = "image".getBytes(StandardCharsets.UTF_8);
+
+        this.jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        try (var connection = this.dataSource.getConnection()) {
+            var database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            database.setDefaultSchemaName(SCHEMA);
+            database.setLiquibaseSchemaName(SCHEMA);
+            try (var liquibase = new Liquibase("db/db.changelog-master.xml", new ClassLoaderResourceAccessor(), database)) {
+                var changeSets = liquibase.getDatabaseChangeLog().getChangeSets();
+                var avatarChangeSetIndex = IntStream.range(0, changeSets.size())
+                        .filter(index -> AVATAR_CHANGE_SET_ID.equals(changeSets.get(index).getId()))
+                        .findFirst()
+                        .orElseThrow();
+
+                liquibase.update(avatarChangeSetIndex, new Contexts(), new LabelExpression());
+                this.jdbcTemplate.update(INSERT_ACCOUNT, JOHN_DOE_ID, "johndoe", "John Doe", "johndoe@example.org", image, "image/png");
+                this.jdbcTemplate.update(INSERT_ACCOUNT, JANE_DOE_ID, "janedoe", "Jane Doe", "janedoe@example.org", null, null);
+
+                liquibase.update(1, new Contexts(), new LabelExpression());
+            }
+
+            assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM avatar_migration.account", Long.class)).isEqualTo(2);
+            assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM avatar_migration.avatar", Long.class)).isEqualTo(1);
+            assertThat(this.jdbcTemplate.queryForObject("SELECT content FROM avatar_migration.avatar WHERE account_id = ?", byte[].class, JOHN_DOE_ID)).isEqualTo(image);
+            assertThat(this.jdbcTemplate.queryForObject("SELECT content_type FROM avatar_migration.avatar WHERE account_id = ?", String.class, JOHN_DOE_ID)).isEqualTo("image/png");
+
+            var accountColumns = this.jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = 'account'", String.class, SCHEMA);
+            assertThat(accountColumns).contains("id", "username").doesNotContain("image", "image_content_type");
+        } finally {
+            this.jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.svalyn.studio.infrastructure.persistence;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.domain.history.repositories.IChangeProposalRepository;
+import com.svalyn.studio.domain.notification.repositories.INotificationRepository;
+import com.svalyn.studio.domain.project.repositories.IProjectRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests of the counter reconciliation job.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings("checkstyle:MethodName")
+public class CounterReconciliationJobIntegrationTests extends AbstractIntegrationTests {
+
+    private static final UUID MOCK_ORGANIZATION_ID = UUID.fromString("a9261e91-fb20-4d48-8731-d5297e441315");
+
+    private static final UUID MOCK_PROJECT_ID = UUID.fromString("c0167908-8030-4679-a855-c057012ef27c");
+
+    private static final UUID JOHN_DOE_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private static final UUID JANE_DOE_ID = UUID.fromString("1116f75f-2ceb-43cf-b6a6-c11dabbc5977");
+
+    private static final String INSERT_NOTIFICATION = """
+    INSERT INTO notification (id, title, status, related_url, owned_by, created_by, created_on, last_modified_by, last_modified_on)
+    VALUES (gen_random_uuid(), 'Notification', ?, '/notifications', ?, ?, now(), ?, now())
+    """;
+
+    @Autowired
+    private CounterReconciliationJob counterReconciliationJob;
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private IChangeProposalRepository changeProposalRepository;
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Given some rows, when they are inserted, updated or deleted, then the triggers keep their counters up to date")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenSomeRows_whenTheyAreInsertedUpdatedOrDeleted_thenTheTriggersKeepTheirCountersUpToDate() {
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "UNREAD", JOHN_DOE_ID, JANE_DOE_ID, JANE_DOE_ID);
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "UNREAD", JOHN_DOE_ID, JANE_DOE_ID, JANE_DOE_ID);
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "UNREAD", JANE_DOE_ID, JOHN_DOE_ID, JOHN_DOE_ID);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JOHN_DOE_ID)).isEqualTo(2);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JANE_DOE_ID)).isEqualTo(1);
+
+        this.jdbcTemplate.update("UPDATE notification SET status = 'READ' WHERE id = (SELECT id FROM notification WHERE owned_by = ? LIMIT 1)", JOHN_DOE_ID);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JOHN_DOE_ID)).isEqualTo(1);
+        assertThat(this.notificationRepository.countByStatus(List.of("READ"), JOHN_DOE_ID)).isEqualTo(1);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD", "READ"), JOHN_DOE_ID)).isEqualTo(2);
+
+        this.jdbcTemplate.update("UPDATE notification SET owned_by = ? WHERE owned_by = ? AND status = 'UNREAD'", JANE_DOE_ID, JOHN_DOE_ID);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JOHN_DOE_ID)).isZero();
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JANE_DOE_ID)).isEqualTo(2);
+
+        this.jdbcTemplate.update("DELETE FROM notification WHERE owned_by = ?", JANE_DOE_ID);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JANE_DOE_ID)).isZero();
+
+        this.jdbcTemplate.update("UPDATE change_proposal SET status = 'CLOSED' WHERE id = (SELECT id FROM change_proposal WHERE project_id = ? LIMIT 1)", MOCK_PROJECT_ID);
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(1);
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("CLOSED"))).isEqualTo(1);
+
+        this.jdbcTemplate.update("DELETE FROM change_proposal WHERE project_id = ?", MOCK_PROJECT_ID);
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN", "CLOSED"))).isZero();
+
+        this.jdbcTemplate.update("DELETE FROM change_resource");
+        this.jdbcTemplate.update("DELETE FROM change");
+        this.jdbcTemplate.update("DELETE FROM project WHERE id = ?", MOCK_PROJECT_ID);
+        assertThat(this.projectRepository.countAllByOrganizationId(MOCK_ORGANIZATION_ID)).isZero();
+
+        var driftedNotificationCounters = """
+        SELECT COUNT(*) FROM counter counter
+        WHERE counter.kind = 'NOTIFICATION'
+        AND counter.value <> (SELECT COUNT(*) FROM notification notification WHERE notification.owned_by = counter.scope_id AND notification.status = counter.status)
+        """;
+        assertThat(this.jdbcTemplate.queryForObject(driftedNotificationCounters, Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Given counters which have drifted, when reconciled, then they match the counted rows again")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenCountersWhichHaveDrifted_whenReconciled_thenTheyMatchTheCountedRowsAgain() {
+        assertThat(this.projectRepository.countAllByOrganizationId(MOCK_ORGANIZATION_ID)).isEqualTo(1);
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(2);
+
+        this.jdbcTemplate.update("DELETE FROM counter WHERE kind = 'ORGANIZATION_PROJECT'");
+        this.jdbcTemplate.update("UPDATE counter SET value = 42 WHERE kind = 'PROJECT_CHANGE_PROPOSAL'");
+        assertThat(this.projectRepository.countAllByOrganizationId(MOCK_ORGANIZATION_ID)).isZero();
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(42);
+
+        this.counterReconciliationJob.reconcile();
+
+        assertThat(this.projectRepository.countAllByOrganizationId(MOCK_ORGANIZATION_ID)).isEqualTo(1);
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given counters of several scopes which have drifted, when reconciled by small batches, then they all match the counted rows again")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenCountersOfSeveralScopesWhichHaveDrifted_whenReconciledBySmallBatches_thenTheyAllMatchTheCountedRowsAgain() {
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "UNREAD", JOHN_DOE_ID, JANE_DOE_ID, JANE_DOE_ID);
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "READ", JOHN_DOE_ID, JANE_DOE_ID, JANE_DOE_ID);
+        this.jdbcTemplate.update(INSERT_NOTIFICATION, "UNREAD", JANE_DOE_ID, JOHN_DOE_ID, JOHN_DOE_ID);
+
+        this.jdbcTemplate.update("DELETE FROM counter WHERE kind = 'NOTIFICATION' AND scope_id = ?", JOHN_DOE_ID);
+        this.jdbcTemplate.update("UPDATE counter SET value = 42 WHERE kind = 'NOTIFICATION' AND scope_id = ?", JANE_DOE_ID);
+        this.jdbcTemplate.update("INSERT INTO counter (scope_id, kind, status, value) VALUES (gen_random_uuid(), 'NOTIFICATION', 'UNREAD', 7)");
+
+        new CounterReconciliationJob(this.jdbcTemplate, 1).reconcile();
+
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JOHN_DOE_ID)).isEqualTo(1);
+        assertThat(this.notificationRepository.countByStatus(List.of("READ"), JOHN_DOE_ID)).isEqualTo(1);
+        assertThat(this.notificationRepository.countByStatus(List.of("UNREAD"), JANE_DOE_ID)).isEqualTo(1);
+        assertThat(this.jdbcTemplate.queryForObject("SELECT SUM(value) FROM counter WHERE kind = 'NOTIFICATION'", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Given counters which are being reconciled by another server, when reconciled, then they are left untouched")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    public void givenCountersWhichAreBeingReconciledByAnotherServer_whenReconciled_thenTheyAreLeftUntouched() throws SQLException {
+        this.jdbcTemplate.update("UPDATE counter SET value = 42 WHERE kind = 'PROJECT_CHANGE_PROPOSAL'");
+
+        try (var otherServerConnection = this.dataSource.getConnection(); var statement = otherServerConnection.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(hashtext('svalyn_counter_reconciliation'))");
+            try {
+                this.counterReconciliationJob.reconcile();
+            } finally {
+                statement.execute("SELECT pg_advisory_unlock(hashtext('svalyn_counter_reconciliation'))");
+            }
+        }
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(42);
+
+        this.counterReconciliationJob.reconcile();
+        assertThat(this.changeProposalRepository.countAllByProjectIdAndStatus(MOCK_PROJECT_ID, List.of("OPEN"))).isEqualTo(2);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the rate limiter.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class RateLimiterTests {
+
+    private RateLimiter createRateLimiter(long capacity) {
+        var environment = new MockEnvironment()
+                .withProperty("svalyn.rate-limits.user.operations.capacity", String.valueOf(capacity))
+                .withProperty("svalyn.rate-limits.user.operations.per-second", "1");
+        return new RateLimiter(environment);
+    }
+
+    @Test
+    @DisplayName("Given a client whose full buckets have been removed, when its tokens are consumed, then its limits still apply")
+    public void givenAClientWhoseFullBucketsHaveBeenRemoved_whenItsTokensAreConsumed_thenItsLimitsStillApply() {
+        var rateLimiter = this.createRateLimiter(2);
+
+        assertThat(rateLimiter.tryConsume("johndoe", AccountRole.USER, RateLimitKind.OPERATIONS, 1)).isEmpty();
+        rateLimiter.removeFullBuckets();
+        assertThat(rateLimiter.tryConsume("johndoe", AccountRole.USER, RateLimitKind.OPERATIONS, 1)).isEmpty();
+        assertThat(rateLimiter.tryConsume("johndoe", AccountRole.USER, RateLimitKind.OPERATIONS, 1)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given the full buckets removed continuously, when a client consumes tokens concurrently, then it never consumes more than its limit")
+    public void givenTheFullBucketsRemovedContinuously_whenAClientConsumesTokensConcurrently_thenItNeverConsumesMoreThanItsLimit() throws InterruptedException {
+        var rateLimiter = this.createRateLimiter(100);
+        var consumedTokens = new AtomicInteger();
+        var running = new AtomicBoolean(true);
+        var start = new CountDownLatch(1);
+
+        var startedOn = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(5)) {
+            executor.execute(() -> {
+                while (running.get()) {
+                    rateLimiter.removeFullBuckets();
+                }
+            });
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 1000; j++) {
+                            if (rateLimiter.tryConsume("johndoe", AccountRole.USER, RateLimitKind.OPERATIONS, 1).isEmpty()) {
+                                consumedTokens.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+            Thread.sleep(200);
+            running.set(false);
+        }
+        var elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedOn);
+
+        assertThat(consumedTokens.get()).isBetween(100, 100 + (int) elapsedSeconds + 1);
+    }
+}
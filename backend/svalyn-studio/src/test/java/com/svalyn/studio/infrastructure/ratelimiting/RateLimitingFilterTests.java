@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests of the rate limiting filter.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class RateLimitingFilterTests {
+
+    private RateLimitingFilter rateLimitingFilter;
+
+    @BeforeEach
+    public void setup() {
+        var environment = new MockEnvironment()
+                .withProperty("svalyn.rate-limits.user.operations.capacity", "2")
+                .withProperty("svalyn.rate-limits.user.operations.per-second", "1")
+                .withProperty("svalyn.rate-limits.user.upload-bytes.capacity", "100")
+                .withProperty("svalyn.rate-limits.user.upload-bytes.per-second", "10")
+                .withProperty("svalyn.rate-limits.admin.operations.capacity", "5")
+                .withProperty("svalyn.rate-limits.admin.operations.per-second", "1");
+        this.rateLimitingFilter = new RateLimitingFilter(new RateLimiter(environment));
+    }
+
+    @AfterEach
+    public void teardown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Given a user, when too many GraphQL operations are performed, then the extra ones are rejected")
+    public void givenAUser_whenTooManyGraphQLOperationsArePerformed_thenTheExtraOnesAreRejected() throws Exception {
+        this.authenticate("johndoe", "ROLE_USER");
+
+        assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        var response = this.perform("/api/graphql", 0);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        this.authenticate("janedoe", "ROLE_USER");
+        assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    @DisplayName("Given an admin, when GraphQL operations are performed, then the limits of the admins are used")
+    public void givenAnAdmin_whenGraphQLOperationsArePerformed_thenTheLimitsOfTheAdminsAreUsed() throws Exception {
+        this.authenticate("admin", "ROLE_ADMIN");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+        assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    @DisplayName("Given a user, when too many bytes are uploaded, then the upload is rejected until the bucket is refilled")
+    public void givenAUser_whenTooManyBytesAreUploaded_thenTheUploadIsRejectedUntilTheBucketIsRefilled() throws Exception {
+        this.authenticate("johndoe", "ROLE_USER");
+
+        assertThat(this.perform("/api/resources", 80).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        var response = this.perform("/api/resources", 80);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("6");
+    }
+
+    @Test
+    @DisplayName("Given a user, when an upload is rejected because of its size, then it does not consume an operation")
+    public void givenAUser_whenAnUploadIsRejectedBecauseOfItsSize_thenItDoesNotConsumeAnOperation() throws Exception {
+        this.authenticate("johndoe", "ROLE_USER");
+
+        assertThat(this.perform("/api/resources", 80).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(this.perform("/api/resources", 80).getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        assertThat(this.perform("/api/graphql", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    @DisplayName("Given a user, when uploads without a length are read, then their bytes are counted while they are read")
+    public void givenAUser_whenUploadsWithoutALengthAreRead_thenTheirBytesAreCountedWhileTheyAreRead() throws Exception {
+        this.authenticate("johndoe", "ROLE_USER");
+
+        assertThat(this.performWithoutLength("/api/resources", 80).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        var response = this.performWithoutLength("/api/resources", 80);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Given a rate of zero tokens per second, when the limiter is created, then it is rejected")
+    public void givenARateOfZeroTokensPerSecond_whenTheLimiterIsCreated_thenItIsRejected() {
+        var environment = new MockEnvironment().withProperty("svalyn.rate-limits.user.operations.per-second", "0");
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RateLimiter(environment))
+                .withMessageContaining("svalyn.rate-limits.user.operations.per-second");
+    }
+
+    @Test
+    @DisplayName("Given a request to another endpoint, when it is performed, then it is not limited")
+    public void givenARequestToAnotherEndpoint_whenItIsPerformed_thenItIsNotLimited() throws Exception {
+        this.authenticate("johndoe", "ROLE_USER");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(this.perform("/api/avatars/johndoe", 0).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private void authenticate(String username, String role) {
+        var authorities = List.of(new SimpleGrantedAuthority(role));
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, authorities));
+    }
+
+    /**
+     * Performs a request whose length is not known in advance, like a chunked upload, and whose body is read.
+     */
+    private MockHttpServletResponse performWithoutLength(String path, int contentLength) throws Exception {
+        var request = new MockHttpServletRequest("POST", path) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(new byte[contentLength]);
+        var response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse) throws IOException {
+                servletRequest.getInputStream().readAllBytes();
+            }
+        };
+        this.rateLimitingFilter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private MockHttpServletResponse perform(String path, int contentLength) throws Exception {
+        var request = new MockHttpServletRequest("POST", path);
+        request.setContent(new byte[contentLength]);
+        var response = new MockHttpServletResponse();
+        this.rateLimitingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.ratelimiting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the token buckets.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class TokenBucketTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Given a full bucket, when it is retired, then its tokens cannot be consumed anymore")
+    public void givenAFullBucket_whenItIsRetired_thenItsTokensCannotBeConsumedAnymore() {
+        var bucket = new TokenBucket(2, 1, 0);
+
+        assertThat(bucket.retireIfFull(SECOND)).isTrue();
+
+        assertThat(bucket.tryConsume(1, SECOND)).hasValue(0);
+        assertThat(bucket.isRetired()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given a bucket whose tokens have been consumed, when it is retired, then it is kept")
+    public void givenABucketWhoseTokensHaveBeenConsumed_whenItIsRetired_thenItIsKept() {
+        var bucket = new TokenBucket(2, 1, 0);
+        assertThat(bucket.tryConsume(1, SECOND)).isEmpty();
+
+        assertThat(bucket.retireIfFull(SECOND)).isFalse();
+
+        assertThat(bucket.tryConsume(1, SECOND)).isEmpty();
+        assertThat(bucket.tryConsume(1, SECOND)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given a retired bucket, when tokens are refunded, then it stays retired")
+    public void givenARetiredBucket_whenTokensAreRefunded_thenItStaysRetired() {
+        var bucket = new TokenBucket(2, 1, 0);
+        bucket.retireIfFull(SECOND);
+
+        bucket.refund(1);
+
+        assertThat(bucket.isRetired()).isTrue();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.WithMockPrincipal;
+import com.svalyn.studio.domain.Success;
+import com.svalyn.studio.domain.account.AuthenticationToken;
+import com.svalyn.studio.domain.account.AuthenticationTokenCreated;
+import com.svalyn.studio.domain.account.AuthenticationTokenStatus;
+import com.svalyn.studio.domain.account.repositories.IAccountRepository;
+import com.svalyn.studio.domain.account.services.api.IAccountUpdateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests of the authentication with access keys.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class AccessKeyAuthenticationProviderIntegrationTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private IAccountUpdateService accountUpdateService;
+
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Autowired
+    private VerifiedCredentialsCache verifiedCredentialsCache;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @WithMockPrincipal(userId = WithMockPrincipal.UserId.JOHN_DOE)
+    @DisplayName("Given a verified access key, when its authentication token is deactivated, then it cannot be used to log in anymore")
+    @Sql(scripts = {"/scripts/initialize.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenAVerifiedAccessKey_whenItsAuthenticationTokenIsDeactivated_thenItCannotBeUsedToLogInAnymore() {
+        var result = this.accountUpdateService.createAuthenticationToken("Automation");
+        assertThat(result).isInstanceOf(Success.class);
+        var authenticationTokenCreated = ((Success<AuthenticationTokenCreated>) result).data();
+        var accessKey = authenticationTokenCreated.accessKey();
+        var secretKey = authenticationTokenCreated.secretKey();
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        var authenticationProvider = new AccessKeyAuthenticationProvider(this.accountRepository, this.passwordEncoder, this.verifiedCredentialsCache);
+        var authentication = authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(accessKey, secretKey));
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(this.verifiedCredentialsCache.find(accessKey, secretKey)).isPresent();
+
+        assertThatThrownBy(() -> authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(accessKey, "wrong secret key")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        var authenticationTokenId = this.accountRepository.findByAccessKey(accessKey).orElseThrow().getAuthenticationTokens().stream()
+                .filter(authenticationToken -> authenticationToken.getAccessKey().equals(accessKey))
+                .map(AuthenticationToken::getId)
+                .findFirst()
+                .orElseThrow();
+        this.accountUpdateService.updateAuthenticationTokensStatus(List.of(authenticationTokenId), AuthenticationTokenStatus.INACTIVE);
+        assertThat(this.verifiedCredentialsCache.find(accessKey, secretKey)).isEmpty();
+
+        assertThat(authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(accessKey, secretKey))).isNull();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the bounded password encoder.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void teardown() {
+        this.passwordEncoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given a password, when it is encoded, then it can be verified")
+    public void givenAPassword_whenItIsEncoded_thenItCanBeVerified() {
+        this.passwordEncoder = new BoundedPasswordEncoder(1, 1, Duration.ofSeconds(10), this.meterRegistry);
+
+        var encodedPassword = this.passwordEncoder.encode("password");
+
+        assertThat(this.passwordEncoder.matches("password", encodedPassword)).isTrue();
+        assertThat(this.passwordEncoder.matches("wrong password", encodedPassword)).isFalse();
+
+        var statistics = this.passwordEncoder.statistics();
+        assertThat(statistics.completedCount()).isEqualTo(3);
+        assertThat(statistics.rejectedCount()).isZero();
+        assertThat(statistics.averageLatencyMillis()).isPositive();
+
+        var hashingTimer = this.meterRegistry.get("svalyn.passwords.hashing.duration").timer();
+        assertThat(hashingTimer.count()).isEqualTo(3);
+        assertThat(hashingTimer.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(this.meterRegistry.get("svalyn.passwords.hashing.queue.wait").timer().count()).isEqualTo(3);
+        assertThat(this.meterRegistry.get("svalyn.passwords.hashing.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a burst of logins, when the queue is full, then the extra verifications are rejected")
+    public void givenABurstOfLogins_whenTheQueueIsFull_thenTheExtraVerificationsAreRejected() {
+        this.passwordEncoder = new BoundedPasswordEncoder(1, 1, Duration.ofSeconds(30), this.meterRegistry);
+        var encodedPassword = this.passwordEncoder.encode("password");
+        this.passwordEncoder.statistics();
+
+        var callers = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<CompletableFuture<Boolean>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> this.passwordEncoder.matches("password", encodedPassword), callers));
+            }
+
+            var rejectedCount = futures.stream().filter(future -> {
+                try {
+                    future.join();
+                    return false;
+                } catch (CompletionException exception) {
+                    return exception.getCause() instanceof PasswordHashingRejectedException;
+                }
+            }).count();
+
+            assertThat(rejectedCount).isPositive();
+            assertThat(this.passwordEncoder.statistics().rejectedCount()).isEqualTo(rejectedCount);
+            assertThat(this.meterRegistry.get("svalyn.passwords.hashing.rejected").counter().count()).isEqualTo(rejectedCount);
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
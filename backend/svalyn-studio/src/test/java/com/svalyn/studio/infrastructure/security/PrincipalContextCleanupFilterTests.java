@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import com.svalyn.studio.domain.account.IUser;
+import com.svalyn.studio.domain.account.PrincipalContext;
+import com.svalyn.studio.domain.account.PrincipalContextProvider;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the filter clearing the context of the user.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class PrincipalContextCleanupFilterTests {
+
+    @AfterEach
+    public void teardown() {
+        SecurityContextHolder.clearContext();
+        PrincipalContextProvider.clear();
+    }
+
+    @Test
+    @DisplayName("Given a request resolving the context of the user, when it has been handled, then the context is forgotten by the thread")
+    public void givenARequestResolvingTheContextOfTheUser_whenItHasBeenHandled_thenTheContextIsForgottenByTheThread() throws Exception {
+        var user = new User(UUID.randomUUID(), "johndoe", "John Doe");
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, List.of()));
+
+        var resolvedPrincipalContext = new AtomicReference<PrincipalContext>();
+        var servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                resolvedPrincipalContext.set(PrincipalContextProvider.get());
+            }
+        };
+        new PrincipalContextCleanupFilter().doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain(servlet));
+
+        assertThat(resolvedPrincipalContext.get().id()).isEqualTo(user.getId());
+        assertThat(PrincipalContextProvider.get()).isNotSameAs(resolvedPrincipalContext.get());
+    }
+
+    /**
+     * A user of the tests.
+     *
+     * @author sbegaudeau
+     */
+    private record User(UUID getId, String getUsername, String getFullName) implements IUser {
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.security;
+
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageListener;
+import com.svalyn.studio.domain.Profile;
+import com.svalyn.studio.domain.account.Account;
+import com.svalyn.studio.domain.account.events.AuthenticationTokenModifiedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the invalidation of the verified credentials of all the servers of the cluster.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class VerifiedCredentialsCacheInvalidatorTests {
+
+    private static final String ACCESS_KEY = "accessKey";
+
+    private static final String SECRET_KEY = "secretKey";
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private VerifiedCredentialsCache verifiedCredentialsCache() {
+        var verifiedCredentialsCache = new VerifiedCredentialsCache(10, Duration.ofMinutes(1));
+        var userDetails = new SvalynUserDetails(this.accountId, "John Doe", "johndoe", "", List.of());
+        verifiedCredentialsCache.put(ACCESS_KEY, SECRET_KEY, userDetails, verifiedCredentialsCache.stamp());
+        assertThat(verifiedCredentialsCache.find(ACCESS_KEY, SECRET_KEY)).isPresent();
+        return verifiedCredentialsCache;
+    }
+
+    @Test
+    @DisplayName("Given credentials verified by another server, when the authentication tokens of the account are modified, then the credentials are forgotten by the other server")
+    public void givenCredentialsVerifiedByAnotherServer_whenTheAuthenticationTokensOfTheAccountAreModified_thenTheCredentialsAreForgottenByTheOtherServer() {
+        var clusterMessageBus = new SynchronousClusterMessageBus();
+        var invalidator = new VerifiedCredentialsCacheInvalidator(new VerifiedCredentialsCache(10, Duration.ofMinutes(1)), clusterMessageBus);
+
+        var otherVerifiedCredentialsCache = this.verifiedCredentialsCache();
+        new VerifiedCredentialsCacheInvalidator(otherVerifiedCredentialsCache, clusterMessageBus);
+
+        var account = mock(Account.class);
+        when(account.getId()).thenReturn(this.accountId);
+        invalidator.publishAuthenticationTokenModifiedEvent(new AuthenticationTokenModifiedEvent(UUID.randomUUID(), Instant.now(), new Profile(this.accountId, "John Doe", "johndoe"), account));
+
+        assertThat(otherVerifiedCredentialsCache.find(ACCESS_KEY, SECRET_KEY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given verified credentials, when some messages of the cluster are lost, then all the credentials are forgotten")
+    public void givenVerifiedCredentials_whenSomeMessagesOfTheClusterAreLost_thenAllTheCredentialsAreForgotten() {
+        var clusterMessageBus = new SynchronousClusterMessageBus();
+        var verifiedCredentialsCache = this.verifiedCredentialsCache();
+        new VerifiedCredentialsCacheInvalidator(verifiedCredentialsCache, clusterMessageBus);
+
+        clusterMessageBus.loseMessages();
+
+        assertThat(verifiedCredentialsCache.find(ACCESS_KEY, SECRET_KEY)).isEmpty();
+    }
+
+    /**
+     * Used to deliver the messages of the cluster as soon as they are published.
+     *
+     * @author sbegaudeau
+     */
+    private static final class SynchronousClusterMessageBus implements IClusterMessageBus {
+
+        private final Map<String, List<IClusterMessageListener>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String payload) {
+            this.listeners.getOrDefault(channel, List.of()).forEach(listener -> listener.onMessage(payload));
+        }
+
+        @Override
+        public void subscribe(String channel, IClusterMessageListener listener) {
+            this.listeners.computeIfAbsent(channel, key -> new ArrayList<>()).add(listener);
+        }
+
+        public void loseMessages() {
+            this.listeners.values().forEach(channelListeners -> channelListeners.forEach(IClusterMessageListener::onMessagesLost));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.session;
+
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.application.services.cluster.api.IClusterMessageBus;
+import com.svalyn.studio.domain.account.services.api.IAccountSessionCleaner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Integration tests of the caching session repository.
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@Transactional
+@SuppressWarnings("checkstyle:MethodName")
+public class CachingSessionRepositoryIntegrationTests extends AbstractIntegrationTests {
+
+    @Autowired
+    private CachingSessionRepository sessionRepository;
+
+    @Autowired
+    private IAccountSessionCleaner accountSessionCleaner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcIndexedSessionRepository jdbcIndexedSessionRepository;
+
+    @Autowired
+    private IClusterMessageBus clusterMessageBus;
+
+    @Test
+    @DisplayName("Given a session, when its attributes are modified, then they are written immediately")
+    public void givenASession_whenItsAttributesAreModified_thenTheyAreWrittenImmediately() {
+        var session = this.sessionRepository.createSession();
+        session.setAttribute("attribute", "value");
+        this.sessionRepository.save(session);
+
+        var count = this.jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM spring_session_attributes attributes
+                JOIN spring_session session ON session.primary_id = attributes.session_primary_id
+                WHERE session.session_id = ? AND attributes.attribute_name = 'attribute'
+                """, Long.class, session.getId());
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given a session, when it is accessed, then its last access time is written on the next flush")
+    public void givenASession_whenItIsAccessed_thenItsLastAccessTimeIsWrittenOnTheNextFlush() {
+        var session = this.sessionRepository.createSession();
+        this.sessionRepository.save(session);
+        var initialLastAccessTime = this.lastAccessTime(session.getId());
+
+        var accessedSession = this.sessionRepository.findById(session.getId());
+        var lastAccessedTime = Instant.now().plus(1, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+        accessedSession.setLastAccessedTime(lastAccessedTime);
+        this.sessionRepository.save(accessedSession);
+        assertThat(this.lastAccessTime(session.getId())).isEqualTo(initialLastAccessTime);
+
+        this.sessionRepository.flush();
+        assertThat(this.lastAccessTime(session.getId())).isEqualTo(lastAccessedTime.toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Given the session of an account, when the sessions of the account are cleaned, then it cannot be found anymore")
+    public void givenTheSessionOfAnAccount_whenTheSessionsOfTheAccountAreCleaned_thenItCannotBeFoundAnymore() {
+        var session = this.sessionRepository.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "johndoe");
+        this.sessionRepository.save(session);
+        assertThat(this.sessionRepository.findById(session.getId())).isNotNull();
+
+        this.accountSessionCleaner.cleanSessions("johndoe");
+
+        assertThat(this.sessionRepository.findById(session.getId())).isNull();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Given a session cached by another server, when it is deleted, then the other server does not find it anymore")
+    public void givenASessionCachedByAnotherServer_whenItIsDeleted_thenTheOtherServerDoesNotFindItAnymore() {
+        var otherServerSessionRepository = this.otherServerSessionRepository();
+
+        var session = this.sessionRepository.createSession();
+        this.sessionRepository.save(session);
+        assertThat(otherServerSessionRepository.findById(session.getId())).isNotNull();
+
+        this.sessionRepository.deleteById(session.getId());
+
+        assertThat(this.sessionRepository.findById(session.getId())).isNull();
+        await().atMost(Duration.ofSeconds(5)).until(() -> otherServerSessionRepository.findById(session.getId()) == null);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Given a session cached by another server, when its identifier is changed, then the previous identifier cannot be used anymore")
+    public void givenASessionCachedByAnotherServer_whenItsIdentifierIsChanged_thenThePreviousIdentifierCannotBeUsedAnymore() {
+        var otherServerSessionRepository = this.otherServerSessionRepository();
+
+        var session = this.sessionRepository.createSession();
+        this.sessionRepository.save(session);
+        var previousId = session.getId();
+        assertThat(this.sessionRepository.findById(previousId)).isNotNull();
+        assertThat(otherServerSessionRepository.findById(previousId)).isNotNull();
+
+        var accessedSession = this.sessionRepository.findById(previousId);
+        var newId = accessedSession.changeSessionId();
+        this.sessionRepository.save(accessedSession);
+
+        assertThat(this.sessionRepository.findById(previousId)).isNull();
+        assertThat(this.sessionRepository.findById(newId)).isNotNull();
+        await().atMost(Duration.ofSeconds(5)).until(() -> otherServerSessionRepository.findById(previousId) == null);
+        assertThat(otherServerSessionRepository.findById(newId)).isNotNull();
+    }
+
+    /**
+     * Creates the repository of another server which would keep its sessions in memory for a long time.
+     */
+    private CachingSessionRepository otherServerSessionRepository() {
+        return new CachingSessionRepository(this.jdbcIndexedSessionRepository, this.jdbcTemplate, this.clusterMessageBus, JdbcIndexedSessionRepository.DEFAULT_TABLE_NAME, 100, Duration.ofHours(1));
+    }
+
+    private long lastAccessTime(String sessionId) {
+        return this.jdbcTemplate.queryForObject("SELECT last_access_time FROM spring_session WHERE session_id = ?", Long.class, sessionId);
+    }
+}
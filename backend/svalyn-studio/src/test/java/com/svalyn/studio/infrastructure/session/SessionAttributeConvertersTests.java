@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.session;
+
+import com.svalyn.studio.domain.account.AccountRole;
+import com.svalyn.studio.infrastructure.security.SvalynOAuth2User;
+import com.svalyn.studio.infrastructure.security.SvalynUserDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the serialization of the session attributes.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class SessionAttributeConvertersTests {
+
+    private static final UUID USER_ID = UUID.fromString("7ba7bda7-13b9-422a-838b-e45a3597e952");
+
+    private final SecurityContextCodec securityContextCodec = new SecurityContextCodec();
+
+    private final SessionAttributeSerializer serializer = new SessionAttributeSerializer(this.securityContextCodec);
+
+    private final SessionAttributeDeserializer deserializer = new SessionAttributeDeserializer(this.securityContextCodec, this.getClass().getClassLoader());
+
+    @Test
+    @DisplayName("Given the security context of an OAuth2 user, when it is serialized, then it can be deserialized")
+    public void givenTheSecurityContextOfAnOAuth2User_whenItIsSerialized_thenItCanBeDeserialized() {
+        var bytes = this.serializer.convert(this.oAuth2SecurityContext());
+        assertThat(this.securityContextCodec.isEncoded(bytes)).isTrue();
+
+        var securityContext = (SecurityContext) this.deserializer.convert(bytes);
+        assertThat(securityContext.getAuthentication()).isInstanceOf(OAuth2AuthenticationToken.class);
+        assertThat(securityContext.getAuthentication().isAuthenticated()).isTrue();
+        assertThat(securityContext.getAuthentication().getName()).isEqualTo("johndoe");
+        assertThat(((OAuth2AuthenticationToken) securityContext.getAuthentication()).getAuthorizedClientRegistrationId()).isEqualTo("github");
+        assertThat(securityContext.getAuthentication().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+
+        var user = (SvalynOAuth2User) securityContext.getAuthentication().getPrincipal();
+        assertThat(user.getId()).isEqualTo(USER_ID);
+        assertThat(user.getFullName()).isEqualTo("John Doe");
+        assertThat(user.getRole()).isEqualTo(AccountRole.USER);
+    }
+
+    @Test
+    @DisplayName("Given the security context of an access key, when it is serialized, then it can be deserialized")
+    public void givenTheSecurityContextOfAnAccessKey_whenItIsSerialized_thenItCanBeDeserialized() {
+        var authorities = List.<GrantedAuthority>of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        var userDetails = new SvalynUserDetails(USER_ID, "John Doe", "johndoe", "", authorities);
+        var securityContext = new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(userDetails, null, authorities));
+
+        var bytes = this.serializer.convert(securityContext);
+        assertThat(this.securityContextCodec.isEncoded(bytes)).isTrue();
+
+        var deserializedSecurityContext = (SecurityContext) this.deserializer.convert(bytes);
+        assertThat(deserializedSecurityContext.getAuthentication().isAuthenticated()).isTrue();
+        assertThat(deserializedSecurityContext.getAuthentication().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        assertThat(deserializedSecurityContext.getAuthentication().getPrincipal()).isInstanceOf(SvalynUserDetails.class);
+        assertThat(((SvalynUserDetails) deserializedSecurityContext.getAuthentication().getPrincipal()).getId()).isEqualTo(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Given another attribute, when it is serialized, then the Java serialization is used")
+    public void givenAnotherAttribute_whenItIsSerialized_thenTheJavaSerializationIsUsed() {
+        var bytes = this.serializer.convert("attribute");
+
+        assertThat(this.securityContextCodec.isEncoded(bytes)).isFalse();
+        assertThat(this.deserializer.convert(bytes)).isEqualTo("attribute");
+    }
+
+    @Test
+    @DisplayName("Given an attribute which cannot be read anymore, when it is deserialized, then it is dropped")
+    public void givenAnAttributeWhichCannotBeReadAnymore_whenItIsDeserialized_thenItIsDropped() {
+        assertThat(this.deserializer.convert(new byte[] { (byte) 0xAC, (byte) 0xED, 0, 5, 1 })).isNull();
+    }
+
+    @Test
+    @DisplayName("Given the security context of an OAuth2 user, when it is serialized, then it is smaller than with the previous principal")
+    public void givenTheSecurityContextOfAnOAuth2User_whenItIsSerialized_thenItIsSmallerThanWithThePreviousPrincipal() {
+        var javaSerializer = new SerializingConverter();
+        var previousBytes = javaSerializer.convert(this.previousOAuth2SecurityContext());
+        var slimBytes = javaSerializer.convert(this.oAuth2SecurityContext());
+        var compactBytes = this.serializer.convert(this.oAuth2SecurityContext());
+
+        assertThat(slimBytes.length).isLessThan(previousBytes.length);
+        assertThat(compactBytes.length).isLessThan(slimBytes.length);
+
+        assertThat(this.deserializer.convert(previousBytes)).isInstanceOf(SecurityContext.class);
+        assertThat(this.deserializer.convert(slimBytes)).isInstanceOf(SecurityContext.class);
+    }
+
+    private SecurityContext oAuth2SecurityContext() {
+        var user = new SvalynOAuth2User(USER_ID, "johndoe", "John Doe", AccountRole.USER);
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(user, user.getAuthorities(), "github"));
+    }
+
+    /**
+     * Rebuilds the shape of the principal which used to keep the attributes retrieved from GitHub.
+     */
+    private SecurityContext previousOAuth2SecurityContext() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("login", "johndoe");
+        attributes.put("id", 1234567);
+        attributes.put("node_id", "MDQ6VXNlcjEyMzQ1Njc=");
+        attributes.put("avatar_url", "https://avatars.githubusercontent.com/u/1234567?v=4");
+        attributes.put("gravatar_id", "");
+        attributes.put("url", "https://api.github.com/users/johndoe");
+        attributes.put("html_url", "https://github.com/johndoe");
+        attributes.put("followers_url", "https://api.github.com/users/johndoe/followers");
+        attributes.put("following_url", "https://api.github.com/users/johndoe/following{/other_user}");
+        attributes.put("gists_url", "https://api.github.com/users/johndoe/gists{/gist_id}");
+        attributes.put("starred_url", "https://api.github.com/users/johndoe/starred{/owner}{/repo}");
+        attributes.put("subscriptions_url", "https://api.github.com/users/johndoe/subscriptions");
+        attributes.put("organizations_url", "https://api.github.com/users/johndoe/orgs");
+        attributes.put("repos_url", "https://api.github.com/users/johndoe/repos");
+        attributes.put("events_url", "https://api.github.com/users/johndoe/events{/privacy}");
+        attributes.put("received_events_url", "https://api.github.com/users/johndoe/received_events");
+        attributes.put("type", "User");
+        attributes.put("site_admin", false);
+        attributes.put("name", "John Doe");
+        attributes.put("company", "Svalyn");
+        attributes.put("blog", "https://svalyn.com");
+        attributes.put("location", "Nantes, France");
+        attributes.put("bio", "Software developer");
+        attributes.put("public_repos", 42);
+        attributes.put("followers", 100);
+        attributes.put("following", 10);
+        attributes.put("created_at", "2012-01-01T00:00:00Z");
+        attributes.put("updated_at", "2023-01-01T00:00:00Z");
+
+        var authorities = List.<GrantedAuthority>of(
+                new SimpleGrantedAuthority("ROLE_USER"),
+                new OAuth2UserAuthority(attributes),
+                new SimpleGrantedAuthority("SCOPE_read:user"),
+                new SimpleGrantedAuthority("SCOPE_user:email")
+        );
+        var user = new DefaultOAuth2User(authorities, attributes, "login");
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(user, authorities, "github"));
+    }
+}
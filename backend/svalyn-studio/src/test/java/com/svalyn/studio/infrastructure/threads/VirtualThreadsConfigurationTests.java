@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.infrastructure.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the configuration of the virtual threads.
+ *
+ * @author sbegaudeau
+ */
+@SuppressWarnings({ "checkstyle:MethodName" })
+public class VirtualThreadsConfigurationTests {
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Given the virtual threads, when a task is executed asynchronously, then it runs on a virtual thread with the security context")
+    public void givenTheVirtualThreads_whenATaskIsExecutedAsynchronously_thenItRunsOnAVirtualThreadWithTheSecurityContext() throws ExecutionException, InterruptedException, TimeoutException {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated("johndoe", null, List.of()));
+        var executor = new VirtualThreadsConfiguration().applicationTaskExecutor();
+
+        var future = executor.submit(() -> Thread.currentThread().isVirtual() + " " + SecurityContextHolder.getContext().getAuthentication().getName());
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("true johndoe");
+    }
+
+    @Test
+    @DisplayName("Given the virtual threads, when the data source is created, then its pool is sized independently")
+    public void givenTheVirtualThreads_whenTheDataSourceIsCreated_thenItsPoolIsSizedIndependently() {
+        var postProcessor = VirtualThreadsConfiguration.virtualThreadsDataSourcePostProcessor(42, Duration.ofSeconds(2));
+
+        try (var dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(10);
+            postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+
+            assertThat(dataSource.getMaximumPoolSize()).isEqualTo(42);
+            assertThat(dataSource.getConnectionTimeout()).isEqualTo(Duration.ofSeconds(2).toMillis());
+        }
+    }
+}
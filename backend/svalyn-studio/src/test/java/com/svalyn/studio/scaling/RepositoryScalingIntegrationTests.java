@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.scaling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.domain.activity.repositories.IActivityEntryRepository;
+import com.svalyn.studio.domain.history.repositories.IChangeRepository;
+import com.svalyn.studio.domain.notification.repositories.INotificationRepository;
+import com.svalyn.studio.domain.organization.repositories.IOrganizationRepository;
+import com.svalyn.studio.domain.project.repositories.IProjectRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the latency of the queries of the repositories against the size of the dataset.
+ *
+ * <p>
+ * The suite takes a while and is thus only executed with -Dsvalyn.scaling.enabled=true. The scales of the datasets
+ * can be configured with -Dsvalyn.scaling.scales=1,10,100. The median latency of each query with a constant page size
+ * is written in target/scaling-report.json and the queries whose latency grows with the size of the tables are
+ * flagged.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "svalyn.scaling.enabled", matches = "true")
+@SuppressWarnings("checkstyle:MethodName")
+public class RepositoryScalingIntegrationTests extends AbstractIntegrationTests {
+
+    private static final long SEED = 42;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int WARMUP_ITERATIONS = 5;
+
+    private static final int MEASUREMENT_ITERATIONS = 25;
+
+    /**
+     * A query is flagged once its latency grows faster than the square root of the size of the dataset.
+     */
+    private static final double MAXIMUM_GROWTH_EXPONENT = 0.5;
+
+    private static final List<String> NOTIFICATION_STATUS = List.of("UNREAD", "READ");
+
+    private final Logger logger = LoggerFactory.getLogger(RepositoryScalingIntegrationTests.class);
+
+    @Autowired
+    private IActivityEntryRepository activityEntryRepository;
+
+    @Autowired
+    private IOrganizationRepository organizationRepository;
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private IChangeRepository changeRepository;
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Given datasets of increasing size, when the queries are executed, then their latency is reported against the size of the dataset")
+    @Sql(scripts = {"/scripts/cleanup.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD, config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+    public void givenDatasetsOfIncreasingSize_whenTheQueriesAreExecuted_thenTheirLatencyIsReportedAgainstTheSizeOfTheDataset() throws IOException {
+        var scales = Arrays.stream(System.getProperty("svalyn.scaling.scales", "1,10,100").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+
+        Map<String, Map<Integer, Double>> latencies = new LinkedHashMap<>();
+        for (int scale : scales) {
+            new ResourceDatabasePopulator(new ClassPathResource("scripts/cleanup.sql")).execute(this.dataSource);
+            var dataset = new SyntheticDatasetGenerator(this.jdbcTemplate, SEED).generate(scale);
+            this.jdbcTemplate.execute("ANALYZE");
+            this.logger.info("Dataset generated at scale {} with {} rows", scale, dataset.rowCount());
+
+            this.getQueries(dataset).forEach((name, query) -> {
+                var medianLatencyMillis = this.measure(query);
+                latencies.computeIfAbsent(name, key -> new LinkedHashMap<>()).put(scale, medianLatencyMillis);
+            });
+        }
+
+        var queryScalings = latencies.entrySet().stream()
+                .map(entry -> this.toQueryScaling(entry.getKey(), entry.getValue(), scales))
+                .toList();
+        queryScalings.stream()
+                .filter(QueryScaling::growsWithTableSize)
+                .forEach(queryScaling -> this.logger.warn("The latency of {} grows with the size of the tables: {}", queryScaling.name(), queryScaling.medianLatencyMillis()));
+
+        var report = new ScalingReport(Arrays.stream(scales).boxed().toList(), PAGE_SIZE, queryScalings);
+        var reportPath = Path.of("target", "scaling-report.json");
+        Files.createDirectories(reportPath.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+
+        assertThat(queryScalings).allMatch(queryScaling -> queryScaling.medianLatencyMillis().size() == scales.length);
+    }
+
+    private Map<String, Runnable> getQueries(SyntheticDataset dataset) {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("IActivityEntryRepository.findAllVisibleByUserId", () -> this.activityEntryRepository.findAllVisibleByUserId(dataset.accountId(), 0, PAGE_SIZE));
+        queries.put("IActivityEntryRepository.findAllByUserId", () -> this.activityEntryRepository.findAllByUserId(dataset.accountId(), 0, PAGE_SIZE));
+        queries.put("IActivityEntryRepository.findAllByOrganizationId", () -> this.activityEntryRepository.findAllByOrganizationId(dataset.organizationId(), 0, PAGE_SIZE));
+        queries.put("IActivityEntryRepository.findAllByProjectId", () -> this.activityEntryRepository.findAllByProjectId(dataset.projectId(), 0, PAGE_SIZE));
+        queries.put("IOrganizationRepository.searchAllMatching", () -> this.organizationRepository.searchAllMatching("avionics", 0, PAGE_SIZE));
+        queries.put("IProjectRepository.findAllByOrganizationId", () -> this.projectRepository.findAllByOrganizationId(dataset.organizationId(), 0, PAGE_SIZE));
+        queries.put("IProjectRepository.searchAllMatching", () -> this.projectRepository.searchAllMatching("avionics", 0, PAGE_SIZE));
+        queries.put("IChangeRepository.getJsonPath", () -> this.changeRepository.getJsonPath(dataset.changeId()));
+        queries.put("INotificationRepository.findAllByStatus", () -> this.notificationRepository.findAllByStatus(NOTIFICATION_STATUS, dataset.accountId(), 0, PAGE_SIZE));
+        queries.put("INotificationRepository.countByStatus", () -> this.notificationRepository.countByStatus(NOTIFICATION_STATUS, dataset.accountId()));
+        return queries;
+    }
+
+    private double measure(Runnable query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+        }
+
+        var latencies = new long[MEASUREMENT_ITERATIONS];
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            var start = System.nanoTime();
+            query.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[MEASUREMENT_ITERATIONS / 2] / 1_000_000.0;
+    }
+
+    private QueryScaling toQueryScaling(String name, Map<Integer, Double> medianLatencyMillis, int[] scales) {
+        var growthExponent = 0.0;
+        if (scales.length > 1) {
+            var smallestScale = scales[0];
+            var largestScale = scales[scales.length - 1];
+            var latencyRatio = medianLatencyMillis.get(largestScale) / medianLatencyMillis.get(smallestScale);
+            growthExponent = Math.log(latencyRatio) / Math.log((double) largestScale / smallestScale);
+        }
+        return new QueryScaling(name, medianLatencyMillis, growthExponent, growthExponent > MAXIMUM_GROWTH_EXPONENT);
+    }
+
+    /**
+     * The report of the scaling of the queries.
+     *
+     * @author sbegaudeau
+     */
+    private record ScalingReport(List<Integer> scales, int pageSize, List<QueryScaling> queries) {
+    }
+
+    /**
+     * The scaling of a query, its latency grows like the size of the dataset to the power of the growth exponent.
+     *
+     * @author sbegaudeau
+     */
+    private record QueryScaling(String name, Map<Integer, Double> medianLatencyMillis, double growthExponent, boolean growsWithTableSize) {
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.scaling;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Used to fill the database with a deterministic synthetic dataset.
+ *
+ * <p>
+ * The dataset contains accounts, organizations with their members, projects with a deep history of changes, change
+ * proposals, activity and notifications. All its tables grow linearly with the scale while the size of each
+ * organization, project or history stays the same, so that the cost of a query can be compared against the size of
+ * the tables. The same seed and scale always produce the same rows.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+public class SyntheticDatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int ACCOUNTS = 50;
+
+    private static final int ORGANIZATIONS = 10;
+
+    private static final int MEMBERS_PER_ORGANIZATION = 10;
+
+    private static final int PROJECTS_PER_ORGANIZATION = 5;
+
+    private static final int CHANGES_PER_PROJECT = 200;
+
+    private static final int CHANGE_PROPOSALS_PER_PROJECT = 2;
+
+    private static final int ACTIVITY_PER_PROJECT = 20;
+
+    private static final int NOTIFICATIONS_PER_ACCOUNT = 20;
+
+    private static final List<String> TOPICS = List.of("avionics", "railway", "energy", "robotics", "automotive", "medical", "simulation", "telecom");
+
+    private static final Instant ORIGIN = Instant.parse("2023-01-01T00:00:00Z");
+
+    private static final Duration PERIOD = Duration.ofDays(365);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Random random;
+
+    private long rowCount;
+
+    public SyntheticDatasetGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate);
+        this.random = new Random(seed);
+    }
+
+    public SyntheticDataset generate(int scale) {
+        this.rowCount = 0;
+
+        var accountIds = this.createAccounts(ACCOUNTS * scale);
+        var organizationIds = this.createOrganizations(ORGANIZATIONS * scale, accountIds);
+        var projectIds = this.createProjects(organizationIds, accountIds);
+        var leafChangeIds = this.createHistories(projectIds, accountIds);
+        this.createActivity(organizationIds, projectIds, accountIds);
+        this.createNotifications(accountIds);
+
+        return new SyntheticDataset(scale, this.rowCount, accountIds.get(0), organizationIds.get(0), projectIds.get(0), leafChangeIds.get(0));
+    }
+
+    private List<UUID> createAccounts(int count) {
+        var accountIds = new ArrayList<UUID>(count);
+        var accounts = new TableWriter("INSERT INTO account (id, role, username, name, email, created_on, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < count; i++) {
+            var id = this.nextId();
+            var createdOn = this.nextTimestamp();
+            accounts.add(id, "USER", "user" + i, "User " + i, "user" + i + "@example.org", createdOn, createdOn);
+            accountIds.add(id);
+        }
+        accounts.flush();
+        return accountIds;
+    }
+
+    private List<UUID> createOrganizations(int count, List<UUID> accountIds) {
+        var organizationIds = new ArrayList<UUID>(count);
+        var organizations = new TableWriter("INSERT INTO organization (id, identifier, name, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        var memberships = new TableWriter("INSERT INTO membership (id, organization_id, member_id, role, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", organizations);
+        for (int i = 0; i < count; i++) {
+            var id = this.nextId();
+            var createdBy = accountIds.get(i % accountIds.size());
+            var createdOn = this.nextTimestamp();
+            organizations.add(id, "organization" + i, this.nextTopic() + " organization " + i, createdBy, createdOn, createdBy, createdOn);
+
+            for (int j = 0; j < MEMBERS_PER_ORGANIZATION; j++) {
+                var memberId = accountIds.get((i + j) % accountIds.size());
+                var role = "MEMBER";
+                if (j == 0) {
+                    role = "ADMIN";
+                }
+                memberships.add(this.nextId(), id, memberId, role, createdBy, createdOn, createdBy, createdOn);
+            }
+            organizationIds.add(id);
+        }
+        organizations.flush();
+        memberships.flush();
+        return organizationIds;
+    }
+
+    private List<UUID> createProjects(List<UUID> organizationIds, List<UUID> accountIds) {
+        var projectIds = new ArrayList<UUID>(organizationIds.size() * PROJECTS_PER_ORGANIZATION);
+        var projects = new TableWriter("INSERT INTO project (id, identifier, name, description, read_me, organization_id, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (var organizationId : organizationIds) {
+            for (int i = 0; i < PROJECTS_PER_ORGANIZATION; i++) {
+                var id = this.nextId();
+                var index = projectIds.size();
+                var createdBy = this.nextElement(accountIds);
+                var createdOn = this.nextTimestamp();
+                var topic = this.nextTopic();
+                projects.add(id, "project" + index, topic + " project " + index, "The " + topic + " project " + index, "README", organizationId, createdBy, createdOn, createdBy, createdOn);
+                projectIds.add(id);
+            }
+        }
+        projects.flush();
+        return projectIds;
+    }
+
+    private List<UUID> createHistories(List<UUID> projectIds, List<UUID> accountIds) {
+        var leafChangeIds = new ArrayList<UUID>(projectIds.size());
+        var resources = new TableWriter("INSERT INTO resource (id, name, content, path, content_type, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        var changes = new TableWriter("INSERT INTO change (id, parent_id, name, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        var changeResources = new TableWriter("INSERT INTO change_resource (id, resource_id, change_id) VALUES (?, ?, ?)", resources, changes);
+        var changeProposals = new TableWriter("INSERT INTO change_proposal (id, name, read_me, status, project_id, change_id, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", changes);
+        for (var projectId : projectIds) {
+            UUID parentId = null;
+            var createdBy = this.nextElement(accountIds);
+            var createdOn = this.nextTimestamp();
+            for (int i = 0; i < CHANGES_PER_PROJECT; i++) {
+                var resourceId = this.nextId();
+                resources.add(resourceId, "model" + i + ".ecore", new byte[] { (byte) i }, "models", "TEXT_PLAIN", createdBy, createdOn, createdBy, createdOn);
+
+                var changeId = this.nextId();
+                changes.add(changeId, parentId, "Change " + i, createdBy, createdOn, createdBy, createdOn);
+                changeResources.add(this.nextId(), resourceId, changeId);
+                parentId = changeId;
+            }
+            leafChangeIds.add(parentId);
+
+            for (int i = 0; i < CHANGE_PROPOSALS_PER_PROJECT; i++) {
+                changeProposals.add(this.nextId(), "Change proposal " + i, "README", "OPEN", projectId, parentId, createdBy, createdOn, createdBy, createdOn);
+            }
+        }
+        resources.flush();
+        changes.flush();
+        changeResources.flush();
+        changeProposals.flush();
+        return leafChangeIds;
+    }
+
+    private void createActivity(List<UUID> organizationIds, List<UUID> projectIds, List<UUID> accountIds) {
+        var activity = new TableWriter("INSERT INTO activity (id, kind, title, description, created_by, created_on) VALUES (?, ?, ?, ?, ?, ?)");
+        var organizationActivity = new TableWriter("INSERT INTO organization_activity (organization_id, activity_id) VALUES (?, ?)", activity);
+        var projectActivity = new TableWriter("INSERT INTO project_activity (project_id, activity_id) VALUES (?, ?)", activity);
+        for (int i = 0; i < projectIds.size(); i++) {
+            var projectId = projectIds.get(i);
+            var organizationId = organizationIds.get(i / PROJECTS_PER_ORGANIZATION);
+            for (int j = 0; j < ACTIVITY_PER_PROJECT; j++) {
+                var id = this.nextId();
+                activity.add(id, "CHANGE_PROPOSAL_CREATED", "Change proposal created", "A change proposal has been created", this.nextElement(accountIds), this.nextTimestamp());
+                organizationActivity.add(organizationId, id);
+                projectActivity.add(projectId, id);
+            }
+        }
+        activity.flush();
+        organizationActivity.flush();
+        projectActivity.flush();
+    }
+
+    private void createNotifications(List<UUID> accountIds) {
+        var notifications = new TableWriter("INSERT INTO notification (id, title, owned_by, status, related_url, created_by, created_on, last_modified_by, last_modified_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (var accountId : accountIds) {
+            for (int i = 0; i < NOTIFICATIONS_PER_ACCOUNT; i++) {
+                var status = "READ";
+                if (i % 2 == 0) {
+                    status = "UNREAD";
+                }
+                var createdBy = this.nextElement(accountIds);
+                var createdOn = this.nextTimestamp();
+                notifications.add(this.nextId(), "Notification " + i, accountId, status, "/notifications", createdBy, createdOn, createdBy, createdOn);
+            }
+        }
+        notifications.flush();
+    }
+
+    private UUID nextId() {
+        return new UUID(this.random.nextLong(), this.random.nextLong());
+    }
+
+    private Timestamp nextTimestamp() {
+        return Timestamp.from(ORIGIN.plusSeconds((long) (this.random.nextDouble() * PERIOD.toSeconds())));
+    }
+
+    private String nextTopic() {
+        return this.nextElement(TOPICS);
+    }
+
+    private <T> T nextElement(List<T> elements) {
+        return elements.get(this.random.nextInt(elements.size()));
+    }
+
+    /**
+     * Used to insert the rows of a table by batches.
+     *
+     * <p>
+     * The writers of the tables referenced by the foreign keys of this table are flushed before each batch since a
+     * batch may be sent while some of the rows it references are still buffered.
+     * </p>
+     *
+     * @author sbegaudeau
+     */
+    private final class TableWriter {
+
+        private final String sql;
+
+        private final List<TableWriter> parents;
+
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        TableWriter(String sql, TableWriter... parents) {
+            this.sql = Objects.requireNonNull(sql);
+            this.parents = List.of(parents);
+        }
+
+        void add(Object... values) {
+            this.rows.add(values);
+            if (this.rows.size() == BATCH_SIZE) {
+                this.flush();
+            }
+        }
+
+        void flush() {
+            this.parents.forEach(TableWriter::flush);
+            if (!this.rows.isEmpty()) {
+                SyntheticDatasetGenerator.this.jdbcTemplate.batchUpdate(this.sql, this.rows);
+                SyntheticDatasetGenerator.this.rowCount += this.rows.size();
+                this.rows.clear();
+            }
+        }
+    }
+}
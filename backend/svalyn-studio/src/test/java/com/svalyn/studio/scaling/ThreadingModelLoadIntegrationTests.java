@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023 Stéphane Bégaudeau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.svalyn.studio.scaling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.svalyn.studio.AbstractIntegrationTests;
+import com.svalyn.studio.IntegrationTestConfiguration;
+import com.svalyn.studio.infrastructure.persistence.JDBCConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Used to compare the throughput and the latency of the server with platform threads and with virtual threads.
+ *
+ * <p>
+ * The server is started once for each threading model on a random port and many clients send the same GraphQL query,
+ * more than the number of Tomcat workers, for a fixed duration. The results are written in
+ * <code>target/threading-model-report.json</code>. It is only executed with <code>-Dsvalyn.load.enabled=true</code>,
+ * the number of clients and the duration can be changed with <code>svalyn.load.clients</code> and
+ * <code>svalyn.load.duration</code>.
+ * </p>
+ *
+ * @author sbegaudeau
+ */
+@EnabledIfSystemProperty(named = "svalyn.load.enabled", matches = "true")
+@SuppressWarnings("checkstyle:MethodName")
+public class ThreadingModelLoadIntegrationTests {
+
+    private static final String USERNAME = "johndoe";
+
+    private static final String PASSWORD = "password";
+
+    private static final String JOHN_DOE_ID = "7ba7bda7-13b9-422a-838b-e45a3597e952";
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private static final String QUERY = """
+            query getOrganization {
+              viewer {
+                organization(identifier: "mockorganization") {
+                  identifier
+                  name
+                  role
+                  projects(page: 0, rowsPerPage: 20) { edges { node { identifier name } } }
+                  memberships(page: 0, rowsPerPage: 20) { edges { node { id } } }
+                  tags(page: 0, rowsPerPage: 20) { edges { node { key value } } }
+                }
+              }
+            }
+            """;
+
+    private final Logger logger = LoggerFactory.getLogger(ThreadingModelLoadIntegrationTests.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Given both threading models, when the server is under load, then their throughput and latency are reported")
+    public void givenBothThreadingModels_whenTheServerIsUnderLoad_thenTheirThroughputAndLatencyAreReported() throws IOException, InterruptedException {
+        var clients = Integer.getInteger("svalyn.load.clients", 400);
+        var duration = Duration.ofSeconds(Integer.getInteger("svalyn.load.duration", 30));
+
+        List<LoadResult> results = new ArrayList<>();
+        for (var virtualThreads : List.of(false, true)) {
+            try (var applicationContext = this.start(virtualThreads)) {
+                this.initialize(applicationContext.getBean(DataSource.class));
+                try {
+                    var port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+                    var baseUri = URI.create("http://localhost:" + port);
+                    var httpClient = this.login(baseUri);
+
+                    this.load(httpClient, baseUri, clients, WARMUP, virtualThreads);
+                    var result = this.load(httpClient, baseUri, clients, duration, virtualThreads);
+                    this.logger.info("{}: {} requests/s, p50 {} ms, p99 {} ms, {} errors", result.threadingModel(), String.format("%.1f", result.throughput()),
+                            String.format("%.1f", result.p50Millis()), String.format("%.1f", result.p99Millis()), result.errorCount());
+                    results.add(result);
+                } finally {
+                    new ResourceDatabasePopulator(new ClassPathResource("scripts/cleanup.sql")).execute(applicationContext.getBean(DataSource.class));
+                }
+            }
+        }
+
+        var reportPath = Path.of("target", "threading-model-report.json");
+        Files.createDirectories(reportPath.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), new LoadReport(clients, duration.toSeconds(), results));
+
+        assertThat(results).hasSize(2).allMatch(result -> result.requestCount() > 0);
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(IntegrationTestConfiguration.class, JDBCConfiguration.class)
+                .properties(Map.ofEntries(
+                        Map.entry("server.port", 0),
+                        Map.entry("spring.datasource.url", AbstractIntegrationTests.POSTGRESQL_CONTAINER.getJdbcUrl()),
+                        Map.entry("spring.datasource.username", AbstractIntegrationTests.POSTGRESQL_CONTAINER.getUsername()),
+                        Map.entry("spring.datasource.password", AbstractIntegrationTests.POSTGRESQL_CONTAINER.getPassword()),
+                        Map.entry("spring.kafka.bootstrap-servers", AbstractIntegrationTests.KAFKA_CONTAINER.getBootstrapServers()),
+                        Map.entry("spring.kafka.producer.bootstrap-servers", AbstractIntegrationTests.KAFKA_CONTAINER.getBootstrapServers()),
+                        Map.entry("svalyn.threads.virtual.enabled", virtualThreads),
+                        Map.entry("svalyn.graphql.resolvers.concurrent", true),
+                        Map.entry("svalyn.graphql.concurrency.initial-limit", 10_000),
+                        Map.entry("svalyn.graphql.concurrency.minimum-limit", 10_000),
+                        Map.entry("svalyn.graphql.concurrency.maximum-limit", 10_000),
+                        Map.entry("svalyn.rate-limits.user.operations.capacity", 1_000_000_000),
+                        Map.entry("svalyn.rate-limits.user.operations.per-second", 1_000_000_000)))
+                .run();
+    }
+
+    private void initialize(DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource("scripts/cleanup.sql"), new ClassPathResource("scripts/initialize.sql")).execute(dataSource);
+        var password = new BCryptPasswordEncoder().encode(PASSWORD);
+        new JdbcTemplate(dataSource).update("""
+                INSERT INTO password_credentials (password, active, account_id, created_on, last_modified_on)
+                VALUES (?, true, ?::uuid, now(), now())
+                """, password, JOHN_DOE_ID);
+    }
+
+    private HttpClient login(URI baseUri) throws IOException, InterruptedException {
+        var httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        var request = HttpRequest.newBuilder(baseUri.resolve("/api/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + USERNAME + "&password=" + PASSWORD))
+                .build();
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return httpClient;
+    }
+
+    private LoadResult load(HttpClient httpClient, URI baseUri, int clients, Duration duration, boolean virtualThreads) throws IOException {
+        var body = this.objectMapper.writeValueAsString(Map.of("query", QUERY));
+        var request = HttpRequest.newBuilder(baseUri.resolve("/api/graphql"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var errorCount = new LongAdder();
+        var startedOn = System.nanoTime();
+        var endsOn = startedOn + duration.toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < endsOn) {
+                        var requestStartedOn = System.nanoTime();
+                        try {
+                            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() == 200 && !response.body().contains("\"errors\"")) {
+                                latencies.add(System.nanoTime() - requestStartedOn);
+                            } else {
+                                errorCount.increment();
+                            }
+                        } catch (IOException exception) {
+                            errorCount.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        var elapsedSeconds = (System.nanoTime() - startedOn) / 1_000_000_000.0;
+
+        var sortedLatencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        var threadingModel = "platform threads";
+        if (virtualThreads) {
+            threadingModel = "virtual threads";
+        }
+        return new LoadResult(threadingModel, sortedLatencies.length, errorCount.sum(), sortedLatencies.length / elapsedSeconds,
+                this.percentile(sortedLatencies, 0.5), this.percentile(sortedLatencies, 0.99));
+    }
+
+    private double percentile(long[] sortedLatencies, double percentile) {
+        var value = 0.0;
+        if (sortedLatencies.length > 0) {
+            var index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(sortedLatencies.length * percentile) - 1);
+            value = sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+        return value;
+    }
+
+    /**
+     * The report of the comparison of the threading models.
+     *
+     * @author sbegaudeau
+     */
+    private record LoadReport(int clients, long durationSeconds, List<LoadResult> results) {
+    }
+
+    /**
+     * The throughput and the latency of the server with a threading model.
+     *
+     * @author sbegaudeau
+     */
+    private record LoadResult(String threadingModel, long requestCount, long errorCount, double throughput, double p50Millis, double p99Millis) {
+    }
+}
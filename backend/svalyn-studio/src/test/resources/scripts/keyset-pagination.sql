@@ -0,0 +1,23 @@
+INSERT INTO project (id, identifier, name, description, read_me, organization_id, created_by, created_on, last_modified_by, last_modified_on) VALUES
+('0b5bcde2-1a08-4c5c-9f2f-2a4e1d2f6b11', 'secondproject', 'Second Project', 'Project description', 'README', 'a9261e91-fb20-4d48-8731-d5297e441315', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-10-07 23:22:18.863949', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-10-07 23:22:18.863949'),
+('5d3e7a41-7c42-4e55-8f6c-64c4b1ad9b22', 'thirdproject', 'Third Project', 'Project description', 'README', 'a9261e91-fb20-4d48-8731-d5297e441315', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-10-08 23:22:18.863949', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-10-08 23:22:18.863949');
+
+INSERT INTO notification (id, title, status, related_url, owned_by, created_by, created_on, last_modified_by, last_modified_on) VALUES
+('8c2f4e6a-39b1-4d2e-a3f5-0d7c9b1e2a01', 'First notification', 'UNREAD', '/projects/mockproject', '7ba7bda7-13b9-422a-838b-e45a3597e952', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-01 10:00:00.000', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-01 10:00:00.000'),
+('8c2f4e6a-39b1-4d2e-a3f5-0d7c9b1e2a02', 'Second notification', 'UNREAD', '/projects/mockproject', '7ba7bda7-13b9-422a-838b-e45a3597e952', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-02 10:00:00.000', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-02 10:00:00.000'),
+('8c2f4e6a-39b1-4d2e-a3f5-0d7c9b1e2a03', 'Third notification', 'UNREAD', '/projects/mockproject', '7ba7bda7-13b9-422a-838b-e45a3597e952', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-03 10:00:00.000', '1116f75f-2ceb-43cf-b6a6-c11dabbc5977', '2022-11-03 10:00:00.000');
+
+INSERT INTO activity (id, kind, title, description, created_by, created_on) VALUES
+('d4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d01', 'PROJECT_CREATED', 'First activity', 'Description', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-11-01 10:00:00.000'),
+('d4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d02', 'PROJECT_CREATED', 'Second activity', 'Description', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-11-02 10:00:00.000'),
+('d4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d03', 'PROJECT_CREATED', 'Third activity', 'Description', '7ba7bda7-13b9-422a-838b-e45a3597e952', '2022-11-03 10:00:00.000');
+
+INSERT INTO organization_activity (organization_id, activity_id) VALUES
+('a9261e91-fb20-4d48-8731-d5297e441315', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d01'),
+('a9261e91-fb20-4d48-8731-d5297e441315', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d02'),
+('a9261e91-fb20-4d48-8731-d5297e441315', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d03');
+
+INSERT INTO project_activity (project_id, activity_id) VALUES
+('c0167908-8030-4679-a855-c057012ef27c', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d01'),
+('c0167908-8030-4679-a855-c057012ef27c', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d02'),
+('c0167908-8030-4679-a855-c057012ef27c', 'd4a1c3e5-6f7b-4a8c-9d0e-1f2a3b4c5d03');